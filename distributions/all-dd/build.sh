@@ -33,6 +33,7 @@ prepare_plugin dd-cacbdd
 prepare_plugin dd-cudd
 prepare_plugin dd-cudd-mtbdd
 prepare_plugin dd-jdd
+prepare_plugin dd-java-mtbdd
 prepare_plugin dd-meddly
 prepare_plugin dd-sylvan
 prepare_plugin dd-sylvan-mtbdd
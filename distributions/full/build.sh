@@ -37,6 +37,7 @@ prepare_plugin dd-cacbdd
 prepare_plugin dd-cudd
 prepare_plugin dd-cudd-mtbdd
 prepare_plugin dd-jdd
+prepare_plugin dd-java-mtbdd
 prepare_plugin dd-sylvan
 prepare_plugin automaton-determinisation
 prepare_plugin jani-exporter
@@ -44,6 +44,17 @@ public interface StateMap extends Closeable, Cloneable {
 
     StateMap clone();
 
+    /**
+     * Create an independent copy of this state map.
+     * Unlike {@link #clone()}, which only obtains a further reference to the
+     * same object, the result does not share any mutable state with this
+     * state map, so that changes to either of them do not affect the other.
+     * The copy has to be closed separately.
+     * 
+     * @return independent copy of this state map
+     */
+    StateMap copy();
+
     Value applyOver(Operator operator, StateSet over);
 
     boolean isConstant();
@@ -26,6 +26,7 @@ import java.io.Closeable;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -53,8 +54,6 @@ import epmc.value.Value;
 
 // TODO complete documentation
 
-// TODO could optionally construct graph for all properties together
-
 /**
  * Class to check the properties of a model.
  * The model checker will check all properties obtained by
@@ -73,6 +72,16 @@ public final class ModelChecker implements Closeable {
     private final Engine engine;
     /** Current low-level instantiation of the model used. */
     private LowLevel lowLevel;
+    /** Whether to use one low-level model for all properties checked. */
+    private final boolean sharedLowLevel;
+    /** Graph properties the shared low-level model provides. */
+    private final Set<Object> sharedGraphProperties = new LinkedHashSet<>();
+    /** Node properties the shared low-level model provides. */
+    private final Set<Object> sharedNodeProperties = new LinkedHashSet<>();
+    /** Edge properties the shared low-level model provides. */
+    private final Set<Object> sharedEdgeProperties = new LinkedHashSet<>();
+    /** Cache of subformula results, or {@code null} if disabled. */
+    private final SubformulaCache subformulaCache;
     /** Whether the model checker has already been closed. */
     private boolean closed;
 
@@ -89,6 +98,10 @@ public final class ModelChecker implements Closeable {
         engine = UtilOptions.getSingletonInstance(options,
                 OptionsModelChecker.ENGINE);
         solvers = preparePropertySolvers(options);
+        sharedLowLevel = options.getBoolean(OptionsModelChecker.SHARED_LOW_LEVEL);
+        int subformulaCacheSize = options.getInteger(OptionsModelChecker.SUBFORMULA_CACHE_SIZE);
+        subformulaCache = subformulaCacheSize > 0
+                ? new SubformulaCache(subformulaCacheSize) : null;
     }
 
     /**
@@ -171,38 +184,89 @@ public final class ModelChecker implements Closeable {
     public void check() {
         long time = System.nanoTime();
         getLog().send(MessagesModelChecker.MODEL_CHECKING);
-        boolean hasProperties = false;
-        if (model.getPropertyList() != null) {
-            for (RawProperty property : model.getPropertyList().getRawProperties()) {
-                String propString;
-                propString = property.getName();
-                List<String> propertyNames = Options.get().getStringList(OptionsEPMC.PROPERTY_INPUT_NAMES);
-                // only check specified properties
-                if(propertyNames != null && propertyNames.size() > 0 && !propertyNames.contains(propString)) {
-                	continue;
-                }
-                hasProperties = true;
-                if (propString == null) {
-                    propString = property.getDefinition();
-                }
-                getLog().send(MessagesModelChecker.ANALYSING_PROPERTY, propString);
-                Expression expression = model.getPropertyList().getParsedProperty(property);
-                ModelCheckerResult propRes = null;
-                try {
-                    propRes = checkProperty(property, expression);
-                } catch (EPMCException e) {
-                    propRes = new ModelCheckerResult(property, e);
-                }
-                getLog().send(propRes);
+        List<RawProperty> properties = collectProperties();
+        if (sharedLowLevel && properties.size() > 1) {
+            collectSharedRequirements(properties);
+        }
+        for (RawProperty property : properties) {
+            String propString = property.getName();
+            if (propString == null) {
+                propString = property.getDefinition();
+            }
+            getLog().send(MessagesModelChecker.ANALYSING_PROPERTY, propString);
+            Expression expression = model.getPropertyList().getParsedProperty(property);
+            ModelCheckerResult propRes = null;
+            try {
+                propRes = checkProperty(property, expression);
+            } catch (EPMCException e) {
+                propRes = new ModelCheckerResult(property, e);
             }
+            getLog().send(propRes);
+        }
+        if (subformulaCache != null) {
+            getLog().send(MessagesModelChecker.SUBFORMULA_CACHE,
+                    subformulaCache.getNumHits(),
+                    subformulaCache.getNumMisses(),
+                    subformulaCache.getNumEvictions());
         }
         time = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - time);
-        if(! hasProperties) {
+        if (properties.isEmpty()) {
         	System.out.println("No property has been specified");
         }
         getLog().send(MessagesModelChecker.MODEL_CHECKING_DONE, time);
     }
 
+    /**
+     * Collect the properties of the model to be checked.
+     * If {@link OptionsEPMC#PROPERTY_INPUT_NAMES} is set, only the properties
+     * with the names given there are collected.
+     * 
+     * @return properties to be checked
+     */
+    private List<RawProperty> collectProperties() {
+        List<RawProperty> result = new ArrayList<>();
+        if (model.getPropertyList() == null) {
+            return result;
+        }
+        List<String> propertyNames = Options.get().getStringList(OptionsEPMC.PROPERTY_INPUT_NAMES);
+        for (RawProperty property : model.getPropertyList().getRawProperties()) {
+            String propString = property.getName();
+            // only check specified properties
+            if (propertyNames != null && propertyNames.size() > 0 && !propertyNames.contains(propString)) {
+                continue;
+            }
+            result.add(property);
+        }
+        return result;
+    }
+
+    /**
+     * Collect the requirements of the given properties on the low-level model.
+     * The union of the graph, node, and edge properties required is stored,
+     * such that the shared low-level model built for the first property
+     * checked suffices for all of them. Properties for which no solver is
+     * available are skipped here; the problem is reported when they are
+     * checked.
+     * The properties parameter must not be {@code null}.
+     * 
+     * @param properties properties to collect requirements of
+     */
+    private void collectSharedRequirements(List<RawProperty> properties) {
+        assert properties != null;
+        for (RawProperty property : properties) {
+            try {
+                Expression expression = model.getPropertyList().getParsedProperty(property);
+                PropertySolver solver = getSolverFor(expression, null);
+                sharedGraphProperties.addAll(solver.getRequiredGraphProperties());
+                sharedNodeProperties.addAll(solver.getRequiredNodeProperties());
+                sharedEdgeProperties.addAll(solver.getRequiredEdgeProperties());
+            } catch (EPMCException e) {
+                continue;
+            }
+        }
+        getLog().send(MessagesModelChecker.BUILDING_SHARED_LOW_LEVEL, properties.size());
+    }
+
     /**
      * Prepare low-level model usable to check the given property.
      * Low-level models are property-dependent, because for efficiency, certain
@@ -222,6 +286,42 @@ public final class ModelChecker implements Closeable {
         return lowLevel = UtilModelChecker.buildLowLevel(model, graphProperties, nodeProperties, edgeProperties);
     }
 
+    /**
+     * Prepare low-level model shared between properties.
+     * The low-level model built for previous properties is reused if it
+     * provides all graph, node, and edge properties required to check the
+     * given property. Otherwise, it is replaced by a low-level model providing
+     * the union of the properties required so far.
+     * The property parameter must not be {@code null}.
+     * 
+     * @param property property to prepare low-level model for
+     * @return low-level model suitable for checking the given property
+     */
+    private LowLevel prepareSharedLowLevel(Expression property) {
+        assert property != null;
+        PropertySolver solver = getSolverFor(property, null);
+        Set<Object> graphProperties = solver.getRequiredGraphProperties();
+        Set<Object> nodeProperties = solver.getRequiredNodeProperties();
+        Set<Object> edgeProperties = solver.getRequiredEdgeProperties();
+        if (lowLevel != null
+                && sharedGraphProperties.containsAll(graphProperties)
+                && sharedNodeProperties.containsAll(nodeProperties)
+                && sharedEdgeProperties.containsAll(edgeProperties)) {
+            return lowLevel;
+        }
+        if (lowLevel != null) {
+            getLog().send(MessagesModelChecker.EXTENDING_SHARED_LOW_LEVEL, property);
+            closeLowLevel();
+        }
+        sharedGraphProperties.addAll(graphProperties);
+        sharedNodeProperties.addAll(nodeProperties);
+        sharedEdgeProperties.addAll(edgeProperties);
+        return lowLevel = UtilModelChecker.buildLowLevel(model,
+                new LinkedHashSet<>(sharedGraphProperties),
+                new LinkedHashSet<>(sharedNodeProperties),
+                new LinkedHashSet<>(sharedEdgeProperties));
+    }
+
     /**
      * Check the given property.
      * In contrast to {@link #check(Expression, StateSet)},
@@ -231,7 +331,8 @@ public final class ModelChecker implements Closeable {
      * This method already returns a single value, rather than a map from states
      * to values.
      * The method also prepares the low-level model to be used for the given
-     * property.
+     * property, or reuses the shared one if
+     * {@link OptionsModelChecker#SHARED_LOW_LEVEL} is set.
      * The property parameter must not be {@code null}.
      * 
      * @param expression property to be checked
@@ -240,11 +341,12 @@ public final class ModelChecker implements Closeable {
     private ModelCheckerResult checkProperty(RawProperty property, Expression expression) {
         assert property != null;
         assert expression != null;
-        if (lowLevel != null) {
-            lowLevel.close();
-            lowLevel = null;
+        if (sharedLowLevel) {
+            lowLevel = prepareSharedLowLevel(expression);
+        } else {
+            closeLowLevel();
+            lowLevel = prepareLowLevel(expression);
         }
-        lowLevel = prepareLowLevel(expression);
 
         StateMap stateMap = check(expression, lowLevel.newInitialStateSet());
         Value value = stateMap.subsumeResult(lowLevel.newInitialStateSet());
@@ -260,6 +362,10 @@ public final class ModelChecker implements Closeable {
      * In contrast to {@link #checkProperty(Expression)}, this property does
      * not prepare the low-level model for the property and returns values
      * for each state it should compute results for.
+     * If {@link OptionsModelChecker#SUBFORMULA_CACHE_SIZE} is positive,
+     * results already computed for the same property and states on the
+     * current low-level model are reused. In any case, the caller is
+     * responsible for closing the result returned.
      * The property and states parameters must not be {@code null}.
      * 
      * @param property property to be checked
@@ -269,13 +375,23 @@ public final class ModelChecker implements Closeable {
     public StateMap check(Expression property, StateSet states) {
         assert property != null;
         assert states != null;
+        if (subformulaCache != null) {
+            StateMap cached = subformulaCache.get(property, states, lowLevel);
+            if (cached != null) {
+                return cached;
+            }
+        }
         for (Class<? extends PropertySolver> solverClass : solvers) {
             PropertySolver solver = Util.getInstance(solverClass);
             solver.setModelChecker(this);
             solver.setProperty(property);
             solver.setForStates(states);
             if (solver.canHandle()) {
-                return solver.solve();
+                StateMap result = solver.solve();
+                if (subformulaCache != null) {
+                    subformulaCache.put(property, states, lowLevel, result);
+                }
+                return result;
             }
         }
         fail(ProblemsModelChecker.NO_SOLVER_AVAILABLE, property);
@@ -394,7 +510,17 @@ public final class ModelChecker implements Closeable {
             return;
         }
         closed = true;
+        closeLowLevel();
+    }
 
+    /**
+     * Close the current low-level model, if any.
+     * Cached subformula results computed on this model are released before.
+     */
+    private void closeLowLevel() {
+        if (subformulaCache != null) {
+            subformulaCache.clear();
+        }
         if (lowLevel != null) {
             lowLevel.close();
             lowLevel = null;
@@ -0,0 +1,205 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.modelchecker;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import epmc.expression.Expression;
+import epmc.graph.LowLevel;
+import epmc.graph.StateMap;
+import epmc.graph.StateSet;
+
+/**
+ * Cache of results of subformulas computed by a {@link ModelChecker}.
+ * Results are identified by the expression checked, the set of states the
+ * result was computed for, and the low-level model used. As expressions
+ * ignore positional information in their comparison, the same subformula
+ * occurring at different places of a property or in different properties is
+ * only computed once.
+ * State maps may be modified in place by their users, and contain auxiliary
+ * values used while operating on them. The cache therefore stores a copy of
+ * each result, obtained by {@link StateMap#copy()}, and hands out further
+ * copies to its users, rather than sharing references obtained by
+ * {@link StateMap#clone()}. Its own copy is closed when the result is
+ * evicted, which happens in least-recently-used order once the maximal
+ * number of results has been reached, or when the cache is cleared or
+ * closed.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+final class SubformulaCache implements Closeable {
+    /**
+     * Key of a cached result.
+     * State sets do not provide a hash code, so that only the expression and
+     * the low-level model are used to compute it.
+     */
+    private final static class Key {
+        /** Expression of which the result was computed. */
+        private final Expression expression;
+        /** States for which the result was computed. */
+        private final StateSet states;
+        /** Low-level model used to compute the result. */
+        private final LowLevel lowLevel;
+
+        Key(Expression expression, StateSet states, LowLevel lowLevel) {
+            assert expression != null;
+            assert states != null;
+            this.expression = expression;
+            this.states = states;
+            this.lowLevel = lowLevel;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 0;
+            hash = expression.hashCode() + (hash << 6) + (hash << 16) - hash;
+            hash = System.identityHashCode(lowLevel) + (hash << 6) + (hash << 16) - hash;
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return lowLevel == other.lowLevel
+                    && expression.equals(other.expression)
+                    && states.equals(other.states);
+        }
+    }
+
+    /** Map from keys to cached results in least-recently-used order. */
+    private final LinkedHashMap<Key,StateMap> results;
+    /** Maximal number of results to be stored. */
+    private final int maxSize;
+    /** Number of requests answered from the cache. */
+    private long numHits;
+    /** Number of requests which could not be answered from the cache. */
+    private long numMisses;
+    /** Number of results removed to respect the maximal cache size. */
+    private long numEvictions;
+
+    /**
+     * Create new subformula cache.
+     * The maximal size parameter must be positive.
+     * 
+     * @param maxSize maximal number of results to be stored
+     */
+    SubformulaCache(int maxSize) {
+        assert maxSize > 0;
+        this.maxSize = maxSize;
+        this.results = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Obtain cached result.
+     * If a result is available, a new copy of it is returned, which has to
+     * be closed by the caller as it would for a newly computed one.
+     * If no result is available, {@code null} is returned.
+     * The expression and states parameters must not be {@code null}.
+     * 
+     * @param expression expression of which to obtain the result
+     * @param states states for which the result is required
+     * @param lowLevel low-level model for which to obtain result
+     * @return cached result, or {@code null}
+     */
+    StateMap get(Expression expression, StateSet states, LowLevel lowLevel) {
+        assert expression != null;
+        assert states != null;
+        StateMap result = results.get(new Key(expression, states, lowLevel));
+        if (result == null) {
+            numMisses++;
+            return null;
+        }
+        numHits++;
+        return result.copy();
+    }
+
+    /**
+     * Store a result in the cache.
+     * The cache stores a copy of the result, so that the caller remains
+     * responsible for the result it passes and may continue to modify it.
+     * If the maximal number of results is exceeded, the least recently used
+     * result is removed.
+     * None of the parameters may be {@code null}.
+     * 
+     * @param expression expression of which the result was computed
+     * @param states states for which the result was computed
+     * @param lowLevel low-level model used to compute the result
+     * @param result result to store
+     */
+    void put(Expression expression, StateSet states, LowLevel lowLevel, StateMap result) {
+        assert expression != null;
+        assert states != null;
+        assert result != null;
+        Key key = new Key(expression, states.clone(), lowLevel);
+        StateMap previous = results.put(key, result.copy());
+        if (previous != null) {
+            key.states.close();
+            previous.close();
+        }
+        Iterator<Map.Entry<Key,StateMap>> iterator = results.entrySet().iterator();
+        while (results.size() > maxSize) {
+            Map.Entry<Key,StateMap> eldest = iterator.next();
+            iterator.remove();
+            close(eldest);
+            numEvictions++;
+        }
+    }
+
+    /**
+     * Remove all results from the cache.
+     * This method must be called before the low-level model for which
+     * results have been stored is closed.
+     */
+    void clear() {
+        for (Map.Entry<Key,StateMap> entry : results.entrySet()) {
+            close(entry);
+        }
+        results.clear();
+    }
+
+    long getNumHits() {
+        return numHits;
+    }
+
+    long getNumMisses() {
+        return numMisses;
+    }
+
+    long getNumEvictions() {
+        return numEvictions;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    private static void close(Map.Entry<Key,StateMap> entry) {
+        entry.getKey().states.close();
+        entry.getValue().close();
+    }
+}
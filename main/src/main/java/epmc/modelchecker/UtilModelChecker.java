@@ -33,6 +33,7 @@ import epmc.modelchecker.error.ProblemsModelChecker;
 import epmc.modelchecker.options.OptionsModelChecker;
 import epmc.options.OptionTypeBoolean;
 import epmc.options.OptionTypeConstList;
+import epmc.options.OptionTypeIntegerNonNegative;
 import epmc.options.OptionTypeMap;
 import epmc.options.OptionTypeStringListSubset;
 import epmc.options.Options;
@@ -130,6 +131,18 @@ public final class UtilModelChecker {
         .setBundleName(OptionsModelChecker.OPTIONS_MODEL_CHECKER)
         .setType(OptionTypeBoolean.getInstance())
         .setCommandLine().setGui().setWeb().build();
+
+        options.addOption().setIdentifier(OptionsModelChecker.SHARED_LOW_LEVEL)
+        .setBundleName(OptionsModelChecker.OPTIONS_MODEL_CHECKER)
+        .setType(OptionTypeBoolean.getInstance())
+        .setDefault(false)
+        .setCommandLine().setGui().setWeb().build();
+
+        options.addOption().setIdentifier(OptionsModelChecker.SUBFORMULA_CACHE_SIZE)
+        .setBundleName(OptionsModelChecker.OPTIONS_MODEL_CHECKER)
+        .setType(OptionTypeIntegerNonNegative.getInstance())
+        .setDefault(0)
+        .setCommandLine().setGui().setWeb().build();
     }
 
     public static LowLevel buildLowLevel(
@@ -36,6 +36,12 @@ public final class MessagesModelChecker {
     public final static Message MODEL_CHECKING = newMessage().setIdentifier("model-checking").build();
     /** A given property is going to be analysed. */
     public final static Message ANALYSING_PROPERTY = newMessage().setIdentifier("analysing-property").build();
+    /** A low-level model for several properties is going to be built. */
+    public final static Message BUILDING_SHARED_LOW_LEVEL = newMessage().setIdentifier("building-shared-low-level").build();
+    /** The shared low-level model has to be rebuilt for a given property. */
+    public final static Message EXTENDING_SHARED_LOW_LEVEL = newMessage().setIdentifier("extending-shared-low-level").build();
+    /** Statistics of the cache of subformula results. */
+    public final static Message SUBFORMULA_CACHE = newMessage().setIdentifier("subformula-cache").build();
     /** Model checking finished. */
     public final static Message MODEL_CHECKING_DONE = newMessage().setIdentifier("model-checking-done").build();
 
@@ -51,4 +51,14 @@ public enum OptionsModelChecker {
     MODEL_INPUT_TYPE,
 
     COMPUTE_SCHEDULER,
+    /**
+     * Whether to build one low-level model for all properties checked
+     * rather than one for each property {@link Boolean}.
+     */
+    SHARED_LOW_LEVEL,
+    /**
+     * Maximal number of subformula results kept for reuse, or zero to
+     * disable caching of such results {@link Integer}.
+     */
+    SUBFORMULA_CACHE_SIZE,
 }
@@ -104,6 +104,25 @@ public final class UtilPlugin {
         List<String> plugins = getPluginList(options);
         assert plugins != null;
         List<Class<? extends PluginInterface>> pluginClasses = loadPlugins(plugins);
+        loadPlugins(options, pluginClasses);
+    }
+
+    /**
+     * Prepare options using plugin classes which have already been loaded.
+     * In contrast to {@link #loadPlugins(Options)}, the plugins are not
+     * loaded again, but the plugin classes given are stored in the options
+     * and their {@link AfterOptionsCreation} classes are executed.
+     * This way, processes executing several tasks using the same plugins,
+     * such as the analysis servers of the JANI interaction plugin, only
+     * have to load the plugins once.
+     * None of the parameters may be {@code null}.
+     * 
+     * @param options options to prepare
+     * @param pluginClasses plugin classes obtained by {@link #loadPlugins(List)}
+     */
+    public static void loadPlugins(Options options, List<Class<? extends PluginInterface>> pluginClasses) {
+        assert options != null;
+        assert pluginClasses != null;
         options.set(OptionsPlugin.PLUGIN_INTERFACE_CLASS, pluginClasses);
 
         for (Class<? extends AfterOptionsCreation> clazz : getPluginInterfaceClasses(options, AfterOptionsCreation.class)) {
@@ -170,7 +189,7 @@ public final class UtilPlugin {
      * @param options options to read plugin list from
      * @return list of external plugins
      */
-    private static List<String> getPluginList(Options options) {
+    public static List<String> getPluginList(Options options) {
         assert options != null;
         List<String> result = new ArrayList<>();
 
@@ -30,7 +30,7 @@ import com.google.common.collect.Lists;
 
 import epmc.operator.Operator;
 
-import static epmc.error.UtilError.ensure;
+import static epmc.error.UtilError.fail;
 
 /**
  * Value context.
@@ -127,13 +127,56 @@ public final class ContextValue {
         assert factory != null;
         operatorEvaluatorFactories.add(factory);
     }
-    
+
+    public OperatorEvaluator getEvaluator(Operator operator, Type type) {
+        OperatorEvaluator result = getEvaluatorOrNull(operator, type);
+        if (result == null) {
+            fail(ProblemsValue.OPTIONS_NO_OPERATOR_AVAILABLE, operator, Arrays.toString(new Type[]{type}));
+        }
+        return result;
+    }
+
+    public OperatorEvaluator getEvaluator(Operator operator, Type type1, Type type2) {
+        OperatorEvaluator result = getEvaluatorOrNull(operator, type1, type2);
+        if (result == null) {
+            fail(ProblemsValue.OPTIONS_NO_OPERATOR_AVAILABLE, operator, Arrays.toString(new Type[]{type1, type2}));
+        }
+        return result;
+    }
+
     public OperatorEvaluator getEvaluator(Operator operator, Type...types) {
         OperatorEvaluator result = getEvaluatorOrNull(operator, types);
-        ensure(result != null, ProblemsValue.OPTIONS_NO_OPERATOR_AVAILABLE, operator, Arrays.toString(types));
+        if (result == null) {
+            fail(ProblemsValue.OPTIONS_NO_OPERATOR_AVAILABLE, operator, Arrays.toString(types));
+        }
         return result;
     }
 
+    public OperatorEvaluator getEvaluatorOrNull(Operator operator, Type type) {
+        assert operator != null;
+        assert type != null;
+        for (OperatorEvaluatorFactory factory : operatorEvaluatorFactoriesReversed) {
+            OperatorEvaluator evaluator = factory.getEvaluator(operator, type);
+            if (evaluator != null) {
+                return evaluator;
+            }
+        }
+        return null;
+    }
+
+    public OperatorEvaluator getEvaluatorOrNull(Operator operator, Type type1, Type type2) {
+        assert operator != null;
+        assert type1 != null;
+        assert type2 != null;
+        for (OperatorEvaluatorFactory factory : operatorEvaluatorFactoriesReversed) {
+            OperatorEvaluator evaluator = factory.getEvaluator(operator, type1, type2);
+            if (evaluator != null) {
+                return evaluator;
+            }
+        }
+        return null;
+    }
+
     public OperatorEvaluator getEvaluatorOrNull(Operator operator, Type...types) {
         assert operator != null;
         assert types != null;
@@ -4,4 +4,31 @@ import epmc.operator.Operator;
 
 public interface OperatorEvaluatorFactory {
     public OperatorEvaluator getEvaluator(Operator operator, Type...types);
+
+    /**
+     * Obtain an evaluator for a unary operator.
+     * Factories may override this method to avoid allocating an array of
+     * operand types on each request.
+     * 
+     * @param operator operator to obtain evaluator for
+     * @param type operand type
+     * @return evaluator, or {@code null} if none is available
+     */
+    default OperatorEvaluator getEvaluator(Operator operator, Type type) {
+        return getEvaluator(operator, new Type[]{type});
+    }
+
+    /**
+     * Obtain an evaluator for a binary operator.
+     * Factories may override this method to avoid allocating an array of
+     * operand types on each request.
+     * 
+     * @param operator operator to obtain evaluator for
+     * @param type1 first operand type
+     * @param type2 second operand type
+     * @return evaluator, or {@code null} if none is available
+     */
+    default OperatorEvaluator getEvaluator(Operator operator, Type type1, Type type2) {
+        return getEvaluator(operator, new Type[]{type1, type2});
+    }
 }
@@ -24,4 +24,18 @@ import epmc.util.BitSet;
 
 public interface EndComponents {
     public BitSet next();
+
+    /**
+     * Obtain the nodes of the next component.
+     * The nodes are written to the beginning of the array given, which must
+     * be large enough to contain all nodes of the graph. In contrast to
+     * {@link #next()}, no bit set is created for the component. Components
+     * are returned in the same order as by {@link #next()}, such that for
+     * strongly connected components, a component is returned before all
+     * components from which it can be reached.
+     * 
+     * @param nodes array to store nodes of the component in
+     * @return number of nodes of the component, or -1 if no further component
+     */
+    public int nextNodes(int[] nodes);
 }
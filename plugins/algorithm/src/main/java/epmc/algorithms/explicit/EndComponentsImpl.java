@@ -156,6 +156,18 @@ public class EndComponentsImpl implements EndComponents {
         return result;
     }
 
+    @Override
+    public int nextNodes(int[] nodes) {
+        assert nodes != null;
+        computeNextComponent();
+        if (!hasNext) {
+            return -1;
+        }
+        assert nodes.length >= sccSize : nodes.length + " " + sccSize;
+        System.arraycopy(scc, 0, nodes, 0, sccSize);
+        return sccSize;
+    }
+
     private void tarjan() {
         while (!hasNext && tjCallStackIndex >= 0) {
             int numSucc = graph.getNumSuccessors(tjNode);
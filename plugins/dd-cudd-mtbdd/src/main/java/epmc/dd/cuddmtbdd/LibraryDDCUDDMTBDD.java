@@ -345,6 +345,9 @@ public final class LibraryDDCUDDMTBDD implements LibraryDD {
 
         static native int Cudd_DebugCheck(Pointer table);
 
+        /** obtain number of live nodes */
+        static native NativeLong Cudd_ReadNodeCount(Pointer dd);
+
         static native void Cudd_SetMinHit(Pointer dd, int hr);
 
         static native void Cudd_EnableGarbageCollection(Pointer dd);
@@ -720,6 +723,12 @@ public final class LibraryDDCUDDMTBDD implements LibraryDD {
         assert alive;
     }
 
+    @Override
+    public long getNumNodes() {
+        assert alive;
+        return CUDD.Cudd_ReadNodeCount(cuddManager).longValue();
+    }
+
     @Override
     public long permute(long node, PermutationLibraryDD permutation)
     {
@@ -112,6 +112,8 @@ public final class LibraryDDCUDD implements LibraryDD {
 
         /** variable reordering */
         static native int Cudd_ReduceHeap(Pointer table, int heuristic, int  minsize);
+        /** obtain current level of variable */
+        static native int Cudd_ReadPerm(Pointer dd, int i);
         /** fixing how not to reorder */
         static native Pointer Cudd_MakeTreeNode(Pointer dd, int  low, int size, int type);
 
@@ -175,6 +177,9 @@ public final class LibraryDDCUDD implements LibraryDD {
         /** Consistency check. */
         static native int Cudd_DebugCheck(Pointer table);
 
+        /** obtain number of live nodes */
+        static native NativeLong Cudd_ReadNodeCount(Pointer dd);
+
         /** Control table resizing. */
         static native void Cudd_SetMinHit(Pointer dd, int hr);
 
@@ -552,6 +557,23 @@ public final class LibraryDDCUDD implements LibraryDD {
         }
     }
 
+    @Override
+    public boolean canReorder() {
+        return true;
+    }
+
+    @Override
+    public int getLevel(int variable) {
+        assert alive;
+        return CUDD.Cudd_ReadPerm(cuddManager, variable);
+    }
+
+    @Override
+    public long getNumNodes() {
+        assert alive;
+        return CUDD.Cudd_ReadNodeCount(cuddManager).longValue();
+    }
+
     @Override
     public long permute(long node, PermutationLibraryDD permutation)
     {
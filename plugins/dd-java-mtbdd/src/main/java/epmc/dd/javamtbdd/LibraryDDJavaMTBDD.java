@@ -0,0 +1,1107 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.dd.javamtbdd;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import epmc.dd.ContextDD;
+import epmc.dd.LibraryDD;
+import epmc.dd.PermutationLibraryDD;
+import epmc.operator.Operator;
+import epmc.operator.OperatorAdd;
+import epmc.operator.OperatorDivide;
+import epmc.operator.OperatorId;
+import epmc.operator.OperatorIte;
+import epmc.operator.OperatorMax;
+import epmc.operator.OperatorMin;
+import epmc.operator.OperatorMultiply;
+import epmc.operator.OperatorSet;
+import epmc.operator.OperatorSubtract;
+import epmc.options.Options;
+import epmc.value.ContextValue;
+import epmc.value.OperatorEvaluator;
+import epmc.value.Type;
+import epmc.value.TypeBoolean;
+import epmc.value.TypeDouble;
+import epmc.value.UtilValue;
+import epmc.value.Value;
+import epmc.value.ValueBoolean;
+import epmc.value.ValueDouble;
+import epmc.value.operatorevaluator.OperatorEvaluatorAddDouble;
+import epmc.value.operatorevaluator.OperatorEvaluatorDivideDouble;
+import epmc.value.operatorevaluator.OperatorEvaluatorId;
+import epmc.value.operatorevaluator.OperatorEvaluatorMaxDouble;
+import epmc.value.operatorevaluator.OperatorEvaluatorMinDouble;
+import epmc.value.operatorevaluator.OperatorEvaluatorMultiplyDouble;
+import epmc.value.operatorevaluator.OperatorEvaluatorSetDoubleDouble;
+import epmc.value.operatorevaluator.OperatorEvaluatorSubtractDouble;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * MTBDD library implemented in pure Java.
+ * This library does not require any native code and can thus be used on
+ * systems on which native libraries cannot be loaded. Nodes are stored in
+ * flat integer arrays and identified by their index. Internal nodes are
+ * made unique using a hash table the chains of which are also stored in an
+ * integer array. Leaves refer to a terminal entry. Terminals which are
+ * doubles of the default double type are stored as primitive doubles;
+ * other terminals are stored as {@link Value} objects, as in the native
+ * MTBDD libraries.
+ * Results of operations are stored in a direct-mapped computed table. For
+ * the basic arithmetic operations on doubles, terminals are combined
+ * directly on primitive doubles, provided that the operator evaluators
+ * registered for these operations are the default ones, so that the results
+ * are the same as when using the operator evaluators. All other operations
+ * on terminals are performed using the operator evaluators. Abstractions are
+ * performed within the library rather than by composing operations.
+ * The variable order is fixed and corresponds to the order in which
+ * variables are created. Garbage collection is performed by marking all
+ * nodes reachable from externally referenced nodes; it is only triggered at
+ * the beginning of an operation, so that intermediate results of operations
+ * do not have to be referenced.
+ *
+ * @author Ernst Moritz Hahn
+ */
+public final class LibraryDDJavaMTBDD implements LibraryDD {
+    public final static String IDENTIFIER = "java-mtbdd";
+
+    /** Variable of leaf nodes, larger than the one of all other nodes. */
+    private final static int LEAF = Integer.MAX_VALUE;
+    /** Variable of node entries which are currently not used. */
+    private final static int FREE = -1;
+    /** Denotes a non-existing node or terminal. */
+    private final static int NONE = -1;
+    /** Marks a leaf the terminal of which is a primitive double. */
+    private final static int DOUBLE_LEAF = 0;
+    /** Marks a leaf the terminal of which is a value object. */
+    private final static int VALUE_LEAF = 1;
+    private final static int MIN_SIZE = 16;
+
+    private final static int FAST_NONE = 0;
+    private final static int FAST_ID = 1;
+    private final static int FAST_ADD = 2;
+    private final static int FAST_SUBTRACT = 3;
+    private final static int FAST_MULTIPLY = 4;
+    private final static int FAST_DIVIDE = 5;
+    private final static int FAST_MAX = 6;
+    private final static int FAST_MIN = 7;
+
+    /** Abstractions performed within the library. */
+    private enum Abstraction {
+        SUM,
+        PRODUCT,
+        MAX,
+        MIN
+    }
+
+    /**
+     * Operation for which results are stored in the computed table.
+     * The operator is either an {@link Operator} or an
+     * {@link Abstraction}. Operations are identified by operator, result
+     * type and number of operands.
+     */
+    private final static class Operation {
+        private Object operator;
+        private Type type;
+        private int arity;
+        private int number;
+        private int fast;
+
+        @Override
+        public boolean equals(Object obj) {
+            Operation other = (Operation) obj;
+            return operator == other.operator
+                    && arity == other.arity
+                    && (type == null || other.type == null
+                    ? type == other.type : type.equals(other.type));
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 0;
+            hash = operator.hashCode() + (hash << 6) + (hash << 16) - hash;
+            hash = (type == null ? 0 : type.hashCode()) + (hash << 6) + (hash << 16) - hash;
+            hash = arity + (hash << 6) + (hash << 16) - hash;
+            return hash;
+        }
+    }
+
+    private final static class OperatorKey {
+        private Operator operator;
+        private Type[] types;
+
+        @Override
+        public boolean equals(Object obj) {
+            OperatorKey other = (OperatorKey) obj;
+            if (operator != other.operator) {
+                return false;
+            }
+            if (!Arrays.equals(types, other.types)) {
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 0;
+            hash = operator.hashCode() + (hash << 6) + (hash << 16) - hash;
+            hash = Arrays.hashCode(types) + (hash << 6) + (hash << 16) - hash;
+            return hash;
+        }
+    }
+
+    private final static class PermutationJavaMTBDD implements PermutationLibraryDD {
+        private final int[] permutation;
+
+        PermutationJavaMTBDD(int[] permutation) {
+            this.permutation = permutation;
+        }
+
+        int[] getPermutation() {
+            return permutation;
+        }
+    }
+
+    private ContextDD contextDD;
+    private boolean alive = true;
+    private int numVariables;
+    private TypeDouble typeDouble;
+    private Value falseValue;
+    private Value trueValue;
+
+    /* node table; node 0 is not used */
+    private int[] variables;
+    private int[] lows;
+    private int[] highs;
+    private int[] nexts;
+    private int[] refs;
+    private int numAllocated;
+    private int freeList = NONE;
+    private int numFree;
+    private int[] unique;
+    private int initNodes;
+    private int collectThreshold;
+
+    /* terminals */
+    private double[] terminalDoubles;
+    private Value[] terminalValues;
+    private int numTerminals;
+    private int[] freeTerminals;
+    private int numFreeTerminals;
+    private final Long2IntOpenHashMap doubleLeaves = new Long2IntOpenHashMap();
+    private final Object2IntOpenHashMap<Value> valueLeaves = new Object2IntOpenHashMap<>();
+
+    /* computed table */
+    private int[] cacheOperations;
+    private int[] cacheOperands1;
+    private int[] cacheOperands2;
+    private int[] cacheOperands3;
+    private int[] cacheResults;
+    private int cacheMask;
+
+    private final Map<Operation,Operation> operations = new HashMap<>();
+    private final Operation testOperation = new Operation();
+    private Operation iteOperation;
+    private final OperatorKey testKey = new OperatorKey();
+    private final Map<OperatorKey,OperatorEvaluator> evaluators = new HashMap<>();
+    private final Type[] types1 = new Type[1];
+    private final Type[] types2 = new Type[2];
+    private final Type[] types3 = new Type[3];
+
+    private long numCollections;
+    private long numCacheLookups;
+    private long numCacheHits;
+
+    @Override
+    public void setContextDD(ContextDD contextDD) {
+        assert contextDD != null;
+        this.contextDD = contextDD;
+        Options options = Options.get();
+        initNodes = powerOfTwo(options.getInteger(OptionsDDJavaMTBDD.DD_JAVA_MTBDD_INIT_NODES));
+        int cacheSlots = powerOfTwo(options.getInteger(OptionsDDJavaMTBDD.DD_JAVA_MTBDD_CACHE_SLOTS));
+        variables = new int[initNodes];
+        lows = new int[initNodes];
+        highs = new int[initNodes];
+        nexts = new int[initNodes];
+        refs = new int[initNodes];
+        unique = new int[initNodes];
+        Arrays.fill(unique, NONE);
+        numAllocated = 1;
+        collectThreshold = initNodes;
+        terminalDoubles = new double[MIN_SIZE];
+        terminalValues = new Value[MIN_SIZE];
+        freeTerminals = new int[MIN_SIZE];
+        doubleLeaves.defaultReturnValue(NONE);
+        valueLeaves.defaultReturnValue(NONE);
+        cacheOperations = new int[cacheSlots];
+        cacheOperands1 = new int[cacheSlots];
+        cacheOperands2 = new int[cacheSlots];
+        cacheOperands3 = new int[cacheSlots];
+        cacheResults = new int[cacheSlots];
+        cacheMask = cacheSlots - 1;
+        typeDouble = TypeDouble.get();
+        falseValue = UtilValue.newValue(TypeBoolean.get(), false);
+        trueValue = UtilValue.newValue(TypeBoolean.get(), true);
+        iteOperation = operation(OperatorIte.ITE, null, 3);
+    }
+
+    @Override
+    public ContextDD getContextDD() {
+        return contextDD;
+    }
+
+    @Override
+    public long apply(Operator operation, Type type, long... operands) {
+        assert alive;
+        assert operation != null;
+        assert type != null;
+        assert operands.length >= 1 && operands.length <= 3 : operands.length;
+        beginOperation();
+        int result;
+        if (operands.length == 1) {
+            result = apply1(operation(operation, type, 1), (int) operands[0]);
+        } else if (operands.length == 2) {
+            result = apply2(operation(operation, type, 2),
+                    (int) operands[0], (int) operands[1]);
+        } else {
+            int op2 = (int) operands[1];
+            int op3 = (int) operands[2];
+            if (!TypeBoolean.is(type)) {
+                Operation id = operation(OperatorId.ID, type, 1);
+                op2 = apply1(id, op2);
+                op3 = apply1(id, op3);
+            }
+            if (operation == OperatorIte.ITE) {
+                result = ite((int) operands[0], op2, op3);
+            } else {
+                result = apply3(operation(operation, type, 3),
+                        (int) operands[0], op2, op3);
+            }
+        }
+        return reference(result);
+    }
+
+    @Override
+    public boolean canApply(Operator operation, Type resultType, long... operands) {
+        if (operands.length > 3) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public long newConstant(Value value) {
+        assert alive;
+        assert value != null;
+        beginOperation();
+        return reference(leaf(value));
+    }
+
+    @Override
+    public long newVariable() {
+        assert alive;
+        beginOperation();
+        int result = makeNode(numVariables, leaf(falseValue), leaf(trueValue));
+        numVariables++;
+        return reference(result);
+    }
+
+    @Override
+    public boolean isLeaf(long dd) {
+        return variables[(int) dd] == LEAF;
+    }
+
+    @Override
+    public Value value(long dd) {
+        assert isLeaf(dd);
+        return leafValue((int) dd);
+    }
+
+    @Override
+    public int variable(long dd) {
+        return variables[(int) dd];
+    }
+
+    @Override
+    public void reorder() {
+        assert alive;
+    }
+
+    @Override
+    public long getNumNodes() {
+        assert alive;
+        return numAllocated - 1 - numFree;
+    }
+
+    @Override
+    public void addGroup(int startVariable, int numVariables, boolean fixedOrder) {
+    }
+
+    @Override
+    public long permute(long dd, PermutationLibraryDD permutation) {
+        assert alive;
+        assert permutation != null;
+        assert permutation instanceof PermutationJavaMTBDD;
+        beginOperation();
+        int[] perm = ((PermutationJavaMTBDD) permutation).getPermutation();
+        Int2IntOpenHashMap computed = new Int2IntOpenHashMap();
+        computed.defaultReturnValue(NONE);
+        return reference(permute((int) dd, perm, computed));
+    }
+
+    @Override
+    public long clone(long uniqueId) {
+        assert refs[(int) uniqueId] >= 0;
+        refs[(int) uniqueId]++;
+        return uniqueId;
+    }
+
+    @Override
+    public void free(long uniqueId) {
+        assert refs[(int) uniqueId] > 0 : uniqueId;
+        refs[(int) uniqueId]--;
+    }
+
+    @Override
+    public long walkerLow(long from) {
+        assert !isLeaf(from);
+        return lows[(int) from];
+    }
+
+    @Override
+    public long walkerHigh(long from) {
+        assert !isLeaf(from);
+        return highs[(int) from];
+    }
+
+    @Override
+    public boolean isComplement(long node) {
+        return false;
+    }
+
+    @Override
+    public long walkerComplement(long from) {
+        return from;
+    }
+
+    @Override
+    public long walkerRegular(long from) {
+        return from;
+    }
+
+    @Override
+    public long abstractExist(long dd, long cube) {
+        assert false;
+        return -1;
+    }
+
+    @Override
+    public long abstractForall(long dd, long cube) {
+        assert false;
+        return -1;
+    }
+
+    @Override
+    public long abstractSum(Type type, long dd, long cube) {
+        return abstractOperation(Abstraction.SUM, OperatorAdd.ADD, type, dd, cube);
+    }
+
+    @Override
+    public long abstractProduct(Type type, long dd, long cube) {
+        return abstractOperation(Abstraction.PRODUCT, OperatorMultiply.MULTIPLY, type, dd, cube);
+    }
+
+    @Override
+    public long abstractMax(Type type, long dd, long cube) {
+        return abstractOperation(Abstraction.MAX, OperatorMax.MAX, type, dd, cube);
+    }
+
+    @Override
+    public long abstractMin(Type type, long dd, long cube) {
+        return abstractOperation(Abstraction.MIN, OperatorMin.MIN, type, dd, cube);
+    }
+
+    @Override
+    public long abstractAndExist(long dd1, long dd2, long cube) {
+        assert false;
+        return -1;
+    }
+
+    @Override
+    public PermutationLibraryDD newPermutation(int[] permutation) {
+        assert permutation != null;
+        assert permutation.length == numVariables
+                : "permutation.length == " + permutation.length
+                + " != numVariables = " + numVariables;
+        return new PermutationJavaMTBDD(permutation.clone());
+    }
+
+    @Override
+    public void close() {
+        if (!alive) {
+            return;
+        }
+        alive = false;
+        if (contextDD.isDebugDD()) {
+            System.out.println("BDD debugging info:");
+            System.out.println("nodes allocated: " + (numAllocated - 1 - numFree));
+            System.out.println("garbage collections: " + numCollections);
+            System.out.println("cache lookups: " + numCacheLookups);
+            System.out.println("cache hits: " + numCacheHits);
+            System.out.println("referenced: " + numReferenced());
+        }
+        assert numReferenced() == 0 : "referenced: " + numReferenced();
+    }
+
+    @Override
+    public boolean equals(long op1, long op2) {
+        return op1 == op2;
+    }
+
+    @Override
+    public long getWalker(long uniqueId) {
+        return uniqueId;
+    }
+
+    @Override
+    public boolean walkerIsLeaf(long dd) {
+        return isLeaf(dd);
+    }
+
+    @Override
+    public Value walkerValue(long dd) {
+        return value(dd);
+    }
+
+    @Override
+    public int walkerVariable(long dd) {
+        return variable(dd);
+    }
+
+    @Override
+    public boolean walkerIsComplement(long node) {
+        return false;
+    }
+
+    @Override
+    public boolean hasInverterArcs() {
+        return false;
+    }
+
+    @Override
+    public int hashCode(long uniqueId) {
+        return (int) uniqueId;
+    }
+
+    @Override
+    public boolean hasAndExist() {
+        return false;
+    }
+
+    @Override
+    public boolean checkConsistent() {
+        for (int node = 1; node < numAllocated; node++) {
+            int variable = variables[node];
+            if (variable == FREE || variable == LEAF) {
+                continue;
+            }
+            int low = lows[node];
+            int high = highs[node];
+            if (low == high || variables[low] <= variable
+                    || variables[high] <= variable) {
+                return false;
+            }
+            if (findNode(variable, low, high) != node) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return IDENTIFIER;
+    }
+
+    private int apply1(Operation operation, int f) {
+        if (variables[f] == LEAF && operation.fast == FAST_ID
+                && highs[f] == DOUBLE_LEAF) {
+            return f;
+        }
+        int result = cacheLookup(operation.number, f, 0, 0);
+        if (result != NONE) {
+            return result;
+        }
+        int variable = variables[f];
+        if (variable == LEAF) {
+            Value operand = leafValue(f);
+            types1[0] = operand.getType();
+            Value resultValue = operation.type.newValue();
+            getEvaluator((Operator) operation.operator, types1)
+            .apply(resultValue, operand);
+            result = leaf(resultValue);
+        } else {
+            int low = apply1(operation, lows[f]);
+            int high = apply1(operation, highs[f]);
+            result = makeNode(variable, low, high);
+        }
+        cacheInsert(operation.number, f, 0, 0, result);
+        return result;
+    }
+
+    private int apply2(Operation operation, int f, int g) {
+        int fVariable = variables[f];
+        int gVariable = variables[g];
+        if (fVariable == LEAF && gVariable == LEAF
+                && operation.fast != FAST_NONE
+                && highs[f] == DOUBLE_LEAF && highs[g] == DOUBLE_LEAF) {
+            return leafDouble(applyFast(operation.fast,
+                    terminalDoubles[lows[f]], terminalDoubles[lows[g]]));
+        }
+        int result = cacheLookup(operation.number, f, g, 0);
+        if (result != NONE) {
+            return result;
+        }
+        if (fVariable == LEAF && gVariable == LEAF) {
+            Value op1 = leafValue(f);
+            Value op2 = leafValue(g);
+            types2[0] = op1.getType();
+            types2[1] = op2.getType();
+            Value resultValue = operation.type.newValue();
+            getEvaluator((Operator) operation.operator, types2)
+            .apply(resultValue, op1, op2);
+            result = leaf(resultValue);
+        } else {
+            int variable = Math.min(fVariable, gVariable);
+            int f0 = fVariable == variable ? lows[f] : f;
+            int f1 = fVariable == variable ? highs[f] : f;
+            int g0 = gVariable == variable ? lows[g] : g;
+            int g1 = gVariable == variable ? highs[g] : g;
+            int low = apply2(operation, f0, g0);
+            int high = apply2(operation, f1, g1);
+            result = makeNode(variable, low, high);
+        }
+        cacheInsert(operation.number, f, g, 0, result);
+        return result;
+    }
+
+    private int apply3(Operation operation, int f, int g, int h) {
+        int result = cacheLookup(operation.number, f, g, h);
+        if (result != NONE) {
+            return result;
+        }
+        int fVariable = variables[f];
+        int gVariable = variables[g];
+        int hVariable = variables[h];
+        if (fVariable == LEAF && gVariable == LEAF && hVariable == LEAF) {
+            Value op1 = leafValue(f);
+            Value op2 = leafValue(g);
+            Value op3 = leafValue(h);
+            types3[0] = op1.getType();
+            types3[1] = op2.getType();
+            types3[2] = op3.getType();
+            Value resultValue = operation.type.newValue();
+            getEvaluator((Operator) operation.operator, types3)
+            .apply(resultValue, op1, op2, op3);
+            result = leaf(resultValue);
+        } else {
+            int variable = Math.min(fVariable, Math.min(gVariable, hVariable));
+            int f0 = fVariable == variable ? lows[f] : f;
+            int f1 = fVariable == variable ? highs[f] : f;
+            int g0 = gVariable == variable ? lows[g] : g;
+            int g1 = gVariable == variable ? highs[g] : g;
+            int h0 = hVariable == variable ? lows[h] : h;
+            int h1 = hVariable == variable ? highs[h] : h;
+            int low = apply3(operation, f0, g0, h0);
+            int high = apply3(operation, f1, g1, h1);
+            result = makeNode(variable, low, high);
+        }
+        cacheInsert(operation.number, f, g, h, result);
+        return result;
+    }
+
+    /**
+     * Compute if-then-else structurally.
+     * The leaves of {@code f} must be boolean. The result is obtained by
+     * replacing each leaf of {@code f} by {@code g} if it is true and by
+     * {@code h} otherwise, without evaluating any operator on terminals.
+     */
+    private int ite(int f, int g, int h) {
+        if (variables[f] == LEAF) {
+            return ValueBoolean.as(leafValue(f)).getBoolean() ? g : h;
+        }
+        if (g == h) {
+            return g;
+        }
+        int result = cacheLookup(iteOperation.number, f, g, h);
+        if (result != NONE) {
+            return result;
+        }
+        int fVariable = variables[f];
+        int gVariable = variables[g];
+        int hVariable = variables[h];
+        int variable = Math.min(fVariable, Math.min(gVariable, hVariable));
+        int f0 = fVariable == variable ? lows[f] : f;
+        int f1 = fVariable == variable ? highs[f] : f;
+        int g0 = gVariable == variable ? lows[g] : g;
+        int g1 = gVariable == variable ? highs[g] : g;
+        int h0 = hVariable == variable ? lows[h] : h;
+        int h1 = hVariable == variable ? highs[h] : h;
+        int low = ite(f0, g0, h0);
+        int high = ite(f1, g1, h1);
+        result = makeNode(variable, low, high);
+        cacheInsert(iteOperation.number, f, g, h, result);
+        return result;
+    }
+
+    private long abstractOperation(Abstraction abstraction, Operator combine,
+            Type type, long dd, long cube) {
+        assert alive;
+        assert type != null;
+        beginOperation();
+        Operation abstractionOperation = operation(abstraction, type, 2);
+        Operation combineOperation = operation(combine, type, 2);
+        return reference(abstractOperation(abstractionOperation,
+                combineOperation, (int) dd, (int) cube));
+    }
+
+    /**
+     * Abstract the variables of a cube.
+     * As in the native MTBDD libraries, abstracting a variable on which the
+     * DD does not depend combines the DD with itself for sums and products,
+     * and leaves the DD unchanged for maxima and minima.
+     */
+    private int abstractOperation(Operation abstraction, Operation combine,
+            int f, int cube) {
+        if (variables[cube] == LEAF) {
+            return f;
+        }
+        int fVariable = variables[f];
+        int cubeVariable = variables[cube];
+        if (fVariable > cubeVariable) {
+            int result = abstractOperation(abstraction, combine, f, highs[cube]);
+            if (abstraction.operator == Abstraction.SUM
+                    || abstraction.operator == Abstraction.PRODUCT) {
+                result = apply2(combine, result, result);
+            }
+            return result;
+        }
+        int result = cacheLookup(abstraction.number, f, cube, 0);
+        if (result != NONE) {
+            return result;
+        }
+        if (fVariable == cubeVariable) {
+            int high = abstractOperation(abstraction, combine, highs[f], highs[cube]);
+            int low = abstractOperation(abstraction, combine, lows[f], highs[cube]);
+            result = apply2(combine, high, low);
+        } else {
+            int high = abstractOperation(abstraction, combine, highs[f], cube);
+            int low = abstractOperation(abstraction, combine, lows[f], cube);
+            result = makeNode(fVariable, low, high);
+        }
+        cacheInsert(abstraction.number, f, cube, 0, result);
+        return result;
+    }
+
+    private int permute(int f, int[] permutation, Int2IntOpenHashMap computed) {
+        if (variables[f] == LEAF) {
+            return f;
+        }
+        int result = computed.get(f);
+        if (result != NONE) {
+            return result;
+        }
+        int low = permute(lows[f], permutation, computed);
+        int high = permute(highs[f], permutation, computed);
+        int variable = makeNode(permutation[variables[f]],
+                leaf(falseValue), leaf(trueValue));
+        result = ite(variable, high, low);
+        computed.put(f, result);
+        return result;
+    }
+
+    private static double applyFast(int fast, double op1, double op2) {
+        switch (fast) {
+        case FAST_ADD:
+            return op1 + op2;
+        case FAST_SUBTRACT:
+            return op1 - op2;
+        case FAST_MULTIPLY:
+            return op1 * op2;
+        case FAST_DIVIDE:
+            return op2 == 0.0 ? 0.0 : op1 / op2;
+        case FAST_MAX:
+            return Math.max(op1, op2);
+        case FAST_MIN:
+            return Math.min(op1, op2);
+        default:
+            assert false : fast;
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Obtain the operation with the given parameters.
+     * If the operation has not been used before, it is assigned a new
+     * number to identify it in the computed table. In this case, it is also
+     * checked whether the operation can be performed directly on primitive
+     * doubles.
+     */
+    private Operation operation(Object operator, Type type, int arity) {
+        testOperation.operator = operator;
+        testOperation.type = type;
+        testOperation.arity = arity;
+        Operation result = operations.get(testOperation);
+        if (result != null) {
+            return result;
+        }
+        result = new Operation();
+        result.operator = operator;
+        result.type = type;
+        result.arity = arity;
+        result.number = operations.size();
+        if (operator instanceof Operator && type != null && typeDouble.equals(type)) {
+            result.fast = computeFast((Operator) operator, arity);
+        }
+        operations.put(result, result);
+        return result;
+    }
+
+    private int computeFast(Operator operator, int arity) {
+        ContextValue contextValue = ContextValue.get();
+        if (arity == 1) {
+            OperatorEvaluator evaluator = contextValue.getEvaluatorOrNull(operator, typeDouble);
+            OperatorEvaluator set = contextValue.getEvaluatorOrNull(OperatorSet.SET, typeDouble, typeDouble);
+            if (evaluator instanceof OperatorEvaluatorId
+                    && set instanceof OperatorEvaluatorSetDoubleDouble) {
+                return FAST_ID;
+            }
+        } else if (arity == 2) {
+            OperatorEvaluator evaluator = contextValue.getEvaluatorOrNull(operator, typeDouble, typeDouble);
+            if (operator == OperatorAdd.ADD && evaluator instanceof OperatorEvaluatorAddDouble) {
+                return FAST_ADD;
+            } else if (operator == OperatorSubtract.SUBTRACT && evaluator instanceof OperatorEvaluatorSubtractDouble) {
+                return FAST_SUBTRACT;
+            } else if (operator == OperatorMultiply.MULTIPLY && evaluator instanceof OperatorEvaluatorMultiplyDouble) {
+                return FAST_MULTIPLY;
+            } else if (operator == OperatorDivide.DIVIDE && evaluator instanceof OperatorEvaluatorDivideDouble) {
+                return FAST_DIVIDE;
+            } else if (operator == OperatorMax.MAX && evaluator instanceof OperatorEvaluatorMaxDouble) {
+                return FAST_MAX;
+            } else if (operator == OperatorMin.MIN && evaluator instanceof OperatorEvaluatorMinDouble) {
+                return FAST_MIN;
+            }
+        }
+        return FAST_NONE;
+    }
+
+    private OperatorEvaluator getEvaluator(Operator operator, Type[] types) {
+        testKey.operator = operator;
+        testKey.types = types;
+        OperatorEvaluator result = evaluators.get(testKey);
+        if (result != null) {
+            return result;
+        }
+        result = ContextValue.get().getEvaluator(operator, types);
+        OperatorKey newKey = new OperatorKey();
+        newKey.operator = operator;
+        newKey.types = types.clone();
+        evaluators.put(newKey, result);
+        return result;
+    }
+
+    private Value leafValue(int node) {
+        assert variables[node] == LEAF;
+        int terminal = lows[node];
+        Value result = terminalValues[terminal];
+        if (result == null) {
+            assert highs[node] == DOUBLE_LEAF;
+            ValueDouble resultDouble = typeDouble.newValue();
+            resultDouble.set(terminalDoubles[terminal]);
+            terminalValues[terminal] = resultDouble;
+            result = resultDouble;
+        }
+        return result;
+    }
+
+    private int leaf(Value value) {
+        if (ValueDouble.is(value) && typeDouble.equals(value.getType())) {
+            return leafDouble(ValueDouble.as(value).getDouble());
+        }
+        int result = valueLeaves.getInt(value);
+        if (result != NONE) {
+            return result;
+        }
+        Value clone = UtilValue.clone(value);
+        int terminal = allocateTerminal();
+        terminalValues[terminal] = clone;
+        result = allocateNode();
+        variables[result] = LEAF;
+        lows[result] = terminal;
+        highs[result] = VALUE_LEAF;
+        refs[result] = 0;
+        valueLeaves.put(clone, result);
+        return result;
+    }
+
+    private int leafDouble(double value) {
+        long key = doubleKey(value);
+        int result = doubleLeaves.get(key);
+        if (result != NONE) {
+            return result;
+        }
+        int terminal = allocateTerminal();
+        terminalDoubles[terminal] = value;
+        terminalValues[terminal] = null;
+        result = allocateNode();
+        variables[result] = LEAF;
+        lows[result] = terminal;
+        highs[result] = DOUBLE_LEAF;
+        refs[result] = 0;
+        doubleLeaves.put(key, result);
+        return result;
+    }
+
+    /**
+     * Compute key of a double terminal.
+     * Doubles considered equal by {@link Value#equals(Object)} obtain the
+     * same key, so that positive and negative zero as well as all NaN values
+     * are mapped to the same terminal.
+     */
+    private static long doubleKey(double value) {
+        return Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+    }
+
+    private int makeNode(int variable, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        int result = findNode(variable, low, high);
+        if (result != NONE) {
+            return result;
+        }
+        result = allocateNode();
+        variables[result] = variable;
+        lows[result] = low;
+        highs[result] = high;
+        refs[result] = 0;
+        int bucket = hash(variable, low, high) & (unique.length - 1);
+        nexts[result] = unique[bucket];
+        unique[bucket] = result;
+        return result;
+    }
+
+    private int findNode(int variable, int low, int high) {
+        int bucket = hash(variable, low, high) & (unique.length - 1);
+        for (int node = unique[bucket]; node != NONE; node = nexts[node]) {
+            if (variables[node] == variable && lows[node] == low
+                    && highs[node] == high) {
+                return node;
+            }
+        }
+        return NONE;
+    }
+
+    private int allocateNode() {
+        if (freeList != NONE) {
+            int result = freeList;
+            freeList = nexts[result];
+            numFree--;
+            return result;
+        }
+        if (numAllocated == variables.length) {
+            int newSize = variables.length * 2;
+            assert newSize > 0;
+            variables = Arrays.copyOf(variables, newSize);
+            lows = Arrays.copyOf(lows, newSize);
+            highs = Arrays.copyOf(highs, newSize);
+            nexts = Arrays.copyOf(nexts, newSize);
+            refs = Arrays.copyOf(refs, newSize);
+            unique = new int[newSize];
+            rehash();
+        }
+        int result = numAllocated;
+        numAllocated++;
+        return result;
+    }
+
+    private int allocateTerminal() {
+        if (numFreeTerminals > 0) {
+            numFreeTerminals--;
+            return freeTerminals[numFreeTerminals];
+        }
+        if (numTerminals == terminalDoubles.length) {
+            int newSize = terminalDoubles.length * 2;
+            terminalDoubles = Arrays.copyOf(terminalDoubles, newSize);
+            terminalValues = Arrays.copyOf(terminalValues, newSize);
+        }
+        int result = numTerminals;
+        numTerminals++;
+        return result;
+    }
+
+    private void freeTerminal(int terminal) {
+        terminalValues[terminal] = null;
+        if (numFreeTerminals == freeTerminals.length) {
+            freeTerminals = Arrays.copyOf(freeTerminals, freeTerminals.length * 2);
+        }
+        freeTerminals[numFreeTerminals] = terminal;
+        numFreeTerminals++;
+    }
+
+    private void rehash() {
+        Arrays.fill(unique, NONE);
+        int mask = unique.length - 1;
+        for (int node = 1; node < numAllocated; node++) {
+            int variable = variables[node];
+            if (variable == FREE || variable == LEAF) {
+                continue;
+            }
+            int bucket = hash(variable, lows[node], highs[node]) & mask;
+            nexts[node] = unique[bucket];
+            unique[bucket] = node;
+        }
+    }
+
+    private long reference(int node) {
+        refs[node]++;
+        return node;
+    }
+
+    /**
+     * Prepare the start of a top-level operation.
+     * If the number of nodes in use exceeds the current threshold, garbage
+     * collection is performed and the threshold is adapted to the number of
+     * nodes still alive.
+     */
+    private void beginOperation() {
+        int numUsed = numAllocated - 1 - numFree;
+        if (numUsed < collectThreshold) {
+            return;
+        }
+        collectGarbage();
+        numUsed = numAllocated - 1 - numFree;
+        collectThreshold = Math.max(initNodes, numUsed * 2);
+    }
+
+    private void collectGarbage() {
+        boolean[] marked = new boolean[numAllocated];
+        int[] stack = new int[MIN_SIZE];
+        for (int root = 1; root < numAllocated; root++) {
+            if (refs[root] == 0 || variables[root] == FREE || marked[root]) {
+                continue;
+            }
+            int stackSize = 0;
+            stack[stackSize++] = root;
+            while (stackSize > 0) {
+                int node = stack[--stackSize];
+                if (marked[node]) {
+                    continue;
+                }
+                marked[node] = true;
+                if (variables[node] != LEAF) {
+                    if (stackSize + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[stackSize++] = lows[node];
+                    stack[stackSize++] = highs[node];
+                }
+            }
+        }
+        for (int node = 1; node < numAllocated; node++) {
+            if (marked[node] || variables[node] == FREE) {
+                continue;
+            }
+            if (variables[node] == LEAF) {
+                int terminal = lows[node];
+                if (highs[node] == DOUBLE_LEAF) {
+                    doubleLeaves.remove(doubleKey(terminalDoubles[terminal]));
+                } else {
+                    valueLeaves.removeInt(terminalValues[terminal]);
+                }
+                freeTerminal(terminal);
+            }
+            variables[node] = FREE;
+            nexts[node] = freeList;
+            freeList = node;
+            numFree++;
+        }
+        rehash();
+        Arrays.fill(cacheOperations, 0);
+        numCollections++;
+    }
+
+    private int cacheLookup(int operation, int op1, int op2, int op3) {
+        numCacheLookups++;
+        int slot = hash(operation, op1, op2, op3) & cacheMask;
+        if (cacheOperations[slot] == operation + 1
+                && cacheOperands1[slot] == op1
+                && cacheOperands2[slot] == op2
+                && cacheOperands3[slot] == op3) {
+            numCacheHits++;
+            return cacheResults[slot];
+        }
+        return NONE;
+    }
+
+    private void cacheInsert(int operation, int op1, int op2, int op3, int result) {
+        int slot = hash(operation, op1, op2, op3) & cacheMask;
+        cacheOperations[slot] = operation + 1;
+        cacheOperands1[slot] = op1;
+        cacheOperands2[slot] = op2;
+        cacheOperands3[slot] = op3;
+        cacheResults[slot] = result;
+    }
+
+    private int numReferenced() {
+        int result = 0;
+        for (int node = 1; node < numAllocated; node++) {
+            if (variables[node] != FREE && refs[node] > 0) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static int hash(int a, int b, int c) {
+        int hash = a * 0x9E3779B1 + b;
+        hash = hash * 0x9E3779B1 + c;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(int a, int b, int c, int d) {
+        int hash = hash(a, b, c) * 0x9E3779B1 + d;
+        return hash ^ (hash >>> 15);
+    }
+
+    private static int powerOfTwo(int number) {
+        int result = MIN_SIZE;
+        while (result < number && result < (1 << 30)) {
+            result <<= 1;
+        }
+        return result;
+    }
+}
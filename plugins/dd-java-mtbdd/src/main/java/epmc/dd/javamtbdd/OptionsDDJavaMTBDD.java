@@ -0,0 +1,37 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.dd.javamtbdd;
+
+/**
+ * Class collecting options used for the Java MTBDD library plugin.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public enum OptionsDDJavaMTBDD {
+    /** Base name of resource file for options description. */
+    OPTIONS_DD_JAVA_MTBDD,
+    /** Category used for options of the Java MTBDD library. */
+    DD_JAVA_MTBDD_CATEGORY,
+    /** Number of nodes to initially allocate. */
+    DD_JAVA_MTBDD_INIT_NODES,
+    /** Number of slots of the computed table. */
+    DD_JAVA_MTBDD_CACHE_SLOTS,
+}
@@ -52,7 +52,7 @@ public class AfterOptionsCreationSylvanMTBDD implements AfterOptionsCreation {
         options.addOption().setBundleName(OptionsDDSylvanMTBDD.OPTIONS_DD_SYLVAN_MTBDD)
         .setIdentifier(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_WORKERS)
         .setType(typeInteger).setDefault("1")
-        .setCommandLine().setGui()
+        .setCommandLine().setGui().setWeb()
         .setCategory(category).build();
         options.addOption().setBundleName(OptionsDDSylvanMTBDD.OPTIONS_DD_SYLVAN_MTBDD)
         .setIdentifier(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_INIT_CACHE_SIZE)
@@ -69,5 +69,20 @@ public class AfterOptionsCreationSylvanMTBDD implements AfterOptionsCreation {
         .setType(typeInteger).setDefault("4")
         .setCommandLine().setGui().setWeb()
         .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDDSylvanMTBDD.OPTIONS_DD_SYLVAN_MTBDD)
+        .setIdentifier(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_MAX_NODES)
+        .setType(typeInteger).setDefault("134217728")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDDSylvanMTBDD.OPTIONS_DD_SYLVAN_MTBDD)
+        .setIdentifier(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_MAX_CACHE_SIZE)
+        .setType(typeInteger).setDefault("67108864")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDDSylvanMTBDD.OPTIONS_DD_SYLVAN_MTBDD)
+        .setIdentifier(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_QUEUE_SIZE)
+        .setType(typeInteger).setDefault("1000000")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
     }
 }
@@ -168,21 +168,29 @@ public class LibraryDDSylvanMTBDD implements LibraryDD {
         long invoke(int op, long f, long g);
     }
 
+    /* The callbacks below are called by all Lace workers. They thus lock
+     * the library, because the value table, the evaluator cache and the
+     * evaluators themselves must not be used concurrently. Only the leaf
+     * operations are serialised this way, the recursion over the inner
+     * nodes is still performed in parallel. */
+
     private class DD_VOP1Impl implements DD_VOP1 {
         @Override
         public long invoke(int op, long f) {
-            Value opValue = numberToValue(f);
-            try {
-                Value result = resultType.newValue();
-                Operator operator = numberToOperator(op);
-                Type[] types = new Type[1];
-                types[0] = opValue.getType();
-                OperatorEvaluator evaluator = getEvaluator(operator, types);
-                evaluator.apply(result, opValue);
-                return valueToNumber(result);
-            } catch (EPMCException e) {
-                valueProblem = e;
-                return valueToNumber(integerZero);
+            synchronized (LibraryDDSylvanMTBDD.this) {
+                Value opValue = numberToValue(f);
+                try {
+                    Value result = resultType.newValue();
+                    Operator operator = numberToOperator(op);
+                    Type[] types = new Type[1];
+                    types[0] = opValue.getType();
+                    OperatorEvaluator evaluator = getEvaluator(operator, types);
+                    evaluator.apply(result, opValue);
+                    return valueToNumber(result);
+                } catch (EPMCException e) {
+                    valueProblem = e;
+                    return valueToNumber(integerZero);
+                }
             }
         }
     }
@@ -190,25 +198,27 @@ public class LibraryDDSylvanMTBDD implements LibraryDD {
     private class DD_VOP2Impl implements DD_VOP2 {
         @Override
         public long invoke(int op, long f, long g) {
-            Value op1Value = numberToValue(f);
-            Value op2Value = numberToValue(g);
-            Operator operator = numberToOperator(op);
-            try {
-                Value result = resultType.newValue();
-                Type[] types = new Type[2];
-                types[0] = op1Value.getType();
-                types[1] = op2Value.getType();
-                OperatorEvaluator evaluator = getEvaluator(operator, types);
-                evaluator.apply(result, op1Value, op2Value);
-                return valueToNumber(result);
-            } catch (EPMCException e) {
-                valueProblem = e;
-                return valueToNumber(integerZero);
+            synchronized (LibraryDDSylvanMTBDD.this) {
+                Value op1Value = numberToValue(f);
+                Value op2Value = numberToValue(g);
+                Operator operator = numberToOperator(op);
+                try {
+                    Value result = resultType.newValue();
+                    Type[] types = new Type[2];
+                    types[0] = op1Value.getType();
+                    types[1] = op2Value.getType();
+                    OperatorEvaluator evaluator = getEvaluator(operator, types);
+                    evaluator.apply(result, op1Value, op2Value);
+                    return valueToNumber(result);
+                } catch (EPMCException e) {
+                    valueProblem = e;
+                    return valueToNumber(integerZero);
+                }
             }
         }
     }
 
-    private void checkValueProblem() {
+    private synchronized void checkValueProblem() {
         if (valueProblem != null) {
             EPMCException toThrow = valueProblem;
             valueProblem = null;
@@ -286,6 +296,8 @@ public class LibraryDDSylvanMTBDD implements LibraryDD {
     private final static class Sylvan {
         static native void lace_init(int workers, int queueSize);
         static native void lace_startup(int workers, Pointer p1, Pointer p2);
+        /** stop Lace workers */
+        static native void lace_exit();
         /** initialise Sylvan */
         static native void sylvan_init_package(long initial_tablesize,
                 long max_tablesize, long initial_cachesize, long max_cachesize);
@@ -335,7 +347,8 @@ public class LibraryDDSylvanMTBDD implements LibraryDD {
     private long trueNode;
     private Value valueTrue;
     private Value valueFalse;
-    private Type resultType;
+    /** result type of current operation, read by the Lace workers */
+    private volatile Type resultType;
     private long nextVariable = 0;
     /** number to use for next new Value object in table */
     private long nextNumber = 0;
@@ -392,10 +405,17 @@ public class LibraryDDSylvanMTBDD implements LibraryDD {
         long initMem = Options.get().getInteger(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_INIT_NODES);
         long initCache = Options.get().getInteger(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_INIT_CACHE_SIZE);
         int cacheGranularity = Options.get().getInteger(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_CACHE_GRANULARITY);
-
-        Sylvan.lace_init(workers, 1000000);
+        long maxMem = Options.get().getInteger(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_MAX_NODES);
+        long maxCache = Options.get().getInteger(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_MAX_CACHE_SIZE);
+        int queueSize = Options.get().getInteger(OptionsDDSylvanMTBDD.DD_SYLVAN_MTBDD_QUEUE_SIZE);
+
+        // workers == 0 lets Lace start one worker per core; the calling
+        // thread becomes worker 0, such that all operations called from
+        // Java are run as Lace tasks which the other workers can steal;
+        // leaf operations call back into Java and are serialised there
+        Sylvan.lace_init(workers, queueSize);
         Sylvan.lace_startup(0, Pointer.NULL, Pointer.NULL);
-        Sylvan.sylvan_init_package(initMem, 1 << 27, initCache, 1 << 26);
+        Sylvan.sylvan_init_package(initMem, maxMem, initCache, maxCache);
         Sylvan.sylvan_init_mtbdd(cacheGranularity);
 
         this.valueTrue = UtilValue.newValue(TypeBoolean.get(), true);
@@ -543,14 +563,20 @@ public class LibraryDDSylvanMTBDD implements LibraryDD {
 
     @Override
     public long abstractExist(long dd, long cube) {
-        assert false;
-        return -1;
+        this.resultType = TypeBoolean.get();
+        long result = Sylvan.MTBDD_abstract(dd, cube, operatorToNumber(OperatorOr.OR));
+        checkValueProblem();
+        Sylvan.mtbdd_ref(result);
+        return result;
     }
 
     @Override
     public long abstractForall(long dd, long cube) {
-        assert false;
-        return -1;
+        this.resultType = TypeBoolean.get();
+        long result = Sylvan.MTBDD_abstract(dd, cube, operatorToNumber(OperatorAnd.AND));
+        checkValueProblem();
+        Sylvan.mtbdd_ref(result);
+        return result;
     }
 
     @Override
@@ -593,11 +619,21 @@ public class LibraryDDSylvanMTBDD implements LibraryDD {
         return result;
     }
 
+    /* Sylvan's fused and-exists does not work on the custom leaves used
+     * here, so the conjunction and the abstraction are computed by two
+     * separate calls, each of which runs in parallel on the Lace workers. */
     @Override
     public long abstractAndExist(long dd1, long dd2, long cube)
     {
-        assert false;
-        return -1;
+        this.resultType = TypeBoolean.get();
+        long and = Sylvan.MTBDD_apply(dd1, dd2, operatorToNumber(OperatorAnd.AND));
+        checkValueProblem();
+        Sylvan.mtbdd_ref(and);
+        long result = Sylvan.MTBDD_abstract(and, cube, operatorToNumber(OperatorOr.OR));
+        Sylvan.mtbdd_deref(and);
+        checkValueProblem();
+        Sylvan.mtbdd_ref(result);
+        return result;
     }
 
     @Override
@@ -625,6 +661,7 @@ public class LibraryDDSylvanMTBDD implements LibraryDD {
             System.out.println("valueToNumberEquals: " + valueToNumberEquals);
         }
         Sylvan.sylvan_quit();
+        Sylvan.lace_exit();
     }
 
     @Override
@@ -660,7 +697,7 @@ public class LibraryDDSylvanMTBDD implements LibraryDD {
 
     @Override
     public boolean hasAndExist() {
-        return false;
+        return true;
     }
 
     @Override
@@ -27,4 +27,7 @@ public enum OptionsDDSylvanMTBDD {
     DD_SYLVAN_MTBDD_INIT_NODES,
     DD_SYLVAN_MTBDD_WORKERS,
     DD_SYLVAN_MTBDD_CACHE_GRANULARITY,
+    DD_SYLVAN_MTBDD_MAX_NODES,
+    DD_SYLVAN_MTBDD_MAX_CACHE_SIZE,
+    DD_SYLVAN_MTBDD_QUEUE_SIZE,
 }
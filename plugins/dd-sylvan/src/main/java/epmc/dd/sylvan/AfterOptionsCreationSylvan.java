@@ -51,8 +51,8 @@ public class AfterOptionsCreationSylvan implements AfterOptionsCreation {
         OptionTypeInteger typeInteger = OptionTypeInteger.getInstance();
         options.addOption().setBundleName(OptionsDDSylvan.OPTIONS_DD_SYLVAN)
         .setIdentifier(OptionsDDSylvan.DD_SYLVAN_WORKERS)
-        .setType(typeInteger).setDefault("1")
-        .setCommandLine().setGui()
+        .setType(typeInteger).setDefault("0")
+        .setCommandLine().setGui().setWeb()
         .setCategory(category).build();
         options.addOption().setBundleName(OptionsDDSylvan.OPTIONS_DD_SYLVAN)
         .setIdentifier(OptionsDDSylvan.DD_SYLVAN_INIT_CACHE_SIZE)
@@ -69,5 +69,20 @@ public class AfterOptionsCreationSylvan implements AfterOptionsCreation {
         .setType(typeInteger).setDefault("4")
         .setCommandLine().setGui().setWeb()
         .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDDSylvan.OPTIONS_DD_SYLVAN)
+        .setIdentifier(OptionsDDSylvan.DD_SYLVAN_MAX_NODES)
+        .setType(typeInteger).setDefault("268435456")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDDSylvan.OPTIONS_DD_SYLVAN)
+        .setIdentifier(OptionsDDSylvan.DD_SYLVAN_MAX_CACHE_SIZE)
+        .setType(typeInteger).setDefault("134217728")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDDSylvan.OPTIONS_DD_SYLVAN)
+        .setIdentifier(OptionsDDSylvan.DD_SYLVAN_QUEUE_SIZE)
+        .setType(typeInteger).setDefault("1000000")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
     }
 }
@@ -78,6 +78,8 @@ public final class LibraryDDSylvan implements LibraryDD {
     private final static class Sylvan {
         static native void lace_init(int workers, int queueSize);
         static native void lace_startup(int workers, Pointer p1, Pointer p2);
+        /** stop Lace workers */
+        static native void lace_exit();
         /** initialise Sylvan */
         static native void sylvan_init_package(long initial_tablesize,
                 long max_tablesize, long initial_cachesize, long max_cachesize);
@@ -151,9 +153,15 @@ public final class LibraryDDSylvan implements LibraryDD {
         long initMem = Options.get().getInteger(OptionsDDSylvan.DD_SYLVAN_INIT_NODES);
         long initCache = Options.get().getInteger(OptionsDDSylvan.DD_SYLVAN_INIT_CACHE_SIZE);
         int cacheGranularity = Options.get().getInteger(OptionsDDSylvan.DD_SYLVAN_CACHE_GRANULARITY);
-        Sylvan.lace_init(workers, 1000000);
+        long maxMem = Options.get().getInteger(OptionsDDSylvan.DD_SYLVAN_MAX_NODES);
+        long maxCache = Options.get().getInteger(OptionsDDSylvan.DD_SYLVAN_MAX_CACHE_SIZE);
+        int queueSize = Options.get().getInteger(OptionsDDSylvan.DD_SYLVAN_QUEUE_SIZE);
+        // workers == 0 lets Lace start one worker per core; the calling
+        // thread becomes worker 0, such that all operations called from
+        // Java are run as Lace tasks which the other workers can steal
+        Sylvan.lace_init(workers, queueSize);
         Sylvan.lace_startup(0, Pointer.NULL, Pointer.NULL);
-        Sylvan.sylvan_init_package(initMem, 1 << 28, initCache, 1 << 27);
+        Sylvan.sylvan_init_package(initMem, maxMem, initCache, maxCache);
         Sylvan.sylvan_init_bdd(cacheGranularity);
         falseNode = Sylvan.Sylvan_false();
         trueNode = Sylvan.Sylvan_true();
@@ -353,6 +361,7 @@ public final class LibraryDDSylvan implements LibraryDD {
     @Override
     public void close() {
         Sylvan.sylvan_quit();
+        Sylvan.lace_exit();
     }
 
     @Override
@@ -27,4 +27,7 @@ public enum OptionsDDSylvan {
     DD_SYLVAN_INIT_NODES,
     DD_SYLVAN_WORKERS,
     DD_SYLVAN_CACHE_GRANULARITY,
+    DD_SYLVAN_MAX_NODES,
+    DD_SYLVAN_MAX_CACHE_SIZE,
+    DD_SYLVAN_QUEUE_SIZE,
 }
@@ -58,6 +58,7 @@ import epmc.options.Options;
 import epmc.options.UtilOptions;
 import epmc.util.BitSet;
 import epmc.util.RecursiveStopWatch;
+import epmc.util.StopWatch;
 import epmc.util.Util;
 import epmc.util.UtilBitSet;
 import epmc.value.ContextValue;
@@ -183,8 +184,22 @@ public final class ContextDD implements Closeable {
     private final boolean debugDD;
     private final static boolean PRINT_INVERTER_ARCS = false;
     private final boolean useAndExist;
+    /** walkers which might still be in use; reordering would invalidate them */
     private final Map<Walker,Object> walkers = new WeakHashMap<>();
     private boolean allowReorder;
+    /** Number of operations between two checks for automatic reordering. */
+    private final static int REORDER_CHECK_INTERVAL = 256;
+    /** whether variables are reordered automatically */
+    private boolean reorderAuto;
+    /** number of nodes starting from which variables will be reordered */
+    private long reorderThreshold;
+    private final long reorderMinNodes;
+    private final double reorderGrowth;
+    /** total time in milliseconds automatic reordering may take */
+    private final long reorderMaxTime;
+    private int reorderCheckCounter;
+    private int numReorderings;
+    private final StopWatch reorderTime = new StopWatch(false);
     private final GenericOperations genericApply;
     private final RecursiveStopWatch totalTime = new RecursiveStopWatch();
     private final RecursiveStopWatch convertTime = new RecursiveStopWatch();
@@ -213,6 +228,12 @@ public final class ContextDD implements Closeable {
         assert assertPutNodes();
         this.useAndExist = options.getBoolean(OptionsDD.DD_AND_EXIST);
         this.debugDD = options.getBoolean(OptionsDD.DD_DEBUG);
+        this.reorderAuto = options.getBoolean(OptionsDD.DD_REORDER);
+        this.allowReorder = reorderAuto;
+        this.reorderMinNodes = options.getInteger(OptionsDD.DD_REORDER_MIN_NODES);
+        this.reorderGrowth = options.getDouble(OptionsDD.DD_REORDER_GROWTH);
+        this.reorderMaxTime = options.getInteger(OptionsDD.DD_REORDER_MAX_TIME) * 1000L;
+        this.reorderThreshold = reorderMinNodes;
         this.genericApply = new GenericOperations(this);
         totalTime.stop();
     }
@@ -229,10 +250,125 @@ public final class ContextDD implements Closeable {
         totalTime.stop();
     }
 
+    /**
+     * Reorder the variables of all DD libraries used.
+     * The reordering respects the variable groups registered using
+     * {@link #addGroup(int, int, boolean)}, as far as supported by the
+     * libraries. The number of nodes before and after reordering as well as
+     * the time needed are reported to the log.
+     */
     public void reorder() {
         assert invalidateWalkers();
         totalTime.start();
+        long nodesBefore = getNumNodesReorderable();
+        StopWatch timer = new StopWatch(true);
+        reorderTime.start();
+        for (LibraryDD lowLevel : lowLevels) {
+            if (lowLevel.canReorder()) {
+                lowLevel.reorder();
+            }
+        }
+        reorderTime.stop();
+        numReorderings++;
+        long nodesAfter = getNumNodesReorderable();
+        log.send(MessagesDD.DD_REORDER_DONE, nodesBefore, nodesAfter,
+                timer.getTime() / 1000.0);
+        reorderThreshold = Math.max(reorderMinNodes,
+                (long) (nodesAfter * reorderGrowth));
+        totalTime.stop();
+    }
+
+    /**
+     * Obtain the total number of nodes used by the DD libraries.
+     * Libraries which cannot report their number of nodes are not taken into
+     * account. If none of the libraries can do so, the result is {@code -1}.
+     * 
+     * @return total number of nodes used, or {@code -1}
+     */
+    public long getNumNodes() {
+        long result = -1;
+        for (LibraryDD lowLevel : lowLevels) {
+            long numNodes = lowLevel.getNumNodes();
+            if (numNodes >= 0) {
+                result = Math.max(result, 0) + numNodes;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtain the number of nodes used by the DD libraries able to reorder.
+     * Only these nodes are affected by reordering, so only they are
+     * compared against the reordering threshold. If none of these
+     * libraries can report its number of nodes, the result is {@code -1}.
+     * 
+     * @return number of nodes used by reorderable libraries, or {@code -1}
+     */
+    private long getNumNodesReorderable() {
+        long result = -1;
+        for (LibraryDD lowLevel : lowLevels) {
+            if (!lowLevel.canReorder()) {
+                continue;
+            }
+            long numNodes = lowLevel.getNumNodes();
+            if (numNodes >= 0) {
+                result = Math.max(result, 0) + numNodes;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reorder variables if the number of nodes has grown too much.
+     * To keep the overhead low, the number of nodes is only checked once
+     * every {@link #REORDER_CHECK_INTERVAL} calls. Variables are reordered if
+     * the number of nodes is at least the number of nodes after the last
+     * reordering times {@link OptionsDD#DD_REORDER_GROWTH}, and at least
+     * {@link OptionsDD#DD_REORDER_MIN_NODES}. Only nodes of libraries which
+     * are able to reorder are counted. Once the total time spent in
+     * reordering exceeds {@link OptionsDD#DD_REORDER_MAX_TIME}, automatic
+     * reordering is disabled. As reordering would invalidate them, no
+     * reordering takes place as long as walkers obtained by
+     * {@link #walker(DD, boolean)} are still reachable. The method must only
+     * be called at points at which all nodes in use are referenced.
+     */
+    private void checkReorder() {
+        if (!allowReorder || !reorderAuto) {
+            return;
+        }
+        reorderCheckCounter++;
+        if (reorderCheckCounter < REORDER_CHECK_INTERVAL) {
+            return;
+        }
+        reorderCheckCounter = 0;
+        if (getNumNodesReorderable() < reorderThreshold) {
+            return;
+        }
+        if (!walkers.isEmpty()) {
+            return;
+        }
+        reorder();
+        if (reorderTime.getTime() > reorderMaxTime) {
+            reorderAuto = false;
+            log.send(MessagesDD.DD_REORDER_TIME_EXCEEDED);
+        }
+    }
+
+    /**
+     * Obtain the current position of a variable in the variable order.
+     * Position {@code 0} is the top of the order. As the order may change by
+     * reordering, the result is only valid until the next reordering.
+     * 
+     * @param variable DD of the variable
+     * @return position of the variable in the current variable order
+     */
+    public int getLevel(DD variable) {
+        assert alive();
+        assert assertValidDD(variable);
+        totalTime.start();
+        int result = variable.getLowLevel().getLevel(variable(variable));
         totalTime.stop();
+        return result;
     }
 
     public int numVariables() {
@@ -334,12 +470,12 @@ public final class ContextDD implements Closeable {
     public DD apply(Operator identifier, DD... ops) {
         assert checkDD();
         assert alive();
-        assert invalidateWalkersIfReorder();
         assert identifier != null;
         assert assertValidDDArray(ops);
         assert ops.length > 0;
         assert assertOperatorCompatible(identifier, ops);
         totalTime.start();
+        checkReorder();
         LibraryDD lowLevel = ops[0].getLowLevel();
         boolean importToMtbdd = mustImportToMtbdd(identifier, ops);
         Type type = computeType(identifier, ops);
@@ -401,12 +537,12 @@ public final class ContextDD implements Closeable {
     public DD applyBoolean(Operator identifier, DD... ops) {
         assert checkDD();
         assert alive();
-        assert invalidateWalkersIfReorder();
         assert identifier != null;
         assert assertValidDDArray(ops);
         assert ops.length > 0;
         assert assertOperatorCompatible(identifier, ops);
         totalTime.start();
+        checkReorder();
         long result;
         long[] opsLong = new long[ops.length];
         for (int opNr = 0; opNr < ops.length; opNr++) {
@@ -529,7 +665,6 @@ public final class ContextDD implements Closeable {
     private DD newConstant(Value value, LibraryDD lowLevel) {
         assert alive();
         assert value != null;
-        assert invalidateWalkersIfReorder();
         return toDD(lowLevel.newConstant(value), lowLevel);
     }
 
@@ -641,6 +776,10 @@ public final class ContextDD implements Closeable {
         assert totalTime.getRunning() == 0 : totalTime.getRunning();
         assert convertTime.getRunning() == 0 : convertTime.getRunning();
         log.send(MessagesDD.DD_CONVERSION_TIME, convertTime.getTimeSeconds());
+        if (numReorderings > 0) {
+            log.send(MessagesDD.DD_REORDER_TIME, numReorderings,
+                    reorderTime.getTime() / 1000.0);
+        }
         log.send(MessagesDD.DD_TOTAL_TIME, totalTime.getTimeSeconds());
     }
 
@@ -936,8 +1075,8 @@ public final class ContextDD implements Closeable {
         assert alive();
         assert assertValidDD(dd);
         assert assertValidPermutation(permutation);
-        assert invalidateWalkersIfReorder();
         totalTime.start();
+        checkReorder();
         LibraryDD lowLevel = dd.getLowLevel();
         DD result = toDD(lowLevel.permute(dd.uniqueId(),
                 permutation.getLowLevel(dd.getLowLevel())),
@@ -1253,7 +1392,6 @@ public final class ContextDD implements Closeable {
     public DD abstractExist(DD dd, DD cube) {
         assert checkDD();
         assert alive();
-        assert invalidateWalkersIfReorder();
         assert assertValidDD(dd);
         assert assertValidDD(cube);
         assert cube.assertCube();
@@ -1278,7 +1416,6 @@ public final class ContextDD implements Closeable {
     public DD abstractForall(DD dd, DD cube) {
         assert checkDD();
         assert alive();
-        assert invalidateWalkersIfReorder();
         assert assertValidDD(dd);
         assert assertValidDD(cube);
         assert TypeBoolean.is(dd.getType());
@@ -1303,7 +1440,6 @@ public final class ContextDD implements Closeable {
     public DD abstractSum(DD dd, DD cube) {
         assert checkDD();
         assert alive();
-        assert invalidateWalkersIfReorder();
         assert assertValidDD(dd);
         assert assertValidDD(cube);
         assert assertOperatorCompatible(OperatorAdd.ADD, dd, dd);
@@ -1328,7 +1464,6 @@ public final class ContextDD implements Closeable {
     public DD abstractProduct(DD dd, DD cube) {
         assert checkDD();
         assert alive();
-        assert invalidateWalkersIfReorder();
         assert assertValidDD(dd);
         assert assertValidDD(cube);
         assert assertOperatorCompatible(OperatorMultiply.MULTIPLY, dd, dd);
@@ -1353,7 +1488,6 @@ public final class ContextDD implements Closeable {
     public DD abstractMax(DD dd, DD cube) {
         assert checkDD();
         assert alive();
-        assert invalidateWalkersIfReorder();
         assert assertValidDD(dd);
         assert assertValidDD(cube);
         assert assertOperatorCompatible(OperatorMax.MAX, dd, dd);
@@ -1378,7 +1512,6 @@ public final class ContextDD implements Closeable {
     public DD abstractMin(DD dd, DD cube) {
         assert checkDD();
         assert alive();
-        assert invalidateWalkersIfReorder();
         assert assertValidDD(dd);
         assert assertValidDD(cube);
         assert assertOperatorCompatible(OperatorMax.MAX, dd, dd);
@@ -2015,13 +2148,23 @@ public final class ContextDD implements Closeable {
         return true;
     }
 
+    /**
+     * Obtain a walker to traverse the nodes of a DD.
+     * Automatic reordering is suppressed as long as the walker is reachable,
+     * so walkers should not be kept longer than needed. Explicitly calling
+     * {@link #reorder()} invalidates all walkers.
+     *
+     * @param dd DD to traverse
+     * @param autoComplement whether to complement automatically
+     * @return walker for the DD
+     */
     public Walker walker(DD dd, boolean autoComplement) {
         assert alive();
         assert assertValidDD(dd);
         totalTime.start();
         Walker walker = new Walker(dd, autoComplement);
+        walkers.put(walker, null);
         totalTime.stop();
-        assert registerWalker(walker);
         return walker;
     }
 
@@ -2056,13 +2199,6 @@ public final class ContextDD implements Closeable {
         return supportWalker;
     }
 
-    private boolean registerWalker(Walker walker) {
-        assert alive();
-        assert walker != null;
-        walkers.put(walker, null);
-        return true;
-    }
-
     public DD abstractAndExist(DD dd, DD other, DD cube) {
         assert alive();
         assert assertValidDD(dd);
@@ -2072,6 +2208,7 @@ public final class ContextDD implements Closeable {
         assert other.isBoolean();
         assert cube.assertCube();
         totalTime.start();
+        checkReorder();
         DD result;
         DD convertCube;
         if (dd.getLowLevel() != cube.getLowLevel()) {
@@ -2100,7 +2237,6 @@ public final class ContextDD implements Closeable {
         assert checkDD();
         assert dd != null;
         assert !dd.internalAlive();
-        assert invalidateWalkersIfReorder();
         totalTime.start();
         LibraryDD lowLevel = dd.getLowLevel();
         lowLevel.free(dd.uniqueId());
@@ -2166,7 +2302,6 @@ public final class ContextDD implements Closeable {
         assert checkDD();
         assert alive();
         assert assertValidDD(dd);
-        assert invalidateWalkersIfReorder();
         totalTime.start();
         LibraryDD lowLevel = dd.getLowLevel();
         boolean assertionsEnabled = false;
@@ -2546,13 +2681,6 @@ public final class ContextDD implements Closeable {
         return true;
     }
 
-    private boolean invalidateWalkersIfReorder() {
-        if (allowReorder) {
-            invalidateWalkers();
-        }
-        return true;
-    }
-
     private boolean invalidateWalkers() {
         for (Walker walker : walkers.keySet()) {
             walker.invalidate();
@@ -123,4 +123,38 @@ public interface LibraryDD extends Closeable {
     default boolean checkConsistent() {
         return true;
     }
+
+    /**
+     * Obtain the number of nodes currently used by the library.
+     * Libraries which cannot provide this number return {@code -1}.
+     * 
+     * @return number of nodes used, or {@code -1} if unknown
+     */
+    default long getNumNodes() {
+        return -1;
+    }
+
+    /**
+     * Obtain the current position of a variable in the variable order.
+     * Position {@code 0} is the top of the order. Libraries which do not
+     * reorder variables keep them in the order in which they were created,
+     * which is what the default implementation assumes.
+     * 
+     * @param variable index of the variable
+     * @return position of the variable in the current variable order
+     */
+    default int getLevel(int variable) {
+        return variable;
+    }
+
+    /**
+     * Check whether the library is able to reorder its variables.
+     * For libraries which cannot, {@link #reorder()} does nothing, and their
+     * nodes are not taken into account when deciding whether to reorder.
+     * 
+     * @return whether the library is able to reorder its variables
+     */
+    default boolean canReorder() {
+        return false;
+    }
 }
@@ -38,6 +38,12 @@ public final class MessagesDD {
     public final static Message DD_TOTAL_TIME = newMessage().setIdentifier("dd-total-time").build();
     /** Total time spent converting decision diagrams from one libary to another. */
     public final static Message DD_CONVERSION_TIME = newMessage().setIdentifier("dd-conversion-time").build();
+    /** Variables reordered, with number of nodes before and after and time needed. */
+    public final static Message DD_REORDER_DONE = newMessage().setIdentifier("dd-reorder-done").build();
+    /** Time limit for automatic reordering exceeded, reordering disabled. */
+    public final static Message DD_REORDER_TIME_EXCEEDED = newMessage().setIdentifier("dd-reorder-time-exceeded").build();
+    /** Total number of reorderings performed and time spent for them. */
+    public final static Message DD_REORDER_TIME = newMessage().setIdentifier("dd-reorder-time").build();
 
     /**
      * Construct a new message for the DD module.
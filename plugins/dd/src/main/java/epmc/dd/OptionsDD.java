@@ -55,6 +55,14 @@ public enum OptionsDD {
     DD_AND_EXIST,
     /** Whether to perform extended (and slow) leak checks. */
     DD_LEAK_CHECK,
+    /** Whether to reorder DD variables automatically. */
+    DD_REORDER,
+    /** Number of nodes at which automatic reordering starts. */
+    DD_REORDER_MIN_NODES,
+    /** Factor by which the number of nodes must grow before reordering again. */
+    DD_REORDER_GROWTH,
+    /** Total time in seconds automatic reordering may take. */
+    DD_REORDER_MAX_TIME,
     /** Key in {@link Options} providing a {@link Map} of {@link String}s
      * identifying {@link Class}es extending {@link LibraryDD} usable as BDD
      * libraries by instantiation.
@@ -93,6 +93,7 @@ final class VariableDDImpl implements VariableDD {
         for (int copy = 0; copy < copies; copy++) {
             this.ddVariables.add(new ArrayList<>());
         }
+        int firstVariable = contextDD.numVariables();
         for (int bitNr = 0; bitNr < numBits; bitNr++) {
             for (int copy = 0; copy < copies; copy++) {
                 if (ddVariables == null) {
@@ -107,6 +108,10 @@ final class VariableDDImpl implements VariableDD {
                 }
             }
         }
+        if (ddVariables == null && numBits > 1) {
+            /* keep bits of this variable together during reordering */
+            contextDD.addGroup(firstVariable, numBits * copies, false);
+        }
     }
 
     private void prepareBooleanDDVariables(List<List<DD>> ddVariables) {
@@ -131,6 +136,7 @@ final class VariableDDImpl implements VariableDD {
         for (int copy = 0; copy < copies; copy++) {
             this.ddVariables.add(new ArrayList<>());
         }
+        int firstVariable = contextDD.numVariables();
         for (int bitNr = 0; bitNr < numBits; bitNr++) {
             for (int copy = 0; copy < copies; copy++) {
                 if (ddVariables == null) {
@@ -145,6 +151,10 @@ final class VariableDDImpl implements VariableDD {
                 }
             }
         }
+        if (ddVariables == null && numBits > 1) {
+            /* keep bits of this variable together during reordering */
+            contextDD.addGroup(firstVariable, numBits * copies, false);
+        }
     }
 
     private DD computeValueEncoding(int copy) {
@@ -26,7 +26,9 @@ import epmc.dd.LibraryDD;
 import epmc.dd.OptionsDD;
 import epmc.options.Category;
 import epmc.options.OptionTypeBoolean;
+import epmc.options.OptionTypeIntegerNonNegative;
 import epmc.options.OptionTypeMap;
+import epmc.options.OptionTypeRealNonnegative;
 import epmc.options.Options;
 import epmc.plugin.AfterOptionsCreation;
 import epmc.util.OrderedMap;
@@ -77,6 +79,30 @@ public final class AfterOptionsDD implements AfterOptionsCreation {
         .setType(typeBoolean)
         .setCommandLine().setGui()
         .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDD.OPTIONS_DD)
+        .setIdentifier(OptionsDD.DD_REORDER)
+        .setType(typeBoolean)
+        .setDefault(false)
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDD.OPTIONS_DD)
+        .setIdentifier(OptionsDD.DD_REORDER_MIN_NODES)
+        .setType(OptionTypeIntegerNonNegative.getInstance())
+        .setDefault("100000")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDD.OPTIONS_DD)
+        .setIdentifier(OptionsDD.DD_REORDER_GROWTH)
+        .setType(OptionTypeRealNonnegative.getInstance())
+        .setDefault("2.0")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
+        options.addOption().setBundleName(OptionsDD.OPTIONS_DD)
+        .setIdentifier(OptionsDD.DD_REORDER_MAX_TIME)
+        .setType(OptionTypeIntegerNonNegative.getInstance())
+        .setDefault("60")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
     }
 
 }
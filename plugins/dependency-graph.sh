@@ -86,7 +86,7 @@ else
 	colors=("black" "red" "green" "blue" "orange" "cyan" "grey25" "brown" "pink" "purple" "salmon" "aquamarine4" "forestgreen" "darkgoldenrod4" "cadetblue4" "firebrick4" "gold3" "springgreen3" "violetred2" "slateblue1" "purple3" "red3" "palegreen4" "orchid2")
 fi
 
-excludes="jani-interaction jani-exporter mpfr guardedcommand-format param predtransform graphsolver-lp graphsolver-iterative specialise-smg specialise-qmc iscasmc-example imdp rddl-format qmc propertysolver-uct cuda propertysolver-ltl-fairness propertysolver-ltl-fg constraintsolver-isat3 constraintsolver-lp-solve constraintsolver-smt-lib dd-beedeedee dd-buddy dd-cacbdd dd-cudd dd-cudd-mtbdd dd-jdd dd-meddly dd-sylvan dd-sylvan-mtbdd"
+excludes="jani-interaction jani-exporter mpfr guardedcommand-format param predtransform graphsolver-lp graphsolver-iterative specialise-smg specialise-qmc iscasmc-example imdp rddl-format qmc propertysolver-uct cuda propertysolver-ltl-fairness propertysolver-ltl-fg constraintsolver-isat3 constraintsolver-lp-solve constraintsolver-smt-lib dd-beedeedee dd-buddy dd-cacbdd dd-cudd dd-cudd-mtbdd dd-java-mtbdd dd-jdd dd-meddly dd-sylvan dd-sylvan-mtbdd"
 
 colorIndex=0
 dotContent="digraph dependencies {"
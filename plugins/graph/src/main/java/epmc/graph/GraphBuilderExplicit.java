@@ -55,6 +55,7 @@ public final class GraphBuilderExplicit {
     private boolean uniformise;
     private boolean reorder;
     private boolean backward;
+    private boolean mapped;
     private boolean built;
     private List<BitSet> parts;
 
@@ -115,6 +116,21 @@ public final class GraphBuilderExplicit {
         return this;
     }
 
+    /**
+     * Set whether a sparse output graph shall be stored in memory-mapped files.
+     * By default, it is stored in the Java heap. Users setting this flag
+     * must be able to handle graphs for which
+     * {@link GraphExplicitSparse#isMapped()} holds.
+     * 
+     * @param mapped whether to store the output graph in memory-mapped files
+     * @return this builder
+     */
+    public GraphBuilderExplicit setMapped(boolean mapped) {
+        assert !isBuilt();
+        this.mapped = mapped;
+        return this;
+    }
+
     public GraphBuilderExplicit build() {
         assert !built;
         built = true;
@@ -203,7 +219,7 @@ public final class GraphBuilderExplicit {
             }
             numStates += sinkList.size();
             numTotalOut += sinkList.size();
-            outputGraph = new GraphExplicitSparse(numStates, numTotalOut);
+            outputGraph = new GraphExplicitSparse(mapped, numStates, numTotalOut);
         } else {
             int numStates = 0;
             int numTotalNondet = 0;
@@ -26,6 +26,8 @@ public final class OptionsTypesGraph {
         LONG_ARRAY,
         LONG,
         INT,
+        CONCURRENT,
+        TREE,
     }
 
     public static enum WrapperGraphSuccessorsSize {
@@ -35,6 +37,16 @@ public final class OptionsTypesGraph {
         BYTE
     }
 
+    public static enum DDReachability {
+        BFS,
+        SATURATION,
+    }
+
+    public static enum DDVariableOrder {
+        DECLARATION,
+        FORCE,
+    }
+
     private OptionsTypesGraph() {
     }
 }
@@ -64,6 +64,12 @@ public final class StateMapDD implements StateMap, Closeable, Cloneable {
         return this;
     }
 
+    @Override
+    public StateMapDD copy() {
+        assert !closed();
+        return new StateMapDD(states.clone(), valuesDD.clone());
+    }
+
     @Override
     public void close() {
         if (closed()) {
@@ -68,6 +68,12 @@ public final class UtilGraph {
         case LONG_ARRAY:
             nodeStore = BitStoreableToNumber.newNodeStoreLongArray(numBits);
             break;
+        case CONCURRENT:
+            nodeStore = BitStoreableToNumber.newNodeStoreConcurrent(numBits);
+            break;
+        case TREE:
+            nodeStore = BitStoreableToNumber.newNodeStoreTree(numBits);
+            break;
         default:
             assert false;
             nodeStore = null;
@@ -76,6 +82,27 @@ public final class UtilGraph {
         return nodeStore;
     }
 
+    /**
+     * Create a node store which can be used by several threads concurrently.
+     * If {@link OptionsGraph#STATE_STORAGE} is set to
+     * {@link OptionsTypesGraph.StateStorage#SMALLEST} or
+     * {@link OptionsTypesGraph.StateStorage#CONCURRENT}, a lock-free store
+     * is used. Otherwise, the store chosen by {@link #newNodeStore(int)} is
+     * used, with all accesses synchronized.
+     * 
+     * @param numBits number of bits of the nodes to store
+     * @return node store safe for concurrent use
+     */
+    public static BitStoreableToNumber newNodeStoreConcurrent(int numBits) {
+        OptionsTypesGraph.StateStorage stateStorage;
+        stateStorage = Options.get().getEnum(OptionsGraph.STATE_STORAGE);
+        if (stateStorage == OptionsTypesGraph.StateStorage.SMALLEST
+                || stateStorage == OptionsTypesGraph.StateStorage.CONCURRENT) {
+            return BitStoreableToNumber.newNodeStoreConcurrent(numBits);
+        }
+        return BitStoreableToNumber.newNodeStoreSynchronized(newNodeStore(numBits));
+    }
+
     public static StateSetDD computeAllStatesDD(GraphDD graphDD) {
         if (graphDD == null) {
             return null;
@@ -0,0 +1,287 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graph.dd;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import epmc.dd.ContextDD;
+import epmc.dd.DD;
+import epmc.dd.Permutation;
+import epmc.graph.OptionsTypesGraph;
+import epmc.graph.options.OptionsGraph;
+import epmc.options.Options;
+
+/**
+ * Symbolic computation of the set of reachable nodes.
+ * The method used is determined by {@link OptionsGraph#DD_REACHABILITY}.
+ * <ul>
+ * <li>{@link OptionsTypesGraph.DDReachability#BFS} performs breadth-first
+ * image iteration on the monolithic transition relation until a fixpoint is
+ * reached,</li>
+ * <li>{@link OptionsTypesGraph.DDReachability#SATURATION} uses a list of
+ * partial relations, for instance one per command or per edge of the model.
+ * Each of these relations is a boolean DD over present and next state
+ * variables, the union of which forms the complete transition relation.
+ * Saturation first computes for each partial relation the topmost variable it changes or depends on.
+ * Relations with the same topmost variable are merged. Starting from the
+ * bottom of the variable order, the relations are then fired to their local
+ * fixpoint, and each time a relation further up adds new nodes, the ones
+ * below are saturated again. For asynchronous models, in which most
+ * relations only affect a few variables, this keeps the intermediate node
+ * sets much smaller than in breadth-first iteration.</li>
+ * </ul>
+ * The saturation performed works on sets of nodes rather than on single
+ * decision diagram nodes, as the DD libraries used are only accessed by
+ * their operations on complete DDs.
+ *
+ * @author Ernst Moritz Hahn
+ */
+public final class ReachabilityDD {
+    /**
+     * Check whether saturation shall be used.
+     * Callers use this to decide whether to compute the partial transition
+     * relations needed for saturation, which are not needed otherwise.
+     *
+     * @return whether saturation shall be used
+     */
+    public static boolean isSaturation() {
+        OptionsTypesGraph.DDReachability method = Options.get().getEnum(OptionsGraph.DD_REACHABILITY);
+        return method == OptionsTypesGraph.DDReachability.SATURATION;
+    }
+
+    /**
+     * Compute the set of reachable nodes by breadth-first image iteration.
+     * None of the parameters may be {@code null}. The parameters are not
+     * disposed by this method.
+     *
+     * @param initial initial nodes
+     * @param transition complete transition relation
+     * @param presCube cube of present state variables
+     * @param swapPresNext permutation swapping present and next state
+     * @return set of reachable nodes
+     */
+    public static DD reachableBFS(DD initial, DD transition,
+            DD presCube, Permutation swapPresNext) {
+        assert initial != null;
+        assert transition != null;
+        assert presCube != null;
+        assert swapPresNext != null;
+        DD states = initial.clone();
+        DD predecessors = initial.getContext().newConstant(false);
+        while (!states.equals(predecessors)) {
+            predecessors.dispose();
+            predecessors = states;
+            DD next = transition.abstractAndExist(states, presCube);
+            next = next.permuteWith(swapPresNext);
+            states = states.clone().orWith(next);
+        }
+        predecessors.dispose();
+        return states;
+    }
+
+    /**
+     * Compute the set of reachable nodes by saturation.
+     * None of the parameters may be {@code null}. The list of partial
+     * transition relations must not contain {@code null} entries. The
+     * parameters are not disposed by this method.
+     *
+     * @param initial initial nodes
+     * @param transitions partial transition relations
+     * @param presCube cube of present state variables
+     * @param swapPresNext permutation swapping present and next state
+     * @return set of reachable nodes
+     */
+    public static DD reachableSaturation(DD initial, List<DD> transitions,
+            DD presCube, Permutation swapPresNext) {
+        assert initial != null;
+        assert transitions != null;
+        for (DD transition : transitions) {
+            assert transition != null;
+        }
+        assert presCube != null;
+        assert swapPresNext != null;
+        List<DD> levels = computeLevelRelations(transitions, presCube, swapPresNext);
+        DD states = initial.clone();
+        for (int level = 0; level < levels.size(); level++) {
+            states = saturate(states, levels, level, presCube, swapPresNext);
+        }
+        for (DD relation : levels) {
+            if (relation != null) {
+                relation.dispose();
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Saturate a node set using the relations of the given levels.
+     * Levels are numbered bottom-up, that is, level {@code 0} contains the
+     * relations the topmost variable of which is the lowest one in the
+     * variable order. All relations of levels up to {@code level} are fired
+     * until none of them adds further nodes. The node set parameter is
+     * disposed by this method.
+     *
+     * @param states node set to saturate
+     * @param levels relations sorted bottom-up, possibly {@code null}
+     * @param level highest level to fire relations of
+     * @param presCube cube of present state variables
+     * @param swapPresNext permutation swapping present and next state
+     * @return saturated node set
+     */
+    private static DD saturate(DD states, List<DD> levels, int level,
+            DD presCube, Permutation swapPresNext) {
+        if (levels.get(level) == null) {
+            return states;
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int lower = 0; lower <= level; lower++) {
+                DD relation = levels.get(lower);
+                if (relation == null) {
+                    continue;
+                }
+                DD before = states.clone();
+                states = fire(states, relation, presCube, swapPresNext);
+                if (!states.equals(before)) {
+                    changed = true;
+                }
+                before.dispose();
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Fire a relation until its local fixpoint is reached.
+     * The node set parameter is disposed by this method.
+     *
+     * @param states node set to start from
+     * @param relation relation to fire
+     * @param presCube cube of present state variables
+     * @param swapPresNext permutation swapping present and next state
+     * @return node set closed under the relation
+     */
+    private static DD fire(DD states, DD relation, DD presCube,
+            Permutation swapPresNext) {
+        DD frontier = states.clone();
+        while (!frontier.isFalse()) {
+            DD next = relation.abstractAndExist(frontier, presCube);
+            next = next.permuteWith(swapPresNext);
+            frontier.dispose();
+            frontier = next.andNot(states);
+            next.dispose();
+            states = states.orWith(frontier.clone());
+        }
+        frontier.dispose();
+        return states;
+    }
+
+    /**
+     * Merge relations with the same topmost variable.
+     * The topmost variable of a relation is the first present state variable
+     * in the current variable order which the relation either depends on or
+     * does not leave unchanged. The result contains one entry per present state
+     * variable, starting from the bottom of the variable order. Entries of
+     * variables which are not topmost variable of any relation are
+     * {@code null}. Relations leaving all variables unchanged are left out,
+     * as they cannot lead to new nodes.
+     *
+     * @param transitions partial transition relations
+     * @param presCube cube of present state variables
+     * @param swapPresNext permutation swapping present and next state
+     * @return merged relations, sorted bottom-up
+     */
+    private static List<DD> computeLevelRelations(List<DD> transitions,
+            DD presCube, Permutation swapPresNext) {
+        ContextDD contextDD = presCube.getContext();
+        List<DD> presVars = contextDD.cubeToList(presCube);
+        presVars.sort(Comparator.comparingInt(contextDD::getLevel));
+        int numVars = presVars.size();
+        List<DD> identities = new ArrayList<>(numVars);
+        List<DD> presNextCubes = new ArrayList<>(numVars);
+        for (DD presVar : presVars) {
+            DD nextVar = presVar.permute(swapPresNext);
+            identities.add(presVar.iff(nextVar));
+            presNextCubes.add(presVar.and(nextVar));
+            nextVar.dispose();
+        }
+        List<DD> result = new ArrayList<>(numVars);
+        for (int var = 0; var < numVars; var++) {
+            result.add(null);
+        }
+        for (DD transition : transitions) {
+            int top = computeTop(transition, identities, presNextCubes);
+            if (top < 0) {
+                continue;
+            }
+            int level = numVars - 1 - top;
+            DD relation = result.get(level);
+            if (relation == null) {
+                relation = transition.clone();
+            } else {
+                relation = relation.orWith(transition.clone());
+            }
+            result.set(level, relation);
+        }
+        for (DD identity : identities) {
+            identity.dispose();
+        }
+        for (DD presNextCube : presNextCubes) {
+            presNextCube.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * Compute the topmost variable a relation affects.
+     * A variable is not affected by the relation if the relation does not
+     * depend on its present and next state copies other than by requiring
+     * them to be equal.
+     *
+     * @param transition relation to compute topmost variable of
+     * The lists of identities and cubes must be sorted by the current level
+     * of the present state variables.
+     *
+     * @param identities equality of present and next state copies
+     * @param presNextCubes cubes of present and next state copies
+     * @return position of topmost variable in the variable order, or
+     *         {@code -1} if none affected
+     */
+    private static int computeTop(DD transition, List<DD> identities,
+            List<DD> presNextCubes) {
+        for (int var = 0; var < identities.size(); var++) {
+            DD abstracted = transition.abstractExist(presNextCubes.get(var));
+            DD unchanged = abstracted.andWith(identities.get(var).clone());
+            boolean affected = !unchanged.equals(transition);
+            unchanged.dispose();
+            if (affected) {
+                return var;
+            }
+        }
+        return -1;
+    }
+
+    private ReachabilityDD() {
+    }
+}
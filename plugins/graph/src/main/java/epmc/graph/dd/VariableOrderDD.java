@@ -0,0 +1,227 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graph.dd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import epmc.graph.OptionsTypesGraph;
+import epmc.graph.options.OptionsGraph;
+import epmc.options.Options;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * Static ordering of model variables before their DD variables are created.
+ * The model variables are given in their order of declaration together with
+ * a list of dependencies. Each dependency is a set of model variables which
+ * are read or written together, for instance by a single command or edge
+ * or by a set of synchronising edges. The method used is determined by
+ * {@link OptionsGraph#DD_VARIABLE_ORDER}.
+ * <ul>
+ * <li>{@link OptionsTypesGraph.DDVariableOrder#DECLARATION} keeps the order
+ * of declaration,</li>
+ * <li>{@link OptionsTypesGraph.DDVariableOrder#FORCE} uses the FORCE
+ * heuristic, which treats the dependencies as a hypergraph. In each
+ * iteration, the centre of gravity of each dependency is computed as the
+ * average position of its variables, and the variables are then sorted by
+ * the average centre of gravity of the dependencies they occur in. This is
+ * repeated while the total span of all dependencies decreases. Variables
+ * which are used together thus end up close to each other.</li>
+ * </ul>
+ * The bits of a single variable and its present and next state copies are
+ * always placed next to each other by {@link epmc.dd.ContextDD}, so that
+ * only the order of the model variables is computed here.
+ *
+ * @author Ernst Moritz Hahn
+ */
+public final class VariableOrderDD {
+    /** Maximal number of iterations of the FORCE heuristic. */
+    private final static int FORCE_MAX_ITERATIONS = 64;
+
+    /**
+     * Compute the order in which DD variables of model variables are created.
+     * None of the parameters may be {@code null} or contain {@code null}
+     * entries. Model variables of dependencies which are not contained in
+     * the list of variables are ignored. The parameters are not modified.
+     *
+     * @param variables model variables in order of declaration
+     * @param dependencies sets of model variables used together
+     * @return model variables in the order to create DD variables
+     */
+    public static <T> List<T> order(List<T> variables,
+            Collection<? extends Collection<T>> dependencies) {
+        assert variables != null;
+        for (T variable : variables) {
+            assert variable != null;
+        }
+        assert dependencies != null;
+        for (Collection<T> dependency : dependencies) {
+            assert dependency != null;
+        }
+        OptionsTypesGraph.DDVariableOrder method = Options.get().getEnum(OptionsGraph.DD_VARIABLE_ORDER);
+        switch (method) {
+        case DECLARATION:
+            return new ArrayList<>(variables);
+        case FORCE:
+            return orderForce(variables, dependencies);
+        default:
+            assert false;
+            return null;
+        }
+    }
+
+    /**
+     * Check whether the order of declaration is to be used.
+     * In this case, callers may create DD variables directly as they are
+     * declared rather than computing an order beforehand.
+     *
+     * @return whether order of declaration is to be used
+     */
+    public static boolean isDeclarationOrder() {
+        OptionsTypesGraph.DDVariableOrder method = Options.get().getEnum(OptionsGraph.DD_VARIABLE_ORDER);
+        return method == OptionsTypesGraph.DDVariableOrder.DECLARATION;
+    }
+
+    private static <T> List<T> orderForce(List<T> variables,
+            Collection<? extends Collection<T>> dependencies) {
+        int numVariables = variables.size();
+        Object2IntOpenHashMap<T> variableToNumber = new Object2IntOpenHashMap<>();
+        variableToNumber.defaultReturnValue(-1);
+        for (int varNr = 0; varNr < numVariables; varNr++) {
+            variableToNumber.put(variables.get(varNr), varNr);
+        }
+        List<int[]> edges = new ArrayList<>();
+        for (Collection<T> dependency : dependencies) {
+            IntArrayList edge = new IntArrayList();
+            for (T variable : dependency) {
+                int varNr = variableToNumber.getInt(variable);
+                if (varNr >= 0 && !edge.contains(varNr)) {
+                    edge.add(varNr);
+                }
+            }
+            /* dependencies of single variables do not influence the span */
+            if (edge.size() > 1) {
+                edges.add(edge.toIntArray());
+            }
+        }
+        IntArrayList[] variableEdges = new IntArrayList[numVariables];
+        for (int varNr = 0; varNr < numVariables; varNr++) {
+            variableEdges[varNr] = new IntArrayList();
+        }
+        for (int edgeNr = 0; edgeNr < edges.size(); edgeNr++) {
+            for (int varNr : edges.get(edgeNr)) {
+                variableEdges[varNr].add(edgeNr);
+            }
+        }
+
+        int[] position = new int[numVariables];
+        for (int varNr = 0; varNr < numVariables; varNr++) {
+            position[varNr] = varNr;
+        }
+        int[] bestPosition = position.clone();
+        long bestSpan = computeSpan(edges, position);
+        double[] gravity = new double[edges.size()];
+        double[] newPosition = new double[numVariables];
+        Integer[] sorted = new Integer[numVariables];
+        for (int iteration = 0; iteration < FORCE_MAX_ITERATIONS; iteration++) {
+            for (int edgeNr = 0; edgeNr < edges.size(); edgeNr++) {
+                double sum = 0.0;
+                int[] edge = edges.get(edgeNr);
+                for (int varNr : edge) {
+                    sum += position[varNr];
+                }
+                gravity[edgeNr] = sum / edge.length;
+            }
+            for (int varNr = 0; varNr < numVariables; varNr++) {
+                IntArrayList varEdges = variableEdges[varNr];
+                if (varEdges.isEmpty()) {
+                    newPosition[varNr] = position[varNr];
+                    continue;
+                }
+                double sum = 0.0;
+                for (int i = 0; i < varEdges.size(); i++) {
+                    sum += gravity[varEdges.getInt(i)];
+                }
+                newPosition[varNr] = sum / varEdges.size();
+            }
+            for (int varNr = 0; varNr < numVariables; varNr++) {
+                sorted[varNr] = varNr;
+            }
+            /* break ties by previous position to keep the sorting stable */
+            final int[] oldPosition = position;
+            Arrays.sort(sorted, Comparator
+                    .comparingDouble((Integer varNr) -> newPosition[varNr])
+                    .thenComparingInt(varNr -> oldPosition[varNr]));
+            position = new int[numVariables];
+            for (int pos = 0; pos < numVariables; pos++) {
+                position[sorted[pos]] = pos;
+            }
+            long span = computeSpan(edges, position);
+            if (span >= bestSpan) {
+                break;
+            }
+            bestSpan = span;
+            bestPosition = position.clone();
+        }
+
+        List<T> result = new ArrayList<>(numVariables);
+        for (int varNr = 0; varNr < numVariables; varNr++) {
+            result.add(null);
+        }
+        for (int varNr = 0; varNr < numVariables; varNr++) {
+            result.set(bestPosition[varNr], variables.get(varNr));
+        }
+        return result;
+    }
+
+    /**
+     * Compute the total span of the dependencies for a given order.
+     * The span of a dependency is the distance between the first and the
+     * last of its variables in the order.
+     *
+     * @param edges dependencies as arrays of variable numbers
+     * @param position position of each variable in the order
+     * @return total span of dependencies
+     */
+    private static long computeSpan(List<int[]> edges, int[] position) {
+        long span = 0;
+        for (int[] edge : edges) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int varNr : edge) {
+                min = Math.min(min, position[varNr]);
+                max = Math.max(max, position[varNr]);
+            }
+            span += max - min;
+        }
+        return span;
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private VariableOrderDD() {
+    }
+}
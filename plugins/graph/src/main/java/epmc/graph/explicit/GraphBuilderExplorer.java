@@ -20,9 +20,18 @@
 
 package epmc.graph.explicit;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import epmc.graph.CommonProperties;
 import epmc.graph.MessagesGraph;
@@ -34,6 +43,7 @@ import epmc.graph.explorer.Explorer;
 import epmc.graph.explorer.ExplorerEdgeProperty;
 import epmc.graph.explorer.ExplorerNode;
 import epmc.graph.explorer.ExplorerNodeProperty;
+import epmc.graph.options.OptionsGraph;
 import epmc.messages.OptionsMessages;
 import epmc.modelchecker.Log;
 import epmc.options.Options;
@@ -42,12 +52,26 @@ import epmc.util.RunningInfo;
 import epmc.util.RunningInfo.SendInformation;
 import epmc.util.StopWatch;
 import epmc.value.Type;
+import epmc.value.UtilValue;
+import epmc.value.Value;
 import epmc.value.ValueObject;
 
 import static epmc.util.RunningInfo.startWithInfoVoid;
 
 /**
  * Build a graph representation from an explorer.
+ * If more than one thread is to be used, as specified by
+ * {@link OptionsGraph#EXPLORATION_NUM_THREADS}, and a function to create
+ * further explorers of the same model has been set by
+ * {@link #setExplorerSupplier(Supplier)}, the state space is explored in
+ * parallel. In this case, nodes are explored level by level in breadth-first
+ * order, each thread using its own explorer. After each level, its nodes are
+ * renumbered such that the resulting graph is the same as the one obtained
+ * by sequential exploration, and written to the graph.
+ * If a cache key has been set by {@link #setCacheKey(String)}, graphs are
+ * stored in and read from the cache directory specified by
+ * {@link OptionsGraph#EXPLICIT_GRAPH_CACHE_DIRECTORY}, see
+ * {@link GraphExplicitCache}.
  * 
  * @author Ernst Moritz Hahn
  */
@@ -80,8 +104,113 @@ public final class GraphBuilderExplorer {
         }
         
     }
-    
+
+    /**
+     * Information obtained by exploring a single node in parallel
+     * exploration, stored until the level of the node is written to the
+     * graph.
+     */
+    private final static class ExploredNode {
+        /** Values of the node properties of the node. */
+        private Value[] nodeValues;
+        /** Values of the edge properties, indexed by successor and property. */
+        private Value[][] edgeValues;
+        /** Temporary numbers of successors, {@code null} for nondet. states. */
+        private int[] successors;
+        /** Explored choices of nondet. states, {@code null} otherwise. */
+        private ExploredNode[] choices;
+    }
+
+    /**
+     * Exploration thread state of parallel exploration.
+     * Each worker uses its own explorer, as explorers are not thread-safe.
+     */
+    private final static class Worker {
+        private final Explorer explorer;
+        private final ExplorerNodeProperty[] nodeProperties;
+        private final ExplorerEdgeProperty[] edgeProperties;
+        private final ExplorerNode node;
+        private ExplorerNode[] successorNodes;
+
+        Worker(Explorer explorer, Set<Object> nodeProperties, Set<Object> edgeProperties) {
+            assert explorer != null;
+            this.explorer = explorer;
+            this.nodeProperties = new ExplorerNodeProperty[nodeProperties.size()];
+            int propNr = 0;
+            for (Object property : nodeProperties) {
+                this.nodeProperties[propNr] = explorer.getNodeProperty(property);
+                propNr++;
+            }
+            this.edgeProperties = new ExplorerEdgeProperty[edgeProperties.size()];
+            propNr = 0;
+            for (Object property : edgeProperties) {
+                this.edgeProperties[propNr] = explorer.getEdgeProperty(property);
+                propNr++;
+            }
+            this.node = explorer.newNode();
+            this.successorNodes = new ExplorerNode[1];
+            this.successorNodes[0] = explorer.newNode();
+        }
+
+        ExploredNode explore(BitStoreableToNumber nodeStore, int number, boolean nondet) {
+            nodeStore.fromNumber(node, number);
+            explorer.queryNode(node);
+            ExploredNode result = new ExploredNode();
+            result.nodeValues = cloneNodeValues();
+            result.edgeValues = cloneEdgeValues();
+            if (!nondet) {
+                result.successors = storeSuccessors(nodeStore);
+                return result;
+            }
+            int numChoices = explorer.getNumSuccessors();
+            successorNodes = assignSuccessorNodes(explorer, successorNodes);
+            result.choices = new ExploredNode[numChoices];
+            for (int choiceNr = 0; choiceNr < numChoices; choiceNr++) {
+                explorer.queryNode(successorNodes[choiceNr]);
+                ExploredNode choice = new ExploredNode();
+                choice.nodeValues = cloneNodeValues();
+                choice.edgeValues = cloneEdgeValues();
+                choice.successors = storeSuccessors(nodeStore);
+                result.choices[choiceNr] = choice;
+            }
+            return result;
+        }
+
+        private Value[] cloneNodeValues() {
+            Value[] result = new Value[nodeProperties.length];
+            for (int propNr = 0; propNr < nodeProperties.length; propNr++) {
+                result[propNr] = UtilValue.clone(nodeProperties[propNr].get());
+            }
+            return result;
+        }
+
+        private Value[][] cloneEdgeValues() {
+            int numSuccessors = explorer.getNumSuccessors();
+            Value[][] result = new Value[numSuccessors][edgeProperties.length];
+            for (int succNr = 0; succNr < numSuccessors; succNr++) {
+                for (int propNr = 0; propNr < edgeProperties.length; propNr++) {
+                    result[succNr][propNr] = UtilValue.clone(edgeProperties[propNr].get(succNr));
+                }
+            }
+            return result;
+        }
+
+        private int[] storeSuccessors(BitStoreableToNumber nodeStore) {
+            int numSuccessors = explorer.getNumSuccessors();
+            int[] result = new int[numSuccessors];
+            for (int succNr = 0; succNr < numSuccessors; succNr++) {
+                result[succNr] = nodeStore.toNumber(explorer.getSuccessorNode(succNr));
+            }
+            return result;
+        }
+    }
+
+    /** Number of nodes a worker takes from the current level at once. */
+    private final static int LEVEL_CHUNK_SIZE = 64;
+
     private Explorer explorer;
+    private Supplier<Explorer> explorerSupplier;
+    private String cacheKey;
     private final Set<Object> graphProperties = new LinkedHashSet<>();
     private final Set<Object> nodeProperties = new LinkedHashSet<>();
     private final Set<Object> edgeProperties = new LinkedHashSet<>();
@@ -96,6 +225,31 @@ public final class GraphBuilderExplorer {
         this.log = Options.get().get(OptionsMessages.LOG);
     }
 
+    /**
+     * Set function to create further explorers for the model explored.
+     * The explorers created must be equivalent to the one set by
+     * {@link #setExplorer(Explorer)}. The function is only used if the state
+     * space is to be explored using more than one thread.
+     * 
+     * @param explorerSupplier function to create further explorers
+     */
+    public void setExplorerSupplier(Supplier<Explorer> explorerSupplier) {
+        this.explorerSupplier = explorerSupplier;
+    }
+
+    /**
+     * Set key identifying the graph to be built in the graph cache.
+     * The key must describe the model explored, including the values of its
+     * constants, as well as the graph, node and edge properties to be
+     * derived. If no key is set, the graph is neither read from nor stored
+     * in the cache.
+     * 
+     * @param cacheKey key identifying the graph to be built
+     */
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
     public void addDerivedGraphProperties(Set<Object> graphProperties) {
         assert graphProperties != null;
         this.graphProperties.addAll(graphProperties);
@@ -123,11 +277,47 @@ public final class GraphBuilderExplorer {
         info.setLog(log);
         runningInfo.setSleepTime(1000);
         runningInfo.setInformationSender(info);
-        if (nondet) {
+        Path cacheFile = getCacheFile();
+        if (cacheFile != null && readCache(cacheFile)) {
+            return;
+        }
+        int numThreads = Options.get().getInteger(OptionsGraph.EXPLORATION_NUM_THREADS);
+        if (numThreads > 1 && explorerSupplier != null) {
+            doBuildParallel(info, nondet, numThreads);
+        } else if (nondet) {
             doBuildAlternate(info);
         } else {
             doBuildNonAlernate(info);
         }
+        if (cacheFile != null) {
+            GraphExplicitCache.write(cacheFile, graph, nodeProperties, edgeProperties);
+            log.send(MessagesGraph.BUILD_MODEL_CACHE_STORED, cacheFile);
+        }
+    }
+
+    private Path getCacheFile() {
+        if (cacheKey == null) {
+            return null;
+        }
+        Path cacheFile = GraphExplicitCache.getCacheFile(cacheKey);
+        if (cacheFile == null
+                || !GraphExplicitCache.canCache(explorer, nodeProperties, edgeProperties)) {
+            return null;
+        }
+        return cacheFile;
+    }
+
+    private boolean readCache(Path cacheFile) {
+        StopWatch watch = new StopWatch(true);
+        GraphExplicit cached = GraphExplicitCache.read(cacheFile, explorer,
+                graphProperties, nodeProperties, edgeProperties);
+        if (cached == null) {
+            return false;
+        }
+        this.graph = cached;
+        log.send(MessagesGraph.BUILD_MODEL_CACHE_LOADED, cacheFile,
+                cached.computeNumStates(), watch.getTimeSeconds());
+        return true;
     }
     
     private void doBuildNonAlernate(Info info) {
@@ -151,7 +341,7 @@ public final class GraphBuilderExplorer {
         successorNodes[0] = explorer.newNode();
         int currentState = 0;
         info.setCurrentState(currentState);
-        graphStoch = new GraphExplicitSparse();
+        graphStoch = new GraphExplicitSparse(GraphExplicitSparse.useMappedStorage());
         this.graph = graphStoch;
         for (Object property : graphProperties) {
             Type type = explorer.getGraphPropertyType(property);
@@ -292,7 +482,7 @@ public final class GraphBuilderExplorer {
             for (nodePropNr = 0; nodePropNr < graphNodeProperties.length; nodePropNr++) {
                 graphNodeProperties[nodePropNr].set(currentState, explorerNodeProperties[nodePropNr].get());
             }
-            successorNodes = assignSuccessorNodes(successorNodes);
+            successorNodes = assignSuccessorNodes(explorer, successorNodes);
             for (int stateSuccNr = 0; stateSuccNr < numStateSuccessors; stateSuccNr++) {
                 for (nodePropNr = 0; nodePropNr < graphEdgeProperties.length; nodePropNr++) {
                     graphEdgePropertiesAlter[nodePropNr].setForState(explorerEdgeProperties[nodePropNr].get(stateSuccNr), stateSuccNr);
@@ -336,7 +526,243 @@ public final class GraphBuilderExplorer {
         }
     }
 
-    private ExplorerNode[] assignSuccessorNodes(ExplorerNode[] successorNodes) {
+    private void doBuildParallel(Info info, boolean nondet, int numThreads) {
+        assert this.explorer != null;
+        assert this.explorerSupplier != null;
+        assert numThreads > 1;
+        StopWatch watch = new StopWatch(true);
+        log.send(MessagesGraph.BUILD_MODEL_START);
+        if (nondet) {
+            graphAlter = new GraphExplicitSparseAlternate();
+            this.graph = graphAlter;
+        } else {
+            graphStoch = new GraphExplicitSparse(GraphExplicitSparse.useMappedStorage());
+            this.graph = graphStoch;
+        }
+        for (Object property : graphProperties) {
+            Type type = explorer.getGraphPropertyType(property);
+            assert type != null : property;
+            this.graph.addSettableGraphProperty(property, type);
+            this.graph.setGraphProperty(property, explorer.getGraphProperty(property));
+        }
+        boolean withExplorerNode = nodeProperties.contains(CommonProperties.NODE_EXPLORER);
+        nodeProperties.remove(CommonProperties.NODE_EXPLORER);
+        NodeProperty[] graphNodeProperties = new NodeProperty[nodeProperties.size()];
+        int nodePropNr = 0;
+        for (Object property : nodeProperties) {
+            Type type = explorer.getNodePropertyType(property);
+            assert type != null : property + " " + explorer.getNodeProperty(property);
+            graphNodeProperties[nodePropNr] = graph.addSettableNodeProperty(property, type);
+            nodePropNr++;
+        }
+        EdgeProperty[] graphEdgeProperties = new EdgeProperty[edgeProperties.size()];
+        int edgePropNr = 0;
+        for (Object property : edgeProperties) {
+            Type type = explorer.getEdgePropertyType(property);
+            if (nondet) {
+                graphEdgeProperties[edgePropNr] = graphAlter.addSettableEdgeProperty(property, type);
+            } else {
+                graphEdgeProperties[edgePropNr] = graph.addSettableEdgeProperty(property, type);
+            }
+            edgePropNr++;
+        }
+
+        List<Worker> workers = new ArrayList<>();
+        workers.add(new Worker(explorer, nodeProperties, edgeProperties));
+        for (int threadNr = 1; threadNr < numThreads; threadNr++) {
+            workers.add(new Worker(explorerSupplier.get(), nodeProperties, edgeProperties));
+        }
+        BitStoreableToNumber exploreStore = UtilGraph.newNodeStoreConcurrent(explorer.getNumNodeBits());
+        int lastInitNumber = 0;
+        int numInitStates = 0;
+        for (ExplorerNode node : explorer.getInitialNodes()) {
+            lastInitNumber = exploreStore.toNumber(node);
+            numInitStates++;
+        }
+        /* The nodes of each level obtain contiguous temporary numbers in the
+         * order in which the workers happen to find them. In sequential
+         * exploration, the nodes of a level are numbered contiguously as
+         * well, so that both numberings use the same range for each level.
+         * After a level has been explored, we thus know the final numbers of
+         * its successors in the next level by going through the level in
+         * final order, and can write the level to the graph right away. Only
+         * the map from temporary to final numbers is kept for all nodes. */
+        int[] renumber = new int[lastInitNumber + 1];
+        int[] order = new int[lastInitNumber + 1];
+        for (int state = 0; state <= lastInitNumber; state++) {
+            renumber[state] = state;
+            order[state] = state;
+        }
+        BitStoreableToNumber nodeStore = withExplorerNode ? newNodeStore(explorer) : null;
+        ExplorerNode storeNode = explorer.newNode();
+        int nondetNr = lastInitNumber + 1;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            int levelFrom = 0;
+            int levelTo = lastInitNumber + 1;
+            info.setCurrentState(levelFrom);
+            while (levelFrom < levelTo) {
+                ExploredNode[] level = exploreLevel(executor, workers, exploreStore,
+                        levelFrom, levelTo, nondet);
+                int numNodes = exploreStore.size();
+                if (renumber.length < numNodes) {
+                    int oldLength = renumber.length;
+                    renumber = Arrays.copyOf(renumber, Math.max(numNodes, oldLength * 2));
+                    Arrays.fill(renumber, oldLength, renumber.length, -1);
+                }
+                int[] nextOrder = new int[numNodes - levelTo];
+                int numOrdered = levelTo;
+                for (int state = levelFrom; state < levelTo; state++) {
+                    ExploredNode node = level[order[state - levelFrom] - levelFrom];
+                    if (nondet) {
+                        for (ExploredNode choice : node.choices) {
+                            numOrdered = renumber(choice.successors, renumber, nextOrder, levelTo, numOrdered);
+                        }
+                    } else {
+                        numOrdered = renumber(node.successors, renumber, nextOrder, levelTo, numOrdered);
+                    }
+                }
+                assert numOrdered == numNodes : numOrdered + " " + numNodes;
+                for (int state = levelFrom; state < levelTo; state++) {
+                    int temporary = order[state - levelFrom];
+                    ExploredNode node = level[temporary - levelFrom];
+                    level[temporary - levelFrom] = null;
+                    if (nondet) {
+                        nondetNr = writeAlternate(node, state, nondetNr, renumber,
+                                graphNodeProperties, graphEdgeProperties);
+                    } else {
+                        writeNonAlternate(node, state, renumber,
+                                graphNodeProperties, graphEdgeProperties);
+                    }
+                    if (nodeStore != null) {
+                        exploreStore.fromNumber(storeNode, temporary);
+                        nodeStore.toNumber(storeNode);
+                    }
+                }
+                order = nextOrder;
+                levelFrom = levelTo;
+                levelTo = numNodes;
+                info.setCurrentState(levelFrom);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int numStates = exploreStore.size();
+        for (int initState = 0; initState < numInitStates; initState++) {
+            this.graph.getInitialNodes().set(initState);
+        }
+        if (withExplorerNode) {
+            NodePropertyExplorerNode explorerNodeProperty = new NodePropertyExplorerNode(graph, explorer, nodeStore);
+            graph.registerNodeProperty(CommonProperties.NODE_EXPLORER,
+                    explorerNodeProperty);
+            explorerNodeProperty.setNumStates(graph.computeNumStates());
+        }
+        info.setCurrentState(numStates);
+        log.send(MessagesGraph.BUILD_MODEL_DONE, numStates, watch.getTimeSeconds());
+    }
+
+    /**
+     * Explore the nodes of one level in parallel.
+     * The nodes with temporary numbers from {@code levelFrom} (inclusive) to
+     * {@code levelTo} (exclusive) are explored. The result array is indexed
+     * by the temporary number minus {@code levelFrom}.
+     */
+    private static ExploredNode[] exploreLevel(ExecutorService executor, List<Worker> workers,
+            BitStoreableToNumber nodeStore, int levelFrom, int levelTo, boolean nondet) {
+        ExploredNode[] level = new ExploredNode[levelTo - levelFrom];
+        AtomicInteger next = new AtomicInteger(levelFrom);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Worker worker : workers) {
+            futures.add(executor.submit(() -> {
+                int chunkFrom;
+                while ((chunkFrom = next.getAndAdd(LEVEL_CHUNK_SIZE)) < levelTo) {
+                    int chunkTo = Math.min(chunkFrom + LEVEL_CHUNK_SIZE, levelTo);
+                    for (int number = chunkFrom; number < chunkTo; number++) {
+                        level[number - levelFrom] = worker.explore(nodeStore, number, nondet);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw new RuntimeException(cause);
+                }
+            }
+        }
+        return level;
+    }
+
+    private static int renumber(int[] successors, int[] renumber, int[] nextOrder,
+            int nextFrom, int numOrdered) {
+        for (int succ : successors) {
+            if (renumber[succ] < 0) {
+                renumber[succ] = numOrdered;
+                nextOrder[numOrdered - nextFrom] = succ;
+                numOrdered++;
+            }
+        }
+        return numOrdered;
+    }
+
+    private void writeNonAlternate(ExploredNode node, int state, int[] renumber,
+            NodeProperty[] graphNodeProperties, EdgeProperty[] graphEdgeProperties) {
+        int numStateSuccessors = node.successors.length;
+        graphStoch.prepareNode(state, numStateSuccessors);
+        for (int nodePropNr = 0; nodePropNr < graphNodeProperties.length; nodePropNr++) {
+            graphNodeProperties[nodePropNr].set(state, node.nodeValues[nodePropNr]);
+        }
+        for (int stateSuccNr = 0; stateSuccNr < numStateSuccessors; stateSuccNr++) {
+            graph.setSuccessorNode(state, stateSuccNr, renumber[node.successors[stateSuccNr]]);
+            for (int edgePropNr = 0; edgePropNr < graphEdgeProperties.length; edgePropNr++) {
+                graphEdgeProperties[edgePropNr].set(state, stateSuccNr, node.edgeValues[stateSuccNr][edgePropNr]);
+            }
+        }
+    }
+
+    private int writeAlternate(ExploredNode node, int state, int nondetNr, int[] renumber,
+            NodeProperty[] graphNodeProperties, EdgeProperty[] graphEdgeProperties) {
+        int numStateSuccessors = node.choices.length;
+        graphAlter.prepareState(numStateSuccessors);
+        for (int nodePropNr = 0; nodePropNr < graphNodeProperties.length; nodePropNr++) {
+            graphNodeProperties[nodePropNr].set(state, node.nodeValues[nodePropNr]);
+        }
+        for (int stateSuccNr = 0; stateSuccNr < numStateSuccessors; stateSuccNr++) {
+            for (int edgePropNr = 0; edgePropNr < graphEdgeProperties.length; edgePropNr++) {
+                EdgePropertySparseNondet edgeProperty = (EdgePropertySparseNondet) graphEdgeProperties[edgePropNr];
+                edgeProperty.setForState(node.edgeValues[stateSuccNr][edgePropNr], stateSuccNr);
+            }
+        }
+        for (ExploredNode choice : node.choices) {
+            for (int nodePropNr = 0; nodePropNr < graphNodeProperties.length; nodePropNr++) {
+                graphNodeProperties[nodePropNr].set(nondetNr, choice.nodeValues[nodePropNr]);
+            }
+            int numISuccessors = choice.successors.length;
+            graphAlter.prepareNondet(numISuccessors);
+            for (int interSuccNr = 0; interSuccNr < numISuccessors; interSuccNr++) {
+                for (int edgePropNr = 0; edgePropNr < graphEdgeProperties.length; edgePropNr++) {
+                    EdgePropertySparseNondet edgeProperty = (EdgePropertySparseNondet) graphEdgeProperties[edgePropNr];
+                    edgeProperty.setForNonDet(choice.edgeValues[interSuccNr][edgePropNr], interSuccNr);
+                }
+                graphAlter.setNondetSuccessor(interSuccNr, renumber[choice.successors[interSuccNr]]);
+            }
+            nondetNr++;
+        }
+        return nondetNr;
+    }
+
+    private static ExplorerNode[] assignSuccessorNodes(Explorer explorer, ExplorerNode[] successorNodes) {
         int numSuccessors = explorer.getNumSuccessors();
         if (numSuccessors > successorNodes.length) {
             int oldLength = successorNodes.length;
@@ -0,0 +1,516 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graph.explicit;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+import epmc.graph.CommonProperties;
+import epmc.graph.explicit.GraphExplicitSparseAlternate.EdgePropertySparseNondet;
+import epmc.graph.explorer.Explorer;
+import epmc.graph.options.OptionsGraph;
+import epmc.options.Options;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
+import epmc.value.Type;
+import epmc.value.Value;
+import epmc.value.ValueBitStoreable;
+
+/**
+ * Persistent cache of explicit-state graphs built from explorers.
+ * If {@link OptionsGraph#EXPLICIT_GRAPH_CACHE_DIRECTORY} is set, graphs
+ * built by {@link GraphBuilderExplorer} are stored in a binary file in this
+ * directory. The file name is derived from a key describing the model, the
+ * values of its constants, and the properties requested. If a file for the
+ * same key exists in later runs, the graph is read from this file rather
+ * than being explored again.
+ * 
+ * The file contains the node bounds, successors and initial nodes of the
+ * graph, as well as the values of the node and edge properties requested.
+ * Graph properties, as well as the types of node and edge properties, are
+ * obtained from the explorer of the model. Graphs can only be cached if all
+ * node and edge property values can be written to bit streams. The file is
+ * read by mapping it into memory.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class GraphExplicitCache {
+    /** Writes a bit stream to an output stream, in blocks of longs. */
+    private final static class Writer implements BitStreamWriter {
+        private final DataOutputStream out;
+        private long buffer;
+        private int numBuffered;
+
+        Writer(OutputStream out) {
+            assert out != null;
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+        }
+
+        @Override
+        public void write(boolean value) {
+            writeBits(value ? 1L : 0L, 1);
+        }
+
+        @Override
+        public void writeInt(int value) {
+            writeBits(value & LOWER_MASK, Integer.SIZE);
+        }
+
+        @Override
+        public void writeInt(int value, int numBits) {
+            writeBits(value & mask(numBits), numBits);
+        }
+
+        @Override
+        public void writeLong(long value) {
+            writeBits(value, Long.SIZE);
+        }
+
+        private void writeBits(long value, int numBits) {
+            buffer |= value << numBuffered;
+            int free = Long.SIZE - numBuffered;
+            if (numBits < free) {
+                numBuffered += numBits;
+                return;
+            }
+            try {
+                out.writeLong(buffer);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            numBuffered = numBits - free;
+            buffer = numBuffered == 0 ? 0L : value >>> free;
+        }
+
+        void close() throws IOException {
+            if (numBuffered > 0) {
+                out.writeLong(buffer);
+            }
+            out.close();
+        }
+    }
+
+    /** Reads a bit stream from a file mapped into memory in segments. */
+    private final static class Reader implements BitStreamReader {
+        private final static long SEGMENT_SIZE = 1L << 30;
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        private ByteBuffer segment;
+        private long buffer;
+        private int numAvailable;
+
+        Reader(FileChannel channel) throws IOException {
+            assert channel != null;
+            this.channel = channel;
+            this.size = channel.size();
+            this.segment = ByteBuffer.allocate(0);
+        }
+
+        @Override
+        public boolean read() {
+            return readBits(1) != 0L;
+        }
+
+        @Override
+        public int readInt() {
+            return (int) readBits(Integer.SIZE);
+        }
+
+        @Override
+        public int readInt(int numBits) {
+            return (int) readBits(numBits);
+        }
+
+        @Override
+        public long readLong() {
+            return readBits(Long.SIZE);
+        }
+
+        private long readBits(int numBits) {
+            if (numBits <= numAvailable) {
+                long result = buffer & mask(numBits);
+                buffer = numBits == Long.SIZE ? 0L : buffer >>> numBits;
+                numAvailable -= numBits;
+                return result;
+            }
+            long result = buffer;
+            int have = numAvailable;
+            long next = nextLong();
+            int need = numBits - have;
+            result |= (next & mask(need)) << have;
+            buffer = need == Long.SIZE ? 0L : next >>> need;
+            numAvailable = Long.SIZE - need;
+            return result;
+        }
+
+        private long nextLong() {
+            if (!segment.hasRemaining()) {
+                if (position >= size) {
+                    throw new IllegalStateException();
+                }
+                long segmentSize = Math.min(SEGMENT_SIZE, size - position);
+                try {
+                    MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, position, segmentSize);
+                    segment = mapped;
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                position += segmentSize;
+            }
+            return segment.getLong();
+        }
+    }
+
+    private final static String FILE_ENDING = ".graph";
+    private final static String TMP_ENDING = ".tmp";
+    private final static String HASH_ALGORITHM = "SHA-256";
+    private final static long MAGIC = 0x45504d4347524148L;
+    private final static int VERSION = 1;
+    private final static long LOWER_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Obtain the cache file for a given key.
+     * The file name is the hash value of the key.
+     * If caching is disabled, {@code null} is returned.
+     * 
+     * @param key key describing the graph, must not be {@code null}
+     * @return cache file, or {@code null} if caching is disabled
+     */
+    public static Path getCacheFile(String key) {
+        assert key != null;
+        if (!isEnabled()) {
+            return null;
+        }
+        String directory = Options.get().getString(OptionsGraph.EXPLICIT_GRAPH_CACHE_DIRECTORY);
+        return Paths.get(directory, hash(key) + FILE_ENDING);
+    }
+
+    /**
+     * Check whether a cache directory has been specified.
+     * 
+     * @return whether graphs are to be cached
+     */
+    public static boolean isEnabled() {
+        String directory = Options.get().getString(OptionsGraph.EXPLICIT_GRAPH_CACHE_DIRECTORY);
+        return directory != null && !directory.isEmpty();
+    }
+
+    /**
+     * Check whether graphs with the given properties can be cached.
+     * 
+     * @param explorer explorer to obtain property types from
+     * @param nodeProperties node properties requested
+     * @param edgeProperties edge properties requested
+     * @return whether graphs with these properties can be cached
+     */
+    public static boolean canCache(Explorer explorer,
+            Set<Object> nodeProperties, Set<Object> edgeProperties) {
+        assert explorer != null;
+        assert nodeProperties != null;
+        assert edgeProperties != null;
+        if (nodeProperties.contains(CommonProperties.NODE_EXPLORER)) {
+            return false;
+        }
+        for (Object property : nodeProperties) {
+            if (!canStore(explorer.getNodePropertyType(property))) {
+                return false;
+            }
+        }
+        for (Object property : edgeProperties) {
+            if (!canStore(explorer.getEdgePropertyType(property))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write graph to cache file.
+     * The file is first written to a temporary file, which is then moved to
+     * the final location, so that concurrent runs never read incomplete
+     * files.
+     * 
+     * @param file cache file to write to
+     * @param graph graph to store
+     * @param nodeProperties node properties to store
+     * @param edgeProperties edge properties to store
+     */
+    public static void write(Path file, GraphExplicit graph,
+            Set<Object> nodeProperties, Set<Object> edgeProperties) {
+        assert file != null;
+        assert graph instanceof GraphExplicitSparse
+        || graph instanceof GraphExplicitSparseAlternate;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path tmpFile = Files.createTempFile(file.toAbsolutePath().getParent(),
+                    file.getFileName().toString(), TMP_ENDING);
+            try (OutputStream out = Files.newOutputStream(tmpFile)) {
+                Writer writer = new Writer(out);
+                writer.writeLong(MAGIC);
+                writer.writeInt(VERSION);
+                if (graph instanceof GraphExplicitSparse) {
+                    writer.write(false);
+                    writeStructure(writer, (GraphExplicitSparse) graph);
+                } else {
+                    writer.write(true);
+                    writeStructure(writer, (GraphExplicitSparseAlternate) graph);
+                }
+                writer.writeInt(graph.getInitialNodes().cardinality());
+                for (int node = graph.getInitialNodes().nextSetBit(0); node >= 0;
+                        node = graph.getInitialNodes().nextSetBit(node + 1)) {
+                    writer.writeInt(node);
+                }
+                int numNodes = graph.getNumNodes();
+                for (Object property : nodeProperties) {
+                    NodeProperty nodeProperty = graph.getNodeProperty(property);
+                    for (int node = 0; node < numNodes; node++) {
+                        ValueBitStoreable.as(nodeProperty.get(node)).write(writer);
+                    }
+                }
+                for (Object property : edgeProperties) {
+                    EdgeProperty edgeProperty = graph.getEdgeProperty(property);
+                    for (int node = 0; node < numNodes; node++) {
+                        int numSuccessors = graph.getNumSuccessors(node);
+                        for (int succNr = 0; succNr < numSuccessors; succNr++) {
+                            ValueBitStoreable.as(edgeProperty.get(node, succNr)).write(writer);
+                        }
+                    }
+                }
+                writer.close();
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Read graph from cache file.
+     * The graph properties, as well as the types of the node and edge
+     * properties, are obtained from the explorer. If the file does not exist
+     * or is not a valid cache file, {@code null} is returned.
+     * 
+     * @param file cache file to read from
+     * @param explorer explorer of the model of the graph
+     * @param graphProperties graph properties to use
+     * @param nodeProperties node properties to read
+     * @param edgeProperties edge properties to read
+     * @return graph read, or {@code null}
+     */
+    public static GraphExplicit read(Path file, Explorer explorer,
+            Set<Object> graphProperties, Set<Object> nodeProperties,
+            Set<Object> edgeProperties) {
+        assert file != null;
+        assert explorer != null;
+        if (!Files.isReadable(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Reader reader = new Reader(channel);
+            if (channel.size() < Long.BYTES * 2
+                    || reader.readLong() != MAGIC
+                    || reader.readInt() != VERSION) {
+                return null;
+            }
+            boolean nondet = reader.read();
+            GraphExplicit graph;
+            EdgeProperty[] edgeProps = new EdgeProperty[edgeProperties.size()];
+            if (nondet) {
+                GraphExplicitSparseAlternate graphAlter = new GraphExplicitSparseAlternate();
+                graph = graphAlter;
+                int edgePropNr = 0;
+                for (Object property : edgeProperties) {
+                    edgeProps[edgePropNr] = graphAlter.addSettableEdgeProperty(property,
+                            explorer.getEdgePropertyType(property));
+                    edgePropNr++;
+                }
+                readStructure(reader, graphAlter);
+            } else {
+                GraphExplicitSparse graphStoch = new GraphExplicitSparse(GraphExplicitSparse.useMappedStorage());
+                graph = graphStoch;
+                int edgePropNr = 0;
+                for (Object property : edgeProperties) {
+                    edgeProps[edgePropNr] = graphStoch.addSettableEdgeProperty(property,
+                            explorer.getEdgePropertyType(property));
+                    edgePropNr++;
+                }
+                readStructure(reader, graphStoch);
+            }
+            for (Object property : graphProperties) {
+                Type type = explorer.getGraphPropertyType(property);
+                assert type != null : property;
+                graph.addSettableGraphProperty(property, type);
+                graph.setGraphProperty(property, explorer.getGraphProperty(property));
+            }
+            int numInitNodes = reader.readInt();
+            for (int initNr = 0; initNr < numInitNodes; initNr++) {
+                graph.getInitialNodes().set(reader.readInt());
+            }
+            int numNodes = graph.getNumNodes();
+            for (Object property : nodeProperties) {
+                Type type = explorer.getNodePropertyType(property);
+                NodeProperty nodeProperty = graph.addSettableNodeProperty(property, type);
+                Value value = type.newValue();
+                for (int node = 0; node < numNodes; node++) {
+                    ValueBitStoreable.as(value).read(reader);
+                    nodeProperty.set(node, value);
+                }
+            }
+            readEdgeProperties(reader, graph, edgeProperties, edgeProps, explorer);
+            return graph;
+        } catch (IOException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private static void writeStructure(Writer writer, GraphExplicitSparse graph) {
+        int numStates = graph.getNumStates();
+        writer.writeInt(numStates);
+        for (int state = 0; state < numStates; state++) {
+            writer.writeInt(graph.getNumSuccessors(state));
+        }
+        for (int state = 0; state < numStates; state++) {
+            int numSuccessors = graph.getNumSuccessors(state);
+            for (int succNr = 0; succNr < numSuccessors; succNr++) {
+                writer.writeInt(graph.getSuccessorNode(state, succNr));
+            }
+        }
+    }
+
+    private static void writeStructure(Writer writer, GraphExplicitSparseAlternate graph) {
+        int numStates = graph.computeNumStates();
+        int numNodes = graph.getNumNodes();
+        writer.writeInt(numStates);
+        writer.writeInt(numNodes - numStates);
+        for (int node = 0; node < numNodes; node++) {
+            writer.writeInt(graph.getNumSuccessors(node));
+        }
+        for (int node = numStates; node < numNodes; node++) {
+            int numSuccessors = graph.getNumSuccessors(node);
+            for (int succNr = 0; succNr < numSuccessors; succNr++) {
+                writer.writeInt(graph.getSuccessorNode(node, succNr));
+            }
+        }
+    }
+
+    private static void readStructure(Reader reader, GraphExplicitSparse graph) {
+        int numStates = reader.readInt();
+        int[] numSuccessors = new int[numStates];
+        for (int state = 0; state < numStates; state++) {
+            numSuccessors[state] = reader.readInt();
+        }
+        for (int state = 0; state < numStates; state++) {
+            graph.prepareNode(state, numSuccessors[state]);
+            for (int succNr = 0; succNr < numSuccessors[state]; succNr++) {
+                graph.setSuccessorNode(state, succNr, reader.readInt());
+            }
+        }
+    }
+
+    private static void readStructure(Reader reader, GraphExplicitSparseAlternate graph) {
+        int numStates = reader.readInt();
+        int numNondet = reader.readInt();
+        int[] numSuccessors = new int[numStates + numNondet];
+        for (int node = 0; node < numStates + numNondet; node++) {
+            numSuccessors[node] = reader.readInt();
+        }
+        for (int state = 0; state < numStates; state++) {
+            graph.prepareState(numSuccessors[state]);
+        }
+        for (int nondet = 0; nondet < numNondet; nondet++) {
+            int numNondetSuccessors = numSuccessors[numStates + nondet];
+            graph.prepareNondet(numNondetSuccessors);
+            for (int succNr = 0; succNr < numNondetSuccessors; succNr++) {
+                graph.setNondetSuccessor(succNr, reader.readInt());
+            }
+        }
+    }
+
+    private static void readEdgeProperties(Reader reader, GraphExplicit graph,
+            Set<Object> edgeProperties, EdgeProperty[] edgeProps, Explorer explorer) {
+        int numNodes = graph.getNumNodes();
+        int numStates = graph.computeNumStates();
+        boolean nondet = graph instanceof GraphExplicitSparseAlternate;
+        int edgePropNr = 0;
+        for (Object property : edgeProperties) {
+            EdgeProperty edgeProperty = edgeProps[edgePropNr];
+            Value value = explorer.getEdgePropertyType(property).newValue();
+            for (int node = 0; node < numNodes; node++) {
+                int numSuccessors = graph.getNumSuccessors(node);
+                for (int succNr = 0; succNr < numSuccessors; succNr++) {
+                    ValueBitStoreable.as(value).read(reader);
+                    if (!nondet) {
+                        edgeProperty.set(node, succNr, value);
+                    } else if (node < numStates) {
+                        ((EdgePropertySparseNondet) edgeProperty).setForState(value, succNr);
+                    } else {
+                        edgeProperty.set(node, succNr, value);
+                    }
+                }
+            }
+            edgePropNr++;
+        }
+    }
+
+    private static boolean canStore(Type type) {
+        return type != null && ValueBitStoreable.is(type.newValue());
+    }
+
+    private static long mask(int numBits) {
+        return numBits == Long.SIZE ? ~0L : (1L << numBits) - 1;
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder result = new StringBuilder();
+            for (byte entry : hash) {
+                result.append(String.format("%02x", entry));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private GraphExplicitCache() {
+    }
+}
@@ -20,15 +20,22 @@
 
 package epmc.graph.explicit;
 
+import epmc.graph.options.OptionsGraph;
+import epmc.options.Options;
 import epmc.util.BitSet;
 import epmc.util.UtilBitSet;
 import epmc.value.Type;
 import epmc.value.TypeArray;
+import epmc.value.TypeArrayDoubleMappedByteBuffer;
+import epmc.value.TypeArrayIntegerMappedByteBuffer;
+import epmc.value.TypeDouble;
 import epmc.value.TypeInteger;
+import epmc.value.TypeWeight;
 import epmc.value.UtilValue;
 import epmc.value.Value;
 import epmc.value.ValueArray;
 import epmc.value.ValueArrayInteger;
+import epmc.value.ValueArrayMappedByteBuffer;
 import epmc.value.ValueContentIntArray;
 
 /**
@@ -36,6 +43,12 @@ import epmc.value.ValueContentIntArray;
  * Allows for different types of memory storage to be used for its data.
  * This is useful if e.g. value iteration shall be performed in native
  * code rather than in Java.
+ * If the graph is created as memory-mapped, the node bounds, successors
+ * and double edge properties are stored in memory-mapped temporary files
+ * rather than in the Java heap. In this case, {@link #getBoundsJava()} and
+ * {@link #getTargetsJava()} return {@code null}, and the data must be
+ * accessed using {@link #getBounds()} and {@link #getTargets()}. Users
+ * obtaining a graph from elsewhere must thus check {@link #isMapped()}.
  * 
  * @author Ernst Moritz Hahn
  */
@@ -51,7 +64,12 @@ public final class GraphExplicitSparse implements GraphExplicit {
             assert type != null;
             this.graph = graph;
             this.value = type.newValue();
-            TypeArray typeArray = type.getTypeArray();
+            TypeArray typeArray;
+            if (mapped && TypeDouble.is(type)) {
+                typeArray = TypeArrayDoubleMappedByteBuffer.get();
+            } else {
+                typeArray = type.getTypeArray();
+            }
             this.content = UtilValue.newArray(typeArray, numTotalOut > 0 ? numTotalOut : 1);
         }
 
@@ -98,25 +116,42 @@ public final class GraphExplicitSparse implements GraphExplicit {
     private final GraphExplicitProperties properties;
     /** True if the number of nodes and transitions may be modified after creation. */
     private boolean fixedMode;
+    /** True if arrays are stored in memory-mapped files. */
+    private final boolean mapped;
 
     /**
      * Create graph so that the number of nodes and edges can be extended later.
      */
     public GraphExplicitSparse() {
+        this(false);
+    }
+
+    /**
+     * Create graph so that the number of nodes and edges can be extended later.
+     * 
+     * @param mapped whether to store the graph in memory-mapped files
+     */
+    public GraphExplicitSparse(boolean mapped) {
         initNodes = UtilBitSet.newBitSetUnbounded();
         properties = new GraphExplicitProperties(this);
-        TypeArray typeArrayInteger = TypeInteger.get().getTypeArray();
+        this.mapped = mapped;
+        TypeArray typeArrayInteger = getTypeArrayInteger();
         bounds = UtilValue.newArray(typeArrayInteger, 1);
         successors = UtilValue.newArray(typeArrayInteger, 1);
     }
 
     public GraphExplicitSparse(int numNodes, int numTotalOut) {
+        this(false, numNodes, numTotalOut);
+    }
+
+    public GraphExplicitSparse(boolean mapped, int numNodes, int numTotalOut) {
         initNodes = UtilBitSet.newBitSetUnbounded();
         properties = new GraphExplicitProperties(this);
         this.fixedMode = true;
         this.numNodes = numNodes;
         this.numTotalOut = numTotalOut;
-        TypeArray typeArrayInteger = TypeInteger.get().getTypeArray();
+        this.mapped = mapped;
+        TypeArray typeArrayInteger = getTypeArrayInteger();
         bounds = UtilValue.newArray(typeArrayInteger, numNodes + 1);
         successors = UtilValue.newArray(typeArrayInteger, numTotalOut);
 
@@ -124,6 +159,53 @@ public final class GraphExplicitSparse implements GraphExplicit {
 //        addNodePropertyConstant(CommonProperties.STATE, UtilValue.newValue(TypeBoolean.get(), true));
     }
 
+    /**
+     * Check whether models shall be stored in memory-mapped files.
+     * This is the case if {@link OptionsGraph#EXPLICIT_GRAPH_MAPPED} is set
+     * and weights are represented as doubles. The option is only used when
+     * building the model graph. Whether a given graph is memory-mapped
+     * must be checked using {@link #isMapped()}.
+     * 
+     * @return whether models shall be stored in memory-mapped files
+     */
+    public static boolean useMappedStorage() {
+        return Options.get().getBoolean(OptionsGraph.EXPLICIT_GRAPH_MAPPED)
+                && TypeDouble.is(TypeWeight.get());
+    }
+
+    private TypeArray getTypeArrayInteger() {
+        if (mapped) {
+            return TypeArrayIntegerMappedByteBuffer.get();
+        } else {
+            return TypeInteger.get().getTypeArray();
+        }
+    }
+
+    /**
+     * Check whether the arrays of this graph are stored in memory-mapped
+     * files.
+     * 
+     * @return whether arrays of this graph are memory-mapped
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Check whether a graph is a sparse graph stored in memory-mapped files.
+     * Graph solvers which can only iterate over graphs on the heap use this
+     * to decline such graphs, as copying them would defeat the purpose of
+     * storing them in memory-mapped files.
+     * 
+     * @param graph graph to check
+     * @return whether the graph is stored in memory-mapped files
+     */
+    public static boolean isMapped(GraphExplicit graph) {
+        assert graph != null;
+        return graph instanceof GraphExplicitSparse
+                && ((GraphExplicitSparse) graph).isMapped();
+    }
+
     public NodeProperty addNodePropertyConstant(Object name, Value constant) {
         if (getNodeProperties().contains(name)) {
             return getNodeProperty(name);
@@ -269,6 +351,10 @@ public final class GraphExplicitSparse implements GraphExplicit {
         while (size < newSize) {
             size *= 2;
         }
+        if (array instanceof ValueArrayMappedByteBuffer) {
+            ((ValueArrayMappedByteBuffer) array).resize(size);
+            return array;
+        }
         T result = UtilValue.newArray(array.getType(), size);
         Value entry = array.getType().getEntryType().newValue();
         for (int i = 0; i < array.size(); i++) {
@@ -301,5 +387,20 @@ public final class GraphExplicitSparse implements GraphExplicit {
 
     @Override
     public void close() {
+        if (!mapped) {
+            return;
+        }
+        for (Object property : getEdgeProperties()) {
+            EdgeProperty edgeProperty = properties.getEdgeProperty(property);
+            if (!(edgeProperty instanceof EdgePropertySparse)) {
+                continue;
+            }
+            Value content = ((EdgePropertySparse) edgeProperty).getContent();
+            if (content instanceof ValueArrayMappedByteBuffer) {
+                ((ValueArrayMappedByteBuffer) content).close();
+            }
+        }
+        ((ValueArrayMappedByteBuffer) bounds).close();
+        ((ValueArrayMappedByteBuffer) successors).close();
     }
 }
@@ -84,6 +84,18 @@ public final class StateMapExplicit implements StateMap, Closeable, Cloneable {
         return this;
     }
 
+    @Override
+    public StateMapExplicit copy() {
+        assert !closed();
+        Value entry = type.newValue();
+        ValueArray values = UtilValue.newArray(typeArray, size());
+        for (int stateNr = 0; stateNr < size(); stateNr++) {
+            getExplicitIthValue(entry, stateNr);
+            values.set(entry, stateNr);
+        }
+        return new StateMapExplicit(states.clone(), values, scheduler);
+    }
+
     @Override
     public void close() {
         if (closed()) {
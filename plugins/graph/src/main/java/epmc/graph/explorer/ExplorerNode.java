@@ -21,7 +21,8 @@
 package epmc.graph.explorer;
 
 import epmc.util.BitStoreable;
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 
 /**
  * Node of an {@link Explorer}.
@@ -40,10 +41,10 @@ public interface ExplorerNode extends Cloneable, BitStoreable {
     int hashCode();
 
     @Override
-    void read(BitStream reader);
+    void read(BitStreamReader reader);
 
     @Override
-    void write(BitStream writer);
+    void write(BitStreamWriter writer);
 
     /**
      * Set the content of the node to the one of an existing node.
@@ -23,5 +23,10 @@ package epmc.graph.options;
 public enum OptionsGraph {
     OPTIONS_GRAPH,
     STATE_STORAGE,
+    EXPLORATION_NUM_THREADS,
+    EXPLICIT_GRAPH_MAPPED,
+    EXPLICIT_GRAPH_CACHE_DIRECTORY,
     WRAPPER_GRAPH_SUCCESSORS_SIZE,
+    DD_REACHABILITY,
+    DD_VARIABLE_ORDER,
 }
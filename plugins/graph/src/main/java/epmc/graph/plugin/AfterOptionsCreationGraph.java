@@ -26,8 +26,11 @@ import epmc.modelchecker.EngineDD;
 import epmc.modelchecker.EngineExplicit;
 import epmc.modelchecker.EngineExplorer;
 import epmc.modelchecker.options.OptionsModelChecker;
+import epmc.options.OptionTypeBoolean;
 import epmc.options.OptionTypeEnum;
+import epmc.options.OptionTypeInteger;
 import epmc.options.OptionTypeMap;
+import epmc.options.OptionTypeString;
 import epmc.options.Options;
 import epmc.plugin.AfterOptionsCreation;
 
@@ -49,10 +52,34 @@ public final class AfterOptionsCreationGraph implements AfterOptionsCreation {
         .setDefault(OptionsTypesGraph.StateStorage.SMALLEST)
         .setCommandLine().setGui().setWeb().build();
         options.addOption().setBundleName(OptionsGraph.OPTIONS_GRAPH)
+        .setIdentifier(OptionsGraph.EXPLORATION_NUM_THREADS)
+        .setType(OptionTypeInteger.getInstance())
+        .setDefault("1")
+        .setCommandLine().setGui().setWeb().build();
+        options.addOption().setBundleName(OptionsGraph.OPTIONS_GRAPH)
+        .setIdentifier(OptionsGraph.EXPLICIT_GRAPH_MAPPED)
+        .setType(OptionTypeBoolean.getInstance())
+        .setDefault(false)
+        .setCommandLine().setGui().setWeb().build();
+        options.addOption().setBundleName(OptionsGraph.OPTIONS_GRAPH)
+        .setIdentifier(OptionsGraph.EXPLICIT_GRAPH_CACHE_DIRECTORY)
+        .setType(OptionTypeString.getInstance())
+        .setCommandLine().setGui().setWeb().build();
+        options.addOption().setBundleName(OptionsGraph.OPTIONS_GRAPH)
         .setIdentifier(OptionsGraph.WRAPPER_GRAPH_SUCCESSORS_SIZE)
         .setType(new OptionTypeEnum(OptionsTypesGraph.WrapperGraphSuccessorsSize.class))
         .setDefault(OptionsTypesGraph.WrapperGraphSuccessorsSize.SMALLEST)
         .setCommandLine().setGui().setWeb().build();
+        options.addOption().setBundleName(OptionsGraph.OPTIONS_GRAPH)
+        .setIdentifier(OptionsGraph.DD_REACHABILITY)
+        .setType(new OptionTypeEnum(OptionsTypesGraph.DDReachability.class))
+        .setDefault(OptionsTypesGraph.DDReachability.BFS)
+        .setCommandLine().setGui().setWeb().build();
+        options.addOption().setBundleName(OptionsGraph.OPTIONS_GRAPH)
+        .setIdentifier(OptionsGraph.DD_VARIABLE_ORDER)
+        .setType(new OptionTypeEnum(OptionsTypesGraph.DDVariableOrder.class))
+        .setDefault(OptionsTypesGraph.DDVariableOrder.DECLARATION)
+        .setCommandLine().setGui().setWeb().build();
 
         OptionTypeMap<Class<?>> engineType = options.getOption(OptionsModelChecker.ENGINE).getType();
         engineType.put(EngineDD.IDENTIFIER, EngineDD.class);
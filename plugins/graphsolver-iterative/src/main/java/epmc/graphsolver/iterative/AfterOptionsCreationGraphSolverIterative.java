@@ -28,7 +28,11 @@ import epmc.graphsolver.iterative.java.BoundedCumulativeJava;
 import epmc.graphsolver.iterative.java.BoundedJava;
 import epmc.graphsolver.iterative.java.BoundedReachabilityJava;
 import epmc.graphsolver.iterative.java.UnboundedCumulativeJava;
+import epmc.graphsolver.iterative.java.UnboundedCumulativeSoundJava;
 import epmc.graphsolver.iterative.java.UnboundedReachabilityJava;
+import epmc.graphsolver.iterative.java.UnboundedReachabilityOptimisticJava;
+import epmc.graphsolver.iterative.java.UnboundedReachabilitySoundJava;
+import epmc.graphsolver.iterative.java.UnboundedReachabilityTopologicalJava;
 import epmc.graphsolver.iterative.natives.BoundedCumulativeDiscountedNative;
 import epmc.graphsolver.iterative.natives.BoundedCumulativeNative;
 import epmc.graphsolver.iterative.natives.BoundedNative;
@@ -38,6 +42,7 @@ import epmc.graphsolver.iterative.natives.UnboundedLRANative;
 import epmc.graphsolver.iterative.natives.UnboundedReachabilityNative;
 import epmc.options.Category;
 import epmc.options.OptionTypeEnum;
+import epmc.options.OptionTypeIntegerPositive;
 import epmc.options.OptionTypeRealNonnegative;
 import epmc.options.Options;
 import epmc.plugin.AfterOptionsCreation;
@@ -79,8 +84,21 @@ public class AfterOptionsCreationGraphSolverIterative implements AfterOptionsCre
         .setDefault("1.0E-10")
         .setCommandLine().setGui().setWeb()
         .setCategory(category).build();
+        options.addOption().setBundleName(OptionsGraphSolverIterative.OPTIONS_GRAPH_SOLVER_ITERATIVE)
+        .setIdentifier(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_NUM_THREADS)
+        .setType(OptionTypeIntegerPositive.getInstance())
+        .setDefault("1")
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
+        options.addOption().setBundleName(OptionsGraphSolverIterative.OPTIONS_GRAPH_SOLVER_ITERATIVE)
+        .setIdentifier(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_SOUND_METHOD)
+        .setType(new OptionTypeEnum(IterationSoundMethod.class))
+        .setDefault(IterationSoundMethod.NONE)
+        .setCommandLine().setGui().setWeb()
+        .setCategory(category).build();
         Map<String, Class<?>> graphSolverMap = options.get(OptionsGraphsolver.GRAPHSOLVER_SOLVER_CLASS);
         assert graphSolverMap != null;
+        graphSolverMap.put(UnboundedReachabilityTopologicalJava.IDENTIFIER, UnboundedReachabilityTopologicalJava.class);
         graphSolverMap.put(BoundedCumulativeJava.IDENTIFIER, BoundedCumulativeJava.class);
         graphSolverMap.put(BoundedCumulativeDiscountedJava.IDENTIFIER, BoundedCumulativeDiscountedJava.class);
         graphSolverMap.put(UnboundedCumulativeJava.IDENTIFIER, UnboundedCumulativeJava.class);
@@ -94,5 +112,8 @@ public class AfterOptionsCreationGraphSolverIterative implements AfterOptionsCre
         graphSolverMap.put(UnboundedReachabilityNative.IDENTIFIER, UnboundedReachabilityNative.class);
         graphSolverMap.put(BoundedReachabilityNative.IDENTIFIER, BoundedReachabilityNative.class);
         graphSolverMap.put(BoundedNative.IDENTIFIER, BoundedNative.class);
+        graphSolverMap.put(UnboundedCumulativeSoundJava.IDENTIFIER, UnboundedCumulativeSoundJava.class);
+        graphSolverMap.put(UnboundedReachabilitySoundJava.IDENTIFIER, UnboundedReachabilitySoundJava.class);
+        graphSolverMap.put(UnboundedReachabilityOptimisticJava.IDENTIFIER, UnboundedReachabilityOptimisticJava.class);
     }
 }
@@ -0,0 +1,47 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graphsolver.iterative;
+
+/**
+ * Method to obtain guaranteed error bounds in unbounded value iteration.
+ * With {@link #NONE}, value iteration stops once the difference between two
+ * consecutive iterations is small enough, which does not guarantee that the
+ * result is close to the actual value. With {@link #INTERVAL}, lower and
+ * upper bounds are iterated together, while with {@link #SOUND}, upper and
+ * lower bounds are derived from step-bounded values and the probabilities to
+ * stay among the undecided states. With {@link #OPTIMISTIC}, which is only
+ * available for reachability, plain value iteration is performed until
+ * convergence, after which a guessed upper bound is verified. In all cases,
+ * iteration stops once the bounds are close enough, and the result is their
+ * midpoint.
+ *
+ * @author Ernst Moritz Hahn
+ */
+public enum IterationSoundMethod {
+    /** Stop based on difference between iterations, without guarantees. */
+    NONE,
+    /** Interval iteration. */
+    INTERVAL,
+    /** Sound value iteration. */
+    SOUND,
+    /** Optimistic value iteration. */
+    OPTIMISTIC
+}
@@ -33,7 +33,9 @@ public final class MessagesGraphSolverIterative {
     /** Base name of resource bundle for the messages. */
     private final static String MESSAGES_GRAPHSOLVER_ITERATIVE = "MessagesGraphSolverIterative";
     public final static Message ITERATING = newMessage().setIdentifier("iterating").build();
+    public final static Message ITERATING_COMPONENTS = newMessage().setIdentifier("iterating-components").build();
     public final static Message ITERATING_DONE = newMessage().setIdentifier("iterating-done").build();
+    public final static Message ITERATING_OPTIMISTIC_VERIFICATIONS = newMessage().setIdentifier("iterating-optimistic-verifications").build();
     public final static Message ITERATING_PROGRESS_UNBOUNDED = newMessage().setIdentifier("iterating-progress-unbounded").build();
     public final static Message ITERATING_PROGRESS_BOUNDED = newMessage().setIdentifier("iterating-progress-bounded").build();
 
@@ -28,4 +28,8 @@ public enum OptionsGraphSolverIterative {
     GRAPHSOLVER_ITERATIVE_METHOD,
     GRAPHSOLVER_ITERATIVE_TOLERANCE,
     GRAPHSOLVER_ITERATIVE_STOP_CRITERION,
+    /** Number of threads to use for Jacobi iteration. */
+    GRAPHSOLVER_ITERATIVE_NUM_THREADS,
+    /** Method to obtain guaranteed error bounds, see {@link IterationSoundMethod}. */
+    GRAPHSOLVER_ITERATIVE_SOUND_METHOD,
 }
@@ -106,6 +106,9 @@ public final class BoundedCumulativeDiscountedJava implements GraphSolverExplici
         if (!(objective instanceof GraphSolverObjectiveExplicitBoundedCumulativeDiscounted)) {
             return false;
         }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
         return true;
     }
 
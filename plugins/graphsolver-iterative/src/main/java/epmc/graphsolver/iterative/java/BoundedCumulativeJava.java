@@ -105,6 +105,9 @@ public final class BoundedCumulativeJava implements GraphSolverExplicit {
         if (!(objective instanceof GraphSolverObjectiveExplicitBoundedCumulative)) {
             return false;
         }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
         return true;
     }
 
@@ -54,6 +54,7 @@ import epmc.value.Value;
 import epmc.value.ValueAlgebra;
 import epmc.value.ValueArray;
 import epmc.value.ValueArrayAlgebra;
+import epmc.value.ValueContentDoubleArray;
 import epmc.value.ValueInteger;
 import epmc.value.ValueObject;
 import epmc.value.ValueReal;
@@ -140,6 +141,8 @@ public final class BoundedJava implements GraphSolverExplicit {
         builder.addDerivedEdgeProperties(origGraph.getEdgeProperties());
         builder.setUniformise(uniformise);
         builder.setReorder();
+        builder.setMapped(GraphExplicitSparse.isMapped(origGraph)
+                && !SemanticsContinuousTime.isContinuousTime(semanticsType));
         builder.build();
         iterGraph = builder.getOutputGraph();
         assert iterGraph != null;
@@ -317,11 +320,25 @@ public final class BoundedJava implements GraphSolverExplicit {
     private static void dtmcBoundedJava(Info info, int bound,
             GraphExplicitSparse graph, ValueArrayAlgebra values) {
         int numStates = graph.computeNumStates();
-        ValueArrayAlgebra presValues = values;
-        ValueArrayAlgebra nextValues = UtilValue.newArray(values.getType(), numStates);
         int[] stateBounds = graph.getBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgeProperty(CommonProperties.WEIGHT).getContent());
+        if (IterationDoubleMapped.canUse(graph, values)) {
+            IterationDoubleMapped.dtmcBounded(info, bound, numStates,
+                    IterationDoubleMapped.getBounds(graph),
+                    IterationDoubleMapped.getTargets(graph),
+                    IterationDoubleMapped.getWeights(weights),
+                    ValueContentDoubleArray.getContent(values));
+            return;
+        }
+        if (IterationDoubleJava.canUse(values, weights)) {
+            IterationDoubleJava.dtmcBounded(info, bound, numStates, stateBounds, targets,
+                    ValueContentDoubleArray.getContent(weights),
+                    ValueContentDoubleArray.getContent(values));
+            return;
+        }
+        ValueArrayAlgebra presValues = values;
+        ValueArrayAlgebra nextValues = UtilValue.newArray(values.getType(), numStates);
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
@@ -362,6 +379,12 @@ public final class BoundedJava implements GraphSolverExplicit {
         int[] nondetBounds = graph.getNondetBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgePropertySparseNondet(CommonProperties.WEIGHT).asSparseNondetOnlyNondet().getContent());
+        if (IterationDoubleJava.canUse(values, weights)) {
+            IterationDoubleJava.mdpBounded(info, bound, numStates, stateBounds, nondetBounds, targets,
+                    ValueContentDoubleArray.getContent(weights), min,
+                    ValueContentDoubleArray.getContent(values));
+            return;
+        }
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
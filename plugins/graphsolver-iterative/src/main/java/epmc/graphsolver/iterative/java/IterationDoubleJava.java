@@ -0,0 +1,399 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graphsolver.iterative.java;
+
+import epmc.graphsolver.iterative.Info;
+import epmc.value.TypeDouble;
+import epmc.value.TypeWeight;
+import epmc.value.Value;
+import epmc.value.ValueContentDoubleArray;
+
+/**
+ * Value iteration routines working directly on primitive double arrays.
+ * The routines are Java versions of the C functions called by
+ * {@link epmc.graphsolver.iterative.natives.IterationNative}. They are used by
+ * the generic Java solvers of this package in case reals are represented as
+ * IEEE doubles, so as to avoid the overhead of boxed value objects and
+ * operator evaluators in the inner loops also in case the native library is
+ * not available.
+ *
+ * @author Ernst Moritz Hahn
+ */
+final class IterationDoubleJava {
+    /**
+     * Check whether the primitive double routines can be used.
+     * This is the case if weights are represented as doubles and all given
+     * arrays allow direct access to their double content. None of the
+     * parameters may be {@code null}.
+     *
+     * @param arrays value arrays to be used in the iteration
+     * @return whether the primitive double routines can be used
+     */
+    static boolean canUse(Value... arrays) {
+        assert arrays != null;
+        if (!TypeDouble.is(TypeWeight.get())) {
+            return false;
+        }
+        for (Value array : arrays) {
+            if (ValueContentDoubleArray.getContent(array) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void dtmcUnboundedJacobi(Info info, boolean relative,
+            double precision, int numStates, int[] stateBounds,
+            int[] targets, double[] weights, double[] values,
+            int[] iterationsResult) {
+        double[] presValues = values;
+        double[] nextValues = new double[numStates];
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            for (int state = 0; state < numStates; state++) {
+                int from = stateBounds[state];
+                int to = stateBounds[state + 1];
+                double nextStateProb = 0.0;
+                for (int succ = from; succ < to; succ++) {
+                    nextStateProb += weights[succ] * presValues[targets[succ]];
+                }
+                maxDiff = diff(maxDiff, presValues[state], nextStateProb, relative);
+                nextValues[state] = nextStateProb;
+            }
+            double[] swap = presValues;
+            presValues = nextValues;
+            nextValues = swap;
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        if (presValues != values) {
+            System.arraycopy(presValues, 0, values, 0, numStates);
+        }
+        iterationsResult[0] = iterations;
+    }
+
+    static void dtmcUnboundedGaussseidel(Info info, boolean relative,
+            double precision, int numStates, int[] stateBounds,
+            int[] targets, double[] weights, double[] values,
+            int[] iterationsResult) {
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            for (int state = 0; state < numStates; state++) {
+                int from = stateBounds[state];
+                int to = stateBounds[state + 1];
+                double nextStateProb = 0.0;
+                for (int succ = from; succ < to; succ++) {
+                    nextStateProb += weights[succ] * values[targets[succ]];
+                }
+                maxDiff = diff(maxDiff, values[state], nextStateProb, relative);
+                values[state] = nextStateProb;
+            }
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        iterationsResult[0] = iterations;
+    }
+
+    static void dtmcUnboundedCumulativeJacobi(Info info, boolean relative,
+            double precision, int numStates, int[] stateBounds,
+            int[] targets, double[] weights, double[] values, double[] cumul,
+            int[] iterationsResult) {
+        double[] presValues = values;
+        double[] nextValues = new double[numStates];
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            for (int state = 0; state < numStates; state++) {
+                int from = stateBounds[state];
+                int to = stateBounds[state + 1];
+                double nextStateProb = cumul[state];
+                for (int succ = from; succ < to; succ++) {
+                    nextStateProb += weights[succ] * presValues[targets[succ]];
+                }
+                maxDiff = diff(maxDiff, presValues[state], nextStateProb, relative);
+                nextValues[state] = nextStateProb;
+            }
+            double[] swap = presValues;
+            presValues = nextValues;
+            nextValues = swap;
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        if (presValues != values) {
+            System.arraycopy(presValues, 0, values, 0, numStates);
+        }
+        iterationsResult[0] = iterations;
+    }
+
+    static void dtmcUnboundedCumulativeGaussseidel(Info info, boolean relative,
+            double precision, int numStates, int[] stateBounds,
+            int[] targets, double[] weights, double[] values, double[] cumul,
+            int[] iterationsResult) {
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            for (int state = 0; state < numStates; state++) {
+                int from = stateBounds[state];
+                int to = stateBounds[state + 1];
+                double nextStateProb = cumul[state];
+                for (int succ = from; succ < to; succ++) {
+                    nextStateProb += weights[succ] * values[targets[succ]];
+                }
+                maxDiff = diff(maxDiff, values[state], nextStateProb, relative);
+                values[state] = nextStateProb;
+            }
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        iterationsResult[0] = iterations;
+    }
+
+    static void dtmcBounded(Info info, int bound, int numStates,
+            int[] stateBounds, int[] targets, double[] weights,
+            double[] values) {
+        double[] presValues = values;
+        double[] nextValues = new double[numStates];
+        for (int step = 0; step < bound; step++) {
+            info.setNumIterations(step);
+            for (int state = 0; state < numStates; state++) {
+                int from = stateBounds[state];
+                int to = stateBounds[state + 1];
+                double nextStateProb = 0.0;
+                for (int succ = from; succ < to; succ++) {
+                    nextStateProb += weights[succ] * presValues[targets[succ]];
+                }
+                nextValues[state] = nextStateProb;
+            }
+            double[] swap = presValues;
+            presValues = nextValues;
+            nextValues = swap;
+        }
+        if (presValues != values) {
+            System.arraycopy(presValues, 0, values, 0, numStates);
+        }
+    }
+
+    static void mdpUnboundedJacobi(Info info, boolean relative,
+            double precision, int numStates,
+            int[] stateBounds, int[] nondetBounds, int[] targets,
+            double[] weights, boolean min, double[] values,
+            int[] iterationsResult) {
+        double optInitValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        double[] presValues = values;
+        double[] nextValues = new double[numStates];
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            for (int state = 0; state < numStates; state++) {
+                int stateFrom = stateBounds[state];
+                int stateTo = stateBounds[state + 1];
+                double nextStateProb = optInitValue;
+                for (int nondetNr = stateFrom; nondetNr < stateTo; nondetNr++) {
+                    int nondetFrom = nondetBounds[nondetNr];
+                    int nondetTo = nondetBounds[nondetNr + 1];
+                    double choiceNextStateProb = 0.0;
+                    for (int stateSucc = nondetFrom; stateSucc < nondetTo; stateSucc++) {
+                        choiceNextStateProb += weights[stateSucc] * presValues[targets[stateSucc]];
+                    }
+                    nextStateProb = opt(min, nextStateProb, choiceNextStateProb);
+                }
+                maxDiff = diff(maxDiff, presValues[state], nextStateProb, relative);
+                nextValues[state] = nextStateProb;
+            }
+            double[] swap = nextValues;
+            nextValues = presValues;
+            presValues = swap;
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        if (presValues != values) {
+            System.arraycopy(presValues, 0, values, 0, numStates);
+        }
+        iterationsResult[0] = iterations;
+    }
+
+    static void mdpUnboundedGaussseidel(Info info, boolean relative,
+            double precision, int numStates,
+            int[] stateBounds, int[] nondetBounds, int[] targets,
+            double[] weights, boolean min, double[] values,
+            int[] iterationsResult) {
+        double optInitValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            for (int state = 0; state < numStates; state++) {
+                int stateFrom = stateBounds[state];
+                int stateTo = stateBounds[state + 1];
+                double nextStateProb = optInitValue;
+                for (int nondetNr = stateFrom; nondetNr < stateTo; nondetNr++) {
+                    int nondetFrom = nondetBounds[nondetNr];
+                    int nondetTo = nondetBounds[nondetNr + 1];
+                    double choiceNextStateProb = 0.0;
+                    for (int stateSucc = nondetFrom; stateSucc < nondetTo; stateSucc++) {
+                        choiceNextStateProb += weights[stateSucc] * values[targets[stateSucc]];
+                    }
+                    nextStateProb = opt(min, nextStateProb, choiceNextStateProb);
+                }
+                maxDiff = diff(maxDiff, values[state], nextStateProb, relative);
+                values[state] = nextStateProb;
+            }
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        iterationsResult[0] = iterations;
+    }
+
+    static void mdpUnboundedCumulativeJacobi(Info info, boolean relative,
+            double precision, int numStates,
+            int[] stateBounds, int[] nondetBounds, int[] targets,
+            double[] weights, boolean min, double[] values, double[] cumul,
+            int[] iterationsResult) {
+        double optInitValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        double[] presValues = values;
+        double[] nextValues = new double[numStates];
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            for (int state = 0; state < numStates; state++) {
+                int stateFrom = stateBounds[state];
+                int stateTo = stateBounds[state + 1];
+                double nextStateProb = optInitValue;
+                for (int nondetNr = stateFrom; nondetNr < stateTo; nondetNr++) {
+                    int nondetFrom = nondetBounds[nondetNr];
+                    int nondetTo = nondetBounds[nondetNr + 1];
+                    double choiceNextStateProb = cumul[nondetNr];
+                    for (int stateSucc = nondetFrom; stateSucc < nondetTo; stateSucc++) {
+                        choiceNextStateProb += weights[stateSucc] * presValues[targets[stateSucc]];
+                    }
+                    nextStateProb = opt(min, nextStateProb, choiceNextStateProb);
+                }
+                maxDiff = diff(maxDiff, presValues[state], nextStateProb, relative);
+                nextValues[state] = nextStateProb;
+            }
+            double[] swap = nextValues;
+            nextValues = presValues;
+            presValues = swap;
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        if (presValues != values) {
+            System.arraycopy(presValues, 0, values, 0, numStates);
+        }
+        iterationsResult[0] = iterations;
+    }
+
+    static void mdpUnboundedCumulativeGaussseidel(Info info, boolean relative,
+            double precision, int numStates,
+            int[] stateBounds, int[] nondetBounds, int[] targets,
+            double[] weights, boolean min, double[] values, double[] cumul,
+            int[] iterationsResult) {
+        double optInitValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            for (int state = 0; state < numStates; state++) {
+                int stateFrom = stateBounds[state];
+                int stateTo = stateBounds[state + 1];
+                double nextStateProb = optInitValue;
+                for (int nondetNr = stateFrom; nondetNr < stateTo; nondetNr++) {
+                    int nondetFrom = nondetBounds[nondetNr];
+                    int nondetTo = nondetBounds[nondetNr + 1];
+                    double choiceNextStateProb = cumul[nondetNr];
+                    for (int stateSucc = nondetFrom; stateSucc < nondetTo; stateSucc++) {
+                        choiceNextStateProb += weights[stateSucc] * values[targets[stateSucc]];
+                    }
+                    nextStateProb = opt(min, nextStateProb, choiceNextStateProb);
+                }
+                maxDiff = diff(maxDiff, values[state], nextStateProb, relative);
+                values[state] = nextStateProb;
+            }
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        iterationsResult[0] = iterations;
+    }
+
+    static void mdpBounded(Info info, int bound, int numStates,
+            int[] stateBounds, int[] nondetBounds, int[] targets,
+            double[] weights, boolean min, double[] values) {
+        double optInitValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        double[] presValues = values;
+        double[] nextValues = new double[numStates];
+        for (int step = 0; step < bound; step++) {
+            info.setNumIterations(step);
+            for (int state = 0; state < numStates; state++) {
+                int stateFrom = stateBounds[state];
+                int stateTo = stateBounds[state + 1];
+                double nextStateProb = optInitValue;
+                for (int nondetNr = stateFrom; nondetNr < stateTo; nondetNr++) {
+                    int nondetFrom = nondetBounds[nondetNr];
+                    int nondetTo = nondetBounds[nondetNr + 1];
+                    double choiceNextStateProb = 0.0;
+                    for (int stateSucc = nondetFrom; stateSucc < nondetTo; stateSucc++) {
+                        choiceNextStateProb += weights[stateSucc] * presValues[targets[stateSucc]];
+                    }
+                    nextStateProb = opt(min, nextStateProb, choiceNextStateProb);
+                }
+                nextValues[state] = nextStateProb;
+            }
+            double[] swap = nextValues;
+            nextValues = presValues;
+            presValues = swap;
+        }
+        if (presValues != values) {
+            System.arraycopy(presValues, 0, values, 0, numStates);
+        }
+    }
+
+    static double opt(boolean min, double x, double y) {
+        return min ? Math.min(x, y) : Math.max(x, y);
+    }
+
+    static double diff(double maxDiff, double previous,
+            double current, boolean relative) {
+        double diff = Math.abs(current - previous);
+        if (relative && previous != 0.0) {
+            diff /= Math.abs(previous);
+        }
+        return diff > maxDiff ? diff : maxDiff;
+    }
+
+    private IterationDoubleJava() {
+    }
+}
@@ -0,0 +1,248 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graphsolver.iterative.java;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import epmc.graphsolver.iterative.Info;
+
+/**
+ * Multi-threaded Jacobi value iteration on primitive double arrays.
+ * In Jacobi iteration, the new value of each state only depends on the values
+ * of the previous iteration, such that the states can be updated
+ * independently. The state range is split into a number of chunks with
+ * roughly the same number of transitions each. In each iteration, the chunks
+ * are processed in parallel using a fork-join pool, and the maximal
+ * difference between two iterations is obtained as a parallel reduction over
+ * the maximal differences of the chunks.
+ *
+ * @author Ernst Moritz Hahn
+ */
+final class IterationDoubleJavaParallel {
+    /** Number of chunks per thread, used to balance the load. */
+    private final static int CHUNKS_PER_THREAD = 4;
+
+    @FunctionalInterface
+    private interface Chunk {
+        double sweep(int fromState, int toState);
+    }
+
+    private final static class Sweep extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+        private final int[] partition;
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+
+        Sweep(int[] partition, Chunk chunk, int from, int to) {
+            this.partition = partition;
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from == 1) {
+                return chunk.sweep(partition[from], partition[to]);
+            }
+            int mid = (from + to) >>> 1;
+            Sweep left = new Sweep(partition, chunk, from, mid);
+            Sweep right = new Sweep(partition, chunk, mid, to);
+            left.fork();
+            double rightDiff = right.compute();
+            double leftDiff = left.join();
+            return Math.max(leftDiff, rightDiff);
+        }
+    }
+
+    /**
+     * Jacobi iteration for DTMCs.
+     * If {@code cumul} is not {@code null}, it is used as state reward to be
+     * added in each iteration, to compute unbounded cumulative rewards.
+     * Otherwise, reachability probabilities are computed.
+     */
+    static void dtmcUnboundedJacobi(Info info, int numThreads,
+            boolean relative, double precision, int numStates,
+            int[] stateBounds, int[] targets, double[] weights,
+            double[] values, double[] cumul, int[] iterationsResult) {
+        assert numThreads >= 1;
+        int[] partition = computePartition(numStates, stateBounds, null,
+                numThreads * CHUNKS_PER_THREAD);
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            double[] presValues = values;
+            double[] nextValues = new double[numStates];
+            int iterations = 0;
+            double maxDiff;
+            do {
+                double[] pres = presValues;
+                double[] next = nextValues;
+                maxDiff = sweep(pool, partition, (fromState, toState) -> {
+                    double chunkDiff = 0.0;
+                    for (int state = fromState; state < toState; state++) {
+                        int from = stateBounds[state];
+                        int to = stateBounds[state + 1];
+                        double nextStateProb = cumul == null ? 0.0 : cumul[state];
+                        for (int succ = from; succ < to; succ++) {
+                            nextStateProb += weights[succ] * pres[targets[succ]];
+                        }
+                        chunkDiff = IterationDoubleJava.diff(chunkDiff, pres[state], nextStateProb, relative);
+                        next[state] = nextStateProb;
+                    }
+                    return chunkDiff;
+                });
+                presValues = next;
+                nextValues = pres;
+                info.setNumIterations(iterations);
+                info.setDifference(maxDiff);
+                iterations++;
+            } while (maxDiff > precision / 2);
+            if (presValues != values) {
+                System.arraycopy(presValues, 0, values, 0, numStates);
+            }
+            iterationsResult[0] = iterations;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Jacobi iteration for MDPs.
+     * If {@code cumul} is not {@code null}, it is used as choice reward to be
+     * added in each iteration, to compute unbounded cumulative rewards.
+     * Otherwise, reachability probabilities are computed.
+     */
+    static void mdpUnboundedJacobi(Info info, int numThreads,
+            boolean relative, double precision, int numStates,
+            int[] stateBounds, int[] nondetBounds, int[] targets,
+            double[] weights, boolean min, double[] values, double[] cumul,
+            int[] iterationsResult) {
+        assert numThreads >= 1;
+        int[] partition = computePartition(numStates, stateBounds, nondetBounds,
+                numThreads * CHUNKS_PER_THREAD);
+        double optInitValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            double[] presValues = values;
+            double[] nextValues = new double[numStates];
+            int iterations = 0;
+            double maxDiff;
+            do {
+                double[] pres = presValues;
+                double[] next = nextValues;
+                maxDiff = sweep(pool, partition, (fromState, toState) -> {
+                    double chunkDiff = 0.0;
+                    for (int state = fromState; state < toState; state++) {
+                        int stateFrom = stateBounds[state];
+                        int stateTo = stateBounds[state + 1];
+                        double nextStateProb = optInitValue;
+                        for (int nondetNr = stateFrom; nondetNr < stateTo; nondetNr++) {
+                            int nondetFrom = nondetBounds[nondetNr];
+                            int nondetTo = nondetBounds[nondetNr + 1];
+                            double choiceNextStateProb = cumul == null ? 0.0 : cumul[nondetNr];
+                            for (int stateSucc = nondetFrom; stateSucc < nondetTo; stateSucc++) {
+                                choiceNextStateProb += weights[stateSucc] * pres[targets[stateSucc]];
+                            }
+                            nextStateProb = IterationDoubleJava.opt(min, nextStateProb, choiceNextStateProb);
+                        }
+                        chunkDiff = IterationDoubleJava.diff(chunkDiff, pres[state], nextStateProb, relative);
+                        next[state] = nextStateProb;
+                    }
+                    return chunkDiff;
+                });
+                presValues = next;
+                nextValues = pres;
+                info.setNumIterations(iterations);
+                info.setDifference(maxDiff);
+                iterations++;
+            } while (maxDiff > precision / 2);
+            if (presValues != values) {
+                System.arraycopy(presValues, 0, values, 0, numStates);
+            }
+            iterationsResult[0] = iterations;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static double sweep(ForkJoinPool pool, int[] partition, Chunk chunk) {
+        int numChunks = partition.length - 1;
+        if (numChunks == 0) {
+            return 0.0;
+        }
+        return pool.invoke(new Sweep(partition, chunk, 0, numChunks));
+    }
+
+    /**
+     * Split the state range into chunks of about the same number of
+     * transitions.
+     * For DTMCs, {@code nondetBounds} must be {@code null}; the number of
+     * transitions of a state is then given by {@code stateBounds}. For MDPs,
+     * the transitions of a state are obtained by first looking up its choices
+     * in {@code stateBounds} and then the transitions of these choices in
+     * {@code nondetBounds}. The result is an array of chunk boundaries, such
+     * that chunk {@code i} consists of the states from {@code result[i]}
+     * (inclusive) to {@code result[i+1]} (exclusive). All chunks are
+     * nonempty.
+     *
+     * @param numStates number of states
+     * @param stateBounds state bounds of the graph
+     * @param nondetBounds choice bounds of the graph, or {@code null}
+     * @param maxNumChunks maximal number of chunks to create
+     * @return chunk boundaries
+     */
+    static int[] computePartition(int numStates, int[] stateBounds,
+            int[] nondetBounds, int maxNumChunks) {
+        assert numStates >= 0;
+        assert stateBounds != null;
+        assert maxNumChunks >= 1;
+        int numChunks = Math.min(maxNumChunks, numStates);
+        long numTransitions = transitionsBefore(numStates, stateBounds, nondetBounds);
+        int[] result = new int[numChunks + 1];
+        int state = 0;
+        for (int chunk = 1; chunk < numChunks; chunk++) {
+            long bound = numTransitions * chunk / numChunks;
+            state++;
+            int maxState = numStates - (numChunks - chunk);
+            while (state < maxState
+                    && transitionsBefore(state, stateBounds, nondetBounds) < bound) {
+                state++;
+            }
+            result[chunk] = state;
+        }
+        result[numChunks] = numStates;
+        return result;
+    }
+
+    private static long transitionsBefore(int state, int[] stateBounds,
+            int[] nondetBounds) {
+        if (nondetBounds == null) {
+            return stateBounds[state];
+        } else {
+            return nondetBounds[stateBounds[state]];
+        }
+    }
+
+    private IterationDoubleJavaParallel() {
+    }
+}
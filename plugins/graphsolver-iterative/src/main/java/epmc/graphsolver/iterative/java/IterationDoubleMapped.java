@@ -0,0 +1,180 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graphsolver.iterative.java;
+
+import epmc.graph.explicit.GraphExplicitSparse;
+import epmc.graphsolver.iterative.Info;
+import epmc.value.Value;
+import epmc.value.ValueArrayDoubleMappedByteBuffer;
+import epmc.value.ValueArrayInteger;
+import epmc.value.ValueContentDoubleArray;
+
+/**
+ * Value iteration routines for graphs stored in memory-mapped files.
+ * The routines read the node bounds, successors and weights of the graph
+ * directly from the memory-mapped arrays, without copying them to the Java
+ * heap. Only the value vectors, which have one entry per state, are stored
+ * as primitive double arrays on the heap. The routines are only used for
+ * DTMCs; iteration graphs for CTMCs are built on the heap, as they have to
+ * be embedded or uniformised first.
+ *
+ * @author Ernst Moritz Hahn
+ */
+final class IterationDoubleMapped {
+    /**
+     * Check whether the memory-mapped routines can be used.
+     * This is the case if the graph is stored in memory-mapped files and the
+     * given arrays allow direct access to their double content. None of the
+     * parameters may be {@code null}.
+     *
+     * @param graph graph to iterate over
+     * @param arrays value arrays to be used in the iteration
+     * @return whether the memory-mapped routines can be used
+     */
+    static boolean canUse(GraphExplicitSparse graph, Value... arrays) {
+        assert graph != null;
+        assert arrays != null;
+        if (!graph.isMapped()) {
+            return false;
+        }
+        for (Value array : arrays) {
+            if (ValueContentDoubleArray.getContent(array) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static ValueArrayInteger getBounds(GraphExplicitSparse graph) {
+        return (ValueArrayInteger) graph.getBounds();
+    }
+
+    static ValueArrayInteger getTargets(GraphExplicitSparse graph) {
+        return (ValueArrayInteger) graph.getTargets();
+    }
+
+    static ValueArrayDoubleMappedByteBuffer getWeights(Value weights) {
+        ValueArrayDoubleMappedByteBuffer result = ValueArrayDoubleMappedByteBuffer.as(weights);
+        assert result != null;
+        return result;
+    }
+
+    /**
+     * Jacobi iteration for DTMCs.
+     * If {@code cumul} is not {@code null}, it is used as state reward to be
+     * added in each iteration, to compute unbounded cumulative rewards.
+     * Otherwise, reachability probabilities are computed.
+     */
+    static void dtmcUnboundedJacobi(Info info, boolean relative,
+            double precision, int numStates, ValueArrayInteger stateBounds,
+            ValueArrayInteger targets, ValueArrayDoubleMappedByteBuffer weights,
+            double[] values, double[] cumul, int[] iterationsResult) {
+        double[] presValues = values;
+        double[] nextValues = new double[numStates];
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            int from = stateBounds.getInt(0);
+            for (int state = 0; state < numStates; state++) {
+                int to = stateBounds.getInt(state + 1);
+                double nextStateProb = cumul == null ? 0.0 : cumul[state];
+                for (int succ = from; succ < to; succ++) {
+                    nextStateProb += weights.getDouble(succ) * presValues[targets.getInt(succ)];
+                }
+                maxDiff = IterationDoubleJava.diff(maxDiff, presValues[state], nextStateProb, relative);
+                nextValues[state] = nextStateProb;
+                from = to;
+            }
+            double[] swap = presValues;
+            presValues = nextValues;
+            nextValues = swap;
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        if (presValues != values) {
+            System.arraycopy(presValues, 0, values, 0, numStates);
+        }
+        iterationsResult[0] = iterations;
+    }
+
+    /**
+     * Gauss-Seidel iteration for DTMCs.
+     * If {@code cumul} is not {@code null}, it is used as state reward to be
+     * added in each iteration, to compute unbounded cumulative rewards.
+     * Otherwise, reachability probabilities are computed.
+     */
+    static void dtmcUnboundedGaussseidel(Info info, boolean relative,
+            double precision, int numStates, ValueArrayInteger stateBounds,
+            ValueArrayInteger targets, ValueArrayDoubleMappedByteBuffer weights,
+            double[] values, double[] cumul, int[] iterationsResult) {
+        int iterations = 0;
+        double maxDiff;
+        do {
+            maxDiff = 0.0;
+            int from = stateBounds.getInt(0);
+            for (int state = 0; state < numStates; state++) {
+                int to = stateBounds.getInt(state + 1);
+                double nextStateProb = cumul == null ? 0.0 : cumul[state];
+                for (int succ = from; succ < to; succ++) {
+                    nextStateProb += weights.getDouble(succ) * values[targets.getInt(succ)];
+                }
+                maxDiff = IterationDoubleJava.diff(maxDiff, values[state], nextStateProb, relative);
+                values[state] = nextStateProb;
+                from = to;
+            }
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        } while (maxDiff > precision / 2);
+        iterationsResult[0] = iterations;
+    }
+
+    static void dtmcBounded(Info info, int bound, int numStates,
+            ValueArrayInteger stateBounds, ValueArrayInteger targets,
+            ValueArrayDoubleMappedByteBuffer weights, double[] values) {
+        double[] presValues = values;
+        double[] nextValues = new double[numStates];
+        for (int step = 0; step < bound; step++) {
+            info.setNumIterations(step);
+            int from = stateBounds.getInt(0);
+            for (int state = 0; state < numStates; state++) {
+                int to = stateBounds.getInt(state + 1);
+                double nextStateProb = 0.0;
+                for (int succ = from; succ < to; succ++) {
+                    nextStateProb += weights.getDouble(succ) * presValues[targets.getInt(succ)];
+                }
+                nextValues[state] = nextStateProb;
+                from = to;
+            }
+            double[] swap = presValues;
+            presValues = nextValues;
+            nextValues = swap;
+        }
+        if (presValues != values) {
+            System.arraycopy(presValues, 0, values, 0, numStates);
+        }
+    }
+
+    private IterationDoubleMapped() {
+    }
+}
@@ -0,0 +1,388 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graphsolver.iterative.java;
+
+import java.util.Arrays;
+
+import epmc.graphsolver.iterative.Info;
+
+/**
+ * Value iteration with guaranteed error bounds on primitive double arrays.
+ * The routines work on a {@link SoundQuotient}, in which the undecided
+ * states cannot stay among themselves forever. All routines stop once
+ * the lower and upper bounds of all units differ by at most twice the given
+ * precision, either absolutely or relative to the lower bound, and return
+ * the midpoint of the bounds. The result is thus guaranteed to be correct
+ * up to the precision, apart from rounding errors.
+ *
+ * @author Ernst Moritz Hahn
+ */
+final class IterationDoubleSound {
+    /**
+     * Sound value iteration.
+     * Jacobi iteration is used to compute, for an increasing number of steps
+     * {@code k}, the value {@code x} obtained within {@code k} steps and the
+     * probability {@code y} to stay among the units for {@code k} steps.
+     * For minimising MDPs, {@code y} is obtained using the choice optimal for
+     * {@code x}, while for maximising MDPs, it is maximised independently.
+     * Once {@code y < 1} for all units, the value of each unit is at most
+     * {@code x + y * max(x / (1 - y))}. For Markov chains, it is also at
+     * least {@code x + y * min(x / (1 - y))}, and for MDPs at least
+     * {@code x}.
+     *
+     * @param info iteration information to update
+     * @param quotient quotient to iterate on
+     * @param nondet whether the quotient was obtained from an MDP
+     * @param min whether values are to be minimised
+     * @param relative whether the precision is relative
+     * @param precision precision required
+     * @param values array to store values of units to
+     * @param iterationsResult array to store number of iterations to
+     */
+    static void sound(Info info, SoundQuotient quotient, boolean nondet,
+            boolean min, boolean relative, double precision, double[] values,
+            int[] iterationsResult) {
+        int numUnits = quotient.numUnits;
+        double[] presX = new double[numUnits];
+        double[] presY = new double[numUnits];
+        double[] nextX = new double[numUnits];
+        double[] nextY = new double[numUnits];
+        Arrays.fill(presY, 1.0);
+        int iterations = 0;
+        double maxDiff = Double.POSITIVE_INFINITY;
+        while (numUnits > 0 && maxDiff > 2 * precision) {
+            step(quotient, min, presX, presY, nextX, nextY);
+            double[] swap = presX;
+            presX = nextX;
+            nextX = swap;
+            swap = presY;
+            presY = nextY;
+            nextY = swap;
+            double upper = Double.NEGATIVE_INFINITY;
+            double lower = Double.POSITIVE_INFINITY;
+            for (int unit = 0; unit < numUnits; unit++) {
+                if (presY[unit] >= 1.0) {
+                    upper = Double.POSITIVE_INFINITY;
+                    break;
+                }
+                double bound = presX[unit] / (1.0 - presY[unit]);
+                upper = Math.max(upper, bound);
+                lower = Math.min(lower, bound);
+            }
+            if (upper != Double.POSITIVE_INFINITY) {
+                maxDiff = 0.0;
+                for (int unit = 0; unit < numUnits; unit++) {
+                    double unitUpper = presX[unit] + presY[unit] * upper;
+                    double unitLower = nondet ? presX[unit] : presX[unit] + presY[unit] * lower;
+                    maxDiff = IterationDoubleJava.diff(maxDiff, unitLower, unitUpper, relative);
+                    values[unit] = (unitLower + unitUpper) / 2;
+                }
+            }
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        }
+        iterationsResult[0] = iterations;
+    }
+
+    /**
+     * Interval iteration.
+     * Gauss-Seidel iteration is performed on lower and upper bounds at the
+     * same time. The lower bounds start at zero. The upper bounds start at
+     * the given initial upper bound, which must be at least the largest
+     * value of all units. Bounds are only ever improved, such that they stay
+     * monotone also in the presence of rounding errors.
+     *
+     * @param info iteration information to update
+     * @param quotient quotient to iterate on
+     * @param min whether values are to be minimised
+     * @param relative whether the precision is relative
+     * @param precision precision required
+     * @param initialUpper initial upper bound
+     * @param values array to store values of units to
+     * @param iterationsResult array to store number of iterations to
+     */
+    static void interval(Info info, SoundQuotient quotient, boolean min,
+            boolean relative, double precision, double initialUpper,
+            double[] values, int[] iterationsResult) {
+        int numUnits = quotient.numUnits;
+        int[] unitBounds = quotient.unitBounds;
+        int[] choiceBounds = quotient.choiceBounds;
+        int[] targets = quotient.targets;
+        double[] weights = quotient.weights;
+        double[] base = quotient.base;
+        double optInitValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        double[] lower = new double[numUnits];
+        double[] upper = new double[numUnits];
+        Arrays.fill(upper, initialUpper);
+        int iterations = 0;
+        double maxDiff = Double.POSITIVE_INFINITY;
+        while (numUnits > 0 && maxDiff > 2 * precision) {
+            maxDiff = 0.0;
+            for (int unit = 0; unit < numUnits; unit++) {
+                int unitFrom = unitBounds[unit];
+                int unitTo = unitBounds[unit + 1];
+                double nextLower = optInitValue;
+                double nextUpper = optInitValue;
+                for (int choice = unitFrom; choice < unitTo; choice++) {
+                    double choiceLower = base[choice];
+                    double choiceUpper = base[choice];
+                    for (int succ = choiceBounds[choice]; succ < choiceBounds[choice + 1]; succ++) {
+                        choiceLower += weights[succ] * lower[targets[succ]];
+                        choiceUpper += weights[succ] * upper[targets[succ]];
+                    }
+                    nextLower = IterationDoubleJava.opt(min, nextLower, choiceLower);
+                    nextUpper = IterationDoubleJava.opt(min, nextUpper, choiceUpper);
+                }
+                if (unitFrom == unitTo) {
+                    nextLower = 0.0;
+                    nextUpper = 0.0;
+                }
+                lower[unit] = Math.max(lower[unit], nextLower);
+                upper[unit] = Math.min(upper[unit], nextUpper);
+                maxDiff = IterationDoubleJava.diff(maxDiff, lower[unit], upper[unit], relative);
+            }
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        }
+        for (int unit = 0; unit < numUnits; unit++) {
+            values[unit] = (lower[unit] + upper[unit]) / 2;
+        }
+        iterationsResult[0] = iterations;
+    }
+
+    /**
+     * Optimistic value iteration for reachability.
+     * Gauss-Seidel iteration on lower bounds is performed until the
+     * difference between two iterations is below a threshold, which is
+     * initially the given precision. Afterwards, the lower bounds plus the
+     * precision are used as a guess for the upper bounds, which is then
+     * verified. In the verification phase, lower and upper bounds are
+     * iterated together. If an iteration decreases the upper bound of all
+     * units, the upper bounds obtained are an inductive upper bound and thus
+     * correct; iteration then continues as in interval iteration until the
+     * bounds are close enough. If instead the upper bound of some unit falls
+     * below its lower bound, or if verification does not succeed within as
+     * many iterations as have been performed on the lower bounds alone so
+     * far, the threshold is halved and iteration on the lower bounds
+     * continues.
+     * The number of verification phases and the number of failed ones are
+     * stored in the entries zero and one of {@code verificationsResult}.
+     *
+     * @param info iteration information to update
+     * @param quotient quotient to iterate on
+     * @param min whether values are to be minimised
+     * @param relative whether the precision is relative
+     * @param precision precision required
+     * @param values array to store values of units to
+     * @param iterationsResult array to store number of iterations to
+     * @param verificationsResult array to store verification phases to
+     */
+    static void optimistic(Info info, SoundQuotient quotient, boolean min,
+            boolean relative, double precision, double[] values,
+            int[] iterationsResult, int[] verificationsResult) {
+        int numUnits = quotient.numUnits;
+        double[] lower = new double[numUnits];
+        double[] upper = new double[numUnits];
+        double threshold = precision;
+        int iterations = 0;
+        int numVerifications = 0;
+        int numFailed = 0;
+        boolean verified = numUnits == 0;
+        double maxDiff = 0.0;
+        int lowerIterations = 0;
+        while (!verified) {
+            do {
+                maxDiff = 0.0;
+                for (int unit = 0; unit < numUnits; unit++) {
+                    double next = bellman(quotient, unit, min, lower);
+                    maxDiff = IterationDoubleJava.diff(maxDiff, lower[unit], next, relative);
+                    lower[unit] = Math.max(lower[unit], next);
+                }
+                info.setNumIterations(iterations);
+                info.setDifference(maxDiff);
+                iterations++;
+                lowerIterations++;
+            } while (maxDiff > threshold);
+            for (int unit = 0; unit < numUnits; unit++) {
+                double distance = relative && lower[unit] > 0.0 ? lower[unit] * precision : precision;
+                upper[unit] = Math.min(1.0, lower[unit] + distance);
+            }
+            numVerifications++;
+            boolean crossed = false;
+            for (int step = 0; step < lowerIterations && !verified && !crossed; step++) {
+                boolean decreased = true;
+                maxDiff = 0.0;
+                for (int unit = 0; unit < numUnits; unit++) {
+                    lower[unit] = Math.max(lower[unit], bellman(quotient, unit, min, lower));
+                    double nextUpper = bellman(quotient, unit, min, upper);
+                    if (nextUpper <= upper[unit]) {
+                        upper[unit] = nextUpper;
+                    } else {
+                        decreased = false;
+                    }
+                    if (upper[unit] < lower[unit]) {
+                        crossed = true;
+                    }
+                    maxDiff = IterationDoubleJava.diff(maxDiff, lower[unit], upper[unit], relative);
+                }
+                info.setNumIterations(iterations);
+                info.setDifference(maxDiff);
+                iterations++;
+                verified = decreased && !crossed;
+            }
+            if (!verified) {
+                numFailed++;
+                threshold /= 2;
+            }
+        }
+        while (maxDiff > 2 * precision) {
+            maxDiff = 0.0;
+            for (int unit = 0; unit < numUnits; unit++) {
+                lower[unit] = Math.max(lower[unit], bellman(quotient, unit, min, lower));
+                upper[unit] = Math.min(upper[unit], bellman(quotient, unit, min, upper));
+                maxDiff = IterationDoubleJava.diff(maxDiff, lower[unit], upper[unit], relative);
+            }
+            info.setNumIterations(iterations);
+            info.setDifference(maxDiff);
+            iterations++;
+        }
+        for (int unit = 0; unit < numUnits; unit++) {
+            values[unit] = (lower[unit] + upper[unit]) / 2;
+        }
+        iterationsResult[0] = iterations;
+        verificationsResult[0] = numVerifications;
+        verificationsResult[1] = numFailed;
+    }
+
+    /**
+     * Compute an upper bound for the values of all units.
+     * Sound value iteration steps are performed until the probability to
+     * stay among the units is below one for all units, after which the
+     * bound {@code max(x / (1 - y))} is returned. This is used to obtain an
+     * initial upper bound for interval iteration for rewards.
+     *
+     * @param quotient quotient to compute upper bound for
+     * @param min whether values are to be minimised
+     * @return upper bound for values of all units
+     */
+    static double upperBound(SoundQuotient quotient, boolean min) {
+        int numUnits = quotient.numUnits;
+        double[] presX = new double[numUnits];
+        double[] presY = new double[numUnits];
+        double[] nextX = new double[numUnits];
+        double[] nextY = new double[numUnits];
+        Arrays.fill(presY, 1.0);
+        double upper = Double.POSITIVE_INFINITY;
+        while (numUnits > 0 && upper == Double.POSITIVE_INFINITY) {
+            step(quotient, min, presX, presY, nextX, nextY);
+            double[] swap = presX;
+            presX = nextX;
+            nextX = swap;
+            swap = presY;
+            presY = nextY;
+            nextY = swap;
+            upper = 0.0;
+            for (int unit = 0; unit < numUnits; unit++) {
+                if (presY[unit] >= 1.0) {
+                    upper = Double.POSITIVE_INFINITY;
+                    break;
+                }
+                upper = Math.max(upper, presX[unit] / (1.0 - presY[unit]));
+            }
+        }
+        return numUnits > 0 ? upper : 0.0;
+    }
+
+    /**
+     * Perform one Jacobi step of sound value iteration.
+     * Units without choices, which can only occur if the quotient has end
+     * components without leaving choices, obtain value and probability zero.
+     */
+    private static void step(SoundQuotient quotient, boolean min,
+            double[] presX, double[] presY, double[] nextX, double[] nextY) {
+        int numUnits = quotient.numUnits;
+        int[] unitBounds = quotient.unitBounds;
+        int[] choiceBounds = quotient.choiceBounds;
+        int[] targets = quotient.targets;
+        double[] weights = quotient.weights;
+        double[] base = quotient.base;
+        double optInitValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        for (int unit = 0; unit < numUnits; unit++) {
+            int unitFrom = unitBounds[unit];
+            int unitTo = unitBounds[unit + 1];
+            double unitX = optInitValue;
+            double unitY = optInitValue;
+            for (int choice = unitFrom; choice < unitTo; choice++) {
+                double choiceX = base[choice];
+                double choiceY = 0.0;
+                for (int succ = choiceBounds[choice]; succ < choiceBounds[choice + 1]; succ++) {
+                    choiceX += weights[succ] * presX[targets[succ]];
+                    choiceY += weights[succ] * presY[targets[succ]];
+                }
+                if (!min) {
+                    unitX = Math.max(unitX, choiceX);
+                    unitY = Math.max(unitY, choiceY);
+                } else if (choiceX < unitX || (choiceX == unitX && choiceY < unitY)) {
+                    unitX = choiceX;
+                    unitY = choiceY;
+                }
+            }
+            if (unitFrom == unitTo) {
+                unitX = 0.0;
+                unitY = 0.0;
+            }
+            nextX[unit] = unitX;
+            nextY[unit] = unitY;
+        }
+    }
+
+    /**
+     * Apply the Bellman operator to a single unit.
+     * Units without choices obtain value zero.
+     */
+    private static double bellman(SoundQuotient quotient, int unit,
+            boolean min, double[] values) {
+        int[] unitBounds = quotient.unitBounds;
+        int[] choiceBounds = quotient.choiceBounds;
+        int[] targets = quotient.targets;
+        double[] weights = quotient.weights;
+        double[] base = quotient.base;
+        int unitFrom = unitBounds[unit];
+        int unitTo = unitBounds[unit + 1];
+        if (unitFrom == unitTo) {
+            return 0.0;
+        }
+        double result = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        for (int choice = unitFrom; choice < unitTo; choice++) {
+            double choiceValue = base[choice];
+            for (int succ = choiceBounds[choice]; succ < choiceBounds[choice + 1]; succ++) {
+                choiceValue += weights[succ] * values[targets[succ]];
+            }
+            result = IterationDoubleJava.opt(min, result, choiceValue);
+        }
+        return result;
+    }
+
+    private IterationDoubleSound() {
+    }
+}
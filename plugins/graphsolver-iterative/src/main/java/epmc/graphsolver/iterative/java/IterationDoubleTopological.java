@@ -0,0 +1,192 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graphsolver.iterative.java;
+
+import epmc.graphsolver.iterative.Info;
+
+/**
+ * Topological value iteration on primitive double arrays.
+ * The states of the graph are given as a sequence of strongly connected
+ * components, such that each component only has transitions to itself and
+ * to components earlier in the sequence. Components are solved one after
+ * the other, such that values of all states outside the current component
+ * the component can reach are already final. Components consisting of a
+ * single state are solved directly; for larger components, value iteration
+ * restricted to the states of the component is performed until the maximal
+ * difference between two iterations within the component is small enough.
+ * The states of component {@code i} are the entries {@code componentBounds[i]}
+ * (inclusive) to {@code componentBounds[i+1]} (exclusive) of
+ * {@code componentStates}. The iteration result is the sum of the numbers
+ * of iterations performed in all components.
+ *
+ * @author Ernst Moritz Hahn
+ */
+final class IterationDoubleTopological {
+    static void dtmcUnbounded(Info info, boolean gaussSeidel,
+            boolean relative, double precision, int numComponents,
+            int[] componentBounds, int[] componentStates,
+            int[] stateBounds, int[] targets, double[] weights,
+            double[] values, int[] iterationsResult) {
+        double[] nextValues = gaussSeidel ? null
+                : new double[maxComponentSize(numComponents, componentBounds)];
+        int iterations = 0;
+        for (int component = 0; component < numComponents; component++) {
+            int compFrom = componentBounds[component];
+            int compTo = componentBounds[component + 1];
+            if (compTo - compFrom == 1) {
+                int state = componentStates[compFrom];
+                values[state] = solveSingle(state, stateBounds, targets, weights, values);
+                continue;
+            }
+            double maxDiff;
+            do {
+                maxDiff = 0.0;
+                for (int entry = compFrom; entry < compTo; entry++) {
+                    int state = componentStates[entry];
+                    int from = stateBounds[state];
+                    int to = stateBounds[state + 1];
+                    double nextStateProb = 0.0;
+                    for (int succ = from; succ < to; succ++) {
+                        nextStateProb += weights[succ] * values[targets[succ]];
+                    }
+                    maxDiff = IterationDoubleJava.diff(maxDiff, values[state], nextStateProb, relative);
+                    if (gaussSeidel) {
+                        values[state] = nextStateProb;
+                    } else {
+                        nextValues[entry - compFrom] = nextStateProb;
+                    }
+                }
+                if (!gaussSeidel) {
+                    for (int entry = compFrom; entry < compTo; entry++) {
+                        values[componentStates[entry]] = nextValues[entry - compFrom];
+                    }
+                }
+                info.setNumIterations(iterations);
+                info.setDifference(maxDiff);
+                iterations++;
+            } while (maxDiff > precision / 2);
+        }
+        iterationsResult[0] = iterations;
+    }
+
+    static void mdpUnbounded(Info info, boolean gaussSeidel,
+            boolean relative, double precision, int numComponents,
+            int[] componentBounds, int[] componentStates,
+            int[] stateBounds, int[] nondetBounds, int[] targets,
+            double[] weights, boolean min, double[] values,
+            int[] iterationsResult) {
+        double[] nextValues = gaussSeidel ? null
+                : new double[maxComponentSize(numComponents, componentBounds)];
+        double optInitValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        int iterations = 0;
+        for (int component = 0; component < numComponents; component++) {
+            int compFrom = componentBounds[component];
+            int compTo = componentBounds[component + 1];
+            if (compTo - compFrom == 1) {
+                int state = componentStates[compFrom];
+                double nextStateProb = optInitValue;
+                for (int nondetNr = stateBounds[state]; nondetNr < stateBounds[state + 1]; nondetNr++) {
+                    double choiceNextStateProb = solveSingle(state, nondetNr,
+                            nondetBounds, targets, weights, values);
+                    nextStateProb = IterationDoubleJava.opt(min, nextStateProb, choiceNextStateProb);
+                }
+                values[state] = nextStateProb;
+                continue;
+            }
+            double maxDiff;
+            do {
+                maxDiff = 0.0;
+                for (int entry = compFrom; entry < compTo; entry++) {
+                    int state = componentStates[entry];
+                    int stateFrom = stateBounds[state];
+                    int stateTo = stateBounds[state + 1];
+                    double nextStateProb = optInitValue;
+                    for (int nondetNr = stateFrom; nondetNr < stateTo; nondetNr++) {
+                        int nondetFrom = nondetBounds[nondetNr];
+                        int nondetTo = nondetBounds[nondetNr + 1];
+                        double choiceNextStateProb = 0.0;
+                        for (int stateSucc = nondetFrom; stateSucc < nondetTo; stateSucc++) {
+                            choiceNextStateProb += weights[stateSucc] * values[targets[stateSucc]];
+                        }
+                        nextStateProb = IterationDoubleJava.opt(min, nextStateProb, choiceNextStateProb);
+                    }
+                    maxDiff = IterationDoubleJava.diff(maxDiff, values[state], nextStateProb, relative);
+                    if (gaussSeidel) {
+                        values[state] = nextStateProb;
+                    } else {
+                        nextValues[entry - compFrom] = nextStateProb;
+                    }
+                }
+                if (!gaussSeidel) {
+                    for (int entry = compFrom; entry < compTo; entry++) {
+                        values[componentStates[entry]] = nextValues[entry - compFrom];
+                    }
+                }
+                info.setNumIterations(iterations);
+                info.setDifference(maxDiff);
+                iterations++;
+            } while (maxDiff > precision / 2);
+        }
+        iterationsResult[0] = iterations;
+    }
+
+    /**
+     * Directly compute the value of a state forming a component on its own.
+     * The value is the least solution of
+     * {@code v = p * v + r}, where {@code p} is the probability of the
+     * self loop of the state and {@code r} the value obtained from the other
+     * successors. If the state only has a self loop, its value is left
+     * unchanged.
+     */
+    private static double solveSingle(int state, int[] bounds, int[] targets,
+            double[] weights, double[] values) {
+        return solveSingle(state, state, bounds, targets, weights, values);
+    }
+
+    private static double solveSingle(int state, int node, int[] bounds,
+            int[] targets, double[] weights, double[] values) {
+        double selfLoop = 0.0;
+        double rest = 0.0;
+        for (int succ = bounds[node]; succ < bounds[node + 1]; succ++) {
+            int target = targets[succ];
+            if (target == state) {
+                selfLoop += weights[succ];
+            } else {
+                rest += weights[succ] * values[target];
+            }
+        }
+        if (selfLoop >= 1.0) {
+            return values[state];
+        }
+        return rest / (1.0 - selfLoop);
+    }
+
+    private static int maxComponentSize(int numComponents, int[] componentBounds) {
+        int result = 0;
+        for (int component = 0; component < numComponents; component++) {
+            result = Math.max(result, componentBounds[component + 1] - componentBounds[component]);
+        }
+        return result;
+    }
+
+    private IterationDoubleTopological() {
+    }
+}
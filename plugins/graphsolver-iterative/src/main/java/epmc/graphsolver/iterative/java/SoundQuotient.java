@@ -0,0 +1,380 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graphsolver.iterative.java;
+
+import java.util.Arrays;
+
+import epmc.algorithms.UtilAlgorithms;
+import epmc.algorithms.explicit.EndComponents;
+import epmc.graph.CommonProperties;
+import epmc.graph.explicit.GraphExplicit;
+import epmc.graph.explicit.GraphExplicitSparse;
+import epmc.graph.explicit.GraphExplicitSparseAlternate;
+import epmc.util.BitSet;
+import epmc.util.UtilBitSet;
+import epmc.value.ValueArrayAlgebra;
+import epmc.value.ValueContentDoubleArray;
+
+/**
+ * Quotient of an iteration graph used for iteration with error bounds.
+ * Iterating upper bounds only converges to the actual values if the states
+ * the values of which are not yet known cannot stay among themselves
+ * forever. To ensure this, the states of the graph are split into fixed
+ * states and units. Fixed states are absorbing states as well as, for
+ * reachability, states with probability zero to reach the target. Their
+ * value is known in advance. The remaining states are assigned to units.
+ * For maximal reachability and for rewards, all states of a maximal end
+ * component (only using choices without reward, for rewards) are collapsed
+ * to a single unit, the choices of which are the choices leaving the end
+ * component. All other states form a unit on their own.
+ * Markov chains are handled as MDPs with a single choice per state.
+ * Choices of the quotient only contain transitions to units; the
+ * contribution of the transitions to fixed states, together with the reward
+ * of the choice, is stored separately as base value of the choice.
+ * The choices of unit {@code u} are the entries {@code unitBounds[u]}
+ * (inclusive) to {@code unitBounds[u+1]} (exclusive), and the transitions of
+ * choice {@code c} are the entries {@code choiceBounds[c]} (inclusive) to
+ * {@code choiceBounds[c+1]} (exclusive) of {@code targets} and
+ * {@code weights}.
+ *
+ * @author Ernst Moritz Hahn
+ */
+final class SoundQuotient {
+    /** Number of states of the original iteration graph. */
+    final int numStates;
+    /** Unit of each state, or {@code -1} for fixed states. */
+    final int[] stateUnit;
+    /** Number of units. */
+    final int numUnits;
+    /** Choice ranges of units. */
+    final int[] unitBounds;
+    /** Transition ranges of choices. */
+    final int[] choiceBounds;
+    /** Target units of transitions. */
+    final int[] targets;
+    /** Probabilities of transitions. */
+    final double[] weights;
+    /** Reward plus value obtained from fixed states of each choice. */
+    final double[] base;
+
+    /**
+     * Build the quotient of an iteration graph.
+     * The graph must be a {@link GraphExplicitSparse} or a
+     * {@link GraphExplicitSparseAlternate} with double weights. The array of
+     * values contains the values of the absorbing states, that is, one for
+     * target states and zero otherwise for reachability, and zero for
+     * rewards; on return, it also contains the value of all other fixed
+     * states. For rewards, the reward array contains the reward of each
+     * state for Markov chains and of each choice for MDPs; for reachability,
+     * it must be {@code null}. Rewards must be nonnegative.
+     *
+     * @param graph iteration graph
+     * @param values values of the states of the graph
+     * @param rewards rewards, or {@code null} for reachability
+     * @param min whether values are to be minimised
+     * @return quotient of the graph
+     */
+    static SoundQuotient build(GraphExplicit graph, double[] values,
+            double[] rewards, boolean min) {
+        assert graph != null;
+        assert values != null;
+        int numStates;
+        int[] stateBounds;
+        int[] nondetBounds;
+        int[] targets;
+        double[] weights;
+        boolean nondet;
+        if (graph instanceof GraphExplicitSparse) {
+            GraphExplicitSparse sparse = (GraphExplicitSparse) graph;
+            numStates = sparse.getNumNodes();
+            stateBounds = new int[numStates + 1];
+            for (int state = 0; state <= numStates; state++) {
+                stateBounds[state] = state;
+            }
+            nondetBounds = sparse.getBoundsJava();
+            targets = sparse.getTargetsJava();
+            weights = ValueContentDoubleArray.getContent(ValueArrayAlgebra.as(sparse.getEdgeProperty(CommonProperties.WEIGHT).getContent()));
+            nondet = false;
+        } else if (graph instanceof GraphExplicitSparseAlternate) {
+            GraphExplicitSparseAlternate sparse = (GraphExplicitSparseAlternate) graph;
+            numStates = sparse.computeNumStates();
+            stateBounds = sparse.getStateBoundsJava();
+            nondetBounds = sparse.getNondetBoundsJava();
+            targets = sparse.getTargetsJava();
+            weights = ValueContentDoubleArray.getContent(ValueArrayAlgebra.as(sparse.getEdgePropertySparseNondet(CommonProperties.WEIGHT).asSparseNondetOnlyNondet().getContent()));
+            nondet = true;
+        } else {
+            assert false : graph.getClass();
+            return null;
+        }
+        assert weights != null;
+        boolean reachability = rewards == null;
+        boolean[] fixed = computeFixed(numStates, stateBounds, nondetBounds,
+                targets, values, reachability, min);
+        int[] stateComponent = new int[numStates];
+        Arrays.fill(stateComponent, -1);
+        boolean[] choiceInternal = new boolean[stateBounds[numStates]];
+        int numComponents = 0;
+        if (nondet && (!reachability || !min)) {
+            numComponents = computeEndComponents(graph, numStates, stateBounds,
+                    fixed, rewards, stateComponent, choiceInternal);
+        }
+        return new SoundQuotient(numStates, stateBounds, nondetBounds, targets,
+                weights, rewards, values, fixed, numComponents,
+                stateComponent, choiceInternal);
+    }
+
+    /**
+     * Compute the states the values of which are known in advance.
+     * These are the absorbing states, that is, states all choices of which
+     * only lead back to the state itself. For reachability, they are
+     * additionally the states which reach the absorbing states with nonzero
+     * value with probability zero, for all schedulers if {@code min} is
+     * {@code false} and for some scheduler if it is {@code true}. Their
+     * value is set to zero.
+     */
+    private static boolean[] computeFixed(int numStates, int[] stateBounds,
+            int[] nondetBounds, int[] targets, double[] values,
+            boolean reachability, boolean min) {
+        boolean[] fixed = new boolean[numStates];
+        for (int state = 0; state < numStates; state++) {
+            boolean absorbing = true;
+            for (int succ = nondetBounds[stateBounds[state]]; succ < nondetBounds[stateBounds[state + 1]]; succ++) {
+                if (targets[succ] != state) {
+                    absorbing = false;
+                    break;
+                }
+            }
+            fixed[state] = absorbing;
+        }
+        if (!reachability) {
+            return fixed;
+        }
+        int numChoices = stateBounds[numStates];
+        int numTransitions = nondetBounds[numChoices];
+        int[] choiceState = new int[numChoices];
+        int[] remaining = new int[numStates];
+        int[] predBounds = new int[numStates + 1];
+        for (int state = 0; state < numStates; state++) {
+            for (int choice = stateBounds[state]; choice < stateBounds[state + 1]; choice++) {
+                choiceState[choice] = state;
+            }
+            remaining[state] = min ? stateBounds[state + 1] - stateBounds[state] : 1;
+        }
+        for (int succ = 0; succ < numTransitions; succ++) {
+            predBounds[targets[succ] + 1]++;
+        }
+        for (int state = 0; state < numStates; state++) {
+            predBounds[state + 1] += predBounds[state];
+        }
+        int[] predChoices = new int[numTransitions];
+        int[] predFill = Arrays.copyOf(predBounds, numStates);
+        for (int choice = 0; choice < numChoices; choice++) {
+            for (int succ = nondetBounds[choice]; succ < nondetBounds[choice + 1]; succ++) {
+                predChoices[predFill[targets[succ]]] = choice;
+                predFill[targets[succ]]++;
+            }
+        }
+        boolean[] reach = new boolean[numStates];
+        boolean[] choiceSeen = new boolean[numChoices];
+        int[] queue = new int[numStates];
+        int queueEnd = 0;
+        for (int state = 0; state < numStates; state++) {
+            if (fixed[state] && values[state] > 0.0) {
+                reach[state] = true;
+                queue[queueEnd] = state;
+                queueEnd++;
+            }
+        }
+        for (int queueBegin = 0; queueBegin < queueEnd; queueBegin++) {
+            int state = queue[queueBegin];
+            for (int pred = predBounds[state]; pred < predBounds[state + 1]; pred++) {
+                int choice = predChoices[pred];
+                if (choiceSeen[choice]) {
+                    continue;
+                }
+                choiceSeen[choice] = true;
+                int predState = choiceState[choice];
+                remaining[predState]--;
+                if (!reach[predState] && remaining[predState] == 0) {
+                    reach[predState] = true;
+                    queue[queueEnd] = predState;
+                    queueEnd++;
+                }
+            }
+        }
+        for (int state = 0; state < numStates; state++) {
+            if (!reach[state]) {
+                fixed[state] = true;
+                values[state] = 0.0;
+            }
+        }
+        return fixed;
+    }
+
+    /**
+     * Compute the maximal end components of the nonfixed states of an MDP.
+     * For rewards, only choices with zero reward are taken into account.
+     * The end component number of each state is stored in
+     * {@code stateComponent}, which is {@code -1} for states not part of an
+     * end component, and the choices of the end components are marked in
+     * {@code choiceInternal}.
+     */
+    private static int computeEndComponents(GraphExplicit graph,
+            int numStates, int[] stateBounds, boolean[] fixed,
+            double[] rewards, int[] stateComponent, boolean[] choiceInternal) {
+        int numNodes = graph.getNumNodes();
+        BitSet existing = UtilBitSet.newBitSetUnbounded(numNodes);
+        for (int state = 0; state < numStates; state++) {
+            if (fixed[state]) {
+                continue;
+            }
+            existing.set(state);
+            for (int choice = stateBounds[state]; choice < stateBounds[state + 1]; choice++) {
+                if (rewards == null || rewards[choice] == 0.0) {
+                    existing.set(numStates + choice);
+                }
+            }
+        }
+        int[] nodes = new int[numNodes];
+        int numComponents = 0;
+        EndComponents components = UtilAlgorithms.newComponentsExplicit()
+                .maximalEndComponents(graph, existing);
+        int size;
+        while ((size = components.nextNodes(nodes)) >= 0) {
+            for (int nodeNr = 0; nodeNr < size; nodeNr++) {
+                int node = nodes[nodeNr];
+                if (node < numStates) {
+                    stateComponent[node] = numComponents;
+                } else {
+                    choiceInternal[node - numStates] = true;
+                }
+            }
+            numComponents++;
+        }
+        return numComponents;
+    }
+
+    private SoundQuotient(int numStates, int[] stateBounds,
+            int[] nondetBounds, int[] targets, double[] weights,
+            double[] rewards, double[] values, boolean[] fixed,
+            int numComponents, int[] stateComponent,
+            boolean[] choiceInternal) {
+        this.numStates = numStates;
+        stateUnit = new int[numStates];
+        int[] componentUnit = new int[numComponents];
+        Arrays.fill(componentUnit, -1);
+        int numUnits = 0;
+        for (int state = 0; state < numStates; state++) {
+            int component = stateComponent[state];
+            if (fixed[state]) {
+                stateUnit[state] = -1;
+            } else if (component < 0) {
+                stateUnit[state] = numUnits;
+                numUnits++;
+            } else {
+                if (componentUnit[component] < 0) {
+                    componentUnit[component] = numUnits;
+                    numUnits++;
+                }
+                stateUnit[state] = componentUnit[component];
+            }
+        }
+        this.numUnits = numUnits;
+        unitBounds = new int[numUnits + 1];
+        for (int state = 0; state < numStates; state++) {
+            if (fixed[state]) {
+                continue;
+            }
+            for (int choice = stateBounds[state]; choice < stateBounds[state + 1]; choice++) {
+                if (!choiceInternal[choice]) {
+                    unitBounds[stateUnit[state] + 1]++;
+                }
+            }
+        }
+        for (int unit = 0; unit < numUnits; unit++) {
+            unitBounds[unit + 1] += unitBounds[unit];
+        }
+        int numUnitChoices = unitBounds[numUnits];
+        int[] unitChoices = new int[numUnitChoices];
+        int[] unitFill = Arrays.copyOf(unitBounds, numUnits);
+        for (int state = 0; state < numStates; state++) {
+            if (fixed[state]) {
+                continue;
+            }
+            for (int choice = stateBounds[state]; choice < stateBounds[state + 1]; choice++) {
+                if (!choiceInternal[choice]) {
+                    unitChoices[unitFill[stateUnit[state]]] = choice;
+                    unitFill[stateUnit[state]]++;
+                }
+            }
+        }
+        choiceBounds = new int[numUnitChoices + 1];
+        base = new double[numUnitChoices];
+        for (int unitChoice = 0; unitChoice < numUnitChoices; unitChoice++) {
+            int choice = unitChoices[unitChoice];
+            int numSucc = 0;
+            double value = rewards == null ? 0.0 : rewards[choice];
+            for (int succ = nondetBounds[choice]; succ < nondetBounds[choice + 1]; succ++) {
+                int target = targets[succ];
+                if (fixed[target]) {
+                    value += weights[succ] * values[target];
+                } else {
+                    numSucc++;
+                }
+            }
+            base[unitChoice] = value;
+            choiceBounds[unitChoice + 1] = choiceBounds[unitChoice] + numSucc;
+        }
+        this.targets = new int[choiceBounds[numUnitChoices]];
+        this.weights = new double[choiceBounds[numUnitChoices]];
+        for (int unitChoice = 0; unitChoice < numUnitChoices; unitChoice++) {
+            int choice = unitChoices[unitChoice];
+            int entry = choiceBounds[unitChoice];
+            for (int succ = nondetBounds[choice]; succ < nondetBounds[choice + 1]; succ++) {
+                int target = targets[succ];
+                if (!fixed[target]) {
+                    this.targets[entry] = stateUnit[target];
+                    this.weights[entry] = weights[succ];
+                    entry++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Store the values of units in the array of state values.
+     * Values of fixed states are left unchanged.
+     *
+     * @param unitValues values of units
+     * @param values values of states of the iteration graph
+     */
+    void toStates(double[] unitValues, double[] values) {
+        assert unitValues != null;
+        assert values != null;
+        for (int state = 0; state < numStates; state++) {
+            int unit = stateUnit[state];
+            if (unit >= 0) {
+                values[state] = unitValues[unit];
+            }
+        }
+    }
+}
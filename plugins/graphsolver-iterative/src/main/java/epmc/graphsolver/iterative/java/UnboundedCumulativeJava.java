@@ -69,6 +69,7 @@ import epmc.value.ValueAlgebra;
 import epmc.value.ValueArray;
 import epmc.value.ValueArrayAlgebra;
 import epmc.value.ValueBoolean;
+import epmc.value.ValueContentDoubleArray;
 import epmc.value.ValueObject;
 import epmc.value.ValueReal;
 import epmc.value.ValueSetString;
@@ -178,6 +179,8 @@ public final class UnboundedCumulativeJava implements GraphSolverExplicit {
         }
         builder.setUniformise(false);
         builder.setReorder();
+        builder.setMapped(GraphExplicitSparse.isMapped(origGraph)
+                && !SemanticsContinuousTime.isContinuousTime(semanticsType));
         builder.build();
         this.iterGraph = builder.getOutputGraph();
         assert iterGraph != null;
@@ -322,12 +325,40 @@ public final class UnboundedCumulativeJava implements GraphSolverExplicit {
             IterationStopCriterion stopCriterion, double tolerance, ValueArrayAlgebra cumul,
             int[] numIterationsResult) {
         int numStates = graph.computeNumStates();
-        ValueArray presValues = values;
-        ValueArray nextValues = UtilValue.newArray(values.getType(), numStates);
-        ValueArray swap;
         int[] stateBounds = graph.getBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgeProperty(CommonProperties.WEIGHT).getContent());
+        if (IterationDoubleMapped.canUse(graph, values, cumul)) {
+            IterationDoubleMapped.dtmcUnboundedJacobi(info,
+                    stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                    numStates, IterationDoubleMapped.getBounds(graph),
+                    IterationDoubleMapped.getTargets(graph),
+                    IterationDoubleMapped.getWeights(weights),
+                    ValueContentDoubleArray.getContent(values), ValueContentDoubleArray.getContent(cumul), numIterationsResult);
+            return;
+        }
+        if (IterationDoubleJava.canUse(values, weights, cumul)) {
+            int numThreads = Options.get().getInteger(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_NUM_THREADS);
+            if (numThreads > 1) {
+                IterationDoubleJavaParallel.dtmcUnboundedJacobi(info,
+                        numThreads, stopCriterion == IterationStopCriterion.RELATIVE,
+                        tolerance, numStates, stateBounds, targets,
+                        ValueContentDoubleArray.getContent(weights),
+                        ValueContentDoubleArray.getContent(values),
+                        ValueContentDoubleArray.getContent(cumul), numIterationsResult);
+            } else {
+                IterationDoubleJava.dtmcUnboundedCumulativeJacobi(info,
+                        stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                        numStates, stateBounds, targets,
+                        ValueContentDoubleArray.getContent(weights),
+                        ValueContentDoubleArray.getContent(values),
+                        ValueContentDoubleArray.getContent(cumul), numIterationsResult);
+            }
+            return;
+        }
+        ValueArray presValues = values;
+        ValueArray nextValues = UtilValue.newArray(values.getType(), numStates);
+        ValueArray swap;
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
@@ -379,6 +410,24 @@ public final class UnboundedCumulativeJava implements GraphSolverExplicit {
         int[] stateBounds = graph.getBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgeProperty(CommonProperties.WEIGHT).getContent());
+        if (IterationDoubleMapped.canUse(graph, values, cumul)) {
+            IterationDoubleMapped.dtmcUnboundedGaussseidel(info,
+                    stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                    numStates, IterationDoubleMapped.getBounds(graph),
+                    IterationDoubleMapped.getTargets(graph),
+                    IterationDoubleMapped.getWeights(weights),
+                    ValueContentDoubleArray.getContent(values), ValueContentDoubleArray.getContent(cumul), numIterations);
+            return;
+        }
+        if (IterationDoubleJava.canUse(values, weights, cumul)) {
+            IterationDoubleJava.dtmcUnboundedCumulativeGaussseidel(info,
+                    stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                    numStates, stateBounds, targets,
+                    ValueContentDoubleArray.getContent(weights),
+                    ValueContentDoubleArray.getContent(values),
+                    ValueContentDoubleArray.getContent(cumul), numIterations);
+            return;
+        }
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
@@ -428,6 +477,25 @@ public final class UnboundedCumulativeJava implements GraphSolverExplicit {
         int[] nondetBounds = graph.getNondetBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgePropertySparseNondet(CommonProperties.WEIGHT).asSparseNondetOnlyNondet().getContent());
+        if (IterationDoubleJava.canUse(values, weights, cumul)) {
+            int numThreads = Options.get().getInteger(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_NUM_THREADS);
+            if (numThreads > 1) {
+                IterationDoubleJavaParallel.mdpUnboundedJacobi(info,
+                        numThreads, stopCriterion == IterationStopCriterion.RELATIVE,
+                        tolerance, numStates, stateBounds, nondetBounds, targets,
+                        ValueContentDoubleArray.getContent(weights), min,
+                        ValueContentDoubleArray.getContent(values),
+                        ValueContentDoubleArray.getContent(cumul), numIterationsResult);
+            } else {
+                IterationDoubleJava.mdpUnboundedCumulativeJacobi(info,
+                        stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                        numStates, stateBounds, nondetBounds, targets,
+                        ValueContentDoubleArray.getContent(weights), min,
+                        ValueContentDoubleArray.getContent(values),
+                        ValueContentDoubleArray.getContent(cumul), numIterationsResult);
+            }
+            return;
+        }
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
@@ -498,6 +566,15 @@ public final class UnboundedCumulativeJava implements GraphSolverExplicit {
         int[] nondetBounds = graph.getNondetBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgePropertySparseNondet(CommonProperties.WEIGHT).asSparseNondetOnlyNondet().getContent());
+        if (IterationDoubleJava.canUse(values, weights, cumul)) {
+            IterationDoubleJava.mdpUnboundedCumulativeGaussseidel(info,
+                    stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                    numStates, stateBounds, nondetBounds, targets,
+                    ValueContentDoubleArray.getContent(weights), min,
+                    ValueContentDoubleArray.getContent(values),
+                    ValueContentDoubleArray.getContent(cumul), numIterationsResult);
+            return;
+        }
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
@@ -0,0 +1,221 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graphsolver.iterative.java;
+
+import java.util.List;
+
+import epmc.graph.CommonProperties;
+import epmc.graph.GraphBuilderExplicit;
+import epmc.graph.Semantics;
+import epmc.graph.SemanticsCTMC;
+import epmc.graph.SemanticsContinuousTime;
+import epmc.graph.SemanticsDTMC;
+import epmc.graph.SemanticsMDP;
+import epmc.graph.SemanticsNonDet;
+import epmc.graph.explicit.GraphExplicit;
+import epmc.graph.explicit.GraphExplicitModifier;
+import epmc.graph.explicit.GraphExplicitSparse;
+import epmc.graphsolver.GraphSolverExplicit;
+import epmc.graphsolver.iterative.IterationSoundMethod;
+import epmc.graphsolver.iterative.IterationStopCriterion;
+import epmc.graphsolver.iterative.MessagesGraphSolverIterative;
+import epmc.graphsolver.iterative.OptionsGraphSolverIterative;
+import epmc.graphsolver.objective.GraphSolverObjectiveExplicit;
+import epmc.graphsolver.objective.GraphSolverObjectiveExplicitUnboundedCumulative;
+import epmc.messages.OptionsMessages;
+import epmc.modelchecker.Log;
+import epmc.options.Options;
+import epmc.util.BitSet;
+import epmc.util.StopWatch;
+import epmc.value.TypeAlgebra;
+import epmc.value.TypeArrayAlgebra;
+import epmc.value.TypeDouble;
+import epmc.value.TypeWeight;
+import epmc.value.UtilValue;
+import epmc.value.Value;
+import epmc.value.ValueArrayAlgebra;
+import epmc.value.ValueContentDoubleArray;
+import epmc.value.ValueObject;
+
+import static epmc.graphsolver.iterative.UtilGraphSolverIterative.startWithInfoUnboundedVoid;
+
+/**
+ * Unbounded cumulative rewards with guaranteed error bounds.
+ * Depending on {@link OptionsGraphSolverIterative#GRAPHSOLVER_ITERATIVE_SOUND_METHOD},
+ * either interval iteration or sound value iteration is used, see
+ * {@link IterationDoubleSound}. Before iterating, end components of MDPs
+ * only using choices without reward are collapsed, see
+ * {@link SoundQuotient}. For interval iteration, the initial upper bound is
+ * obtained from the bound used in sound value iteration. The solver requires
+ * sinks to be given, which must be reached with probability one, and it only
+ * supports weights represented as doubles. It is only used if one of the two
+ * methods has been selected.
+ *
+ * @author Ernst Moritz Hahn
+ */
+public final class UnboundedCumulativeSoundJava implements GraphSolverExplicit {
+    public static String IDENTIFIER = "graph-solver-iterative-unbounded-cumulative-sound-java";
+
+    private GraphExplicit origGraph;
+    private GraphExplicit iterGraph;
+    private ValueArrayAlgebra inputValues;
+    private ValueArrayAlgebra outputValues;
+    private GraphSolverObjectiveExplicit objective;
+    private GraphBuilderExplicit builder;
+    private ValueArrayAlgebra cumulativeStateRewards;
+
+    @Override
+    public String getIdentifier() {
+        return IDENTIFIER;
+    }
+
+    @Override
+    public void setGraphSolverObjective(GraphSolverObjectiveExplicit objective) {
+        this.objective = objective;
+        origGraph = objective.getGraph();
+    }
+
+    @Override
+    public boolean canHandle() {
+        assert origGraph != null;
+        IterationSoundMethod soundMethod = Options.get().getEnum(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_SOUND_METHOD);
+        if (soundMethod != IterationSoundMethod.INTERVAL
+                && soundMethod != IterationSoundMethod.SOUND) {
+            return false;
+        }
+        Semantics semantics = ValueObject.as(origGraph.getGraphProperty(CommonProperties.SEMANTICS)).getObject();
+        if (!SemanticsCTMC.isCTMC(semantics)
+                && !SemanticsDTMC.isDTMC(semantics)
+                && !SemanticsMDP.isMDP(semantics)) {
+            return false;
+        }
+        if (!(objective instanceof GraphSolverObjectiveExplicitUnboundedCumulative)) {
+            return false;
+        }
+        GraphSolverObjectiveExplicitUnboundedCumulative cumulative = (GraphSolverObjectiveExplicitUnboundedCumulative) objective;
+        if (cumulative.getSinks() == null || cumulative.getStateRewards() == null) {
+            return false;
+        }
+        if (!TypeDouble.is(TypeWeight.get())) {
+            return false;
+        }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void solve() {
+        prepareIterGraph();
+        unboundedCumulative();
+        prepareResultValues();
+    }
+
+    private void prepareIterGraph() {
+        assert origGraph != null;
+        Semantics semanticsType = ValueObject.as(origGraph.getGraphProperty(CommonProperties.SEMANTICS)).getObject();
+        boolean embed = SemanticsContinuousTime.isContinuousTime(semanticsType);
+        this.builder = new GraphBuilderExplicit();
+        builder.setInputGraph(origGraph);
+        builder.addDerivedGraphProperties(origGraph.getGraphProperties());
+        builder.addDerivedNodeProperties(origGraph.getNodeProperties());
+        builder.addDerivedEdgeProperties(origGraph.getEdgeProperties());
+        GraphSolverObjectiveExplicitUnboundedCumulative objectiveUnboundedCumulative = (GraphSolverObjectiveExplicitUnboundedCumulative) objective;
+        List<BitSet> sinks = objectiveUnboundedCumulative.getSinks();
+        builder.addSinks(sinks);
+        builder.setUniformise(false);
+        builder.setReorder();
+        builder.build();
+        this.iterGraph = builder.getOutputGraph();
+        assert iterGraph != null;
+        if (embed) {
+            GraphExplicitModifier.embed(iterGraph);
+        }
+
+        cumulativeStateRewards = objectiveUnboundedCumulative.getStateRewards();
+        if (!SemanticsNonDet.isNonDet(semanticsType)) {
+            ValueArrayAlgebra cumulativeStateRewardsNew = UtilValue.newArray(cumulativeStateRewards.getType(), iterGraph.computeNumStates());
+            Value value = cumulativeStateRewards.getType().getEntryType().newValue();
+            for (int origNode = 0; origNode < origGraph.getNumNodes(); origNode++) {
+                int iterNode = builder.inputToOutputNode(origNode);
+                if (iterNode < 0) {
+                    continue;
+                }
+                cumulativeStateRewards.get(value, origNode);
+                cumulativeStateRewardsNew.set(value, iterNode);
+            }
+            cumulativeStateRewards = cumulativeStateRewardsNew;
+        }
+        inputValues = UtilValue.newArray(TypeWeight.get().getTypeArray(), iterGraph.computeNumStates());
+    }
+
+    private void prepareResultValues() {
+        TypeAlgebra typeWeight = TypeWeight.get();
+        TypeArrayAlgebra typeArrayWeight = typeWeight.getTypeArray();
+        this.outputValues = UtilValue.newArray(typeArrayWeight, origGraph.computeNumStates());
+        Value val = typeWeight.newValue();
+        int origStateNr = 0;
+        for (int i = 0; i < origGraph.getNumNodes(); i++) {
+            int iterState = builder.inputToOutputNode(i);
+            if (iterState == -1) {
+                continue;
+            }
+            inputValues.get(val, iterState);
+            outputValues.set(val, origStateNr);
+            origStateNr++;
+        }
+        objective.setResult(outputValues);
+    }
+
+    private void unboundedCumulative() {
+        Options options = Options.get();
+        Log log = options.get(OptionsMessages.LOG);
+        StopWatch timer = new StopWatch(true);
+        log.send(MessagesGraphSolverIterative.ITERATING);
+        IterationSoundMethod soundMethod = options.getEnum(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_SOUND_METHOD);
+        IterationStopCriterion stopCriterion = options.getEnum(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_STOP_CRITERION);
+        boolean relative = stopCriterion == IterationStopCriterion.RELATIVE;
+        boolean nondet = !(iterGraph instanceof GraphExplicitSparse);
+        boolean min = ((GraphSolverObjectiveExplicitUnboundedCumulative) objective).isMin();
+        double precision = options.getDouble(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_TOLERANCE);
+        int[] numIterations = new int[1];
+        double[] values = ValueContentDoubleArray.getContent(inputValues);
+        double[] rewards = ValueContentDoubleArray.getContent(cumulativeStateRewards);
+        assert values != null;
+        assert rewards != null;
+        SoundQuotient quotient = SoundQuotient.build(iterGraph, values, rewards, min);
+        double[] unitValues = new double[quotient.numUnits];
+        startWithInfoUnboundedVoid(info -> {
+            if (soundMethod == IterationSoundMethod.INTERVAL) {
+                double upper = IterationDoubleSound.upperBound(quotient, min);
+                IterationDoubleSound.interval(info, quotient, min, relative,
+                        precision, upper, unitValues, numIterations);
+            } else {
+                IterationDoubleSound.sound(info, quotient, nondet, min,
+                        relative, precision, unitValues, numIterations);
+            }
+        });
+        quotient.toStates(unitValues, values);
+        log.send(MessagesGraphSolverIterative.ITERATING_DONE, numIterations[0],
+                timer.getTimeSeconds());
+    }
+}
@@ -69,6 +69,7 @@ import epmc.value.ValueAlgebra;
 import epmc.value.ValueArray;
 import epmc.value.ValueArrayAlgebra;
 import epmc.value.ValueBoolean;
+import epmc.value.ValueContentDoubleArray;
 import epmc.value.ValueObject;
 import epmc.value.ValueReal;
 import epmc.value.ValueSetString;
@@ -175,6 +176,8 @@ public final class UnboundedReachabilityJava implements GraphSolverExplicit {
         }
         builder.setUniformise(false);
         builder.setReorder();
+        builder.setMapped(GraphExplicitSparse.isMapped(origGraph)
+                && !SemanticsContinuousTime.isContinuousTime(semanticsType));
         builder.build();
         this.iterGraph = builder.getOutputGraph();
         assert iterGraph != null;
@@ -306,12 +309,38 @@ public final class UnboundedReachabilityJava implements GraphSolverExplicit {
             IterationStopCriterion stopCriterion, double tolerance,
             int[] numIterationsResult) {
         int numStates = graph.computeNumStates();
-        ValueArray presValues = values;
-        ValueArray nextValues = UtilValue.newArray(values.getType(), numStates);
-        ValueArray swap;
         int[] stateBounds = graph.getBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgeProperty(CommonProperties.WEIGHT).getContent());
+        if (IterationDoubleMapped.canUse(graph, values)) {
+            IterationDoubleMapped.dtmcUnboundedJacobi(info,
+                    stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                    numStates, IterationDoubleMapped.getBounds(graph),
+                    IterationDoubleMapped.getTargets(graph),
+                    IterationDoubleMapped.getWeights(weights),
+                    ValueContentDoubleArray.getContent(values), null, numIterationsResult);
+            return;
+        }
+        if (IterationDoubleJava.canUse(values, weights)) {
+            int numThreads = Options.get().getInteger(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_NUM_THREADS);
+            if (numThreads > 1) {
+                IterationDoubleJavaParallel.dtmcUnboundedJacobi(info,
+                        numThreads, stopCriterion == IterationStopCriterion.RELATIVE,
+                        tolerance, numStates, stateBounds, targets,
+                        ValueContentDoubleArray.getContent(weights),
+                        ValueContentDoubleArray.getContent(values), null, numIterationsResult);
+            } else {
+                IterationDoubleJava.dtmcUnboundedJacobi(info,
+                        stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                        numStates, stateBounds, targets,
+                        ValueContentDoubleArray.getContent(weights),
+                        ValueContentDoubleArray.getContent(values), numIterationsResult);
+            }
+            return;
+        }
+        ValueArray presValues = values;
+        ValueArray nextValues = UtilValue.newArray(values.getType(), numStates);
+        ValueArray swap;
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
@@ -365,6 +394,23 @@ public final class UnboundedReachabilityJava implements GraphSolverExplicit {
         int[] stateBounds = graph.getBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgeProperty(CommonProperties.WEIGHT).getContent());
+        if (IterationDoubleMapped.canUse(graph, values)) {
+            IterationDoubleMapped.dtmcUnboundedGaussseidel(info,
+                    stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                    numStates, IterationDoubleMapped.getBounds(graph),
+                    IterationDoubleMapped.getTargets(graph),
+                    IterationDoubleMapped.getWeights(weights),
+                    ValueContentDoubleArray.getContent(values), null, numIterationsResult);
+            return;
+        }
+        if (IterationDoubleJava.canUse(values, weights)) {
+            IterationDoubleJava.dtmcUnboundedGaussseidel(info,
+                    stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                    numStates, stateBounds, targets,
+                    ValueContentDoubleArray.getContent(weights),
+                    ValueContentDoubleArray.getContent(values), numIterationsResult);
+            return;
+        }
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
@@ -416,6 +462,23 @@ public final class UnboundedReachabilityJava implements GraphSolverExplicit {
         int[] nondetBounds = graph.getNondetBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgePropertySparseNondet(CommonProperties.WEIGHT).asSparseNondetOnlyNondet().getContent());
+        if (IterationDoubleJava.canUse(values, weights)) {
+            int numThreads = Options.get().getInteger(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_NUM_THREADS);
+            if (numThreads > 1) {
+                IterationDoubleJavaParallel.mdpUnboundedJacobi(info,
+                        numThreads, stopCriterion == IterationStopCriterion.RELATIVE,
+                        tolerance, numStates, stateBounds, nondetBounds, targets,
+                        ValueContentDoubleArray.getContent(weights), min,
+                        ValueContentDoubleArray.getContent(values), null, numIterationsResult);
+            } else {
+                IterationDoubleJava.mdpUnboundedJacobi(info,
+                        stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                        numStates, stateBounds, nondetBounds, targets,
+                        ValueContentDoubleArray.getContent(weights), min,
+                        ValueContentDoubleArray.getContent(values), numIterationsResult);
+            }
+            return;
+        }
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
@@ -487,6 +550,14 @@ public final class UnboundedReachabilityJava implements GraphSolverExplicit {
         int[] nondetBounds = graph.getNondetBoundsJava();
         int[] targets = graph.getTargetsJava();
         ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgePropertySparseNondet(CommonProperties.WEIGHT).asSparseNondetOnlyNondet().getContent());
+        if (IterationDoubleJava.canUse(values, weights)) {
+            IterationDoubleJava.mdpUnboundedGaussseidel(info,
+                    stopCriterion == IterationStopCriterion.RELATIVE, tolerance,
+                    numStates, stateBounds, nondetBounds, targets,
+                    ValueContentDoubleArray.getContent(weights), min,
+                    ValueContentDoubleArray.getContent(values), numIterationsResult);
+            return;
+        }
         ValueAlgebra weight = newValueWeight();
         ValueAlgebra weighted = newValueWeight();
         ValueAlgebra succStateProb = newValueWeight();
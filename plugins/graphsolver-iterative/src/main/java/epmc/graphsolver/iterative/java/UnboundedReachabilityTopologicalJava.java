@@ -0,0 +1,259 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graphsolver.iterative.java;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import epmc.algorithms.UtilAlgorithms;
+import epmc.algorithms.explicit.EndComponents;
+import epmc.graph.CommonProperties;
+import epmc.graph.GraphBuilderExplicit;
+import epmc.graph.Semantics;
+import epmc.graph.SemanticsCTMC;
+import epmc.graph.SemanticsContinuousTime;
+import epmc.graph.SemanticsDTMC;
+import epmc.graph.SemanticsMDP;
+import epmc.graph.explicit.GraphExplicit;
+import epmc.graph.explicit.GraphExplicitModifier;
+import epmc.graph.explicit.GraphExplicitSparse;
+import epmc.graph.explicit.GraphExplicitSparseAlternate;
+import epmc.graphsolver.GraphSolverExplicit;
+import epmc.graphsolver.iterative.IterationMethod;
+import epmc.graphsolver.iterative.IterationStopCriterion;
+import epmc.graphsolver.iterative.MessagesGraphSolverIterative;
+import epmc.graphsolver.iterative.OptionsGraphSolverIterative;
+import epmc.graphsolver.objective.GraphSolverObjectiveExplicit;
+import epmc.graphsolver.objective.GraphSolverObjectiveExplicitUnboundedReachability;
+import epmc.messages.OptionsMessages;
+import epmc.modelchecker.Log;
+import epmc.options.Options;
+import epmc.util.BitSet;
+import epmc.util.StopWatch;
+import epmc.value.TypeAlgebra;
+import epmc.value.TypeArrayAlgebra;
+import epmc.value.TypeDouble;
+import epmc.value.TypeWeight;
+import epmc.value.UtilValue;
+import epmc.value.Value;
+import epmc.value.ValueArrayAlgebra;
+import epmc.value.ValueContentDoubleArray;
+import epmc.value.ValueObject;
+
+import static epmc.graphsolver.iterative.UtilGraphSolverIterative.startWithInfoUnboundedVoid;
+
+/**
+ * Topological value iteration for unbounded reachability.
+ * The graph is decomposed into its strongly connected components, which are
+ * then solved in reverse topological order, that is, a component is solved
+ * only after all components it can reach have been solved. Value iteration
+ * is thus only performed within single components, using the final values
+ * of the states of components solved before. Components consisting of a
+ * single state are solved directly without iterating. For models consisting
+ * of many small components, this requires much fewer operations than
+ * iterating over the whole graph until global convergence.
+ * The solver only supports weights represented as doubles. It is not used
+ * by default, but has to be selected explicitly as graph solver.
+ *
+ * @author Ernst Moritz Hahn
+ */
+public final class UnboundedReachabilityTopologicalJava implements GraphSolverExplicit {
+    public static String IDENTIFIER = "graph-solver-iterative-unbounded-reachability-topological-java";
+
+    private GraphExplicit origGraph;
+    private GraphExplicit iterGraph;
+    private ValueArrayAlgebra inputValues;
+    private ValueArrayAlgebra outputValues;
+    private GraphSolverObjectiveExplicit objective;
+    private GraphBuilderExplicit builder;
+    private int numComponents;
+    private int[] componentBounds;
+    private int[] componentStates;
+
+    @Override
+    public String getIdentifier() {
+        return IDENTIFIER;
+    }
+
+    @Override
+    public void setGraphSolverObjective(GraphSolverObjectiveExplicit objective) {
+        this.objective = objective;
+        origGraph = objective.getGraph();
+    }
+
+    @Override
+    public boolean canHandle() {
+        assert origGraph != null;
+        Semantics semantics = ValueObject.as(origGraph.getGraphProperty(CommonProperties.SEMANTICS)).getObject();
+        if (!SemanticsCTMC.isCTMC(semantics)
+                && !SemanticsDTMC.isDTMC(semantics)
+                && !SemanticsMDP.isMDP(semantics)) {
+            return false;
+        }
+        if (!(objective instanceof GraphSolverObjectiveExplicitUnboundedReachability)) {
+            return false;
+        }
+        if (!TypeDouble.is(TypeWeight.get())) {
+            return false;
+        }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void solve() {
+        prepareIterGraph();
+        computeComponents();
+        unboundedReachability();
+        prepareResultValues();
+    }
+
+    private void prepareIterGraph() {
+        assert origGraph != null;
+        Semantics semanticsType = ValueObject.as(origGraph.getGraphProperty(CommonProperties.SEMANTICS)).getObject();
+        boolean embed = SemanticsContinuousTime.isContinuousTime(semanticsType);
+        this.builder = new GraphBuilderExplicit();
+        builder.setInputGraph(origGraph);
+        builder.addDerivedGraphProperties(origGraph.getGraphProperties());
+        builder.addDerivedNodeProperties(origGraph.getNodeProperties());
+        builder.addDerivedEdgeProperties(origGraph.getEdgeProperties());
+        List<BitSet> sinks = new ArrayList<>();
+        GraphSolverObjectiveExplicitUnboundedReachability unbounded = (GraphSolverObjectiveExplicitUnboundedReachability) objective;
+        if (unbounded.getZeroSet() != null) {
+            sinks.add(unbounded.getZeroSet());
+        }
+        sinks.add(unbounded.getTarget());
+        builder.addSinks(sinks);
+        builder.setUniformise(false);
+        builder.setReorder();
+        builder.build();
+        this.iterGraph = builder.getOutputGraph();
+        assert iterGraph != null;
+        if (embed) {
+            GraphExplicitModifier.embed(iterGraph);
+        }
+        BitSet targets = unbounded.getTarget();
+        int numStates = iterGraph.computeNumStates();
+        this.inputValues = UtilValue.newArray(TypeWeight.get().getTypeArray(), numStates);
+        for (int origNode = 0; origNode < origGraph.getNumNodes(); origNode++) {
+            int iterNode = builder.inputToOutputNode(origNode);
+            if (iterNode < 0) {
+                continue;
+            }
+            this.inputValues.set(targets.get(origNode) ? 1 : 0, iterNode);
+        }
+    }
+
+    /**
+     * Decompose the iteration graph into strongly connected components.
+     * The states of each component are stored consecutively, and components
+     * are stored in reverse topological order. Components not containing
+     * any states, which can only consist of a single nondeterministic node,
+     * are left out.
+     */
+    private void computeComponents() {
+        int numStates = iterGraph.computeNumStates();
+        int[] nodes = new int[iterGraph.getNumNodes()];
+        componentBounds = new int[numStates + 1];
+        componentStates = new int[numStates];
+        numComponents = 0;
+        int numEntries = 0;
+        EndComponents components = UtilAlgorithms.newComponentsExplicit()
+                .stronglyConnectedComponents(iterGraph);
+        int size;
+        while ((size = components.nextNodes(nodes)) >= 0) {
+            int begin = numEntries;
+            for (int nodeNr = 0; nodeNr < size; nodeNr++) {
+                if (nodes[nodeNr] < numStates) {
+                    componentStates[numEntries] = nodes[nodeNr];
+                    numEntries++;
+                }
+            }
+            if (numEntries != begin) {
+                numComponents++;
+                componentBounds[numComponents] = numEntries;
+            }
+        }
+        assert numEntries == numStates : numEntries + " " + numStates;
+    }
+
+    private void prepareResultValues() {
+        TypeAlgebra typeWeight = TypeWeight.get();
+        TypeArrayAlgebra typeArrayWeight = typeWeight.getTypeArray();
+        this.outputValues = UtilValue.newArray(typeArrayWeight, origGraph.computeNumStates());
+        Value val = typeWeight.newValue();
+        int origStateNr = 0;
+        for (int i = 0; i < origGraph.getNumNodes(); i++) {
+            int iterState = builder.inputToOutputNode(i);
+            if (iterState == -1) {
+                continue;
+            }
+            inputValues.get(val, iterState);
+            outputValues.set(val, origStateNr);
+            origStateNr++;
+        }
+        objective.setResult(outputValues);
+    }
+
+    private void unboundedReachability() {
+        Options options = Options.get();
+        Log log = options.get(OptionsMessages.LOG);
+        StopWatch timer = new StopWatch(true);
+        log.send(MessagesGraphSolverIterative.ITERATING_COMPONENTS, numComponents);
+        log.send(MessagesGraphSolverIterative.ITERATING);
+        IterationMethod iterMethod = options.getEnum(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_METHOD);
+        IterationStopCriterion stopCriterion = options.getEnum(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_STOP_CRITERION);
+        boolean gaussSeidel = iterMethod == IterationMethod.GAUSS_SEIDEL;
+        boolean relative = stopCriterion == IterationStopCriterion.RELATIVE;
+        int[] numIterations = new int[1];
+        boolean min = ((GraphSolverObjectiveExplicitUnboundedReachability) objective).isMin();
+        double precision = options.getDouble(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_TOLERANCE);
+        double[] values = ValueContentDoubleArray.getContent(inputValues);
+        assert values != null;
+        startWithInfoUnboundedVoid(info -> {
+            if (iterGraph instanceof GraphExplicitSparse) {
+                GraphExplicitSparse graph = (GraphExplicitSparse) iterGraph;
+                ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgeProperty(CommonProperties.WEIGHT).getContent());
+                IterationDoubleTopological.dtmcUnbounded(info, gaussSeidel,
+                        relative, precision, numComponents, componentBounds,
+                        componentStates, graph.getBoundsJava(),
+                        graph.getTargetsJava(),
+                        ValueContentDoubleArray.getContent(weights),
+                        values, numIterations);
+            } else if (iterGraph instanceof GraphExplicitSparseAlternate) {
+                GraphExplicitSparseAlternate graph = (GraphExplicitSparseAlternate) iterGraph;
+                ValueArrayAlgebra weights = ValueArrayAlgebra.as(graph.getEdgePropertySparseNondet(CommonProperties.WEIGHT).asSparseNondetOnlyNondet().getContent());
+                IterationDoubleTopological.mdpUnbounded(info, gaussSeidel,
+                        relative, precision, numComponents, componentBounds,
+                        componentStates, graph.getStateBoundsJava(),
+                        graph.getNondetBoundsJava(), graph.getTargetsJava(),
+                        ValueContentDoubleArray.getContent(weights), min,
+                        values, numIterations);
+            } else {
+                assert false : iterGraph.getClass();
+            }
+        });
+        log.send(MessagesGraphSolverIterative.ITERATING_DONE, numIterations[0],
+                timer.getTimeSeconds());
+    }
+}
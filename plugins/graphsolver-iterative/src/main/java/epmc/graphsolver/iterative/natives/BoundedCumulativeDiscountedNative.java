@@ -98,6 +98,9 @@ public final class BoundedCumulativeDiscountedNative implements GraphSolverExpli
         if (!(objective instanceof GraphSolverObjectiveExplicitBoundedCumulativeDiscounted)) {
             return false;
         }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
         return true;
     }
 
@@ -104,6 +104,9 @@ public final class BoundedCumulativeNative implements GraphSolverExplicit {
         if (!(objective instanceof GraphSolverObjectiveExplicitBoundedCumulative)) {
             return false;
         }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
         return true;
     }
 
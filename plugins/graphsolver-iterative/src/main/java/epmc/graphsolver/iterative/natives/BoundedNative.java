@@ -104,6 +104,9 @@ public final class BoundedNative implements GraphSolverExplicit {
         if (!TypeDouble.is(TypeWeight.get())) {
             return false;
         }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
         return true;
     }
 
@@ -108,6 +108,9 @@ public final class BoundedReachabilityNative implements GraphSolverExplicit {
         if (!TypeDouble.is(TypeWeight.get())) {
             return false;
         }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
         return true;
     }
 
@@ -116,9 +116,29 @@ public final class UnboundedCumulativeNative implements GraphSolverExplicit {
         if (!TypeDouble.is(TypeWeight.get())) {
             return false;
         }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
+        if (isParallelJacobi()) {
+            return false;
+        }
         return true;
     }
 
+    /**
+     * Check whether multi-threaded Jacobi iteration was requested.
+     * The native iteration routines are single-threaded, so in this case
+     * the Java solver is used instead.
+     * 
+     * @return whether multi-threaded Jacobi iteration was requested
+     */
+    private static boolean isParallelJacobi() {
+        Options options = Options.get();
+        IterationMethod iterMethod = options.getEnum(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_METHOD);
+        int numThreads = options.getInteger(OptionsGraphSolverIterative.GRAPHSOLVER_ITERATIVE_NUM_THREADS);
+        return iterMethod == IterationMethod.JACOBI && numThreads > 1;
+    }
+
     @Override
     public void solve() {
         prepareIterGraph();
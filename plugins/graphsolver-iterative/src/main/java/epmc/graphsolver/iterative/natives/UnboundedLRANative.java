@@ -109,6 +109,9 @@ public final class UnboundedLRANative implements GraphSolverExplicit {
         if (!TypeDouble.is(TypeWeight.get())) {
             return false;
         }
+        if (GraphExplicitSparse.isMapped(origGraph)) {
+            return false;
+        }
         // TODO generalise to multi BSCC models
         ComponentsExplicit components = new ComponentsExplicit();
         EndComponents cps = components.endComponents(origGraph, false);
@@ -32,6 +32,8 @@ import epmc.jani.interaction.error.ProblemsJANIInteraction;
 import epmc.jani.interaction.messages.MessagesJANIInteraction;
 import epmc.jani.interaction.options.JANIInteractionIO;
 import epmc.jani.interaction.options.OptionsJANIInteraction;
+import epmc.jani.interaction.options.OptionsJANIInteraction.ServerType;
+import epmc.jani.interaction.remote.TaskServerPool;
 import epmc.messages.OptionsMessages;
 import epmc.modelchecker.CommandTask;
 import epmc.modelchecker.Log;
@@ -62,6 +64,11 @@ public final class CommandTaskJaniInteractionStartServer implements CommandTask
     @Override
     public void executeInClientBeforeServer() {
         JANIInteractionIO type = Options.get().get(OptionsJANIInteraction.JANI_INTERACTION_TYPE);
+        boolean usePool = usePool();
+        if (usePool) {
+            /* start analysis server processes while waiting for clients */
+            TaskServerPool.get();
+        }
         switch (type) {
         case STDIO:
             StandardStream standard = new StandardStream(System.in);
@@ -88,6 +95,9 @@ public final class CommandTaskJaniInteractionStartServer implements CommandTask
             } catch (IOException e) {
             }
             server.stop();
+            if (usePool) {
+                TaskServerPool.get().shutdown();
+            }
             getLog().send(MessagesJANIInteraction.JANI_INTERACTION_SERVER_STOPPED);
             break;
         default:
@@ -102,6 +112,12 @@ public final class CommandTaskJaniInteractionStartServer implements CommandTask
         return false;
     }
     
+    private boolean usePool() {
+        ServerType serverType = Options.get().get(OptionsJANIInteraction.JANI_INTERACTION_ANALYSIS_SERVER_TYPE);
+        return serverType == ServerType.LOCAL
+                && Options.get().getInteger(OptionsJANIInteraction.JANI_INTERACTION_WORKER_POOL_SIZE) > 0;
+    }
+
     private Log getLog() {
         return Options.get().get(OptionsMessages.LOG);
     }
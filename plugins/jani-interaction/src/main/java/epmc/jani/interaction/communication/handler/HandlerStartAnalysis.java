@@ -43,6 +43,8 @@ import epmc.jani.interaction.options.OptionsJANIInteraction;
 import epmc.jani.interaction.options.OptionsJANIInteraction.ServerType;
 import epmc.jani.interaction.remote.TaskServer;
 import epmc.jani.interaction.remote.TaskServerLocal;
+import epmc.jani.interaction.remote.TaskServerPool;
+import epmc.jani.interaction.remote.TaskServerPooled;
 import epmc.jani.interaction.remote.TaskServerSameProcess;
 import epmc.modelchecker.RawModel;
 import epmc.modelchecker.options.OptionsModelChecker;
@@ -125,6 +127,10 @@ public final class HandlerStartAnalysis implements Handler {
             if (serverType == ServerType.SAME_PROCESS) {
                 server = new TaskServerSameProcess();
                 server.start();
+            } else if (serverType == ServerType.LOCAL
+                    && options.getInteger(OptionsJANIInteraction.JANI_INTERACTION_WORKER_POOL_SIZE) > 0) {
+                server = new TaskServerPooled(TaskServerPool.get());
+                server.start();
             } else if (serverType == ServerType.LOCAL) {
                 server = new TaskServerLocal();
                 server.start();
@@ -34,6 +34,7 @@ public final class MessagesJANIInteraction {
     public final static String MESSAGES_JANI_INTERACTION = "MessagesJANIInteraction";
     public final static Message JANI_INTERACTION_SERVER_STARTED = newMessage().setIdentifier("jani-interaction-server-started").build();
     public final static Message JANI_INTERACTION_SERVER_STOPPED = newMessage().setIdentifier("jani-interaction-server-stopped").build();
+    public final static Message JANI_INTERACTION_WORKER_POOL_STATUS = newMessage().setIdentifier("jani-interaction-worker-pool-status").build();
     public final static Message JANI_INTERACTION_SENT_TO_SERVER = newMessage().setIdentifier("jani-interaction-sent-to-server").build();
     public final static Message JANI_INTERACTION_SENT_BY_SERVER = newMessage().setIdentifier("jani-interaction-sent-by-server").build();
 
@@ -41,6 +41,21 @@ public enum OptionsJANIInteraction {
     JANI_INTERACTION_RESULT_FORMATTER_CLASS,
     /** Server type to use for analysis interaction. */
     JANI_INTERACTION_ANALYSIS_SERVER_TYPE,
+    /**
+     * Number of analysis server processes to keep started in advance
+     * if analyses are run in separate processes, 0 to disable {@link Integer}.
+     */
+    JANI_INTERACTION_WORKER_POOL_SIZE,
+    /**
+     * Number of analyses after which a pooled analysis server process is
+     * terminated, 0 for no limit {@link Integer}.
+     */
+    JANI_INTERACTION_WORKER_MAX_TASKS,
+    /**
+     * Memory in megabytes a pooled analysis server process may use after an
+     * analysis before it is terminated, 0 for no limit {@link Integer}.
+     */
+    JANI_INTERACTION_WORKER_MAX_MEMORY,
     /** Whether to start GUI when server is started. */
     JANI_INTERACTION_START_GUI,
     /** Name of user to modify for jani-interaction-modify-user or to add for
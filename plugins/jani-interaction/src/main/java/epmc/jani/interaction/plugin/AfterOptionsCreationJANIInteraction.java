@@ -130,6 +130,24 @@ public final class AfterOptionsCreationJANIInteraction implements AfterOptionsCr
         .setCommandLine().setWeb()
         .setCategory(category).build();
 
+        options.addOption().setBundleName(OptionsJANIInteraction.OPTIONS_JANI_INTERACTION)
+        .setIdentifier(OptionsJANIInteraction.JANI_INTERACTION_WORKER_POOL_SIZE)
+        .setType(typeIntegerNonNegative).setDefault(0)
+        .setCommandLine()
+        .setCategory(category).build();
+
+        options.addOption().setBundleName(OptionsJANIInteraction.OPTIONS_JANI_INTERACTION)
+        .setIdentifier(OptionsJANIInteraction.JANI_INTERACTION_WORKER_MAX_TASKS)
+        .setType(typeIntegerNonNegative).setDefault(0)
+        .setCommandLine()
+        .setCategory(category).build();
+
+        options.addOption().setBundleName(OptionsJANIInteraction.OPTIONS_JANI_INTERACTION)
+        .setIdentifier(OptionsJANIInteraction.JANI_INTERACTION_WORKER_MAX_MEMORY)
+        .setType(typeIntegerNonNegative).setDefault(0)
+        .setCommandLine()
+        .setCategory(category).build();
+
         options.addOption().setBundleName(OptionsJANIInteraction.OPTIONS_JANI_INTERACTION)
         .setIdentifier(OptionsJANIInteraction.JANI_INTERACTION_START_GUI)
         .setType(typeBoolean).setDefault(false)
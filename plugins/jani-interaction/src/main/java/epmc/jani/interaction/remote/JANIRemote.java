@@ -43,4 +43,18 @@ public interface JANIRemote extends java.rmi.Remote {
     public void execute
     (RawModel model, Options options, EPMCChannel channel)
             throws RemoteException;
+
+    /**
+     * Obtain the memory used by the EPMC server.
+     * The value is the heap usage as measured after the most recent garbage
+     * collection, so that it approximates the memory retained by the server
+     * between tasks without requesting a garbage collection. For heap pools
+     * which do not provide this measurement, their current usage is taken.
+     * It can be used to decide whether to continue using a server for
+     * further tasks.
+     * 
+     * @return memory used in bytes
+     * @throws RemoteException thrown in case of connection problems
+     */
+    public long getUsedMemory() throws RemoteException;
 }
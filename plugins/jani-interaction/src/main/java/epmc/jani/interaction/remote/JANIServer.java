@@ -22,8 +22,13 @@ package epmc.jani.interaction.remote;
 
 import static epmc.error.UtilError.ensure;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
 
 import epmc.error.EPMCException;
 import epmc.jani.interaction.Analyse;
@@ -31,6 +36,7 @@ import epmc.main.options.UtilOptionsEPMC;
 import epmc.messages.OptionsMessages;
 import epmc.modelchecker.RawModel;
 import epmc.options.Options;
+import epmc.plugin.PluginInterface;
 import epmc.plugin.UtilPlugin;
 
 /**
@@ -43,6 +49,10 @@ public final class JANIServer extends UnicastRemoteObject implements JANIRemote
     private static final long serialVersionUID = 1L;
     /** name of exit command */
     public final static String EXIT = "exit";
+    /** plugins loaded for the previous task, or {@code null} */
+    private List<String> loadedPlugins;
+    /** plugin classes loaded for the previous task, or {@code null} */
+    private List<Class<? extends PluginInterface>> pluginClasses;
 
     /**
      * Construct new EPMC server
@@ -66,7 +76,7 @@ public final class JANIServer extends UnicastRemoteObject implements JANIRemote
             }
             UtilOptionsEPMC.prepareOptions(options);
             ensure(channel != null, ProblemsRemote.REMOTE_CHANNEL_MISSING);
-            UtilPlugin.loadPlugins(options);
+            loadPlugins(options);
             LogJANI log = new LogJANI(options, channel);
             options.set(OptionsMessages.LOG, log);
             Analyse.execute(rawModel, options, log);
@@ -75,4 +85,38 @@ public final class JANIServer extends UnicastRemoteObject implements JANIRemote
         }
     }
 
+    @Override
+    public long getUsedMemory() throws RemoteException {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage == null) {
+                usage = pool.getUsage();
+            }
+            used += usage.getUsed();
+        }
+        return used;
+    }
+
+    /**
+     * Load the plugins specified in the options of a task.
+     * If the same plugins have already been loaded for the previous task,
+     * the plugin classes are reused rather than loaded again, so that
+     * servers executing several tasks only pay for loading plugins once.
+     * 
+     * @param options options of the task
+     */
+    private void loadPlugins(Options options) {
+        assert options != null;
+        List<String> plugins = UtilPlugin.getPluginList(options);
+        if (!plugins.equals(loadedPlugins)) {
+            pluginClasses = UtilPlugin.loadPlugins(plugins);
+            loadedPlugins = plugins;
+        }
+        UtilPlugin.loadPlugins(options, pluginClasses);
+    }
+
 }
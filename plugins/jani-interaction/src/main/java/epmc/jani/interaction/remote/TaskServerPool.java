@@ -0,0 +1,399 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.jani.interaction.remote;
+
+import java.rmi.RemoteException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import epmc.error.EPMCException;
+import epmc.jani.interaction.messages.MessagesJANIInteraction;
+import epmc.jani.interaction.options.OptionsJANIInteraction;
+import epmc.messages.OptionsMessages;
+import epmc.modelchecker.Log;
+import epmc.options.Options;
+
+/**
+ * Pool of task server processes started in advance.
+ * Starting a new Java VM and loading all plugins for each analysis takes
+ * several seconds, which is often longer than the analysis itself. This
+ * class thus keeps a number of {@link TaskServerLocal} processes started,
+ * as given by {@link OptionsJANIInteraction#JANI_INTERACTION_WORKER_POOL_SIZE},
+ * hands them out to analyses and takes them back afterwards. Processes are
+ * retired, and replaced by new ones started in the background, after they
+ * have executed
+ * {@link OptionsJANIInteraction#JANI_INTERACTION_WORKER_MAX_TASKS} analyses,
+ * if their memory usage exceeds
+ * {@link OptionsJANIInteraction#JANI_INTERACTION_WORKER_MAX_MEMORY}, or if
+ * an analysis running on them was stopped or failed.
+ * There is only a single pool for each process, obtained by {@link #get()}.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class TaskServerPool {
+    /** number of bytes in a megabyte */
+    private final static long MEGABYTE = 1024L * 1024L;
+    /** pool of this process, or {@code null} if not yet created */
+    private static TaskServerPool pool;
+
+    /**
+     * Task server process of the pool.
+     * 
+     * @author Ernst Moritz Hahn
+     */
+    final static class Worker {
+        /** task server process */
+        private final TaskServerLocal server = new TaskServerLocal();
+        /** number of analyses executed by the process */
+        private int numTasks;
+
+        /**
+         * Obtain interface to execute tasks on the process.
+         * 
+         * @return interface to execute tasks on the process
+         */
+        JANIRemote getServer() {
+            return server.getServer();
+        }
+    }
+
+    /** number of processes to keep idle */
+    private final int poolSize;
+    /** number of analyses after which to retire a process, 0 for no limit */
+    private final int maxTasks;
+    /** memory in bytes after which to retire a process, 0 for no limit */
+    private final long maxMemory;
+    /** processes started and ready to execute an analysis */
+    private final ArrayDeque<Worker> idle = new ArrayDeque<>();
+    /** processes currently handed out to analyses */
+    private final Set<Worker> acquired = new HashSet<>();
+    /** executor to start and terminate processes in the background */
+    private final ExecutorService executor;
+    /** number of processes currently being started in the background */
+    private int numStarting;
+    /** number of processes started in total */
+    private long numStarted;
+    /** number of processes retired in total */
+    private long numRetired;
+    /** number of analyses for which a process was requested */
+    private long numAcquired;
+    /** number of analyses which obtained an already started process */
+    private long numAcquiredIdle;
+    /** whether the pool has been shut down */
+    private boolean shutdown;
+
+    /**
+     * Obtain the pool of this process.
+     * The pool is created and starts filling itself at the first call of
+     * this method, using the options given by {@link Options#get()}.
+     * 
+     * @return pool of this process
+     */
+    public static synchronized TaskServerPool get() {
+        if (pool == null) {
+            pool = new TaskServerPool(Options.get());
+        }
+        return pool;
+    }
+
+    /**
+     * Creates a new pool and starts filling it.
+     * The options parameter must not be {@code null}.
+     * 
+     * @param options options to read pool parameters from
+     */
+    private TaskServerPool(Options options) {
+        assert options != null;
+        poolSize = options.getInteger(OptionsJANIInteraction.JANI_INTERACTION_WORKER_POOL_SIZE);
+        maxTasks = options.getInteger(OptionsJANIInteraction.JANI_INTERACTION_WORKER_MAX_TASKS);
+        maxMemory = options.getInteger(OptionsJANIInteraction.JANI_INTERACTION_WORKER_MAX_MEMORY) * MEGABYTE;
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        /* processes started are not terminated automatically if we exit */
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+        synchronized (this) {
+            refill();
+        }
+    }
+
+    /**
+     * Obtain a process to execute an analysis on.
+     * If an idle process is available, it is returned immediately and a
+     * replacement is started in the background. Otherwise, a new process is
+     * started, which may take a while.
+     * 
+     * @return process to execute an analysis on
+     */
+    Worker acquire() {
+        Worker worker;
+        synchronized (this) {
+            numAcquired++;
+            worker = idle.pollFirst();
+            if (worker != null) {
+                numAcquiredIdle++;
+            }
+            refill();
+        }
+        if (worker == null) {
+            worker = startWorker();
+        }
+        boolean stop;
+        synchronized (this) {
+            stop = shutdown;
+            if (!stop) {
+                acquired.add(worker);
+            }
+        }
+        if (stop) {
+            stopWorker(worker);
+        }
+        return worker;
+    }
+
+    /**
+     * Return a process after an analysis has finished successfully.
+     * The process is kept for further analyses, unless it has reached the
+     * maximal number of analyses or memory usage, or the pool is already
+     * full, in which case it is retired.
+     * The worker parameter must not be {@code null}.
+     * 
+     * @param worker process to return
+     */
+    void release(Worker worker) {
+        assert worker != null;
+        synchronized (this) {
+            if (!acquired.remove(worker)) {
+                /* already terminated by shutting down the pool */
+                return;
+            }
+        }
+        worker.numTasks++;
+        boolean retire = maxTasks > 0 && worker.numTasks >= maxTasks;
+        if (!retire && maxMemory > 0) {
+            try {
+                retire = worker.getServer().getUsedMemory() > maxMemory;
+            } catch (RemoteException e) {
+                retire = true;
+            }
+        }
+        synchronized (this) {
+            if (!retire && !shutdown && idle.size() < poolSize) {
+                idle.addLast(worker);
+                worker = null;
+            }
+        }
+        if (worker != null) {
+            retireAcquired(worker);
+        } else {
+            sendStatus();
+        }
+    }
+
+    /**
+     * Terminate a process in the background.
+     * This method is used for processes which shall not be used again, e.g.
+     * because an analysis running on them was stopped.
+     * The worker parameter must not be {@code null}.
+     * 
+     * @param worker process to terminate
+     */
+    void retire(Worker worker) {
+        assert worker != null;
+        synchronized (this) {
+            if (!acquired.remove(worker)) {
+                /* already terminated by shutting down the pool */
+                return;
+            }
+        }
+        retireAcquired(worker);
+    }
+
+    /**
+     * Terminate a process no longer handed out to an analysis.
+     * The worker parameter must not be {@code null}.
+     * 
+     * @param worker process to terminate
+     */
+    private void retireAcquired(Worker worker) {
+        assert worker != null;
+        synchronized (this) {
+            numRetired++;
+            refill();
+        }
+        executor.execute(() -> stopWorker(worker));
+        sendStatus();
+    }
+
+    /**
+     * Terminate all processes of the pool.
+     * This includes both idle processes and processes currently handed out
+     * to analyses, so that no process outlives this one. Processes returned
+     * to the pool afterwards have thus already been terminated.
+     */
+    public void shutdown() {
+        List<Worker> workers;
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+            workers = new ArrayList<>(idle);
+            workers.addAll(acquired);
+            idle.clear();
+            acquired.clear();
+        }
+        for (Worker worker : workers) {
+            stopWorker(worker);
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Get the number of processes ready to execute an analysis.
+     * 
+     * @return number of idle processes
+     */
+    public synchronized int getNumIdle() {
+        return idle.size();
+    }
+
+    /**
+     * Get the number of processes started in total.
+     * 
+     * @return number of processes started in total
+     */
+    public synchronized long getNumStarted() {
+        return numStarted;
+    }
+
+    /**
+     * Get the number of processes retired in total.
+     * 
+     * @return number of processes retired in total
+     */
+    public synchronized long getNumRetired() {
+        return numRetired;
+    }
+
+    /**
+     * Get the number of analyses for which a process was requested.
+     * 
+     * @return number of analyses for which a process was requested
+     */
+    public synchronized long getNumAcquired() {
+        return numAcquired;
+    }
+
+    /**
+     * Get the number of analyses which obtained an already started process.
+     * 
+     * @return number of analyses which obtained an already started process
+     */
+    public synchronized long getNumAcquiredIdle() {
+        return numAcquiredIdle;
+    }
+
+    /**
+     * Start processes in the background until the pool is full.
+     * This method must be called while holding the lock of the pool.
+     */
+    private void refill() {
+        assert Thread.holdsLock(this);
+        while (!shutdown && idle.size() + numStarting < poolSize) {
+            numStarting++;
+            executor.execute(this::startIdleWorker);
+        }
+    }
+
+    /**
+     * Start a process and add it to the idle processes.
+     * If the process cannot be started, the pool will try again the next
+     * time a process is requested.
+     */
+    private void startIdleWorker() {
+        Worker worker = null;
+        try {
+            worker = startWorker();
+        } catch (EPMCException e) {
+            /* analyses will start processes on demand */
+        }
+        synchronized (this) {
+            numStarting--;
+            if (worker != null && !shutdown) {
+                idle.addLast(worker);
+                worker = null;
+            }
+        }
+        if (worker != null) {
+            stopWorker(worker);
+        }
+    }
+
+    private Worker startWorker() {
+        Worker worker = new Worker();
+        worker.server.start();
+        synchronized (this) {
+            numStarted++;
+        }
+        return worker;
+    }
+
+    private static void stopWorker(Worker worker) {
+        assert worker != null;
+        try {
+            worker.server.stop();
+        } catch (EPMCException e) {
+            /* we don't care */
+        }
+    }
+
+    /**
+     * Send the current pool statistics to the log of this process.
+     */
+    private void sendStatus() {
+        Log log = Options.get().get(OptionsMessages.LOG);
+        if (log == null) {
+            return;
+        }
+        int numIdle;
+        long numStarted;
+        long numRetired;
+        long numAcquiredIdle;
+        long numAcquired;
+        synchronized (this) {
+            numIdle = idle.size();
+            numStarted = this.numStarted;
+            numRetired = this.numRetired;
+            numAcquiredIdle = this.numAcquiredIdle;
+            numAcquired = this.numAcquired;
+        }
+        log.send(MessagesJANIInteraction.JANI_INTERACTION_WORKER_POOL_STATUS,
+                numIdle, numStarted, numRetired, numAcquiredIdle, numAcquired);
+    }
+}
@@ -0,0 +1,108 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.jani.interaction.remote;
+
+import epmc.modelchecker.RawModel;
+import epmc.options.Options;
+
+/**
+ * Task server using a process obtained from a {@link TaskServerPool}.
+ * Starting this task server obtains a process from the pool, which usually
+ * has already been started in advance. Stopping it returns the process to
+ * the pool if the analysis executed has finished, and terminates it if the
+ * analysis is still running or has failed, so that stopping an analysis
+ * still stops the computation.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class TaskServerPooled implements TaskServer {
+    /** pool to obtain process from */
+    private final TaskServerPool pool;
+    /** process obtained from the pool */
+    private TaskServerPool.Worker worker;
+    /** whether the server has been started */
+    private boolean started;
+    /** whether the server has been stopped */
+    private boolean stopped;
+    /** whether an analysis is currently being executed */
+    private boolean executing;
+    /** whether the execution of an analysis has failed */
+    private boolean failed;
+
+    /**
+     * Create new task server using a process of the given pool.
+     * The pool parameter must not be {@code null}.
+     * 
+     * @param pool pool to obtain process from
+     */
+    public TaskServerPooled(TaskServerPool pool) {
+        assert pool != null;
+        this.pool = pool;
+    }
+
+    @Override
+    public void start() {
+        assert !started;
+        started = true;
+        worker = pool.acquire();
+    }
+
+    @Override
+    public JANIRemote getServer() {
+        assert worker != null;
+        return worker.getServer();
+    }
+
+    @Override
+    public void execute(Options userOptions, EPMCChannel channel, RawModel model, boolean ignoreConnectionErrors) {
+        synchronized (this) {
+            assert started;
+            assert !stopped;
+            executing = true;
+        }
+        boolean completed = false;
+        try {
+            TaskServer.super.execute(userOptions, channel, model, ignoreConnectionErrors);
+            completed = true;
+        } finally {
+            synchronized (this) {
+                executing = false;
+                failed |= !completed;
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        boolean reuse;
+        synchronized (this) {
+            assert started;
+            assert !stopped;
+            stopped = true;
+            reuse = !executing && !failed;
+        }
+        if (reuse) {
+            pool.release(worker);
+        } else {
+            pool.retire(worker);
+        }
+    }
+}
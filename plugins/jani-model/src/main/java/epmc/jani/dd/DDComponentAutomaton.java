@@ -146,12 +146,18 @@ final class DDComponentAutomaton implements DDComponent {
      */
     private void buildVariables() {
         typeLocation = TypeLocation.get(automaton.getLocations());
-        locationVariableDD = getContextDD().newVariable(automaton.getLocations().toString(), typeLocation, 2);
+        locationVariableDD = graph.removePreparedVariable(automaton);
+        if (locationVariableDD == null) {
+            locationVariableDD = getContextDD().newVariable(automaton.getLocations().toString(), typeLocation, 2);
+        }
         identifierToDD.putAll(graph.getGlobalIdentifiersToDD());
         variableToDD.putAll(graph.getGlobalVariablesToDD());
         variableToIdentifier.putAll(graph.getGlobalVariableToIdentifier());
         for (Variable variable : automaton.getVariablesOrEmpty()) {
-            VariableDD variableDD = getContextDD().newVariable(variable.getName(), variable.toType(), 2);
+            VariableDD variableDD = graph.removePreparedVariable(variable);
+            if (variableDD == null) {
+                variableDD = getContextDD().newVariable(variable.getName(), variable.toType(), 2);
+            }
             localVariableDDs.add(variableDD);
             localVariables.add(variable);
             variableToDD.put(variable, variableDD);
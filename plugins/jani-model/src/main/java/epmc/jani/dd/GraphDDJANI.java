@@ -24,6 +24,7 @@ import static epmc.error.UtilError.ensure;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -45,11 +46,23 @@ import epmc.graph.SemanticsDiscreteTime;
 import epmc.graph.SemanticsNonDet;
 import epmc.graph.dd.GraphDD;
 import epmc.graph.dd.GraphDDProperties;
+import epmc.graph.dd.ReachabilityDD;
+import epmc.graph.dd.VariableOrderDD;
 import epmc.graph.explorer.Explorer;
+import epmc.jani.model.Action;
+import epmc.jani.model.AssignmentSimple;
+import epmc.jani.model.Automaton;
+import epmc.jani.model.Destination;
+import epmc.jani.model.Edge;
 import epmc.jani.model.ModelJANI;
 import epmc.jani.model.OptionsJANIModel;
 import epmc.jani.model.UtilModelParser;
 import epmc.jani.model.Variable;
+import epmc.jani.model.component.Component;
+import epmc.jani.model.component.ComponentAutomaton;
+import epmc.jani.model.component.ComponentParallel;
+import epmc.jani.model.component.ComponentRename;
+import epmc.jani.value.TypeLocation;
 import epmc.modelchecker.Engine;
 import epmc.modelchecker.Model;
 import epmc.options.Options;
@@ -152,6 +165,8 @@ public final class GraphDDJANI implements GraphDD {
     private final Map<Variable,Expression> globalVariableToIdentifier = new LinkedHashMap<>();
     /** Unmodifiable map from global variables to variable identifiers. */
     private final Map<Variable,Expression> globalVariableToIdentifierExternal = Collections.unmodifiableMap(globalVariableToIdentifier);
+    /** DD variables of variables and automata locations created in advance. */
+    private final Map<Object,VariableDD> preparedVariables = new HashMap<>();
     /** Initial nodes of the graph. */
     private final DD initialNodes;
     /** Cube of present state variables. */
@@ -192,6 +207,7 @@ public final class GraphDDJANI implements GraphDD {
         this.model = model;
         this.contextDD = ContextDD.get();
         prepareActionDDVariable();
+        prepareVariableOrder();
         buildGlobalVariables();
         expressionToDD = new ExpressionToDD(globalIdentifierToDD);
         PreparatorDDComponent preparator = new PreparatorDDComponent();
@@ -403,6 +419,8 @@ public final class GraphDDJANI implements GraphDD {
      * <li>we do not need to fix deadlocks, and it is anyway not yet known on
      * which states we will have deadlocks.</li>
      * </ul>
+     * If saturation is used, the transitions of the list are used as the
+     * partition of the transition relation, see {@link ReachabilityDD}.
      * The list of transitions may not be {@code null} and may not contain
      * {@code null} entries.
      * 
@@ -414,23 +432,28 @@ public final class GraphDDJANI implements GraphDD {
         for (DDTransition transition : transitionsList) {
             assert transition != null;
         }
-        DD transitions = contextDD.newConstant(false);
         DD zeroDD = contextDD.newConstant(0);
-        for (DDTransition transition : transitionsList) {
-            transitions = transitions.orWith(transition.getTransitions().gt(zeroDD));
+        DD states;
+        if (ReachabilityDD.isSaturation()) {
+            List<DD> transitions = new ArrayList<>();
+            for (DDTransition transition : transitionsList) {
+                transitions.add(transition.getTransitions().gt(zeroDD));
+            }
+            states = ReachabilityDD.reachableSaturation(initialNodes, transitions,
+                    presCube, swapPresNext);
+            for (DD transition : transitions) {
+                transition.dispose();
+            }
+        } else {
+            DD transitions = contextDD.newConstant(false);
+            for (DDTransition transition : transitionsList) {
+                transitions = transitions.orWith(transition.getTransitions().gt(zeroDD));
+            }
+            states = ReachabilityDD.reachableBFS(initialNodes, transitions,
+                    presCube, swapPresNext);
+            transitions.dispose();
         }
         zeroDD.dispose();
-
-        DD states = initialNodes.clone();
-        DD predecessors = contextDD.newConstant(false);
-        while (!states.equals(predecessors)) {
-            predecessors.dispose();
-            predecessors = states;
-            DD next = transitions.abstractAndExist(states, presCube);
-            next = next.permuteWith(swapPresNext);
-            states = states.clone().orWith(next);
-        }
-        predecessors.dispose();
         return states;
     }
 
@@ -518,13 +541,149 @@ public final class GraphDDJANI implements GraphDD {
         }
     }
 
+    /**
+     * Create the DD variables of the model in the order chosen by
+     * {@link VariableOrderDD}.
+     * The order is computed from the global variables, the local variables
+     * and the locations of the automata of the system. Each edge yields a
+     * dependency between the variables it reads and writes and the location
+     * of its automaton. In addition, edges with the same action name are
+     * assumed to synchronise, ignoring renamings, and thus yield another
+     * dependency. The DD variables created are later obtained by the system
+     * components using {@link #removePreparedVariable(Object)}. If the
+     * order of declaration is to be used, no DD variables are created
+     * here, and the components create them while being built.
+     * 
+     */
+    private void prepareVariableOrder() {
+        if (VariableOrderDD.isDeclarationOrder()) {
+            return;
+        }
+        Set<Automaton> automata = new LinkedHashSet<>();
+        collectAutomata(model.getSystem(), automata);
+        List<Object> variables = new ArrayList<>();
+        Map<Expression,Object> identifierToVariable = new HashMap<>();
+        for (Variable variable : model.getGlobalVariablesOrEmpty()) {
+            variables.add(variable);
+            identifierToVariable.put(variable.getIdentifier(), variable);
+        }
+        for (Automaton automaton : automata) {
+            variables.add(automaton);
+            for (Variable variable : automaton.getVariablesOrEmpty()) {
+                variables.add(variable);
+                identifierToVariable.put(variable.getIdentifier(), variable);
+            }
+        }
+        List<Set<Object>> dependencies = new ArrayList<>();
+        Map<Action,Set<Object>> synchronised = new LinkedHashMap<>();
+        Action silent = model.getSilentAction();
+        for (Automaton automaton : automata) {
+            for (Edge edge : automaton.getEdges()) {
+                Set<Object> dependency = computeEdgeDependency(automaton, edge, identifierToVariable);
+                dependencies.add(dependency);
+                Action action = edge.getActionOrSilent();
+                if (!action.equals(silent)) {
+                    synchronised.computeIfAbsent(action, a -> new LinkedHashSet<>())
+                    .addAll(dependency);
+                }
+            }
+        }
+        dependencies.addAll(synchronised.values());
+        for (Object variable : VariableOrderDD.order(variables, dependencies)) {
+            VariableDD variableDD;
+            if (variable instanceof Automaton) {
+                Automaton automaton = (Automaton) variable;
+                variableDD = contextDD.newVariable(automaton.getLocations().toString(),
+                        TypeLocation.get(automaton.getLocations()), 2);
+            } else {
+                Variable modelVariable = (Variable) variable;
+                variableDD = contextDD.newVariable(modelVariable.getName(),
+                        modelVariable.toType(), 2);
+            }
+            preparedVariables.put(variable, variableDD);
+        }
+    }
+
+    /**
+     * Collect the automata used in a system component.
+     * None of the parameters may be {@code null}.
+     * 
+     * @param component component to collect automata of
+     * @param automata set to add automata to
+     */
+    private static void collectAutomata(Component component, Set<Automaton> automata) {
+        assert component != null;
+        assert automata != null;
+        if (component instanceof ComponentAutomaton) {
+            automata.add(((ComponentAutomaton) component).getAutomaton());
+        } else if (component instanceof ComponentParallel) {
+            collectAutomata(((ComponentParallel) component).getLeft(), automata);
+            collectAutomata(((ComponentParallel) component).getRight(), automata);
+        } else if (component instanceof ComponentRename) {
+            collectAutomata(((ComponentRename) component).getRenamed(), automata);
+        }
+    }
+
+    /**
+     * Compute the variables read or written by an edge.
+     * The result also contains the automaton itself, representing its
+     * location. None of the parameters may be {@code null}.
+     * 
+     * @param automaton automaton the edge belongs to
+     * @param edge edge to compute dependency of
+     * @param identifierToVariable map from identifiers to variables
+     * @return variables read or written by the edge
+     */
+    private static Set<Object> computeEdgeDependency(Automaton automaton,
+            Edge edge, Map<Expression,Object> identifierToVariable) {
+        assert automaton != null;
+        assert edge != null;
+        assert identifierToVariable != null;
+        Set<Expression> identifiers = new LinkedHashSet<>();
+        identifiers.addAll(UtilExpressionStandard.collectIdentifiers(edge.getGuardExpressionOrTrue()));
+        Set<Object> result = new LinkedHashSet<>();
+        result.add(automaton);
+        for (Destination destination : edge.getDestinations()) {
+            identifiers.addAll(UtilExpressionStandard.collectIdentifiers(destination.getProbabilityExpressionOrOne()));
+            for (AssignmentSimple assignment : destination.getAssignmentsOrEmpty()) {
+                result.add(assignment.getRef());
+                identifiers.addAll(UtilExpressionStandard.collectIdentifiers(assignment.getValue()));
+            }
+        }
+        for (Expression identifier : identifiers) {
+            Object variable = identifierToVariable.get(identifier);
+            if (variable != null) {
+                result.add(variable);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtain a DD variable created in advance.
+     * The DD variable is removed from the set of prepared variables, such
+     * that it is returned at most once. If no DD variable was prepared for
+     * the given variable or automaton, {@code null} is returned. The
+     * parameter must not be {@code null}.
+     * 
+     * @param variable variable or automaton to obtain DD variable of
+     * @return DD variable prepared, or {@code null}
+     */
+    VariableDD removePreparedVariable(Object variable) {
+        assert variable != null;
+        return preparedVariables.remove(variable);
+    }
+
     /**
      * Build the set of global variables.
      * 
      */
     private void buildGlobalVariables() {
         for (Variable variable : model.getGlobalVariablesOrEmpty()) {
-            VariableDD variableDD = contextDD.newVariable(variable.getName(), variable.toType(), 2);
+            VariableDD variableDD = removePreparedVariable(variable);
+            if (variableDD == null) {
+                variableDD = contextDD.newVariable(variable.getName(), variable.toType(), 2);
+            }
             globalVariableDDs.add(variableDD);
             globalVariableToDD.put(variable, variableDD);
             globalIdentifierToDD.put(variable.getIdentifier(), variableDD);
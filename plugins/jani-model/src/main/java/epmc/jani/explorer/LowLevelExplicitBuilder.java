@@ -1,21 +1,55 @@
 package epmc.jani.explorer;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+import epmc.expression.Expression;
+import epmc.expression.standard.RewardSpecification;
 import epmc.graph.LowLevel;
 import epmc.graph.LowLevel.Builder;
 import epmc.graph.explicit.GraphBuilderExplorer;
+import epmc.graph.explicit.GraphExplicitCache;
 import epmc.graph.explorer.Explorer;
+import epmc.graph.options.OptionsGraph;
 import epmc.jani.model.ModelJANI;
+import epmc.jani.model.OptionsJANIModel;
+import epmc.jani.type.ctmc.OptionsJANICTMC;
 import epmc.modelchecker.Engine;
 import epmc.modelchecker.EngineExplicit;
 import epmc.modelchecker.EngineExplorer;
 import epmc.modelchecker.Model;
 import epmc.modelchecker.UtilModelChecker;
+import epmc.modelchecker.options.OptionsModelChecker;
+import epmc.options.Options;
+import epmc.value.TypeWeight;
 
 public final class LowLevelExplicitBuilder implements LowLevel.Builder {
     public final static String IDENTIFIER = "jani-explicit";
+    private final static String PROPERTIES = "properties";
+    private final static String NEWLINE = "\n";
+    private final static String EQUALS = "=";
+    private final static String DOT = ".";
+    private final static String COLON = ":";
+    private final static String REWARD_STRUCTURE = "rewardstructure:";
+    /** Options which influence the graph built from a JANI model. */
+    private final static Enum<?>[] CACHE_KEY_OPTIONS = {
+            OptionsGraph.EXPLORATION_NUM_THREADS,
+            OptionsJANIModel.JANI_FIX_DEADLOCKS,
+            OptionsJANIModel.JANI_ACTION_BITS,
+            OptionsJANIExplorer.JANI_EXPLORER_INITIAL_ENUMERATOR,
+            OptionsJANICTMC.JANI_CTMC_ALLOW_MULTI_TRANSITION
+    };
     
     private Model model;
     private Engine engine;
@@ -64,9 +98,15 @@ public final class LowLevelExplicitBuilder implements LowLevel.Builder {
                             graphProperties, nodeProperties, edgeProperties);
             GraphBuilderExplorer builder = new GraphBuilderExplorer();
             builder.setExplorer(explorer);
+            builder.setExplorerSupplier(() -> (Explorer) UtilModelChecker.buildLowLevel
+                    (model, EngineExplorer.ENGINE_EXPLORER,
+                            graphProperties, nodeProperties, edgeProperties));
             builder.addDerivedGraphProperties(graphProperties);
             builder.addDerivedNodeProperties(nodeProperties);
             builder.addDerivedEdgeProperties(edgeProperties);
+            if (GraphExplicitCache.isEnabled()) {
+                builder.setCacheKey(computeCacheKey());
+            }
             builder.build();
             return builder.getGraph();
         } else {
@@ -74,4 +114,83 @@ public final class LowLevelExplicitBuilder implements LowLevel.Builder {
         }
     }
 
+    /**
+     * Compute key identifying the graph to be built in the graph cache.
+     * The key consists of the model without its properties, the type of
+     * weights, the values of the options in {@link #CACHE_KEY_OPTIONS}, and
+     * the graph, node and edge properties to be derived. Properties are
+     * identified by {@link #propertyIdentifier(Object)} and sorted, so
+     * that the key neither depends on the order in which properties were
+     * added nor on the positions of expressions in the input files.
+     * 
+     * @return key identifying the graph to be built
+     */
+    private String computeCacheKey() {
+        JsonValue modelJson = ((ModelJANI) model).generate();
+        if (modelJson instanceof JsonObject) {
+            JsonObjectBuilder withoutProperties = Json.createObjectBuilder();
+            for (Entry<String, JsonValue> entry : ((JsonObject) modelJson).entrySet()) {
+                if (!entry.getKey().equals(PROPERTIES)) {
+                    withoutProperties.add(entry.getKey(), entry.getValue());
+                }
+            }
+            modelJson = withoutProperties.build();
+        }
+        Options options = Options.get();
+        StringBuilder result = new StringBuilder();
+        result.append(modelJson).append(NEWLINE);
+        result.append(TypeWeight.get()).append(NEWLINE);
+        Map<String, Object> constants = options.getMap(OptionsModelChecker.CONST);
+        result.append(constants == null ? null : new TreeMap<>(constants)).append(NEWLINE);
+        for (Enum<?> option : CACHE_KEY_OPTIONS) {
+            result.append(option).append(EQUALS)
+            .append(options.getAndUnparse(option)).append(NEWLINE);
+        }
+        result.append(propertyIdentifiers(graphProperties)).append(NEWLINE);
+        result.append(propertyIdentifiers(nodeProperties)).append(NEWLINE);
+        result.append(propertyIdentifiers(edgeProperties)).append(NEWLINE);
+        return result.toString();
+    }
+
+    private static Set<String> propertyIdentifiers(Set<Object> properties) {
+        Set<String> result = new TreeSet<>();
+        for (Object property : properties) {
+            result.add(propertyIdentifier(property));
+        }
+        return result;
+    }
+
+    /**
+     * Obtain identifier of a graph, node or edge property.
+     * Enum constants are identified by their class and name. Expressions
+     * and reward specifications are identified by their string
+     * representation after positional information has been removed.
+     * 
+     * @param property property to obtain identifier of
+     * @return identifier of the property
+     */
+    private static String propertyIdentifier(Object property) {
+        if (property instanceof Enum) {
+            Enum<?> enumProperty = (Enum<?>) property;
+            return enumProperty.getDeclaringClass().getName() + DOT + enumProperty.name();
+        } else if (property instanceof Expression) {
+            return withoutPositional((Expression) property).toString();
+        } else if (property instanceof RewardSpecification) {
+            Expression expression = ((RewardSpecification) property).getExpression();
+            return REWARD_STRUCTURE + withoutPositional(expression);
+        } else {
+            return property.getClass().getName() + COLON + property;
+        }
+    }
+
+    private static Expression withoutPositional(Expression expression) {
+        List<Expression> children = new ArrayList<>();
+        for (Expression child : expression.getChildren()) {
+            children.add(withoutPositional(child));
+        }
+        if (!children.isEmpty()) {
+            expression = expression.replaceChildren(children);
+        }
+        return expression.replacePositional(null);
+    }
 }
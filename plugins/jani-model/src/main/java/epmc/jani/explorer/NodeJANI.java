@@ -31,7 +31,8 @@ import epmc.graph.explorer.ExplorerNode;
 import epmc.jani.model.Location;
 import epmc.jani.value.ValueLocation;
 import epmc.operator.OperatorSet;
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 import epmc.value.ContextValue;
 import epmc.value.EvaluatorCache;
 import epmc.value.OperatorEvaluator;
@@ -127,7 +128,7 @@ public final class NodeJANI implements ExplorerNode {
     }
     
     @Override
-    public void read(BitStream reader) {
+    public void read(BitStreamReader reader) {
         assert reader != null;
         for (int varNr = 0; varNr < values.length; varNr++) {
             if (storeVariables[varNr]) {
@@ -137,7 +138,7 @@ public final class NodeJANI implements ExplorerNode {
     }
 
     @Override
-    public void write(BitStream writer) {
+    public void write(BitStreamWriter writer) {
         for (int varNr = 0; varNr < values.length; varNr++) {
             if (storeVariables[varNr]) {
                 ValueBitStoreable.as(values[varNr]).write(writer);
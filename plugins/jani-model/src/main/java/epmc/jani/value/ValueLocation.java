@@ -21,7 +21,8 @@
 package epmc.jani.value;
 
 import epmc.jani.model.Location;
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 import epmc.value.Value;
 import epmc.value.ValueAlgebra;
 import epmc.value.ValueBitStoreable;
@@ -74,7 +75,7 @@ public final class ValueLocation implements ValueEnumerable, ValueNumBitsKnown,
     }
 
     @Override
-    public void read(BitStream reader) {
+    public void read(BitStreamReader reader) {
         assert reader != null;
         locationNumber = 0;
         int marker = 1;
@@ -87,7 +88,7 @@ public final class ValueLocation implements ValueEnumerable, ValueNumBitsKnown,
     }
 
     @Override
-    public void write(BitStream writer) {
+    public void write(BitStreamWriter writer) {
         assert writer != null;
         int marker = 1;
         for (int bitNr = 0; bitNr < numBits; bitNr++) {
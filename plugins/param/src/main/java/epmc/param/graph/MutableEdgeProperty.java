@@ -15,16 +15,15 @@ public final class MutableEdgeProperty implements EdgeProperty {
     private final TypeArray typeArray;
     private final ArrayList<ValueArray> values = new ArrayList<>();
     private final IntArrayList sizes = new IntArrayList();
-    private final Value value;
-    private final Value tmp;
+    /** Values to read from the arrays, one for each thread using them. */
+    private final ThreadLocal<Value> value;
 
     MutableEdgeProperty(MutableGraph graph, Type type) {
         assert graph != null;
         this.graph = graph;
         this.type = type;
         typeArray = type.getTypeArray();
-        value = type.newValue();
-        tmp = type.newValue();
+        value = ThreadLocal.withInitial(type::newValue);
     }
     
     @Override
@@ -38,6 +37,7 @@ public final class MutableEdgeProperty implements EdgeProperty {
         assert node < sizes.size() : node;
         assert successor >= 0 : successor;
         assert successor < sizes.getInt(node) : successor;
+        Value value = this.value.get();
         values.get(node).get(value, successor);
         return value;
     }
@@ -63,6 +63,7 @@ public final class MutableEdgeProperty implements EdgeProperty {
             
             ValueArray newArray = typeArray.newValue();
             newArray.setSize(newSize);
+            Value tmp = this.value.get();
             for (int index = 0; index < array.size(); index++) {
                 array.get(tmp, index);
                 newArray.set(tmp, index);
@@ -83,6 +84,7 @@ public final class MutableEdgeProperty implements EdgeProperty {
     
     public void removeSuccessorNumber(int node, int succNr) {
         ValueArray nodeValues = values.get(node);
+        Value value = this.value.get();
         if (graph.isRemoveShift()) {
             for (int i = succNr; i < sizes.getInt(node) - 1; i++) {
                 nodeValues.get(value, i + 1);
@@ -1,6 +1,7 @@
 package epmc.param.graph;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import epmc.graph.explicit.GraphExplicit;
 import epmc.graph.explicit.GraphExplicitProperties;
@@ -11,6 +12,14 @@ import epmc.util.BitSetUnboundedLongArray;
 import epmc.value.Type;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 
+/**
+ * Graph which can be modified by adding and removing nodes and transitions.
+ * Nodes and transitions may be modified by several threads concurrently, as
+ * long as the threads do not access the successor or predecessor lists of
+ * the same nodes. Adding and removing nodes is not thread safe.
+ *
+ * @author Ernst Moritz Hahn
+ */
 public final class MutableGraph implements GraphExplicit {
     private final static int UNDEFINED = -1;
     private BitSet initialNodes = new BitSetUnboundedLongArray();
@@ -20,7 +29,7 @@ public final class MutableGraph implements GraphExplicit {
     private final IntArrayList unusedNodes = new IntArrayList();
     private final BitSet usedNodes = new BitSetUnboundedIntArray();
     private final GraphExplicitProperties properties = new GraphExplicitProperties(this);
-    private int totalNumTransitions;
+    private final AtomicInteger totalNumTransitions = new AtomicInteger();
     private boolean removeShift = false;
 
     public MutableGraph() {
@@ -61,7 +70,7 @@ public final class MutableGraph implements GraphExplicit {
             nodeSuccessors.removeInt(nodeSuccessors.size() - 1);
 //        System.out.println("< " + succNr + " " + nodeSuccessors);
         }
-        totalNumTransitions--;
+        totalNumTransitions.decrementAndGet();
     }
 
     public void removeNode(int node) {
@@ -139,7 +148,7 @@ public final class MutableGraph implements GraphExplicit {
         nodeSuccessors.add(successor);
         IntArrayList nodePredecessors = predecessors.get(successor);
         nodePredecessors.add(node);
-        totalNumTransitions++;
+        totalNumTransitions.incrementAndGet();
     }
 
     public MutableNodeProperty addMutableNodeProperty(Object name, Type type) {
@@ -161,7 +170,7 @@ public final class MutableGraph implements GraphExplicit {
     }
     
     public int getTotalNumTransitions() {
-        return totalNumTransitions;
+        return totalNumTransitions.get();
     }
 
     public void clearSuccessors(int node) {
@@ -178,7 +187,7 @@ public final class MutableGraph implements GraphExplicit {
                 }
             }
         }
-        totalNumTransitions -= nodeSuccessors.size();
+        totalNumTransitions.addAndGet(-nodeSuccessors.size());
         nodeSuccessors.clear();
     }
     
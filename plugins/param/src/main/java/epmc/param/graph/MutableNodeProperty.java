@@ -11,7 +11,8 @@ import epmc.value.ValueArrayAlgebra;
 public final class MutableNodeProperty implements NodeProperty {
     private final MutableGraph graph;
     private final Type type;
-    private final Value value;
+    /** Values to read from the array, one for each thread using them. */
+    private final ThreadLocal<Value> value;
     private ValueArray content;
     private final Value entry;
     int numNodes;
@@ -21,7 +22,7 @@ public final class MutableNodeProperty implements NodeProperty {
         assert type != null;
         this.graph = graph;
         this.type = type;
-        this.value = type.newValue();
+        this.value = ThreadLocal.withInitial(type::newValue);
         TypeArray typeArray = type.getTypeArray();
         this.content = UtilValue.newArray(typeArray, 1);
         entry = type.newValue();
@@ -34,6 +35,7 @@ public final class MutableNodeProperty implements NodeProperty {
 
     @Override
     public Value get(int node) {
+        Value value = this.value.get();
         content.get(value, node);
         return value;
     }
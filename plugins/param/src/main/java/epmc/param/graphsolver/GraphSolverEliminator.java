@@ -1,6 +1,8 @@
 package epmc.param.graphsolver;
 
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import epmc.graph.CommonProperties;
 import epmc.graph.Semantics;
@@ -27,21 +29,66 @@ import epmc.param.graph.MutableGraph;
 import epmc.param.graph.MutableNodeProperty;
 import epmc.param.graphsolver.eliminationorder.EliminationOrder;
 import epmc.param.options.OptionsParam;
+import epmc.param.value.TypeFunction;
 import epmc.param.value.TypeStatistics;
 import epmc.util.BitSet;
+import epmc.util.BitSetUnboundedLongArray;
 import epmc.util.RunningInfo;
 import epmc.util.StopWatch;
 import epmc.value.ContextValue;
 import epmc.value.OperatorEvaluator;
+import epmc.value.Type;
+import epmc.value.TypeDouble;
 import epmc.value.TypeWeight;
 import epmc.value.TypeWeightTransition;
 import epmc.value.Value;
 import epmc.value.ValueAlgebra;
 import epmc.value.ValueArrayAlgebra;
 import epmc.value.ValueObject;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 
 public final class GraphSolverEliminator implements GraphSolverExplicit  {
     public final static String IDENTIFIER = "graph-solver-eliminator";
+    /** Maximal number of nodes per thread eliminated in one batch. */
+    private final static int MAX_BATCH_NODES_PER_THREAD = 64;
+
+    /**
+     * Eliminates a batch of nodes using one node eliminator per thread.
+     * The nodes of the batch are split evenly between the eliminators.
+     */
+    private final static class EliminateBatch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final NodeEliminator[] eliminators;
+        private final IntArrayList batch;
+        private final int fromEliminator;
+        private final int toEliminator;
+
+        EliminateBatch(NodeEliminator[] eliminators, IntArrayList batch,
+                int fromEliminator, int toEliminator) {
+            this.eliminators = eliminators;
+            this.batch = batch;
+            this.fromEliminator = fromEliminator;
+            this.toEliminator = toEliminator;
+        }
+
+        @Override
+        protected void compute() {
+            if (toEliminator - fromEliminator > 1) {
+                int middle = (fromEliminator + toEliminator) >>> 1;
+                invokeAll(new EliminateBatch(eliminators, batch, fromEliminator, middle),
+                        new EliminateBatch(eliminators, batch, middle, toEliminator));
+                return;
+            }
+            NodeEliminator eliminator = eliminators[fromEliminator];
+            long batchSize = batch.size();
+            int from = (int) (batchSize * fromEliminator / eliminators.length);
+            int to = (int) (batchSize * toEliminator / eliminators.length);
+            for (int index = from; index < to; index++) {
+                eliminator.eliminate(batch.getInt(index));
+            }
+        }
+    }
+
     private GraphSolverObjectiveExplicit objective;
     
     @Override
@@ -182,8 +229,27 @@ public final class GraphSolverEliminator implements GraphSolverExplicit  {
         getLog().send(MessagesParamGraphSolver.PARAM_ELIMINATION_START,
                 graph.getNumNodes(), graph.getTotalNumTransitions());
         StopWatch watch = new StopWatch(true);
-        int numNodes = graph.getNumNodes();
         EliminationInformationSender info = buildInfo(graph, running);
+        int numThreads = Options.get().getInteger(OptionsParam.PARAM_ELIMINATION_NUM_THREADS);
+        assert numThreads > 0 : numThreads;
+        int maxTotalNumTransitions;
+        if (numThreads > 1 && supportsConcurrentElimination()) {
+            getLog().send(MessagesParamGraphSolver.PARAM_ELIMINATION_CONCURRENT, numThreads);
+            maxTotalNumTransitions = eliminateNodesConcurrently(graph, order, info, numThreads);
+        } else {
+            if (numThreads > 1) {
+                getLog().send(MessagesParamGraphSolver.PARAM_ELIMINATION_CONCURRENT_UNSUPPORTED,
+                        TypeWeightTransition.get());
+            }
+            maxTotalNumTransitions = eliminateNodesSequentially(graph, order, info);
+        }
+        getLog().send(MessagesParamGraphSolver.PARAM_ELIMINATION_DONE,
+                graph.getNumNodesUsed(), graph.getTotalNumTransitions(),
+                maxTotalNumTransitions, watch.getTimeSeconds());
+    }
+
+    private int eliminateNodesSequentially(MutableGraph graph, EliminationOrder order, EliminationInformationSender info) {
+        int numNodes = graph.getNumNodes();
         BitSet computeFor = objective.getComputeFor();
         NodeEliminator eliminator = buildEliminator(graph);
         int todo = graph.getNumNodes();
@@ -201,9 +267,142 @@ public final class GraphSolverEliminator implements GraphSolverExplicit  {
             }
             todo--;
         }
-        getLog().send(MessagesParamGraphSolver.PARAM_ELIMINATION_DONE,
-                graph.getNumNodesUsed(), graph.getTotalNumTransitions(),
-                maxTotalNumTransitions, watch.getTimeSeconds());
+        return maxTotalNumTransitions;
+    }
+
+    /**
+     * Eliminate nodes using several threads.
+     * Nodes are taken from the elimination order and collected into batches
+     * of independent nodes, that is, of nodes such that no two of them are
+     * equal or adjacent and no two of them have a common predecessor or
+     * successor. Eliminating a node only modifies the node itself and its
+     * direct predecessors and successors, so that the nodes of a batch can be
+     * eliminated concurrently. The result is the same as when eliminating the
+     * nodes sequentially in the order given. Elimination orders which depend
+     * on the current graph structure see the graph as it was before the
+     * current batch was eliminated, which is why batches are kept small.
+     * All node eliminators, and thus all operator evaluators, are obtained
+     * on the calling thread before elimination starts, so that the worker
+     * threads never access {@link epmc.value.ContextValue}. They only apply
+     * the evaluators of their own eliminator and create scratch values of
+     * the weight type.
+     * 
+     * @param graph graph to eliminate nodes of
+     * @param order order in which to eliminate nodes
+     * @param info information sender to update
+     * @param numThreads number of threads to use
+     * @return maximal total number of transitions seen during elimination
+     */
+    private int eliminateNodesConcurrently(MutableGraph graph, EliminationOrder order,
+            EliminationInformationSender info, int numThreads) {
+        int numNodes = graph.getNumNodes();
+        BitSet computeFor = objective.getComputeFor();
+        NodeEliminator[] eliminators = new NodeEliminator[numThreads];
+        for (int thread = 0; thread < numThreads; thread++) {
+            eliminators[thread] = buildEliminator(graph);
+        }
+        int maxBatchSize = numThreads * MAX_BATCH_NODES_PER_THREAD;
+        IntArrayList batch = new IntArrayList();
+        BitSet blocked = new BitSetUnboundedLongArray();
+        IntArrayList blockedNodes = new IntArrayList();
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        int todo = numNodes;
+        int maxTotalNumTransitions = 0;
+        int node = -1;
+        try {
+            while (node != -1 || order.hasNodes()) {
+                if (node == -1) {
+                    node = order.nextNode();
+                }
+                if (batch.size() < maxBatchSize && !isBlocked(graph, blocked, node)) {
+                    block(graph, blocked, blockedNodes, node);
+                    batch.add(node);
+                    node = -1;
+                    if (order.hasNodes()) {
+                        continue;
+                    }
+                }
+                info.setStatesDone(numNodes - todo);
+                int totalNumTransitions = graph.getTotalNumTransitions();
+                info.setNumTransitions(totalNumTransitions);
+                maxTotalNumTransitions = Math.max(maxTotalNumTransitions, totalNumTransitions);
+                pool.invoke(new EliminateBatch(eliminators, batch, 0, numThreads));
+                for (int index = 0; index < batch.size(); index++) {
+                    int eliminated = batch.getInt(index);
+                    if (computeFor != null && !computeFor.get(eliminated)
+                            && graph.getNumPredecessors(eliminated) == 0) {
+                        eliminators[0].removeNode(eliminated);
+                    }
+                }
+                todo -= batch.size();
+                batch.clear();
+                for (int index = 0; index < blockedNodes.size(); index++) {
+                    blocked.clear(blockedNodes.getInt(index));
+                }
+                blockedNodes.clear();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        maxTotalNumTransitions = Math.max(maxTotalNumTransitions, graph.getTotalNumTransitions());
+        return maxTotalNumTransitions;
+    }
+
+    private static boolean isBlocked(MutableGraph graph, BitSet blocked, int node) {
+        if (blocked.get(node)) {
+            return true;
+        }
+        int numPredecessors = graph.getNumPredecessors(node);
+        for (int predNr = 0; predNr < numPredecessors; predNr++) {
+            if (blocked.get(graph.getPredecessorNode(node, predNr))) {
+                return true;
+            }
+        }
+        int numSuccessors = graph.getNumSuccessors(node);
+        for (int succNr = 0; succNr < numSuccessors; succNr++) {
+            if (blocked.get(graph.getSuccessorNode(node, succNr))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void block(MutableGraph graph, BitSet blocked, IntArrayList blockedNodes, int node) {
+        blockNode(blocked, blockedNodes, node);
+        int numPredecessors = graph.getNumPredecessors(node);
+        for (int predNr = 0; predNr < numPredecessors; predNr++) {
+            blockNode(blocked, blockedNodes, graph.getPredecessorNode(node, predNr));
+        }
+        int numSuccessors = graph.getNumSuccessors(node);
+        for (int succNr = 0; succNr < numSuccessors; succNr++) {
+            blockNode(blocked, blockedNodes, graph.getSuccessorNode(node, succNr));
+        }
+    }
+
+    private static void blockNode(BitSet blocked, IntArrayList blockedNodes, int node) {
+        if (!blocked.get(node)) {
+            blocked.set(node);
+            blockedNodes.add(node);
+        }
+    }
+
+    /**
+     * Check whether the weight type allows eliminating nodes concurrently.
+     * Double values are independent objects without shared state, so that
+     * they can always be used. Function types have to declare support
+     * themselves, as they may share state between values, such as the node
+     * store of DAG functions. Before this is declared, the type has to make
+     * creating values and applying evaluators on several threads safe.
+     * 
+     * @return whether nodes can be eliminated concurrently
+     */
+    private static boolean supportsConcurrentElimination() {
+        Type type = TypeWeightTransition.get();
+        if (TypeDouble.is(type)) {
+            return true;
+        }
+        return TypeFunction.is(type)
+                && TypeFunction.as(type).supportsConcurrentOperations();
     }
 
     private EliminationInformationSender buildInfo(MutableGraph graph, RunningInfo running) {
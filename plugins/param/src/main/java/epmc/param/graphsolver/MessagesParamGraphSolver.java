@@ -18,6 +18,8 @@ public final class MessagesParamGraphSolver {
     public final static Message PARAM_BUILD_MUTABLE_GRAPH_DONE = newMessage().setIdentifier("param-build-mutable-graph-done").build();    
     public final static Message PARAM_ELIMINATION_START = newMessage().setIdentifier("param-elimination-start").build();
     public final static Message PARAM_ELIMINATION_DONE = newMessage().setIdentifier("param-elimination-done").build();
+    public final static Message PARAM_ELIMINATION_CONCURRENT = newMessage().setIdentifier("param-elimination-concurrent").build();
+    public final static Message PARAM_ELIMINATION_CONCURRENT_UNSUPPORTED = newMessage().setIdentifier("param-elimination-concurrent-unsupported").build();
     public final static Message PARAM_ELIMINATION_PROGRESS = newMessage().setIdentifier("param-elimination-progress").build();
     public final static Message PARAM_COLLECT_RESULTS_START = newMessage().setIdentifier("param-collect-results-start").build();
     public final static Message PARAM_COLLECT_RESULTS_DONE = newMessage().setIdentifier("param-collect-results-done").build();
@@ -5,8 +5,11 @@ public enum OptionsParam {
     PARAM_CATEGORY,
     PARAM_PARAMETER,
     PARAM_CANCELLATOR,
+    PARAM_CANCELLATOR_CACHE_SIZE,
+    PARAM_CANCELLATOR_JAS_GCD,
     PARAM_ELIMINATION_ORDER,
     PARAM_ELIMINATION_SELF_LOOP_METHOD,
+    PARAM_ELIMINATION_NUM_THREADS,
     PARAM_FUNCTION_TYPE,
     
     PARAM_FRACTION_EXPORTER,
@@ -15,6 +18,7 @@ public enum OptionsParam {
     PARAM_DAG_USE_PROB_SIMPLIFIER,
     PARAM_DAG_NODE_STORE,
     PARAM_DAG_NODE_LOOKUP,
+    PARAM_DAG_DISK_CACHE_PAGES,
     PARAM_DAG_PROB_SIMPLIFIER_NUMBER_TYPE,
     PARAM_DAG_PROB_SIMPLIFIER_BITS,
     PARAM_DAG_PROB_SIMPLIFIER_DOUBLE_CUTOFF_BIN_DIGITS,
@@ -28,6 +32,8 @@ public enum OptionsParam {
     PARAM_POINTS,
     PARAM_POINTS_TYPE,
     PARAM_POINTS_EVALUATORS,
+    PARAM_POINTS_BATCH_SIZE,
+    PARAM_POINTS_NUM_THREADS,
     PARAM_POINTS_EXPORTER,
     PARAM_POINTS_EVALUATOR_RESULT_TYPE,
     PARAM_POINTS_EXPORTER_POINT_FORMAT,
@@ -12,6 +12,7 @@ import epmc.options.OptionTypeBoolean;
 import epmc.options.OptionTypeEnum;
 import epmc.options.OptionTypeInteger;
 import epmc.options.OptionTypeIntegerNonNegative;
+import epmc.options.OptionTypeIntegerPositive;
 import epmc.options.OptionTypeMap;
 import epmc.options.OptionTypeString;
 import epmc.options.OptionTypeStringList;
@@ -54,11 +55,14 @@ import epmc.param.value.cancellator.CancellatorGiNaC;
 import epmc.param.value.cancellator.CancellatorJAS;
 import epmc.param.value.dag.NodeLookup;
 import epmc.param.value.dag.NodeLookupBoundedHashMap;
+import epmc.param.value.dag.NodeLookupConcurrent;
 import epmc.param.value.dag.NodeLookupHashMap;
 import epmc.param.value.dag.NodeStore;
 import epmc.param.value.dag.NodeStoreArray;
+import epmc.param.value.dag.NodeStoreConcurrent;
 import epmc.param.value.dag.NodeStoreDisk;
 import epmc.param.value.dag.TypeDag;
+import epmc.param.value.dag.evaluator.EvaluatorDagDoubleBytecode;
 import epmc.param.value.dag.evaluator.EvaluatorDagDoubleIntervalJava;
 import epmc.param.value.dag.evaluator.EvaluatorDagDoubleJava;
 import epmc.param.value.dag.evaluator.EvaluatorDagGMPNative;
@@ -133,6 +137,14 @@ public final class AfterOptionsCreationPARAM implements AfterOptionsCreation {
             .setCategory(category)
             .setCommandLine().setGui().setWeb()
             .build();
+
+        options.addOption().setBundleName(OptionsParam.PARAM_OPTIONS)
+            .setIdentifier(OptionsParam.PARAM_ELIMINATION_NUM_THREADS)
+            .setDefault(1)
+            .setType(OptionTypeIntegerPositive.getInstance())
+            .setCategory(category)
+            .setCommandLine().setGui().setWeb()
+            .build();
         
         addDagOptions(options, category);
         addFunctionTypes(options, category);
@@ -200,6 +212,21 @@ public final class AfterOptionsCreationPARAM implements AfterOptionsCreation {
             .setCategory(category)
             .setCommandLine().setGui().setWeb()
             .build();
+        options.addOption().setBundleName(OptionsParam.PARAM_OPTIONS)
+            .setIdentifier(OptionsParam.PARAM_CANCELLATOR_CACHE_SIZE)
+            .setDefault(100000)
+            .setType(OptionTypeIntegerNonNegative.getInstance())
+            .setCategory(category)
+            .setCommandLine().setGui().setWeb()
+            .build();
+        OptionTypeEnum jasGCDMethod = new OptionTypeEnum(CancellatorJAS.GCDMethod.class);
+        options.addOption().setBundleName(OptionsParam.PARAM_OPTIONS)
+            .setIdentifier(OptionsParam.PARAM_CANCELLATOR_JAS_GCD)
+            .setDefault(CancellatorJAS.GCDMethod.MODULAR)
+            .setType(jasGCDMethod)
+            .setCategory(category)
+            .setCommandLine().setGui().setWeb()
+            .build();
     }
     
     private void addEliminationOrders(Options options, Category category) {
@@ -271,6 +298,7 @@ public final class AfterOptionsCreationPARAM implements AfterOptionsCreation {
         Map<String, Class<? extends NodeStore.Builder>> nodeStorage = new OrderedMap<>(true);
         nodeStorage.put(NodeStoreArray.IDENTIFIER, NodeStoreArray.Builder.class);
         nodeStorage.put(NodeStoreDisk.IDENTIFIER, NodeStoreDisk.Builder.class);
+        nodeStorage.put(NodeStoreConcurrent.IDENTIFIER, NodeStoreConcurrent.Builder.class);
         OptionTypeMap<Class<? extends NodeStore.Builder>> nodeStorageType = new OptionTypeMap<>(nodeStorage);
         options.addOption().setBundleName(OptionsParam.PARAM_OPTIONS)
             .setIdentifier(OptionsParam.PARAM_DAG_NODE_STORE)
@@ -283,6 +311,7 @@ public final class AfterOptionsCreationPARAM implements AfterOptionsCreation {
         Map<String, Class<? extends NodeLookup.Builder>> nodeLookup = new OrderedMap<>(true);
         nodeLookup.put(NodeLookupHashMap.IDENTIFIER, NodeLookupHashMap.Builder.class);
         nodeLookup.put(NodeLookupBoundedHashMap.IDENTIFIER, NodeLookupBoundedHashMap.Builder.class);
+        nodeLookup.put(NodeLookupConcurrent.IDENTIFIER, NodeLookupConcurrent.Builder.class);
         OptionTypeMap<Class<? extends NodeLookup.Builder>> nodeLookupType = new OptionTypeMap<>(nodeLookup);
         options.addOption().setBundleName(OptionsParam.PARAM_OPTIONS)
             .setIdentifier(OptionsParam.PARAM_DAG_NODE_LOOKUP)
@@ -291,6 +320,14 @@ public final class AfterOptionsCreationPARAM implements AfterOptionsCreation {
             .setCategory(category)
             .setCommandLine().setGui().setWeb()
             .build();
+
+        options.addOption().setBundleName(OptionsParam.PARAM_OPTIONS)
+            .setIdentifier(OptionsParam.PARAM_DAG_DISK_CACHE_PAGES)
+            .setDefault(256)
+            .setType(OptionTypeIntegerNonNegative.getInstance())
+            .setCategory(category)
+            .setCommandLine().setGui().setWeb()
+            .build();
         
         Map<String, Class<? extends DoubleLookup.Builder>> lookup = new OrderedMap<>(true);
         lookup.put(DoubleLookupHashMap.IDENTIFIER, DoubleLookupHashMap.Builder.class);
@@ -420,6 +457,7 @@ public final class AfterOptionsCreationPARAM implements AfterOptionsCreation {
         
         Map<String, Class<? extends FunctionEvaluator.Builder>> functionEvaluators = new OrderedMap<>(true);
         functionEvaluators.put(EvaluatorDagSimpleGeneral.IDENTIFIER, EvaluatorDagSimpleGeneral.Builder.class);
+        functionEvaluators.put(EvaluatorDagDoubleBytecode.IDENTIFIER, EvaluatorDagDoubleBytecode.Builder.class);
         functionEvaluators.put(EvaluatorDagDoubleJava.IDENTIFIER, EvaluatorDagDoubleJava.Builder.class);
         functionEvaluators.put(EvaluatorDagDoubleIntervalJava.IDENTIFIER, EvaluatorDagDoubleIntervalJava.Builder.class);
         functionEvaluators.put(EvaluatorDagGMPNative.IDENTIFIER, EvaluatorDagGMPNative.Builder.class);
@@ -431,6 +469,22 @@ public final class AfterOptionsCreationPARAM implements AfterOptionsCreation {
             .setCategory(category)
             .setCommandLine().setGui().setWeb()
             .build();
+
+        options.addOption().setBundleName(OptionsParam.PARAM_OPTIONS)
+            .setIdentifier(OptionsParam.PARAM_POINTS_BATCH_SIZE)
+            .setDefault(1024)
+            .setType(OptionTypeIntegerNonNegative.getInstance())
+            .setCategory(category)
+            .setCommandLine().setGui().setWeb()
+            .build();
+
+        options.addOption().setBundleName(OptionsParam.PARAM_OPTIONS)
+            .setIdentifier(OptionsParam.PARAM_POINTS_NUM_THREADS)
+            .setDefault(1)
+            .setType(OptionTypeIntegerPositive.getInstance())
+            .setCategory(category)
+            .setCommandLine().setGui().setWeb()
+            .build();
         
         Map<String, Class<? extends PointResultsExporter.Builder>> resultsExporter = new OrderedMap<>(true);
         resultsExporter.put(PointResultsExporterData.IDENTIFIER, PointResultsExporterData.Builder.class);
@@ -1,11 +1,37 @@
 package epmc.param.points;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import epmc.options.Options;
+import epmc.param.options.OptionsParam;
 import epmc.param.value.FunctionEvaluator;
+import epmc.param.value.FunctionEvaluator.BatchEvaluator;
 import epmc.param.value.ParameterSet;
+import epmc.param.value.rational.TypeRational;
+import epmc.param.value.rational.ValueRational;
+import epmc.value.ContextValue;
 import epmc.value.TypeAlgebra;
+import epmc.value.TypeDouble;
+import epmc.value.TypeInterval;
+import epmc.value.UtilValue;
 import epmc.value.ValueArrayAlgebra;
 import epmc.value.ValueArrayInterval;
+import epmc.value.ValueDouble;
+import epmc.value.ValueInterval;
 
+/**
+ * Point results obtained by evaluating functions on a sequence of points.
+ * If the function evaluator supports batch evaluation and
+ * {@link OptionsParam#PARAM_POINTS_BATCH_SIZE} is positive, points are read
+ * ahead in blocks of this size, one block per thread as given by
+ * {@link OptionsParam#PARAM_POINTS_NUM_THREADS}. The blocks are evaluated
+ * together, in parallel if more than one thread is used, and the results
+ * are then handed out one by one in the original order of the points.
+ * Otherwise, each point is evaluated when it is requested.
+ * 
+ * @author Ernst Moritz Hahn
+ */
 public final class PointResultsFunctionEvaluator implements PointResults {
     public final static class Builder {
         private Points points;
@@ -30,13 +56,90 @@ public final class PointResultsFunctionEvaluator implements PointResults {
         }
     }
 
+    /**
+     * Task evaluating a range of blocks of points, splitting it among
+     * threads.
+     */
+    private final class EvaluateBlocks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int fromBlock;
+        private final int toBlock;
+
+        EvaluateBlocks(int fromBlock, int toBlock) {
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock == 1) {
+                evaluateBlock(fromBlock);
+            } else {
+                int middle = (fromBlock + toBlock) >>> 1;
+                invokeAll(new EvaluateBlocks(fromBlock, middle),
+                        new EvaluateBlocks(middle, toBlock));
+            }
+        }
+    }
+
     private final Points points;
     private FunctionEvaluator functionEvaluator;
-    
+    private final int blockSize;
+    private final int numThreads;
+    private final BatchEvaluator[] batchEvaluators;
+    private final ValueArrayInterval[] bufferPoints;
+    private final double[][] bufferCoordinates;
+    private final double[][] bufferResults;
+    private final ValueInterval pointValue;
+    private final ValueDouble resultValue;
+    private ForkJoinPool pool;
+    private int bufferSize;
+    private int bufferPosition;
+
     private PointResultsFunctionEvaluator(Builder builder) {
         assert builder != null;
         this.points = builder.points;
         this.functionEvaluator = builder.functionEvaluator;
+        Options options = Options.get();
+        int numThreads = options.getInteger(OptionsParam.PARAM_POINTS_NUM_THREADS);
+        assert numThreads > 0 : numThreads;
+        int blockSize = options.getInteger(OptionsParam.PARAM_POINTS_BATCH_SIZE);
+        BatchEvaluator[] batchEvaluators = null;
+        if (blockSize > 0 && !points.isIntervals()
+                && TypeDouble.is(functionEvaluator.getResultType())) {
+            batchEvaluators = new BatchEvaluator[numThreads];
+            for (int threadNr = 0; threadNr < numThreads; threadNr++) {
+                batchEvaluators[threadNr] = functionEvaluator.newBatchEvaluator(blockSize);
+                if (batchEvaluators[threadNr] == null) {
+                    batchEvaluators = null;
+                    break;
+                }
+            }
+        }
+        this.batchEvaluators = batchEvaluators;
+        if (batchEvaluators == null) {
+            this.blockSize = 0;
+            this.numThreads = 1;
+            bufferPoints = null;
+            bufferCoordinates = null;
+            bufferResults = null;
+            pointValue = null;
+            resultValue = null;
+            return;
+        }
+        this.blockSize = blockSize;
+        this.numThreads = numThreads;
+        int maxBufferSize = blockSize * numThreads;
+        int numParameters = points.getParameters().getNumParameters();
+        TypeInterval typeInterval = ContextValue.get().makeUnique(new TypeInterval(TypeRational.get()));
+        bufferPoints = new ValueArrayInterval[maxBufferSize];
+        for (int pointNr = 0; pointNr < maxBufferSize; pointNr++) {
+            bufferPoints[pointNr] = UtilValue.newArray(typeInterval.getTypeArray(), numParameters);
+        }
+        bufferCoordinates = new double[numParameters][maxBufferSize];
+        bufferResults = new double[functionEvaluator.getResultDimensions()][maxBufferSize];
+        pointValue = typeInterval.newValue();
+        resultValue = TypeDouble.as(functionEvaluator.getResultType()).newValue();
     }
 
     @Override
@@ -56,15 +159,77 @@ public final class PointResultsFunctionEvaluator implements PointResults {
 
     @Override
     public boolean hasNext() {
-        return points.hasNext();
+        boolean hasNext = bufferPosition < bufferSize || points.hasNext();
+        if (!hasNext && pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        return hasNext;
     }
 
     @Override
     public void next(ValueArrayInterval point, ValueArrayAlgebra result) {
         assert point != null;
         assert result != null;
-        points.next(point);
-        functionEvaluator.evaluate(result, point);
+        if (batchEvaluators == null) {
+            points.next(point);
+            functionEvaluator.evaluate(result, point);
+            return;
+        }
+        if (bufferPosition == bufferSize) {
+            fillBuffer();
+        }
+        ValueArrayInterval bufferPoint = bufferPoints[bufferPosition];
+        for (int paramNr = 0; paramNr < bufferCoordinates.length; paramNr++) {
+            bufferPoint.get(pointValue, paramNr);
+            point.set(pointValue, paramNr);
+        }
+        for (int dim = 0; dim < bufferResults.length; dim++) {
+            resultValue.set(bufferResults[dim][bufferPosition]);
+            result.set(resultValue, dim);
+        }
+        bufferPosition++;
+    }
+
+    /**
+     * Read the next points and evaluate them in blocks.
+     */
+    private void fillBuffer() {
+        bufferSize = 0;
+        bufferPosition = 0;
+        while (bufferSize < bufferPoints.length && points.hasNext()) {
+            ValueArrayInterval bufferPoint = bufferPoints[bufferSize];
+            points.next(bufferPoint);
+            for (int paramNr = 0; paramNr < bufferCoordinates.length; paramNr++) {
+                bufferPoint.get(pointValue, paramNr);
+                bufferCoordinates[paramNr][bufferSize] = ValueRational.as(pointValue.getIntervalLower()).getDouble();
+            }
+            bufferSize++;
+        }
+        int numBlocks = (bufferSize + blockSize - 1) / blockSize;
+        if (numBlocks <= 1 || numThreads == 1) {
+            for (int blockNr = 0; blockNr < numBlocks; blockNr++) {
+                evaluateBlock(blockNr);
+            }
+        } else {
+            if (pool == null) {
+                pool = new ForkJoinPool(numThreads);
+            }
+            pool.invoke(new EvaluateBlocks(0, numBlocks));
+        }
+    }
+
+    /**
+     * Evaluate a single block of the buffer.
+     * Block number {@code i} is evaluated using batch evaluator {@code i},
+     * such that blocks evaluated in parallel do not share an evaluator.
+     * 
+     * @param blockNr number of block to evaluate
+     */
+    private void evaluateBlock(int blockNr) {
+        int from = blockNr * blockSize;
+        int to = Math.min(from + blockSize, bufferSize);
+        batchEvaluators[blockNr].evaluate(bufferResults, bufferCoordinates, from, to);
     }
 
     @Override
@@ -18,11 +18,47 @@ public interface FunctionEvaluator {
         FunctionEvaluator build();
     }
 
+    /**
+     * Evaluator for blocks of points given as primitive doubles.
+     * Points and results are stored in structure-of-arrays form, that is,
+     * {@code points[parameter][point]} and {@code result[dimension][point]}.
+     * Objects of this interface may only be used by a single thread at a
+     * time, but several of them obtained from the same function evaluator
+     * may be used concurrently.
+     */
+    interface BatchEvaluator {
+        /**
+         * Evaluate the functions on a range of points.
+         * Only the entries from {@code from} (inclusive) to {@code to}
+         * (exclusive) of the arrays are read or written.
+         * 
+         * @param result result values, one array per result dimension
+         * @param points point coordinates, one array per parameter
+         * @param from first point to evaluate
+         * @param to point after the last one to evaluate
+         */
+        void evaluate(double[][] result, double[][] points, int from, int to);
+    }
+
     TypeAlgebra getResultType();
     
     int getResultDimensions();
     
     void evaluate(ValueArrayAlgebra result, ValueArrayAlgebra point);
+
+    /**
+     * Create a new evaluator for blocks of double points.
+     * Each call returns an independent object, so that blocks can be
+     * evaluated in parallel using one batch evaluator per thread. If this
+     * function evaluator does not support batch evaluation, {@code null} is
+     * returned.
+     * 
+     * @param maxBlockSize maximal number of points evaluated at once
+     * @return batch evaluator, or {@code null}
+     */
+    default BatchEvaluator newBatchEvaluator(int maxBlockSize) {
+        return null;
+    }
     
 //    boolean canPut();
     
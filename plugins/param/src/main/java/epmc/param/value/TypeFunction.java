@@ -37,4 +37,16 @@ public interface TypeFunction extends TypeWeightTransition, TypeWeight {
     ValueFunction newValue();
 
 	ParameterSet getParameterSet();
+
+    /**
+     * Check whether values of this type can be operated on concurrently.
+     * If this method returns {@code true}, several threads may create values
+     * of this type and apply operator evaluators to them at the same time,
+     * provided that each thread uses its own evaluators and values.
+     * 
+     * @return whether concurrent operations are supported
+     */
+    default boolean supportsConcurrentOperations() {
+        return false;
+    }
 }
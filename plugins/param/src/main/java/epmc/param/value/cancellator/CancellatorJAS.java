@@ -7,16 +7,37 @@ import java.util.Iterator;
 import java.util.List;
 
 import edu.jas.arith.BigInteger;
+import edu.jas.arith.ModLong;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
-import edu.jas.ufd.Quotient;
-import edu.jas.ufd.QuotientRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.ufd.GCDFactory;
+import edu.jas.ufd.GreatestCommonDivisor;
+import edu.jas.ufd.GreatestCommonDivisorHensel;
+import edu.jas.ufd.GreatestCommonDivisorModular;
+import edu.jas.ufd.GreatestCommonDivisorSubres;
+import epmc.options.Options;
+import epmc.param.options.OptionsParam;
 import epmc.param.value.Term;
 import epmc.param.value.polynomial.TypePolynomial;
 import epmc.param.value.polynomial.ValuePolynomial;
 
 public final class CancellatorJAS implements Cancellator {
+    /**
+     * Algorithm to compute greatest common divisors with.
+     */
+    public enum GCDMethod {
+        /** Modular algorithm, computing the GCD modulo several primes. */
+        MODULAR,
+        /** Modular algorithm using Hensel lifting. */
+        HENSEL,
+        /** Subresultant algorithm over the integers. */
+        SUBRESULTANT,
+        /** Run several algorithms in parallel, using the first result. */
+        PROXY,
+    }
+
     public final static class Builder implements Cancellator.Builder {
         private TypePolynomial type;
 
@@ -37,15 +58,34 @@ public final class CancellatorJAS implements Cancellator {
     
 	private int previousNumParameters = -1;
 	private GenPolynomialRing<BigInteger> jasPolyRing;
-	private QuotientRing<BigInteger> jasQuotRing;
+	private final GreatestCommonDivisor<BigInteger> gcdEngine;
 	private final TypePolynomial type;
 
 	private CancellatorJAS(Builder builder) {
 	    assert builder != null;
 		assert builder.type != null;
 		this.type = builder.type;
+		GCDMethod method = Options.get().getEnum(OptionsParam.PARAM_CANCELLATOR_JAS_GCD);
+		gcdEngine = buildGCDEngine(method);
 		rebuildJASIfNeeded();
 	}
+
+	private static GreatestCommonDivisor<BigInteger> buildGCDEngine(GCDMethod method) {
+	    assert method != null;
+	    switch (method) {
+	    case MODULAR:
+	        return new GreatestCommonDivisorModular<ModLong>();
+	    case HENSEL:
+	        return new GreatestCommonDivisorHensel<ModLong>();
+	    case SUBRESULTANT:
+	        return new GreatestCommonDivisorSubres<BigInteger>();
+	    case PROXY:
+	        return GCDFactory.getProxy(new BigInteger());
+	    default:
+	        assert false;
+	        return null;
+	    }
+	}
 	
 	private void rebuildJASIfNeeded() {
 		if (previousNumParameters == type.getParameterSet().getNumParameters()) {
@@ -58,7 +98,6 @@ public final class CancellatorJAS implements Cancellator {
 		}
 		Collections.reverse(Arrays.asList(pNameReversed));
 		jasPolyRing = new GenPolynomialRing<>(fac, pNameReversed.length, pNameReversed);
-		jasQuotRing = new QuotientRing<>(jasPolyRing);
 		this.previousNumParameters = type.getParameterSet().getNumParameters();
 	}
 
@@ -68,9 +107,15 @@ public final class CancellatorJAS implements Cancellator {
 		rebuildJASIfNeeded();
 		GenPolynomial<BigInteger> jas1 = toJAS(operand1);
 		GenPolynomial<BigInteger> jas2 = toJAS(operand2);
-		Quotient<BigInteger> quot = jasQuotRing.create(jas1, jas2);
-		jas1 = quot.num;
-		jas2 = quot.den;
+		GenPolynomial<BigInteger> gcd = gcdEngine.gcd(jas1, jas2);
+		if (!gcd.isONE()) {
+		    jas1 = PolyUtil.basePseudoDivide(jas1, gcd);
+		    jas2 = PolyUtil.basePseudoDivide(jas2, gcd);
+		}
+		if (jas2.signum() < 0) {
+		    jas1 = jas1.negate();
+		    jas2 = jas2.negate();
+		}
 		toPolynomial(operand1, jas1);
 		toPolynomial(operand2, jas2);
 	}
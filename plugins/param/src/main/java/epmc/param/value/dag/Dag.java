@@ -24,6 +24,10 @@ public final class Dag {
     private final ParameterSet parameters;
     private final Simplifier[] simplifiers;
     private final EntryBuffer simplifyBuffer = new EntryBuffer();
+    /** Whether node store and lookup support concurrent use. */
+    private final boolean concurrent;
+    /** Lock to add new nodes with if store and lookup are concurrent. */
+    private final Object addLock = new Object();
     private int maxNode;
     
     Dag(ParameterSet parameters, boolean useReferenceCounting) {
@@ -33,6 +37,7 @@ public final class Dag {
         nodeStore = nodeStoreBuilder.build();
         NodeLookup.Builder nodeLookupBuilder = UtilOptions.getInstance(OptionsParam.PARAM_DAG_NODE_LOOKUP);
         nodeLookup = nodeLookupBuilder.setNodeStore(nodeStore).build();
+        concurrent = nodeStore.isConcurrent() && nodeLookup.isConcurrent();
         // TODO simplifiers to be chosen by user
         simplifiers = new Simplifier[3];
         simplifiers[0] = new SimplifierConstant.Builder()
@@ -84,13 +89,39 @@ public final class Dag {
         return checkin(type, operand, 0);
     }
 
+    /**
+     * Check whether the DAG can be used by several threads concurrently.
+     * This is the case if both the node store and node lookup used can be
+     * used concurrently. Looking up existing nodes then does not need locks,
+     * while adding new nodes, which involves the simplifiers, is done by
+     * one thread at a time.
+     * 
+     * @return whether the DAG can be used concurrently
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
     private int checkin(OperatorType type, int operandLeft, int operandRight) {
         int result = nodeLookup.get(type, operandLeft, operandRight);
         if (result != Simplifier.INVALID) {
             return result;
         }
+        if (!concurrent) {
+            return add(type, operandLeft, operandRight);
+        }
+        synchronized (addLock) {
+            result = nodeLookup.get(type, operandLeft, operandRight);
+            if (result != Simplifier.INVALID) {
+                return result;
+            }
+            return add(type, operandLeft, operandRight);
+        }
+    }
+
+    private int add(OperatorType type, int operandLeft, int operandRight) {
         EntryBuffer buffer = simplify(type, operandLeft, operandRight);
-        result = buffer.getResultNode();
+        int result = buffer.getResultNode();
         boolean addedNode = false;
         if (result == Simplifier.INVALID) {
             if (type == buffer.getType()
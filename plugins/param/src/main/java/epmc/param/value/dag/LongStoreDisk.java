@@ -0,0 +1,167 @@
+package epmc.param.value.dag;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Append-only array of long values stored in a temporary file.
+ * New values are collected in a buffer in memory, which is written to the
+ * file once it is full. Values which have already been written to the file
+ * are read through a cache of pages of the file. If a page not in the cache
+ * is accessed, the least recently used page is replaced, so that there is
+ * only one read operation for each page accessed rather than for each value
+ * accessed. The number of pages cached is fixed on construction. All
+ * methods are synchronised, so that the store can safely be read by
+ * several threads, but as they all contend for the same lock, stores based
+ * on this class do not declare themselves to be concurrent.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class LongStoreDisk {
+    private final static int INVALID = -1;
+    private final static String SUFFIX = ".dat";
+    private final static String MODE = "rw";
+    private final static int LOG2_PAGE_SIZE = 11;
+    /** Number of long values per page. */
+    private final static int PAGE_SIZE = 1 << LOG2_PAGE_SIZE;
+    private final static int PAGE_MASK = PAGE_SIZE - 1;
+    private final static int PAGE_BYTES = PAGE_SIZE * Long.BYTES;
+    /** Number of long values in the buffer of values not yet written. */
+    private final static int FRONT_SIZE = 64 * PAGE_SIZE;
+
+    private final RandomAccessFile storage;
+    private final long[] front = new long[FRONT_SIZE];
+    private final byte[] ioArray = new byte[FRONT_SIZE * Long.BYTES];
+    private final ByteBuffer ioBuffer = ByteBuffer.wrap(ioArray);
+    private int storedUpto;
+    private int size;
+
+    /** Cache slot of each page written to the file, or {@link #INVALID}. */
+    private final IntArrayList pageToSlot = new IntArrayList();
+    /** Maximal number of pages in the cache. */
+    private final int numPages;
+    private final long[][] slotValues;
+    private final int[] slotPage;
+    private final int[] slotPrevious;
+    private final int[] slotNext;
+    private int numSlotsUsed;
+    /** Most recently used slot. */
+    private int head = INVALID;
+    /** Least recently used slot. */
+    private int tail = INVALID;
+
+    public LongStoreDisk(String prefix, int numPages) {
+        assert prefix != null;
+        assert numPages >= 0 : numPages;
+        numPages = Math.max(numPages, 1);
+        this.numPages = numPages;
+        slotValues = new long[numPages][];
+        slotPage = new int[numPages];
+        slotPrevious = new int[numPages];
+        slotNext = new int[numPages];
+        try {
+            File tempFile = File.createTempFile(prefix, SUFFIX);
+            tempFile.deleteOnExit();
+            storage = new RandomAccessFile(tempFile, MODE);
+        } catch (IOException e) {
+            // TODO provide nicer error message
+            throw new RuntimeException(e);
+        }
+    }
+
+    public synchronized int add(long value) {
+        front[size - storedUpto] = value;
+        size++;
+        if (size - storedUpto == FRONT_SIZE) {
+            ioBuffer.clear();
+            ioBuffer.asLongBuffer().put(front);
+            try {
+                storage.seek((long) storedUpto * Long.BYTES);
+                storage.write(ioArray, 0, FRONT_SIZE * Long.BYTES);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            storedUpto = size;
+            for (int page = 0; page < FRONT_SIZE / PAGE_SIZE; page++) {
+                pageToSlot.add(INVALID);
+            }
+        }
+        return size - 1;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long get(int index) {
+        assert index >= 0 : index;
+        assert index < size : index + " " + size;
+        if (index >= storedUpto) {
+            return front[index - storedUpto];
+        }
+        int slot = loadPage(index >>> LOG2_PAGE_SIZE);
+        return slotValues[slot][index & PAGE_MASK];
+    }
+
+    private int loadPage(int page) {
+        int slot = pageToSlot.getInt(page);
+        if (slot != INVALID) {
+            if (slot != head) {
+                unlink(slot);
+                linkFirst(slot);
+            }
+            return slot;
+        }
+        if (numSlotsUsed < numPages) {
+            slot = numSlotsUsed;
+            numSlotsUsed++;
+            slotValues[slot] = new long[PAGE_SIZE];
+        } else {
+            slot = tail;
+            unlink(slot);
+            pageToSlot.set(slotPage[slot], INVALID);
+        }
+        try {
+            storage.seek((long) page * PAGE_BYTES);
+            storage.readFully(ioArray, 0, PAGE_BYTES);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        ioBuffer.clear();
+        ioBuffer.asLongBuffer().get(slotValues[slot]);
+        slotPage[slot] = page;
+        pageToSlot.set(page, slot);
+        linkFirst(slot);
+        return slot;
+    }
+
+    private void unlink(int slot) {
+        int previous = slotPrevious[slot];
+        int next = slotNext[slot];
+        if (previous != INVALID) {
+            slotNext[previous] = next;
+        } else {
+            head = next;
+        }
+        if (next != INVALID) {
+            slotPrevious[next] = previous;
+        } else {
+            tail = previous;
+        }
+    }
+
+    private void linkFirst(int slot) {
+        slotPrevious[slot] = INVALID;
+        slotNext[slot] = head;
+        if (head != INVALID) {
+            slotPrevious[head] = slot;
+        } else {
+            tail = slot;
+        }
+        head = slot;
+    }
+}
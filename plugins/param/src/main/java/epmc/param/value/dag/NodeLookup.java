@@ -10,6 +10,17 @@ public interface NodeLookup {
     int get(OperatorType type, int operandLeft, int operandRight);
     
     void put(OperatorType type, int operandLeft, int operandRight, int number);
+
+    /**
+     * Check whether the lookup can be used by several threads concurrently.
+     * Nodes which have been put into a concurrent lookup must not be removed
+     * from it later on, as otherwise nodes would no longer be shared.
+     * 
+     * @return whether the lookup can be used concurrently
+     */
+    default boolean isConcurrent() {
+        return false;
+    }
     
     void sendStatistics();
 }
@@ -0,0 +1,145 @@
+package epmc.param.value.dag;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Node lookup which can be used by several threads concurrently.
+ * The map from nodes to their numbers is split into a fixed number of
+ * segments, each of which is an open-addressed hash table with linear
+ * probing over primitive arrays. Lookups do not need locks: the number
+ * (plus one) of a slot is written atomically after its node, so that a
+ * thread seeing a nonzero number also sees the node it belongs to. Insertions
+ * lock only the segment they modify, and tables are replaced as a whole when
+ * they grow. A lookup concurrent with an insertion of the same node might not
+ * see the node, so that threads which add nodes must check the lookup again
+ * under a common lock before adding a node to the node store.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class NodeLookupConcurrent implements NodeLookup {
+    public final static String IDENTIFIER = "concurrent-hash";
+    
+    public final static class Builder implements NodeLookup.Builder {
+
+        @Override
+        public Builder setNodeStore(NodeStore nodeStore) {
+            return this;
+        }
+
+        @Override
+        public NodeLookup build() {
+            return new NodeLookupConcurrent(this);
+        }
+        
+    }
+
+    private final static class Table {
+        private final long[] entries;
+        /** Node numbers plus one, zero for unused slots. */
+        private final AtomicIntegerArray numbers;
+        private final int mask;
+        private final int threshold;
+
+        Table(int capacity) {
+            assert capacity > 0;
+            assert Integer.bitCount(capacity) == 1;
+            entries = new long[capacity];
+            numbers = new AtomicIntegerArray(capacity);
+            mask = capacity - 1;
+            threshold = capacity / 2;
+        }
+    }
+
+    private final static class Segment {
+        private volatile Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+        private int size;
+    }
+
+    private final static int INVALID = -1;
+    private final static int LOG2_NUM_SEGMENTS = 6;
+    private final static int NUM_SEGMENTS = 1 << LOG2_NUM_SEGMENTS;
+    private final static int INITIAL_SEGMENT_CAPACITY = 1 << 10;
+    private final Segment[] segments = new Segment[NUM_SEGMENTS];
+
+    private NodeLookupConcurrent(Builder builder) {
+        assert builder != null;
+        for (int segmentNr = 0; segmentNr < NUM_SEGMENTS; segmentNr++) {
+            segments[segmentNr] = new Segment();
+        }
+    }
+
+    @Override
+    public int get(OperatorType type, int operandLeft, int operandRight) {
+        long entry = EntryUtil.makeEntry(type, operandLeft, operandRight);
+        int hash = hash(entry);
+        Table table = segments[hash >>> (Integer.SIZE - LOG2_NUM_SEGMENTS)].table;
+        int index = hash & table.mask;
+        while (true) {
+            int number = table.numbers.get(index);
+            if (number == 0) {
+                return INVALID;
+            }
+            if (table.entries[index] == entry) {
+                return number - 1;
+            }
+            index = (index + 1) & table.mask;
+        }
+    }
+
+    @Override
+    public void put(OperatorType type, int operandLeft, int operandRight, int number) {
+        assert number >= 0;
+        long entry = EntryUtil.makeEntry(type, operandLeft, operandRight);
+        int hash = hash(entry);
+        Segment segment = segments[hash >>> (Integer.SIZE - LOG2_NUM_SEGMENTS)];
+        synchronized (segment) {
+            Table table = segment.table;
+            if (insert(table, entry, hash, number)) {
+                segment.size++;
+                if (segment.size > table.threshold) {
+                    segment.table = grow(table);
+                }
+            }
+        }
+    }
+
+    private static boolean insert(Table table, long entry, int hash, int number) {
+        int index = hash & table.mask;
+        while (table.numbers.get(index) != 0) {
+            if (table.entries[index] == entry) {
+                table.numbers.set(index, number + 1);
+                return false;
+            }
+            index = (index + 1) & table.mask;
+        }
+        table.entries[index] = entry;
+        table.numbers.set(index, number + 1);
+        return true;
+    }
+
+    private static Table grow(Table table) {
+        Table result = new Table((table.mask + 1) * 2);
+        for (int index = 0; index <= table.mask; index++) {
+            int number = table.numbers.get(index);
+            if (number != 0) {
+                long entry = table.entries[index];
+                insert(result, entry, hash(entry), number - 1);
+            }
+        }
+        return result;
+    }
+
+    private static int hash(long entry) {
+        long hash = entry * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> Integer.SIZE));
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    @Override
+    public void sendStatistics() {
+    }
+}
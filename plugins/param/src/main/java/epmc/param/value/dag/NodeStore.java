@@ -17,5 +17,14 @@ public interface NodeStore {
     
     int getNumNodes();
 
+    /**
+     * Check whether the store can be used by several threads concurrently.
+     * 
+     * @return whether the store can be used concurrently
+     */
+    default boolean isConcurrent() {
+        return false;
+    }
+
     void sendStatistics();
 }
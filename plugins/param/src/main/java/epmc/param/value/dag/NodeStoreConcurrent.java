@@ -0,0 +1,96 @@
+package epmc.param.value.dag;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Node store which can be used by several threads concurrently.
+ * Nodes are stored in fixed-size chunks of atomic long arrays, indexed by
+ * their numbers. New numbers are assigned by incrementing an atomic counter,
+ * and new chunks are installed using compare-and-swap operations, such that
+ * neither adding nor reading nodes requires locks.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class NodeStoreConcurrent implements NodeStore {
+    public final static class Builder implements NodeStore.Builder {
+
+        @Override
+        public NodeStore build() {
+            return new NodeStoreConcurrent(this);
+        }
+        
+    }
+    
+    public final static String IDENTIFIER = "concurrent-array";
+    private final static int LOG2_CHUNK_SIZE = 16;
+    private final static int CHUNK_SIZE = 1 << LOG2_CHUNK_SIZE;
+    private final static int CHUNK_MASK = CHUNK_SIZE - 1;
+    private final static int MAX_NUM_CHUNKS = (Integer.MAX_VALUE >>> LOG2_CHUNK_SIZE) + 1;
+
+    private final AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(MAX_NUM_CHUNKS);
+    private final AtomicInteger size = new AtomicInteger();
+
+    private NodeStoreConcurrent(Builder builder) {
+        assert builder != null;
+    }
+
+    @Override
+    public int add(OperatorType type, int operandLeft, int operandRight) {
+        long entry = EntryUtil.makeEntry(type, operandLeft, operandRight);
+        int result = size.getAndIncrement();
+        assert result >= 0;
+        getChunk(result >>> LOG2_CHUNK_SIZE).set(result & CHUNK_MASK, entry);
+        return result;
+    }
+
+    private AtomicLongArray getChunk(int chunkNr) {
+        AtomicLongArray chunk = chunks.get(chunkNr);
+        if (chunk == null) {
+            chunks.compareAndSet(chunkNr, null, new AtomicLongArray(CHUNK_SIZE));
+            chunk = chunks.get(chunkNr);
+        }
+        return chunk;
+    }
+
+    @Override
+    public boolean assertValidNumber(int number) {
+        assert number >= 0 : number;
+        assert number < getNumNodes();
+        return true;
+    }
+
+    @Override
+    public OperatorType getType(int number) {
+        return EntryUtil.getType(loadEntry(number));
+    }
+
+    @Override
+    public int getOperandLeft(int number) {
+        return EntryUtil.getOperandLeft(loadEntry(number));
+    }
+
+    @Override
+    public int getOperandRight(int number) {
+        return EntryUtil.getOperandRight(loadEntry(number));
+    }
+
+    @Override
+    public int getNumNodes() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    private long loadEntry(int number) {
+        return chunks.get(number >>> LOG2_CHUNK_SIZE).get(number & CHUNK_MASK);
+    }
+
+    @Override
+    public void sendStatistics() {
+    }
+}
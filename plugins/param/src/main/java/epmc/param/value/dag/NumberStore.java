@@ -5,6 +5,11 @@ import java.util.ArrayList;
 
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 
+/**
+ * Store assigning numbers to big integers.
+ * Methods are synchronised, so that the store can be used by several
+ * threads.
+ */
 final class NumberStore {
     private final static int INVALID = -1;
     
@@ -15,11 +20,11 @@ final class NumberStore {
         numbersMap.defaultReturnValue(INVALID);
     }
     
-    BigInteger getNumber(int number) {
+    synchronized BigInteger getNumber(int number) {
         return numbersList.get(number);
     }
 
-    public int getIndex(BigInteger value) {
+    public synchronized int getIndex(BigInteger value) {
         int result = numbersMap.getInt(value);
         if (result != INVALID) {
             return result;
@@ -108,6 +108,11 @@ public final class TypeDag implements TypeFunction, TypeStatistics {
     public boolean isUseReferenceCounting() {
         return useReferenceCounting;
     }
+
+    @Override
+    public boolean supportsConcurrentOperations() {
+        return !useReferenceCounting && dag.isConcurrent();
+    }
     
     @Override
     public String toString() {
@@ -0,0 +1,262 @@
+package epmc.param.value.dag.evaluator;
+
+import static epmc.param.value.dag.microcode.UtilMicrocode.OP_PARAMETER;
+import static epmc.param.value.dag.microcode.UtilMicrocode.getOperandLeft;
+import static epmc.param.value.dag.microcode.UtilMicrocode.getOperator;
+import static epmc.param.value.dag.microcode.UtilMicrocode.microcodeToInteger;
+import static epmc.param.value.dag.microcode.UtilMicrocode.microcodeToNumbersListDouble;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import epmc.param.value.FunctionEvaluator;
+import epmc.param.value.ValueFunction;
+import epmc.param.value.dag.TypeDag;
+import epmc.param.value.dag.ValueDag;
+import epmc.param.value.dag.microcode.Microcode;
+import epmc.param.value.rational.TypeRational;
+import epmc.param.value.rational.ValueRational;
+import epmc.value.ContextValue;
+import epmc.value.TypeAlgebra;
+import epmc.value.TypeDouble;
+import epmc.value.TypeInterval;
+import epmc.value.ValueArrayAlgebra;
+import epmc.value.ValueDouble;
+import epmc.value.ValueInterval;
+
+/**
+ * Evaluator for points to double values using generated JVM bytecode.
+ * Instead of interpreting the microcode for each point as
+ * {@link EvaluatorDagDoubleJava} does, the microcode is translated once to
+ * straight-line double arithmetic in generated classes, which are then
+ * compiled by the JIT compiler. This pays off when evaluating functions on
+ * many points, such as for parameter sweeps using ranges of points.
+ * The generated classes are loaded by a class loader private to the
+ * evaluator object, so that they can be unloaded once the evaluator is no
+ * longer used.
+ * {@link EvaluatorDagDoubleJava} handles the same cases and is registered
+ * after this evaluator. As evaluators registered later are tried first,
+ * this evaluator has to be selected explicitly by leaving out
+ * {@link EvaluatorDagDoubleJava#IDENTIFIER} from the list of evaluators.
+ *
+ * @author Ernst Moritz Hahn
+ *
+ */
+public final class EvaluatorDagDoubleBytecode implements FunctionEvaluator {
+    public final static String IDENTIFIER = "double-bytecode";
+    /** Prefix of the internal names of the generated classes. */
+    private final static String CLASS_NAME_PREFIX = "epmc/param/value/dag/evaluator/generated/DagDoubleSegment";
+
+    /**
+     * Part of the generated code.
+     * This interface has to be public so that it can be implemented by the
+     * generated classes, which are loaded by a different class loader.
+     *
+     * @author Ernst Moritz Hahn
+     */
+    public interface Segment {
+        /**
+         * Execute the statements of this segment.
+         * The variable array is used to exchange values between segments.
+         *
+         * @param parameters values of the parameters
+         * @param variables values of the microcode variables
+         */
+        void evaluate(double[] parameters, double[] variables);
+    }
+
+    public final static class Builder implements FunctionEvaluator.Builder {
+        private final ArrayList<ValueFunction> functions = new ArrayList<>();
+        private boolean useIntervals;
+        private TypeAlgebra resultType;
+
+        @Override
+        public Builder addFunction(ValueFunction function) {
+            assert function != null;
+            functions.add(function);
+            return this;
+        }
+
+        @Override
+        public Builder setPointsUseIntervals(boolean useIntervals) {
+            this.useIntervals = useIntervals;
+            return this;
+        }
+
+        @Override
+        public Builder setResultType(TypeAlgebra type) {
+            this.resultType = type;
+            return this;
+        }
+
+        @Override
+        public EvaluatorDagDoubleBytecode build() {
+            for (ValueFunction function : functions) {
+                if (!ValueDag.is(function)) {
+                    return null;
+                }
+            }
+            if (useIntervals) {
+                return null;
+            }
+            if (!TypeDouble.is(resultType)) {
+                return null;
+            }
+            return new EvaluatorDagDoubleBytecode(this);
+        }
+    }
+
+    /**
+     * Class loader to load the generated classes of a single evaluator.
+     */
+    private final static class SegmentClassLoader extends ClassLoader {
+        SegmentClassLoader() {
+            super(EvaluatorDagDoubleBytecode.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+
+    private final TypeDouble resultType;
+    private final int resultDimensions;
+    private final double[] parameters;
+    private final double[] variables;
+    private final ValueInterval pointValue;
+    private final ValueDouble valueDouble;
+    private final Segment[] segments;
+    private final int numResultVariables;
+    private final int[] resultVariables;
+
+    private EvaluatorDagDoubleBytecode(Builder builder) {
+        assert builder != null;
+        assert builder.functions != null;
+        for (ValueFunction function : builder.functions) {
+            assert function != null;
+        }
+        assert builder.resultType != null;
+        resultType = TypeDouble.as(builder.resultType);
+        int[] start = new int[builder.functions.size()];
+        int index = 0;
+        for (ValueFunction function : builder.functions) {
+            start[index] = ValueDag.as(function).getNumber();
+            index++;
+        }
+        resultDimensions = builder.functions.size();
+        TypeDag typeDag = ValueDag.as(builder.functions.get(0)).getType();
+        TypeInterval typeInterval = ContextValue.get().makeUnique(new TypeInterval(TypeRational.get()));
+        pointValue = typeInterval.newValue();
+        valueDouble = resultType.newValue();
+        Microcode microcode = new Microcode(typeDag, start);
+        int[] program = microcodeToInteger(microcode);
+        int numStatements = microcode.getNumStatements();
+        variables = new double[microcode.getNumVariables()];
+        parameters = new double[computeNumParameters(program, numStatements)];
+        numResultVariables = microcode.getNumResultVariables();
+        resultVariables = new int[numResultVariables];
+        for (index = 0; index < numResultVariables; index++) {
+            resultVariables[index] = microcode.getResultVariable(index);
+        }
+        MicrocodeBytecodeGenerator generator = new MicrocodeBytecodeGenerator(
+                program, microcodeToNumbersListDouble(microcode),
+                numStatements, microcode.getNumVariables(), resultVariables,
+                CLASS_NAME_PREFIX);
+        segments = loadSegments(generator.getClassNames(), generator.getClasses());
+    }
+
+    private static int computeNumParameters(int[] program, int numStatements) {
+        int numParameters = 0;
+        for (int index = 0; index < numStatements; index++) {
+            if (getOperator(program, index) == OP_PARAMETER) {
+                numParameters = Math.max(numParameters, getOperandLeft(program, index) + 1);
+            }
+        }
+        return numParameters;
+    }
+
+    private static Segment[] loadSegments(List<String> names, List<byte[]> classes) {
+        assert names != null;
+        assert classes != null;
+        assert names.size() == classes.size();
+        SegmentClassLoader loader = new SegmentClassLoader();
+        Segment[] segments = new Segment[classes.size()];
+        for (int segmentNr = 0; segmentNr < segments.length; segmentNr++) {
+            Class<?> clazz = loader.define(names.get(segmentNr), classes.get(segmentNr));
+            try {
+                segments[segmentNr] = (Segment) clazz.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return segments;
+    }
+
+    @Override
+    public TypeAlgebra getResultType() {
+        return resultType;
+    }
+
+    @Override
+    public void evaluate(ValueArrayAlgebra result, ValueArrayAlgebra point) {
+        assert result != null;
+        assert point != null;
+        for (int index = 0; index < parameters.length; index++) {
+            point.get(pointValue, index);
+            parameters[index] = getValueFromPointValue(pointValue);
+        }
+        for (Segment segment : segments) {
+            segment.evaluate(parameters, variables);
+        }
+        for (int index = 0; index < numResultVariables; index++) {
+            int resultVariable = resultVariables[index];
+            valueDouble.set(variables[resultVariable]);
+            result.set(valueDouble, index);
+        }
+    }
+
+    @Override
+    public BatchEvaluator newBatchEvaluator(int maxBlockSize) {
+        assert maxBlockSize >= 1;
+        return new Batch();
+    }
+
+    /**
+     * Batch evaluator executing the generated code point by point.
+     * The generated segments do not have a state of their own, so that
+     * it suffices to provide separate parameter and variable arrays.
+     */
+    private final class Batch implements BatchEvaluator {
+        private final double[] batchParameters = new double[parameters.length];
+        private final double[] batchVariables = new double[variables.length];
+
+        @Override
+        public void evaluate(double[][] result, double[][] points, int from, int to) {
+            assert result != null;
+            assert points != null;
+            assert from >= 0;
+            assert from <= to;
+            for (int point = from; point < to; point++) {
+                for (int index = 0; index < batchParameters.length; index++) {
+                    batchParameters[index] = points[index][point];
+                }
+                for (Segment segment : segments) {
+                    segment.evaluate(batchParameters, batchVariables);
+                }
+                for (int index = 0; index < numResultVariables; index++) {
+                    result[index][point] = batchVariables[resultVariables[index]];
+                }
+            }
+        }
+    }
+
+    private double getValueFromPointValue(ValueInterval pointValue) {
+        assert pointValue != null;
+        return ValueRational.as(pointValue.getIntervalLower()).getDouble();
+    }
+
+    @Override
+    public int getResultDimensions() {
+        return resultDimensions;
+    }
+}
@@ -1,6 +1,7 @@
 package epmc.param.value.dag.evaluator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import epmc.param.value.FunctionEvaluator;
 import epmc.param.value.ValueFunction;
@@ -178,6 +179,86 @@ public final class EvaluatorDagDoubleJava implements FunctionEvaluator {
         }
     }
 
+    @Override
+    public BatchEvaluator newBatchEvaluator(int maxBlockSize) {
+        assert maxBlockSize >= 1;
+        return new Batch(maxBlockSize);
+    }
+
+    /**
+     * Batch evaluator interpreting the microcode on blocks of points.
+     * Each microcode variable is represented by an array holding its value
+     * for each point of the block, such that each statement translates to
+     * a simple loop over the block.
+     */
+    private final class Batch implements BatchEvaluator {
+        private final int maxBlockSize;
+        private final double[][] blockVariables;
+
+        Batch(int maxBlockSize) {
+            this.maxBlockSize = maxBlockSize;
+            blockVariables = new double[variables.length][maxBlockSize];
+        }
+
+        @Override
+        public void evaluate(double[][] result, double[][] points, int from, int to) {
+            assert result != null;
+            assert points != null;
+            assert from >= 0;
+            assert from <= to;
+            int size = to - from;
+            assert size <= maxBlockSize;
+            for (int index = 0; index < numStatements; index++) {
+                int operator = getOperator(program, index);
+                double[] assigned = blockVariables[getAssignedTo(program, index)];
+                switch (operator) {
+                case OP_NUMBER:
+                    Arrays.fill(assigned, 0, size, numbers[getOperandLeft(program, index)]);
+                    break;
+                case OP_PARAMETER:
+                    System.arraycopy(points[getOperandLeft(program, index)], from, assigned, 0, size);
+                    break;
+                case OP_ADD_INVERSE: {
+                    double[] operand = blockVariables[getOperandLeft(program, index)];
+                    for (int point = 0; point < size; point++) {
+                        assigned[point] = -operand[point];
+                    }
+                    break;
+                }
+                case OP_MULTIPLY_INVERSE: {
+                    double[] operand = blockVariables[getOperandLeft(program, index)];
+                    for (int point = 0; point < size; point++) {
+                        assigned[point] = 1.0/operand[point];
+                    }
+                    break;
+                }
+                case OP_ADD: {
+                    double[] operandLeft = blockVariables[getOperandLeft(program, index)];
+                    double[] operandRight = blockVariables[getOperandRight(program, index)];
+                    for (int point = 0; point < size; point++) {
+                        assigned[point] = operandLeft[point] + operandRight[point];
+                    }
+                    break;
+                }
+                case OP_MULTIPLY: {
+                    double[] operandLeft = blockVariables[getOperandLeft(program, index)];
+                    double[] operandRight = blockVariables[getOperandRight(program, index)];
+                    for (int point = 0; point < size; point++) {
+                        assigned[point] = operandLeft[point] * operandRight[point];
+                    }
+                    break;
+                }
+                default:
+                    assert false;
+                    break;
+                }
+            }
+            for (int index = 0; index < numResultVariables; index++) {
+                System.arraycopy(blockVariables[resultVariables[index]], 0, result[index], from, size);
+            }
+        }
+    }
+
     private double getValueFromPointValue(ValueInterval pointValue) {
         assert pointValue != null;
         return ValueRational.as(pointValue.getIntervalLower()).getDouble();
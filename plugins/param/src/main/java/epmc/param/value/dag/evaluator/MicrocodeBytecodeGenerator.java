@@ -0,0 +1,627 @@
+package epmc.param.value.dag.evaluator;
+
+import static epmc.param.value.dag.microcode.UtilMicrocode.OP_ADD;
+import static epmc.param.value.dag.microcode.UtilMicrocode.OP_ADD_INVERSE;
+import static epmc.param.value.dag.microcode.UtilMicrocode.OP_MULTIPLY;
+import static epmc.param.value.dag.microcode.UtilMicrocode.OP_MULTIPLY_INVERSE;
+import static epmc.param.value.dag.microcode.UtilMicrocode.OP_NUMBER;
+import static epmc.param.value.dag.microcode.UtilMicrocode.OP_PARAMETER;
+import static epmc.param.value.dag.microcode.UtilMicrocode.getAssignedTo;
+import static epmc.param.value.dag.microcode.UtilMicrocode.getOperandLeft;
+import static epmc.param.value.dag.microcode.UtilMicrocode.getOperandRight;
+import static epmc.param.value.dag.microcode.UtilMicrocode.getOperator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Generates JVM class files evaluating microcode on doubles.
+ * The statements of the microcode are translated to straight-line code in
+ * which the microcode variables are kept in local variables of the JVM.
+ * Because HotSpot does not compile methods larger than 8000 bytes and
+ * because the number of constant pool entries of a class is limited, the
+ * statements are split into several static methods, each of which is kept
+ * below the size limit, and the methods are distributed over several
+ * classes. Values which are needed across method boundaries are exchanged
+ * using an array of doubles indexed by the microcode variable number.
+ * Each generated class implements
+ * {@link EvaluatorDagDoubleBytecode.Segment}, the segments have to be called
+ * in the order in which they were generated.
+ *
+ * @author Ernst Moritz Hahn
+ */
+final class MicrocodeBytecodeGenerator {
+    /** Maximal code size of generated method, below HotSpot limit. */
+    private final static int MAX_METHOD_CODE_SIZE = 7800;
+    /** Maximal number of bytes a single statement translates to. */
+    private final static int MAX_STATEMENT_CODE_SIZE = 32;
+    /** Number of bytes to store a local variable to the variable array. */
+    private final static int STORE_CODE_SIZE = 9;
+    /** Maximal number of constant pool entries before starting a new class. */
+    private final static int MAX_CONSTANT_POOL_SIZE = 60000;
+    /** Maximal number of statement methods per class. */
+    private final static int MAX_METHODS_PER_CLASS = 1500;
+    /** Maximal operand stack size needed by generated methods. */
+    private final static int MAX_STACK = 8;
+    /** First local variable slot used for microcode variables. */
+    private final static int FIRST_SLOT = 2;
+
+    private final static int CLASS_FILE_MAGIC = 0xCAFEBABE;
+    /** Class file version of Java 8, no stack map frames needed. */
+    private final static int CLASS_FILE_MAJOR_VERSION = 52;
+    private final static int ACC_PUBLIC = 0x0001;
+    private final static int ACC_STATIC = 0x0008;
+    private final static int ACC_FINAL = 0x0010;
+    private final static int ACC_SUPER = 0x0020;
+    private final static int ACC_PRIVATE = 0x0002;
+
+    private final static int CONSTANT_UTF8 = 1;
+    private final static int CONSTANT_INTEGER = 3;
+    private final static int CONSTANT_DOUBLE = 6;
+    private final static int CONSTANT_CLASS = 7;
+    private final static int CONSTANT_METHODREF = 10;
+    private final static int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final static int ICONST_0 = 0x03;
+    private final static int DCONST_0 = 0x0e;
+    private final static int DCONST_1 = 0x0f;
+    private final static int BIPUSH = 0x10;
+    private final static int SIPUSH = 0x11;
+    private final static int LDC = 0x12;
+    private final static int LDC_W = 0x13;
+    private final static int LDC2_W = 0x14;
+    private final static int DLOAD = 0x18;
+    private final static int ALOAD_0 = 0x2a;
+    private final static int ALOAD_1 = 0x2b;
+    private final static int ALOAD_2 = 0x2c;
+    private final static int DALOAD = 0x31;
+    private final static int DSTORE = 0x39;
+    private final static int DASTORE = 0x52;
+    private final static int DUP2 = 0x5c;
+    private final static int DADD = 0x63;
+    private final static int DMUL = 0x6b;
+    private final static int DDIV = 0x6f;
+    private final static int DNEG = 0x77;
+    private final static int RETURN = 0xb1;
+    private final static int INVOKESPECIAL = 0xb7;
+    private final static int INVOKESTATIC = 0xb8;
+    private final static int WIDE = 0xc4;
+
+    private final static String OBJECT = "java/lang/Object";
+    private final static String SEGMENT = EvaluatorDagDoubleBytecode.Segment.class.getName().replace('.', '/');
+    private final static String INIT = "<init>";
+    private final static String INIT_DESCRIPTOR = "()V";
+    private final static String CODE = "Code";
+    private final static String EVALUATE = "evaluate";
+    private final static String EVALUATE_DESCRIPTOR = "([D[D)V";
+    private final static String STATEMENTS = "statements";
+
+    private final int[] program;
+    private final double[] numbers;
+    private final int numStatements;
+    private final boolean[] isResultVariable;
+    private final String classNamePrefix;
+    /** For each variable, statements reading (even) or writing (odd) it. */
+    private final int[][] events;
+    private final int[] localSlot;
+    private final int[] localSlotStamp;
+    private int stamp;
+    private final List<String> classNames = new ArrayList<>();
+    private final List<byte[]> classes = new ArrayList<>();
+
+    MicrocodeBytecodeGenerator(int[] program, double[] numbers,
+            int numStatements, int numVariables, int[] resultVariables,
+            String classNamePrefix) {
+        assert program != null;
+        assert numbers != null;
+        assert numStatements >= 0;
+        assert numVariables >= 0;
+        assert resultVariables != null;
+        assert classNamePrefix != null;
+        this.program = program;
+        this.numbers = numbers;
+        this.numStatements = numStatements;
+        this.isResultVariable = new boolean[numVariables];
+        for (int variable : resultVariables) {
+            isResultVariable[variable] = true;
+        }
+        this.classNamePrefix = classNamePrefix;
+        this.events = computeEvents(numVariables);
+        this.localSlot = new int[numVariables];
+        this.localSlotStamp = new int[numVariables];
+        generate();
+    }
+
+    /**
+     * Get binary names of the generated classes.
+     *
+     * @return binary names of the generated classes
+     */
+    List<String> getClassNames() {
+        return classNames;
+    }
+
+    /**
+     * Get the generated class files.
+     *
+     * @return generated class files
+     */
+    List<byte[]> getClasses() {
+        return classes;
+    }
+
+    private int[][] computeEvents(int numVariables) {
+        IntArrayList[] eventLists = new IntArrayList[numVariables];
+        for (int index = 0; index < numStatements; index++) {
+            int operator = getOperator(program, index);
+            switch (operator) {
+            case OP_ADD_INVERSE:
+            case OP_MULTIPLY_INVERSE:
+                addEvent(eventLists, getOperandLeft(program, index), index * 2);
+                break;
+            case OP_ADD:
+            case OP_MULTIPLY:
+                addEvent(eventLists, getOperandLeft(program, index), index * 2);
+                addEvent(eventLists, getOperandRight(program, index), index * 2);
+                break;
+            default:
+                break;
+            }
+            addEvent(eventLists, getAssignedTo(program, index), index * 2 + 1);
+        }
+        int[][] result = new int[numVariables][];
+        for (int variable = 0; variable < numVariables; variable++) {
+            result[variable] = eventLists[variable] == null
+                    ? new int[0] : eventLists[variable].toIntArray();
+        }
+        return result;
+    }
+
+    private static void addEvent(IntArrayList[] eventLists, int variable, int event) {
+        if (eventLists[variable] == null) {
+            eventLists[variable] = new IntArrayList();
+        }
+        IntArrayList list = eventLists[variable];
+        if (list.isEmpty() || list.getInt(list.size() - 1) != event) {
+            list.add(event);
+        }
+    }
+
+    /**
+     * Check whether the value of a variable is still needed after a given
+     * statement. This is the case if the next access to the variable is a
+     * read, or if there is no further access and the variable is a result.
+     *
+     * @param variable microcode variable
+     * @param statement first statement not yet executed
+     * @return whether the value is needed after the statement
+     */
+    private boolean isNeededFrom(int variable, int statement) {
+        int[] variableEvents = events[variable];
+        int position = Arrays.binarySearch(variableEvents, statement * 2);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        if (position == variableEvents.length) {
+            return isResultVariable[variable];
+        }
+        return variableEvents[position] % 2 == 0;
+    }
+
+    private void generate() {
+        int statement = 0;
+        int segment = 0;
+        do {
+            ClassFile classFile = new ClassFile(classNamePrefix + segment);
+            List<byte[]> methodCodes = new ArrayList<>();
+            List<Integer> methodMaxLocals = new ArrayList<>();
+            List<Integer> methodNames = new ArrayList<>();
+            int descriptor = classFile.utf8(EVALUATE_DESCRIPTOR);
+            while (statement < numStatements
+                    && methodCodes.size() < MAX_METHODS_PER_CLASS
+                    && classFile.size() < MAX_CONSTANT_POOL_SIZE) {
+                Code code = new Code();
+                int maxLocals = generateMethod(classFile, code, statement);
+                statement = code.nextStatement;
+                methodCodes.add(code.toByteArray());
+                methodMaxLocals.add(maxLocals);
+                methodNames.add(classFile.utf8(STATEMENTS + methodNames.size()));
+            }
+            Code evaluate = new Code();
+            for (int methodNr = 0; methodNr < methodNames.size(); methodNr++) {
+                int methodref = classFile.methodref(classFile.getName(),
+                        STATEMENTS + methodNr, EVALUATE_DESCRIPTOR);
+                evaluate.op(ALOAD_1);
+                evaluate.op(ALOAD_2);
+                evaluate.op(INVOKESTATIC);
+                evaluate.u2(methodref);
+            }
+            evaluate.op(RETURN);
+            Code init = new Code();
+            init.op(ALOAD_0);
+            init.op(INVOKESPECIAL);
+            init.u2(classFile.methodref(OBJECT, INIT, INIT_DESCRIPTOR));
+            init.op(RETURN);
+
+            classFile.addMethod(ACC_PUBLIC, classFile.utf8(INIT),
+                    classFile.utf8(INIT_DESCRIPTOR), 1, 1, init.toByteArray());
+            classFile.addMethod(ACC_PUBLIC, classFile.utf8(EVALUATE),
+                    descriptor, 2, 3, evaluate.toByteArray());
+            for (int methodNr = 0; methodNr < methodNames.size(); methodNr++) {
+                classFile.addMethod(ACC_PRIVATE | ACC_STATIC,
+                        methodNames.get(methodNr), descriptor,
+                        MAX_STACK, methodMaxLocals.get(methodNr),
+                        methodCodes.get(methodNr));
+            }
+            classNames.add(classFile.getName().replace('/', '.'));
+            classes.add(classFile.toByteArray());
+            segment++;
+        } while (statement < numStatements);
+    }
+
+    /**
+     * Generate code of a static method evaluating a sequence of statements.
+     * The method has the descriptor {@link #EVALUATE_DESCRIPTOR}, its first
+     * argument being the parameter values and its second one the array used
+     * to exchange variable values with other methods. The statement after
+     * the last one translated is stored in the code object.
+     *
+     * @param classFile class file to which the method will be added
+     * @param code code to write method to
+     * @param statement first statement to translate
+     * @return maximal number of local variable slots used
+     */
+    private int generateMethod(ClassFile classFile, Code code, int statement) {
+        stamp++;
+        int nextSlot = FIRST_SLOT;
+        IntArrayList assigned = new IntArrayList();
+        while (statement < numStatements
+                && code.size() + MAX_STATEMENT_CODE_SIZE
+                + STORE_CODE_SIZE * (assigned.size() + 1) <= MAX_METHOD_CODE_SIZE
+                && classFile.size() < MAX_CONSTANT_POOL_SIZE) {
+            int operator = getOperator(program, statement);
+            switch (operator) {
+            case OP_NUMBER:
+                pushDouble(classFile, code, numbers[getOperandLeft(program, statement)]);
+                break;
+            case OP_PARAMETER:
+                code.op(ALOAD_0);
+                pushInt(classFile, code, getOperandLeft(program, statement));
+                code.op(DALOAD);
+                break;
+            case OP_ADD_INVERSE:
+                nextSlot = load(classFile, code, getOperandLeft(program, statement), nextSlot);
+                code.op(DNEG);
+                break;
+            case OP_MULTIPLY_INVERSE:
+                code.op(DCONST_1);
+                nextSlot = load(classFile, code, getOperandLeft(program, statement), nextSlot);
+                code.op(DDIV);
+                break;
+            case OP_ADD:
+                nextSlot = load(classFile, code, getOperandLeft(program, statement), nextSlot);
+                nextSlot = load(classFile, code, getOperandRight(program, statement), nextSlot);
+                code.op(DADD);
+                break;
+            case OP_MULTIPLY:
+                nextSlot = load(classFile, code, getOperandLeft(program, statement), nextSlot);
+                nextSlot = load(classFile, code, getOperandRight(program, statement), nextSlot);
+                code.op(DMUL);
+                break;
+            default:
+                assert false;
+                break;
+            }
+            int assignedTo = getAssignedTo(program, statement);
+            if (localSlotStamp[assignedTo] != stamp) {
+                localSlotStamp[assignedTo] = stamp;
+                localSlot[assignedTo] = nextSlot;
+                nextSlot += 2;
+            }
+            if (!assigned.contains(assignedTo)) {
+                assigned.add(assignedTo);
+            }
+            localVariable(code, DSTORE, localSlot[assignedTo]);
+            statement++;
+        }
+        for (int index = 0; index < assigned.size(); index++) {
+            int variable = assigned.getInt(index);
+            if (isNeededFrom(variable, statement)) {
+                code.op(ALOAD_1);
+                pushInt(classFile, code, variable);
+                localVariable(code, DLOAD, localSlot[variable]);
+                code.op(DASTORE);
+            }
+        }
+        code.op(RETURN);
+        code.nextStatement = statement;
+        return nextSlot;
+    }
+
+    /**
+     * Push the value of a microcode variable onto the operand stack.
+     * If the variable has not yet been used in the current method, its value
+     * is read from the variable array and stored in a new local variable.
+     *
+     * @param classFile class file the method belongs to
+     * @param code code to write to
+     * @param variable microcode variable to load
+     * @param nextSlot next free local variable slot
+     * @return next free local variable slot after loading
+     */
+    private int load(ClassFile classFile, Code code, int variable, int nextSlot) {
+        if (localSlotStamp[variable] == stamp) {
+            localVariable(code, DLOAD, localSlot[variable]);
+            return nextSlot;
+        }
+        localSlotStamp[variable] = stamp;
+        localSlot[variable] = nextSlot;
+        code.op(ALOAD_1);
+        pushInt(classFile, code, variable);
+        code.op(DALOAD);
+        code.op(DUP2);
+        localVariable(code, DSTORE, nextSlot);
+        return nextSlot + 2;
+    }
+
+    private static void localVariable(Code code, int opcode, int slot) {
+        if (slot <= 0xff) {
+            code.op(opcode);
+            code.u1(slot);
+        } else {
+            code.op(WIDE);
+            code.op(opcode);
+            code.u2(slot);
+        }
+    }
+
+    private static void pushInt(ClassFile classFile, Code code, int value) {
+        if (value >= -1 && value <= 5) {
+            code.op(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            code.op(BIPUSH);
+            code.u1(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            code.op(SIPUSH);
+            code.u2(value);
+        } else {
+            loadConstant(code, classFile.integer(value));
+        }
+    }
+
+    private static void pushDouble(ClassFile classFile, Code code, double value) {
+        if (Double.doubleToRawLongBits(value) == 0L) {
+            code.op(DCONST_0);
+        } else if (value == 1.0) {
+            code.op(DCONST_1);
+        } else {
+            code.op(LDC2_W);
+            code.u2(classFile.doubleConstant(value));
+        }
+    }
+
+    private static void loadConstant(Code code, int index) {
+        if (index <= 0xff) {
+            code.op(LDC);
+            code.u1(index);
+        } else {
+            code.op(LDC_W);
+            code.u2(index);
+        }
+    }
+
+    /**
+     * Bytecode of a single method.
+     */
+    private final static class Code {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int nextStatement;
+
+        void op(int opcode) {
+            bytes.write(opcode);
+        }
+
+        void u1(int value) {
+            bytes.write(value);
+        }
+
+        void u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Class file under construction, containing its constant pool.
+     */
+    private final static class ClassFile {
+        private final String name;
+        private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+        private final DataOutputStream pool = new DataOutputStream(poolBytes);
+        private int poolSize = 1;
+        private final Map<String,Integer> utf8s = new HashMap<>();
+        private final Map<String,Integer> classConstants = new HashMap<>();
+        private final Map<String,Integer> methodrefs = new HashMap<>();
+        private final Map<Integer,Integer> integers = new HashMap<>();
+        private final Map<Long,Integer> doubles = new HashMap<>();
+        private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+        private final DataOutputStream methods = new DataOutputStream(methodBytes);
+        private int numMethods;
+
+        ClassFile(String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int size() {
+            return poolSize;
+        }
+
+        int utf8(String value) {
+            Integer index = utf8s.get(value);
+            if (index != null) {
+                return index;
+            }
+            try {
+                pool.writeByte(CONSTANT_UTF8);
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                pool.writeShort(encoded.length);
+                pool.write(encoded);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            index = poolSize++;
+            utf8s.put(value, index);
+            return index;
+        }
+
+        int classConstant(String className) {
+            Integer index = classConstants.get(className);
+            if (index != null) {
+                return index;
+            }
+            int nameIndex = utf8(className);
+            try {
+                pool.writeByte(CONSTANT_CLASS);
+                pool.writeShort(nameIndex);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            index = poolSize++;
+            classConstants.put(className, index);
+            return index;
+        }
+
+        int methodref(String className, String methodName, String descriptor) {
+            String key = className + "." + methodName + descriptor;
+            Integer index = methodrefs.get(key);
+            if (index != null) {
+                return index;
+            }
+            int classIndex = classConstant(className);
+            int nameIndex = utf8(methodName);
+            int descriptorIndex = utf8(descriptor);
+            try {
+                pool.writeByte(CONSTANT_NAME_AND_TYPE);
+                pool.writeShort(nameIndex);
+                pool.writeShort(descriptorIndex);
+                int nameAndTypeIndex = poolSize++;
+                pool.writeByte(CONSTANT_METHODREF);
+                pool.writeShort(classIndex);
+                pool.writeShort(nameAndTypeIndex);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            index = poolSize++;
+            methodrefs.put(key, index);
+            return index;
+        }
+
+        int integer(int value) {
+            Integer index = integers.get(value);
+            if (index != null) {
+                return index;
+            }
+            try {
+                pool.writeByte(CONSTANT_INTEGER);
+                pool.writeInt(value);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            index = poolSize++;
+            integers.put(value, index);
+            return index;
+        }
+
+        int doubleConstant(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            Integer index = doubles.get(bits);
+            if (index != null) {
+                return index;
+            }
+            try {
+                pool.writeByte(CONSTANT_DOUBLE);
+                pool.writeLong(bits);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            index = poolSize;
+            /* double constants take two constant pool entries */
+            poolSize += 2;
+            doubles.put(bits, index);
+            return index;
+        }
+
+        void addMethod(int access, int nameIndex, int descriptorIndex,
+                int maxStack, int maxLocals, byte[] code) {
+            int codeIndex = utf8(CODE);
+            try {
+                methods.writeShort(access);
+                methods.writeShort(nameIndex);
+                methods.writeShort(descriptorIndex);
+                methods.writeShort(1);
+                methods.writeShort(codeIndex);
+                methods.writeInt(12 + code.length);
+                methods.writeShort(maxStack);
+                methods.writeShort(maxLocals);
+                methods.writeInt(code.length);
+                methods.write(code);
+                methods.writeShort(0);
+                methods.writeShort(0);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            numMethods++;
+        }
+
+        byte[] toByteArray() {
+            int thisIndex = classConstant(name);
+            int superIndex = classConstant(OBJECT);
+            int segmentIndex = classConstant(SEGMENT);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                out.writeInt(CLASS_FILE_MAGIC);
+                out.writeShort(0);
+                out.writeShort(CLASS_FILE_MAJOR_VERSION);
+                out.writeShort(poolSize);
+                pool.flush();
+                poolBytes.writeTo(out);
+                out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisIndex);
+                out.writeShort(superIndex);
+                out.writeShort(1);
+                out.writeShort(segmentIndex);
+                out.writeShort(0);
+                out.writeShort(numMethods);
+                methods.flush();
+                methodBytes.writeTo(out);
+                out.writeShort(0);
+                out.flush();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
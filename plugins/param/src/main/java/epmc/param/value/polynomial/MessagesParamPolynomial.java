@@ -0,0 +1,26 @@
+package epmc.param.value.polynomial;
+
+import epmc.messages.Message;
+
+public final class MessagesParamPolynomial {
+    /** Base name of resource bundle for the messages. */
+    private final static String MESSAGES_PARAM_POLYNOMIAL = "MessagesParamPolynomial";
+    public final static Message PARAM_POLYNOMIAL_CANCEL_CACHE = newMessage().setIdentifier("param-polynomial-cancel-cache").build();
+
+    /**
+     * Creates a new message with given identifier with this resource bundle.
+     * The parameter may not be {@code null}.
+     * 
+     * @param message identifier of message to be created
+     * @return message created
+     */
+    private static Message.Builder newMessage() {
+        return new Message.Builder().setBundle(MESSAGES_PARAM_POLYNOMIAL);
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private MessagesParamPolynomial() {
+    }
+}
@@ -1,15 +1,20 @@
 package epmc.param.value.polynomial;
 
 import java.math.BigInteger;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+import epmc.messages.OptionsMessages;
+import epmc.modelchecker.Log;
 import epmc.operator.OperatorIsOne;
 import epmc.operator.OperatorIsZero;
 import epmc.operator.OperatorSet;
+import epmc.options.Options;
 import epmc.options.UtilOptions;
 import epmc.param.options.OptionsParam;
 import epmc.param.value.ParameterSet;
 import epmc.param.value.TypeFunction;
+import epmc.param.value.TypeStatistics;
 import epmc.param.value.cancellator.Cancellator;
 import epmc.value.ContextValue;
 import epmc.value.OperatorEvaluator;
@@ -17,7 +22,7 @@ import epmc.value.Type;
 import epmc.value.TypeBoolean;
 import epmc.value.ValueBoolean;
 
-public final class TypePolynomial implements TypeFunction {
+public final class TypePolynomial implements TypeFunction, TypeStatistics {
     private final static class CancelEntry {
         private ValuePolynomial poly1;
         private ValuePolynomial poly2;
@@ -46,9 +51,30 @@ public final class TypePolynomial implements TypeFunction {
         }
     }
     
+    /**
+     * Cache of cancellation results, evicting the least recently used entry
+     * once the maximal number of entries is reached.
+     */
+    private final static class CancelCache extends LinkedHashMap<CancelEntry, CancelEntry> {
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        CancelCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CancelEntry, CancelEntry> eldest) {
+            return size() > maxSize;
+        }
+    }
+    
     CancelEntry testEntry = new CancelEntry();
-    private boolean doCache = true;
-    HashMap<CancelEntry, CancelEntry> cache = new HashMap<>();
+    private final boolean doCache;
+    private final CancelCache cache;
+    private long numCacheLookups;
+    private long numCacheHits;
     
     private final static String POLYNOMIAL = "polynomial";
     
@@ -82,6 +108,9 @@ public final class TypePolynomial implements TypeFunction {
 		isOne = ContextValue.get().getEvaluator(OperatorIsOne.IS_ONE, this);
 		isZero = ContextValue.get().getEvaluator(OperatorIsZero.IS_ZERO, this);
 		cmp = TypeBoolean.get().newValue();
+		int cacheSize = Options.get().getInteger(OptionsParam.PARAM_CANCELLATOR_CACHE_SIZE);
+		doCache = cacheSize > 0;
+		cache = doCache ? new CancelCache(cacheSize) : null;
 	}
 
 	@Override
@@ -133,10 +162,12 @@ public final class TypePolynomial implements TypeFunction {
         ValuePolynomial orig1 = null;
         ValuePolynomial orig2 = null;
 		if (doCache) {
+		    numCacheLookups++;
 		    testEntry.poly1 = operand1;
 		    testEntry.poly2 = operand2;
 		    CancelEntry resultEntry = cache.get(testEntry);
 		    if (resultEntry != null) {
+		        numCacheHits++;
 		        setValue.apply(operand1, resultEntry.poly1);
 		        setValue.apply(operand2, resultEntry.poly2);
 		        return;
@@ -145,6 +176,7 @@ public final class TypePolynomial implements TypeFunction {
 		    testEntry.poly2 = operand1;
 		    resultEntry = cache.get(testEntry);
             if (resultEntry != null) {
+                numCacheHits++;
                 setValue.apply(operand1, resultEntry.poly2);
                 setValue.apply(operand2, resultEntry.poly1);
                 return;
@@ -170,6 +202,16 @@ public final class TypePolynomial implements TypeFunction {
 		}
 	}
 
+	@Override
+	public void sendStatistics() {
+	    if (!doCache) {
+	        return;
+	    }
+	    double hitRate = numCacheLookups == 0 ? 0.0 : ((double) numCacheHits) / numCacheLookups;
+	    getLog().send(MessagesParamPolynomial.PARAM_POLYNOMIAL_CANCEL_CACHE,
+	            numCacheLookups, numCacheHits, hitRate, cache.size());
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
@@ -182,4 +224,8 @@ public final class TypePolynomial implements TypeFunction {
 	public TypeArrayPolynomial getTypeArray() {
 	    return ContextValue.get().makeUnique(new TypeArrayPolynomial(this));
 	}
+
+	private static Log getLog() {
+	    return Options.get().get(OptionsMessages.LOG);
+	}
 }
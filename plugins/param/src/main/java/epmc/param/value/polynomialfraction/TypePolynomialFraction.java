@@ -2,12 +2,13 @@ package epmc.param.value.polynomialfraction;
 
 import epmc.param.value.ParameterSet;
 import epmc.param.value.TypeFunction;
+import epmc.param.value.TypeStatistics;
 import epmc.param.value.polynomial.TypePolynomial;
 import epmc.value.ContextValue;
 import epmc.value.Type;
 import epmc.value.TypeArrayAlgebra;
 
-public class TypePolynomialFraction implements TypeFunction {
+public class TypePolynomialFraction implements TypeFunction, TypeStatistics {
     public final static String IDENTIFIER = "polynomial-fraction";
     
     public final static class Builder implements TypeFunction.Builder {
@@ -70,6 +71,11 @@ public class TypePolynomialFraction implements TypeFunction {
 		return typePolynomial.getParameterSet();
 	}
 	
+	@Override
+	public void sendStatistics() {
+	    typePolynomial.sendStatistics();
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
@@ -0,0 +1,149 @@
+package epmc.param.points;
+
+import static epmc.modelchecker.TestHelper.prepare;
+import static epmc.modelchecker.TestHelper.processAfterModelLoading;
+import static epmc.modelchecker.TestHelper.processBeforeModelLoading;
+import static epmc.param.PARAMTestHelper.preparePARAMOptions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import epmc.modelchecker.EngineExplicit;
+import epmc.modelchecker.options.OptionsModelChecker;
+import epmc.operator.OperatorAdd;
+import epmc.operator.OperatorDivide;
+import epmc.operator.OperatorMultiply;
+import epmc.operator.OperatorSubtract;
+import epmc.options.Options;
+import epmc.param.options.OptionsParam;
+import epmc.param.plugin.BeforeModelLoadingPARAM;
+import epmc.param.value.FunctionEvaluator;
+import epmc.param.value.ParameterSet;
+import epmc.param.value.TypeFunction;
+import epmc.param.value.dag.TypeDag;
+import epmc.param.value.dag.ValueDag;
+import epmc.param.value.dag.evaluator.EvaluatorDagDoubleJava;
+import epmc.param.value.rational.TypeRational;
+import epmc.value.ContextValue;
+import epmc.value.OperatorEvaluator;
+import epmc.value.TypeDouble;
+import epmc.value.TypeInterval;
+import epmc.value.UtilValue;
+import epmc.value.ValueArrayAlgebra;
+import epmc.value.ValueArrayInterval;
+import epmc.value.ValueDouble;
+
+public final class PointResultsFunctionEvaluatorTest {
+    private final static double TOLERANCE = 1E-12;
+    /** 13 times 9 points, so that the number of points is not a multiple of 7. */
+    private final static String POINTS = "0:1.2:0.1,0:2:0.25";
+    private final static int NUM_POINTS = 117;
+
+    @BeforeClass
+    public static void initialise() {
+        prepare();
+    }
+
+    @Test
+    public void batchedEqualsUnbatchedTest() {
+        Options options = preparePARAMOptions();
+        processBeforeModelLoading(options);
+        options.set(OptionsModelChecker.ENGINE, EngineExplicit.class);
+        Map<String,String> constants = new HashMap<>();
+        options.set(OptionsModelChecker.CONST, constants);
+        List<String> parameters = new ArrayList<>();
+        parameters.add("p");
+        parameters.add("q");
+        options.set(OptionsParam.PARAM_PARAMETER, parameters);
+        processAfterModelLoading(options);
+
+        ParameterSet parameterSet = options.get(BeforeModelLoadingPARAM.PARAM_CONTEXT_VALUE_PARAM);
+        parameterSet.addParameter("p");
+        parameterSet.addParameter("q");
+        TypeDag typeDag = new TypeDag(parameterSet);
+        TypeFunction.set(typeDag);
+        OperatorEvaluator add = ContextValue.get().getEvaluator(OperatorAdd.ADD, typeDag, typeDag);
+        OperatorEvaluator subtract = ContextValue.get().getEvaluator(OperatorSubtract.SUBTRACT, typeDag, typeDag);
+        OperatorEvaluator multiply = ContextValue.get().getEvaluator(OperatorMultiply.MULTIPLY, typeDag, typeDag);
+        OperatorEvaluator divide = ContextValue.get().getEvaluator(OperatorDivide.DIVIDE, typeDag, typeDag);
+        ValueDag p = typeDag.newValue();
+        p.setParameter("p");
+        ValueDag q = typeDag.newValue();
+        q.setParameter("q");
+        ValueDag one = typeDag.newValue();
+        one.set(1);
+
+        /* f = p/(1+q) + p*p - q */
+        ValueDag f = typeDag.newValue();
+        ValueDag help = typeDag.newValue();
+        add.apply(help, one, q);
+        divide.apply(f, p, help);
+        multiply.apply(help, p, p);
+        add.apply(f, f, help);
+        subtract.apply(f, f, q);
+        /* g = (1-p)*q*q */
+        ValueDag g = typeDag.newValue();
+        subtract.apply(g, one, p);
+        multiply.apply(g, g, q);
+        multiply.apply(g, g, q);
+
+        FunctionEvaluator evaluator = new EvaluatorDagDoubleJava.Builder()
+                .setResultType(TypeDouble.get())
+                .setPointsUseIntervals(false)
+                .addFunction(f).addFunction(g)
+                .build();
+        assertNotNull(evaluator);
+        assertNotNull(evaluator.newBatchEvaluator(7));
+
+        List<String> expectedPoints = new ArrayList<>();
+        List<double[]> expectedResults = new ArrayList<>();
+        evaluate(options, evaluator, 0, 1, expectedPoints, expectedResults);
+        assertEquals(NUM_POINTS, expectedPoints.size());
+
+        int[][] configurations = {{7, 1}, {7, 3}, {1024, 1}, {1024, 4}};
+        for (int[] configuration : configurations) {
+            List<String> points = new ArrayList<>();
+            List<double[]> results = new ArrayList<>();
+            evaluate(options, evaluator, configuration[0], configuration[1], points, results);
+            assertEquals(expectedPoints, points);
+            for (int pointNr = 0; pointNr < NUM_POINTS; pointNr++) {
+                for (int dim = 0; dim < 2; dim++) {
+                    assertEquals(expectedResults.get(pointNr)[dim],
+                            results.get(pointNr)[dim], TOLERANCE);
+                }
+            }
+        }
+    }
+
+    private static void evaluate(Options options, FunctionEvaluator evaluator,
+            int batchSize, int numThreads,
+            List<String> points, List<double[]> results) {
+        options.set(OptionsParam.PARAM_POINTS_BATCH_SIZE, Integer.toString(batchSize));
+        options.set(OptionsParam.PARAM_POINTS_NUM_THREADS, Integer.toString(numThreads));
+        PointResults pointResults = new PointResultsFunctionEvaluator.Builder()
+                .setPoints(new PointsRange.Builder().setInput(POINTS).build())
+                .setFunctionEvaluator(evaluator)
+                .build();
+        TypeInterval typeInterval = ContextValue.get().makeUnique(new TypeInterval(TypeRational.get()));
+        ValueArrayInterval point = UtilValue.newArray(typeInterval.getTypeArray(), 2);
+        ValueArrayAlgebra result = UtilValue.newArray(TypeDouble.get().getTypeArray(), 2);
+        ValueDouble entry = TypeDouble.get().newValue();
+        while (pointResults.hasNext()) {
+            pointResults.next(point, result);
+            points.add(point.toString());
+            double[] resultArray = new double[2];
+            for (int dim = 0; dim < 2; dim++) {
+                result.get(entry, dim);
+                resultArray[dim] = entry.getDouble();
+            }
+            results.add(resultArray);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package epmc.param.value.dag.evaluator;
+
+import static epmc.modelchecker.TestHelper.prepare;
+import static epmc.modelchecker.TestHelper.processAfterModelLoading;
+import static epmc.modelchecker.TestHelper.processBeforeModelLoading;
+import static epmc.param.PARAMTestHelper.preparePARAMOptions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import epmc.modelchecker.EngineExplicit;
+import epmc.modelchecker.options.OptionsModelChecker;
+import epmc.operator.OperatorAdd;
+import epmc.operator.OperatorDivide;
+import epmc.operator.OperatorMultiply;
+import epmc.operator.OperatorSubtract;
+import epmc.options.Options;
+import epmc.param.options.OptionsParam;
+import epmc.param.plugin.BeforeModelLoadingPARAM;
+import epmc.param.points.Points;
+import epmc.param.points.PointsRange;
+import epmc.param.value.FunctionEvaluator;
+import epmc.param.value.ParameterSet;
+import epmc.param.value.TypeFunction;
+import epmc.param.value.dag.TypeDag;
+import epmc.param.value.dag.ValueDag;
+import epmc.param.value.rational.TypeRational;
+import epmc.value.ContextValue;
+import epmc.value.OperatorEvaluator;
+import epmc.value.TypeDouble;
+import epmc.value.TypeInterval;
+import epmc.value.UtilValue;
+import epmc.value.ValueArrayAlgebra;
+import epmc.value.ValueArrayInterval;
+import epmc.value.ValueDouble;
+
+public final class EvaluatorDagDoubleBytecodeTest {
+    private final static double TOLERANCE = 1E-12;
+
+    @BeforeClass
+    public static void initialise() {
+        prepare();
+    }
+
+    @Test
+    public void compareWithDoubleJavaTest() {
+        Options options = preparePARAMOptions();
+        processBeforeModelLoading(options);
+        options.set(OptionsModelChecker.ENGINE, EngineExplicit.class);
+        Map<String,String> constants = new HashMap<>();
+        options.set(OptionsModelChecker.CONST, constants);
+        List<String> parameters = new ArrayList<>();
+        parameters.add("x");
+        parameters.add("y");
+        options.set(OptionsParam.PARAM_PARAMETER, parameters);
+        processAfterModelLoading(options);
+
+        ParameterSet parameterSet = options.get(BeforeModelLoadingPARAM.PARAM_CONTEXT_VALUE_PARAM);
+        parameterSet.addParameter("x");
+        parameterSet.addParameter("y");
+        TypeDag typeDag = new TypeDag(parameterSet);
+        TypeFunction.set(typeDag);
+        OperatorEvaluator add = ContextValue.get().getEvaluator(OperatorAdd.ADD, typeDag, typeDag);
+        OperatorEvaluator subtract = ContextValue.get().getEvaluator(OperatorSubtract.SUBTRACT, typeDag, typeDag);
+        OperatorEvaluator multiply = ContextValue.get().getEvaluator(OperatorMultiply.MULTIPLY, typeDag, typeDag);
+        OperatorEvaluator divide = ContextValue.get().getEvaluator(OperatorDivide.DIVIDE, typeDag, typeDag);
+        ValueDag x = typeDag.newValue();
+        x.setParameter("x");
+        ValueDag y = typeDag.newValue();
+        y.setParameter("y");
+        ValueDag one = typeDag.newValue();
+        one.set(1);
+        ValueDag three = typeDag.newValue();
+        three.set("3/7");
+
+        /* f = x*y + 1/(1+x) - 3/7*y*y */
+        ValueDag f = typeDag.newValue();
+        ValueDag help = typeDag.newValue();
+        multiply.apply(f, x, y);
+        add.apply(help, one, x);
+        divide.apply(help, one, help);
+        add.apply(f, f, help);
+        multiply.apply(help, y, y);
+        multiply.apply(help, three, help);
+        subtract.apply(f, f, help);
+        /* g = (x - y) / (1 + x*x*y), shares subterms with f */
+        ValueDag g = typeDag.newValue();
+        subtract.apply(g, x, y);
+        multiply.apply(help, x, x);
+        multiply.apply(help, help, y);
+        add.apply(help, one, help);
+        divide.apply(g, g, help);
+
+        FunctionEvaluator bytecode = new EvaluatorDagDoubleBytecode.Builder()
+                .setResultType(TypeDouble.get())
+                .setPointsUseIntervals(false)
+                .addFunction(f).addFunction(g)
+                .build();
+        FunctionEvaluator java = new EvaluatorDagDoubleJava.Builder()
+                .setResultType(TypeDouble.get())
+                .setPointsUseIntervals(false)
+                .addFunction(f).addFunction(g)
+                .build();
+        assertNotNull(bytecode);
+        assertNotNull(java);
+
+        TypeInterval typeInterval = ContextValue.get().makeUnique(new TypeInterval(TypeRational.get()));
+        ValueArrayInterval point = UtilValue.newArray(typeInterval.getTypeArray(), 2);
+        ValueArrayAlgebra resultBytecode = UtilValue.newArray(TypeDouble.get().getTypeArray(), 2);
+        ValueArrayAlgebra resultJava = UtilValue.newArray(TypeDouble.get().getTypeArray(), 2);
+        ValueDouble entryBytecode = TypeDouble.get().newValue();
+        ValueDouble entryJava = TypeDouble.get().newValue();
+        Points points = new PointsRange.Builder().setInput("0:1:0.1,0:1:0.1").build();
+        int numPoints = 0;
+        while (points.hasNext()) {
+            points.next(point);
+            bytecode.evaluate(resultBytecode, point);
+            java.evaluate(resultJava, point);
+            for (int index = 0; index < 2; index++) {
+                resultBytecode.get(entryBytecode, index);
+                resultJava.get(entryJava, index);
+                assertEquals(entryJava.getDouble(), entryBytecode.getDouble(), TOLERANCE);
+            }
+            numPoints++;
+        }
+        assertEquals(121, numPoints);
+    }
+}
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -42,6 +43,7 @@ import epmc.expression.standard.ExpressionLiteral;
 import epmc.expression.standard.ExpressionTypeInteger;
 import epmc.expression.standard.RewardSpecification;
 import epmc.expression.standard.SMGPlayer;
+import epmc.expression.standard.UtilExpressionStandard;
 import epmc.expression.standard.evaluatordd.ExpressionToDD;
 import epmc.expression.standard.evaluatorexplicit.UtilEvaluatorExplicit;
 import epmc.graph.CommonProperties;
@@ -52,6 +54,8 @@ import epmc.graph.SemanticsMA;
 import epmc.graph.SemanticsNonDet;
 import epmc.graph.dd.GraphDD;
 import epmc.graph.dd.GraphDDProperties;
+import epmc.graph.dd.ReachabilityDD;
+import epmc.graph.dd.VariableOrderDD;
 import epmc.jani.model.type.JANIType;
 import epmc.messages.OptionsMessages;
 import epmc.modelchecker.Log;
@@ -130,7 +134,7 @@ final class GraphDDPRISM implements GraphDD {
         this.withWeights = edgeProperties.contains(CommonProperties.WEIGHT);
         this.variablesDD = new HashMap<>();
         this.actions = collectActions();
-        this.variables = new HashMap<>();
+        this.variables = new LinkedHashMap<>();
         this.variables.putAll(collectVariables(model));
         this.actionVariable = ContextDD.get().newInteger("%actions", 1, 0, actions.size() - 1);
         computeVariableEncoding(variables);
@@ -148,8 +152,9 @@ final class GraphDDPRISM implements GraphDD {
                 .build(), initial);
 
         ArrayList<DD> modulesDD = new ArrayList<>();
+        List<DD> commandsDD = ReachabilityDD.isSaturation() ? new ArrayList<>() : null;
         for (Module module : model.getModules()) {
-            modulesDD.add(translateModuleDD(module.asCommands()));
+            modulesDD.add(translateModuleDD(module.asCommands(), commandsDD));
         }
         DD nondetCubePres = ContextDD.get().newConstant(true);
         if (SemanticsNonDet.isNonDet(model.getSemantics())) {
@@ -219,8 +224,8 @@ final class GraphDDPRISM implements GraphDD {
 
         DD transitionsBooleanForNext = transitionsBoolean.abstractExist(actionsCube);
 
-        nodes = exploreNodeSpace(log, initial, transitionsBooleanForNext, presCube,
-                nextToPres);
+        nodes = exploreNodeSpace(log, initial, transitionsBooleanForNext,
+                commandsDD, actionsCube, presCube, nextToPres);
 
         //        DD deadlock = computeDeadlock(model, expressionToDD, states);
         DD nodesAndStates = nodes.and(states);
@@ -475,7 +480,7 @@ final class GraphDDPRISM implements GraphDD {
 
     private static Map<Expression,Type> collectVariables(ModelPRISM model) {
         assert model != null;
-        Map<Expression,Type> result = new HashMap<>();
+        Map<Expression,Type> result = new LinkedHashMap<>();
         for (Entry<Expression, JANIType> entry : model.getGlobalVariables().entrySet()) {
             result.put(entry.getKey(), entry.getValue().toType());
         }
@@ -627,12 +632,46 @@ final class GraphDDPRISM implements GraphDD {
             break;
         }
         rateIndex = lower;  // for MA
-        for (Entry<Expression, Type> entry : variables.entrySet()) {
-            Type type = entry.getValue();
-            variablesDD.put(entry.getKey(), ContextDD.get().newVariable(entry.getKey().toString(), type, 2));
+        List<Expression> order = VariableOrderDD.order(new ArrayList<>(variables.keySet()),
+                computeVariableDependencies());
+        for (Expression variable : order) {
+            Type type = variables.get(variable);
+            variablesDD.put(variable, ContextDD.get().newVariable(variable.toString(), type, 2));
         }
     }
 
+    /**
+     * Compute the sets of variables used together by the commands.
+     * For each command, the set contains the variables read by its guard
+     * and by its alternatives as well as the variables written by it. As the
+     * model is flattened, synchronisation between modules is already
+     * represented by the commands.
+     * 
+     * @return sets of variables used together
+     */
+    private List<Set<Expression>> computeVariableDependencies() {
+        List<Set<Expression>> result = new ArrayList<>();
+        if (VariableOrderDD.isDeclarationOrder()) {
+            return result;
+        }
+        for (Module module : model.getModules()) {
+            for (Command command : ((ModuleCommands) module).getCommands()) {
+                Set<Expression> dependency = new LinkedHashSet<>();
+                dependency.addAll(UtilExpressionStandard.collectIdentifiers(command.getGuard()));
+                for (Alternative alternative : command.getAlternatives()) {
+                    dependency.addAll(UtilExpressionStandard.collectIdentifiers(alternative.getWeight()));
+                    for (Entry<Expression,Expression> entry : alternative.getEffect().entrySet()) {
+                        dependency.add(entry.getKey());
+                        dependency.addAll(UtilExpressionStandard.collectIdentifiers(entry.getValue()));
+                    }
+                }
+                dependency.retainAll(variables.keySet());
+                result.add(dependency);
+            }
+        }
+        return result;
+    }
+
     private Map<Expression,DD> translateModule(ModuleCommands module)
     {
         int commandNr = 0;
@@ -731,11 +770,18 @@ final class GraphDDPRISM implements GraphDD {
         return result;
     }
 
-    private DD translateModuleDD(ModuleCommands module) {
+    private DD translateModuleDD(ModuleCommands module, List<DD> commandsBoolean) {
         int commandNr = 0;
         DD moduleDD = withWeights ? ContextDD.get().newConstant(0) : ContextDD.get().newConstant(false);
         for (Command command : module.getCommands()) {
             DD commandDD = translateCommand(command, module, commandNr);
+            if (commandsBoolean != null && withWeights) {
+                DD constZero = ContextDD.get().newConstant(0);
+                commandsBoolean.add(commandDD.ne(constZero));
+                constZero.dispose();
+            } else if (commandsBoolean != null) {
+                commandsBoolean.add(commandDD.clone());
+            }
             DD oldModuleDD = moduleDD;
             if (withWeights) {
                 moduleDD = moduleDD.add(commandDD);
@@ -950,21 +996,44 @@ final class GraphDDPRISM implements GraphDD {
     }
 
 
+    /**
+     * Compute the reachable nodes of the model.
+     * If the boolean transition relations of the single commands are given,
+     * they are used as the partition of the transition relation for
+     * saturation, see {@link ReachabilityDD}, and are disposed by this
+     * method. Otherwise, breadth-first search on the transition relation
+     * without action variables is used.
+     *
+     * @param log log to send progress messages to
+     * @param initial initial nodes
+     * @param trans transition relation without action variables
+     * @param commands boolean transition relations of commands, or
+     *        {@code null} if saturation is not used
+     * @param actions cube of action and nondeterminism variables
+     * @param pres cube of present state variables
+     * @param swap permutation swapping present and next state variables
+     * @return reachable nodes
+     */
     private static DD exploreNodeSpace(Log log,
-            DD initial, DD trans, DD pres, Permutation swap)
+            DD initial, DD trans, List<DD> commands, DD actions, DD pres,
+            Permutation swap)
     {
         StopWatch timer = new StopWatch(true);
         log.send(MessagesPRISM.EXPLORING);
-        DD states = initial.clone();
-        DD predecessors = ContextDD.get().newConstant(false);
-        while (!states.equals(predecessors)) {
-            predecessors.dispose();
-            predecessors = states;
-            DD next = trans.abstractAndExist(states, pres);
-            next = next.permuteWith(swap);
-            states = states.clone().orWith(next);
-        }
-        predecessors.dispose();
+        DD states;
+        if (commands != null) {
+            List<DD> transitions = new ArrayList<>();
+            for (DD command : commands) {
+                transitions.add(command.abstractExistWith(actions.clone()));
+            }
+            commands.clear();
+            states = ReachabilityDD.reachableSaturation(initial, transitions, pres, swap);
+            for (DD transition : transitions) {
+                transition.dispose();
+            }
+        } else {
+            states = ReachabilityDD.reachableBFS(initial, trans, pres, swap);
+        }
         log.send(MessagesPRISM.EXPLORING_DONE, timer.getTimeSeconds());
         return states;
     }    
@@ -20,7 +20,8 @@
 
 package epmc.value;
 
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 
 public final class ValueTernary implements ValueEnumerable, ValueBitStoreable, ValueSetString {
     public static boolean is(Value value) {
@@ -107,7 +108,7 @@ public final class ValueTernary implements ValueEnumerable, ValueBitStoreable, V
     }
 
     @Override
-    public void read(BitStream reader) {
+    public void read(BitStreamReader reader) {
         assert reader != null;
         int ord = 0;
         if (reader.read()) {
@@ -120,7 +121,7 @@ public final class ValueTernary implements ValueEnumerable, ValueBitStoreable, V
     }
 
     @Override
-    public void write(BitStream writer) {
+    public void write(BitStreamWriter writer) {
         assert writer != null;
         int ord = value.ordinal();
         writer.write((ord & 1) > 0);
@@ -34,12 +34,12 @@ public interface BitStoreable {
      * 
      * @param reader bit stream to read object from
      */
-    void read(BitStream reader);
+    void read(BitStreamReader reader);
 
     /**
      * Write object to given bit stream.
      * 
      * @param writer bit stream to write object to
      */
-    void write(BitStream writer);
+    void write(BitStreamWriter writer);
 }
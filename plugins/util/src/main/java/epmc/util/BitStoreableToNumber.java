@@ -39,4 +39,19 @@ public interface BitStoreableToNumber {
         assert numBits >= 0;
         return new BitStreamToNumberLongArray(numBits);
     }
+
+    static BitStoreableToNumber newNodeStoreTree(int numBits) {
+        assert numBits >= 0;
+        return new BitStreamToNumberTree(numBits);
+    }
+
+    static BitStoreableToNumber newNodeStoreConcurrent(int numBits) {
+        assert numBits >= 0;
+        return new BitStreamToNumberConcurrent(numBits);
+    }
+
+    static BitStoreableToNumber newNodeStoreSynchronized(BitStoreableToNumber store) {
+        assert store != null;
+        return new BitStreamToNumberSynchronized(store);
+    }
 }
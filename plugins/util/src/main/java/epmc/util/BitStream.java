@@ -21,89 +21,9 @@
 package epmc.util;
 
 /**
- * Represents a stream of bits.
+ * Represents a stream of bits which can be both read from and written to.
  * 
  * @author Ernst Moritz Hahn
  */
-public interface BitStream {
-    /**
-     * Read next bit from bit stream and increase read cursor by one.
-     * 
-     * @return bit read
-     */
-    boolean read();
-
-    /**
-     * Write next bit to bit stream and increase write cursor by one.
-     * 
-     * @param value bit to write
-     */
-    void write(boolean value);
-
-    default int readInt() {
-        int result = 0;
-        int mark = 1;
-        for (int bitNr = 0; bitNr < Integer.SIZE; bitNr++) {
-            result |= read() ? mark : 0;
-            mark <<= 1;
-        }
-        return result;
-    }
-    
-    default void writeInt(int value) {
-        int mark = 1;
-        for (int bitNr = 0; bitNr < Integer.SIZE; bitNr++) {
-            write((value & mark) != 0);
-            mark <<= 1;
-        }
-    }
-
-    default int readInt(int numBits) {
-        int result = 0;
-        int mark = 1;
-        for (int bitNr = 0; bitNr < numBits; bitNr++) {
-            result |= read() ? mark : 0;
-            mark <<= 1;
-        }
-        return result;
-    }
-
-    default void writeInt(int value, int numBits) {
-        int mark = 1;
-        for (int bitNr = 0; bitNr < numBits; bitNr++) {
-            write((value & mark) != 0L);
-            mark <<= 1;
-        }
-    }
-    
-    default long readLong() {
-        long result = 0L;
-        long mark = 1L;
-        for (int bitNr = 0; bitNr < Long.SIZE; bitNr++) {
-            result |= read() ? mark : 0L;
-            mark <<= 1L;
-        }
-        return result;
-    }
-    
-    default void writeLong(long value) {
-        long mark = 1L;
-        for (int bitNr = 0; bitNr < Long.SIZE; bitNr++) {
-            write((value & mark) != 0L);
-            mark <<= 1L;
-        }
-    }
-    
-    default double readDouble() {
-        long v = readLong();
-        double w = Double.longBitsToDouble(v);
-        assert !Double.isNaN(w) : v;
-        return w;
-    }
-    
-    default void writeDouble(double value) {
-        assert !Double.isNaN(value) : value;
-        long l = Double.doubleToLongBits(value);
-        writeLong(l);
-    }
+public interface BitStream extends BitStreamReader, BitStreamWriter {
 }
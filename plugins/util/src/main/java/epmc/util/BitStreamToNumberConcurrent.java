@@ -0,0 +1,269 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Node store which can be used by several threads concurrently.
+ * Nodes are stored only once, in fixed-size chunks of a long array, indexed
+ * by their numbers. The mapping from nodes to numbers is an open-addressed
+ * hash table with linear probing, each slot of which is a single long
+ * containing the hash of the node (upper half) and its number plus one
+ * (lower half). Slots are claimed using compare-and-swap operations, such
+ * that lookups and insertions do not need locks. Only while the table is
+ * resized, threads trying to insert new nodes wait until the resize is
+ * complete.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+final class BitStreamToNumberConcurrent implements BitStoreableToNumber {
+    private final static class ReadWriteHelper implements BitStream {
+        private static final int LOG2LONGSIZE = 6;
+        private long[] bitSet;
+        private int offset;
+        private int index;
+
+        void set(long[] bitSet, int offset) {
+            this.bitSet = bitSet;
+            this.offset = offset;
+            this.index = 0;
+        }
+
+        @Override
+        public boolean read() {
+            int word = offset + (index >>> LOG2LONGSIZE);
+            boolean value = (bitSet[word] & (1L << index)) != 0;
+            index++;
+            return value;
+        }
+
+        @Override
+        public void write(boolean value) {
+            int word = offset + (index >>> LOG2LONGSIZE);
+            if (value) {
+                bitSet[word] |= 1L << index;
+            } else {
+                bitSet[word] &= ~(1L << index);
+            }
+            index++;
+        }
+    }
+
+    private final static class Table {
+        private final AtomicLongArray slots;
+        private final int mask;
+        private final int threshold;
+        private final AtomicBoolean resizing = new AtomicBoolean();
+        private volatile Table next;
+        private volatile boolean complete;
+
+        Table(int capacity) {
+            assert capacity > 0;
+            assert Integer.bitCount(capacity) == 1;
+            slots = new AtomicLongArray(capacity);
+            mask = capacity - 1;
+            threshold = capacity / 2;
+        }
+    }
+
+    /** Slot not yet used. */
+    private final static long EMPTY = 0L;
+    /** Lower half of a slot claimed but not yet assigned a number. */
+    private final static long BUSY = 0xFFFFFFFFL;
+    /** Lower half of a free slot which may no longer be used due to resize. */
+    private final static long MOVED = 0xFFFFFFFEL;
+    private final static long LOWER_MASK = 0xFFFFFFFFL;
+    private final static int INITIAL_CAPACITY = 1 << 16;
+    private final static int LOG2_CHUNK_SIZE = 16;
+    private final static int CHUNK_SIZE = 1 << LOG2_CHUNK_SIZE;
+    private final static int CHUNK_MASK = CHUNK_SIZE - 1;
+    private final static int MAX_NUM_CHUNKS = (Integer.MAX_VALUE >>> LOG2_CHUNK_SIZE) + 1;
+
+    private final int numWords;
+    private final AtomicReferenceArray<long[]> chunks = new AtomicReferenceArray<>(MAX_NUM_CHUNKS);
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private final ThreadLocal<long[]> testLongArray;
+    private final ThreadLocal<ReadWriteHelper> helper = ThreadLocal.withInitial(ReadWriteHelper::new);
+
+    BitStreamToNumberConcurrent(int numBits) {
+        assert numBits >= 0;
+        this.numWords = Math.max(1, numBits / Long.SIZE + (numBits % Long.SIZE > 0 ? 1 : 0));
+        this.testLongArray = ThreadLocal.withInitial(() -> new long[numWords]);
+        table.complete = true;
+    }
+
+    @Override
+    public int toNumber(BitStoreable storeable) {
+        assert storeable != null;
+        long[] node = testLongArray.get();
+        Arrays.fill(node, 0L);
+        ReadWriteHelper helper = this.helper.get();
+        helper.set(node, 0);
+        storeable.write(helper);
+        int hash = hash(node);
+        long hashPart = ((long) hash) << Integer.SIZE;
+        Table table = this.table;
+        while (true) {
+            int index = hash & table.mask;
+            int probes = 0;
+            while (probes <= table.mask) {
+                long slot = table.slots.get(index);
+                if (slot == EMPTY) {
+                    if (table.slots.compareAndSet(index, EMPTY, hashPart | BUSY)) {
+                        int number = store(node);
+                        table.slots.set(index, hashPart | (number + 1L));
+                        if (number + 1 >= table.threshold) {
+                            resize(table);
+                        }
+                        return number;
+                    }
+                    continue;
+                }
+                if ((slot & LOWER_MASK) == MOVED) {
+                    break;
+                }
+                if ((int) (slot >>> Integer.SIZE) == hash) {
+                    while ((slot & LOWER_MASK) == BUSY) {
+                        Thread.yield();
+                        slot = table.slots.get(index);
+                    }
+                    int number = (int) (slot & LOWER_MASK) - 1;
+                    if (equalsStored(number, node)) {
+                        return number;
+                    }
+                }
+                index = (index + 1) & table.mask;
+                probes++;
+            }
+            resize(table);
+            table = awaitNext(table);
+        }
+    }
+
+    @Override
+    public void fromNumber(BitStoreable storeable, int number) {
+        assert storeable != null;
+        assert number >= 0;
+        assert number < size.get();
+        ReadWriteHelper helper = this.helper.get();
+        helper.set(chunks.get(number >>> LOG2_CHUNK_SIZE), (number & CHUNK_MASK) * numWords);
+        storeable.read(helper);
+    }
+
+    /**
+     * {@inheritDoc}
+     * While other threads are inserting nodes, the value returned might
+     * include numbers of nodes which are not yet completely stored.
+     */
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    private int store(long[] node) {
+        int number = size.getAndIncrement();
+        assert number >= 0 : number;
+        int chunkNr = number >>> LOG2_CHUNK_SIZE;
+        long[] chunk = chunks.get(chunkNr);
+        if (chunk == null) {
+            chunks.compareAndSet(chunkNr, null, new long[CHUNK_SIZE * numWords]);
+            chunk = chunks.get(chunkNr);
+        }
+        System.arraycopy(node, 0, chunk, (number & CHUNK_MASK) * numWords, numWords);
+        return number;
+    }
+
+    private boolean equalsStored(int number, long[] node) {
+        long[] chunk = chunks.get(number >>> LOG2_CHUNK_SIZE);
+        int offset = (number & CHUNK_MASK) * numWords;
+        for (int word = 0; word < numWords; word++) {
+            if (chunk[offset + word] != node[word]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Move all entries of the table to a new table of twice the size.
+     * Only one thread performs the resize; calls by further threads return
+     * immediately. Free slots of the old table are marked as moved first, so
+     * that no further entries are inserted into it, while slots being
+     * inserted concurrently are waited for.
+     */
+    private void resize(Table old) {
+        if (!old.resizing.compareAndSet(false, true)) {
+            return;
+        }
+        Table next = new Table((old.mask + 1) * 2);
+        old.next = next;
+        for (int index = 0; index <= old.mask; index++) {
+            long slot;
+            while (true) {
+                slot = old.slots.get(index);
+                if (slot == EMPTY) {
+                    if (old.slots.compareAndSet(index, EMPTY, MOVED)) {
+                        break;
+                    }
+                } else if ((slot & LOWER_MASK) == BUSY) {
+                    Thread.yield();
+                } else {
+                    break;
+                }
+            }
+            if (slot == EMPTY) {
+                continue;
+            }
+            int newIndex = ((int) (slot >>> Integer.SIZE)) & next.mask;
+            while (next.slots.get(newIndex) != EMPTY) {
+                newIndex = (newIndex + 1) & next.mask;
+            }
+            next.slots.set(newIndex, slot);
+        }
+        next.complete = true;
+        table = next;
+    }
+
+    private static Table awaitNext(Table table) {
+        Table next;
+        while ((next = table.next) == null || !next.complete) {
+            Thread.yield();
+        }
+        return next;
+    }
+
+    private static int hash(long[] node) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (long word : node) {
+            hash ^= word;
+            hash *= 0xBF58476D1CE4E5B9L;
+            hash ^= hash >>> 31;
+        }
+        hash ^= hash >>> 32;
+        return (int) hash;
+    }
+}
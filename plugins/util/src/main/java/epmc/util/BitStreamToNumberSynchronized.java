@@ -0,0 +1,55 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.util;
+
+/**
+ * Thread-safe wrapper around another node store.
+ * All operations of the wrapped store are executed while holding the monitor
+ * of the wrapper, so that the store can be used by several threads exploring
+ * a state space concurrently.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+final class BitStreamToNumberSynchronized implements BitStoreableToNumber {
+    private final BitStoreableToNumber inner;
+
+    BitStreamToNumberSynchronized(BitStoreableToNumber inner) {
+        assert inner != null;
+        this.inner = inner;
+    }
+
+    @Override
+    public synchronized int toNumber(BitStoreable storeable) {
+        assert storeable != null;
+        return inner.toNumber(storeable);
+    }
+
+    @Override
+    public synchronized void fromNumber(BitStoreable storeable, int number) {
+        assert storeable != null;
+        inner.fromNumber(storeable, number);
+    }
+
+    @Override
+    public synchronized int size() {
+        return inner.size();
+    }
+}
@@ -0,0 +1,177 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.util;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * Node store using tree compression.
+ * The bits of a node are split into 32-bit integers, which form the leaves
+ * of a balanced binary tree. Each inner position of the tree has its own
+ * table, which maps the pair of numbers of its two children to a number.
+ * Thus, nodes which agree on parts of their bits share the according
+ * subtrees, and each table only stores pairs of integers rather than whole
+ * nodes. The numbers of the table of the root are the node numbers.
+ * 
+ * The numbers and child pairs of the tree positions of the node last
+ * stored or retrieved are cached. When the next node is stored, only the
+ * tables of positions above leaves which changed have to be accessed. As
+ * successors often only differ from their predecessor in a few variables,
+ * this considerably reduces the number of hash table operations.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+final class BitStreamToNumberTree implements BitStoreableToNumber {
+    private final class ReadWriteHelper implements BitStream {
+        private static final int LOG2INTSIZE = 5;
+
+        @Override
+        public boolean read() {
+            int offset = index >>> LOG2INTSIZE;
+            boolean value = (leaves[offset] & (1 << index)) != 0;
+            index++;
+            return value;
+        }
+
+        @Override
+        public void write(boolean value) {
+            int offset = index >>> LOG2INTSIZE;
+            if (value) {
+                leaves[offset] |= 1 << index;
+            } else {
+                leaves[offset] &= ~(1 << index);
+            }
+            index++;
+        }
+    }
+
+    private final static long LOWER_MASK = 0xFFFFFFFFL;
+    private final ReadWriteHelper helper = new ReadWriteHelper();
+    private final int numLeaves;
+    private final int[] leaves;
+    private int index;
+    /** Tables of inner tree positions, indexed as in a binary heap. */
+    private final Long2IntOpenHashMap[] pairToNumber;
+    private final LongArrayList[] numberToPair;
+    private final long[] cachedPairs;
+    private final int[] cachedNumbers;
+    private boolean cacheValid;
+
+    BitStreamToNumberTree(int numBits) {
+        assert numBits >= 0;
+        int numInts = numBits / Integer.SIZE + (numBits % Integer.SIZE > 0 ? 1 : 0);
+        this.numLeaves = Math.max(2, numInts);
+        this.leaves = new int[numLeaves];
+        int numPositions = 1;
+        while (numPositions < numLeaves) {
+            numPositions <<= 1;
+        }
+        numPositions <<= 1;
+        this.pairToNumber = new Long2IntOpenHashMap[numPositions];
+        this.numberToPair = new LongArrayList[numPositions];
+        initPositions(1, 0, numLeaves);
+        this.cachedPairs = new long[numPositions];
+        this.cachedNumbers = new int[numPositions];
+    }
+
+    private void initPositions(int position, int from, int to) {
+        if (to - from == 1) {
+            return;
+        }
+        pairToNumber[position] = new Long2IntOpenHashMap();
+        pairToNumber[position].defaultReturnValue(-1);
+        numberToPair[position] = new LongArrayList();
+        int mid = (from + to) >>> 1;
+        initPositions(position * 2, from, mid);
+        initPositions(position * 2 + 1, mid, to);
+    }
+
+    @Override
+    public int toNumber(BitStoreable storeable) {
+        assert storeable != null;
+        Arrays.fill(leaves, 0);
+        index = 0;
+        storeable.write(helper);
+        int number = insert(1, 0, numLeaves);
+        cacheValid = true;
+        return number;
+    }
+
+    @Override
+    public void fromNumber(BitStoreable storeable, int number) {
+        assert storeable != null;
+        assert number >= 0;
+        assert number < size();
+        extract(1, 0, numLeaves, number);
+        cacheValid = true;
+        index = 0;
+        storeable.read(helper);
+    }
+
+    @Override
+    public int size() {
+        return numberToPair[1].size();
+    }
+
+    private int insert(int position, int from, int to) {
+        if (to - from == 1) {
+            return leaves[from];
+        }
+        int mid = (from + to) >>> 1;
+        int left = insert(position * 2, from, mid);
+        int right = insert(position * 2 + 1, mid, to);
+        long pair = (((long) left) << Integer.SIZE) | (right & LOWER_MASK);
+        if (cacheValid && cachedPairs[position] == pair) {
+            return cachedNumbers[position];
+        }
+        Long2IntOpenHashMap table = pairToNumber[position];
+        int newNumber = table.size();
+        int number = table.putIfAbsent(pair, newNumber);
+        if (number == -1) {
+            number = newNumber;
+            numberToPair[position].add(pair);
+        }
+        cachedPairs[position] = pair;
+        cachedNumbers[position] = number;
+        return number;
+    }
+
+    private void extract(int position, int from, int to, int number) {
+        if (to - from == 1) {
+            leaves[from] = number;
+            return;
+        }
+        long pair;
+        if (cacheValid && cachedNumbers[position] == number) {
+            pair = cachedPairs[position];
+        } else {
+            pair = numberToPair[position].getLong(number);
+            cachedPairs[position] = pair;
+            cachedNumbers[position] = number;
+        }
+        int mid = (from + to) >>> 1;
+        extract(position * 2, from, mid, (int) (pair >>> Integer.SIZE));
+        extract(position * 2 + 1, mid, to, (int) (pair & LOWER_MASK));
+    }
+}
@@ -0,0 +1,206 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.value;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import epmc.messages.OptionsMessages;
+import epmc.modelchecker.Log;
+import epmc.options.Options;
+
+/**
+ * Memory backed by a temporary file mapped into memory.
+ * A single {@link MappedByteBuffer} can only cover up to 2GB. Thus, the
+ * file is mapped as a sequence of segments of fixed size, which allows to
+ * store arrays of more than 2GB. As the segment size is a multiple of the
+ * sizes of the primitive types stored, no entry spans two segments.
+ * The same file is used during the whole lifetime of the object. When the
+ * memory is resized, only the segments which change are mapped again, and
+ * the buffers no longer used are unmapped.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+final class MappedByteBufferSegments {
+    private final static String TMP_ENDING = "dat";
+    private final static int LOG2_SEGMENT_SIZE = 30;
+    private final static long SEGMENT_SIZE = 1L << LOG2_SEGMENT_SIZE;
+    private final static long SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private final String prefix;
+    private FileChannel channel;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private long numBytes;
+
+    MappedByteBufferSegments(String prefix) {
+        assert prefix != null;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Allocate new memory of the given size.
+     * Previous content is discarded. The new memory is filled with zeros.
+     * 
+     * @param numBytes number of bytes to allocate
+     */
+    void allocate(long numBytes) {
+        assert numBytes >= 0;
+        try {
+            unmap(0);
+            segments = new MappedByteBuffer[0];
+            this.numBytes = 0;
+            if (channel != null) {
+                channel.truncate(0);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        resize(numBytes);
+    }
+
+    /**
+     * Change the size of the memory.
+     * Content up to the minimum of old and new size is preserved. If the
+     * memory grows, the new part is filled with zeros.
+     * 
+     * @param numBytes new number of bytes
+     */
+    void resize(long numBytes) {
+        assert numBytes >= 0;
+        try {
+            if (channel == null) {
+                Path tmpFile = Files.createTempFile(prefix, TMP_ENDING);
+                channel = FileChannel.open(tmpFile, StandardOpenOption.WRITE, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+            int numSegments = (int) ((numBytes + SEGMENT_MASK) >>> LOG2_SEGMENT_SIZE);
+            /* full segments shared by the old and new size stay mapped */
+            int keep = (int) (Math.min(this.numBytes, numBytes) >>> LOG2_SEGMENT_SIZE);
+            unmap(keep);
+            if (numBytes < this.numBytes) {
+                channel.truncate(numBytes);
+            }
+            segments = Arrays.copyOf(segments, numSegments);
+            for (int segment = keep; segment < numSegments; segment++) {
+                long position = segment * SEGMENT_SIZE;
+                long size = Math.min(SEGMENT_SIZE, numBytes - position);
+                segments[segment] = channel.map(MapMode.READ_WRITE, position, size);
+            }
+            this.numBytes = numBytes;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Release the memory.
+     * All segments are unmapped and the temporary file is deleted. The
+     * object must not be used afterwards.
+     */
+    void close() {
+        unmap(0);
+        segments = new MappedByteBuffer[0];
+        numBytes = 0;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            channel = null;
+        }
+    }
+
+    private void unmap(int from) {
+        for (int segment = from; segment < segments.length; segment++) {
+            unmap(segments[segment]);
+            segments[segment] = null;
+        }
+    }
+
+    /**
+     * Unmap a buffer without waiting for it to be garbage collected.
+     * There is no public API for this, so the internal cleaner is called by
+     * reflection. If this fails, a message is logged and the buffer is
+     * unmapped once it is garbage collected.
+     * 
+     * @param buffer buffer to unmap
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", java.nio.ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (NoSuchMethodException e) {
+            try {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            } catch (ReflectiveOperationException | RuntimeException e2) {
+                logUnmapFailed(e2);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logUnmapFailed(e);
+        }
+    }
+
+    private static void logUnmapFailed(Exception exception) {
+        Options options = Options.get();
+        if (options == null) {
+            return;
+        }
+        Log log = options.get(OptionsMessages.LOG);
+        if (log == null) {
+            return;
+        }
+        log.send(MessagesValueBasic.MAPPED_BUFFER_UNMAP_FAILED, exception.toString());
+    }
+
+    int getInt(long offset) {
+        return segments[(int) (offset >>> LOG2_SEGMENT_SIZE)].getInt((int) (offset & SEGMENT_MASK));
+    }
+
+    void putInt(long offset, int value) {
+        segments[(int) (offset >>> LOG2_SEGMENT_SIZE)].putInt((int) (offset & SEGMENT_MASK), value);
+    }
+
+    double getDouble(long offset) {
+        return segments[(int) (offset >>> LOG2_SEGMENT_SIZE)].getDouble((int) (offset & SEGMENT_MASK));
+    }
+
+    void putDouble(long offset, double value) {
+        segments[(int) (offset >>> LOG2_SEGMENT_SIZE)].putDouble((int) (offset & SEGMENT_MASK), value);
+    }
+}
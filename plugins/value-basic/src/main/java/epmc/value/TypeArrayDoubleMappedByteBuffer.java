@@ -0,0 +1,85 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+package epmc.value;
+
+/**
+ * Type of double arrays stored in memory-mapped temporary files.
+ * Arrays of this type can be used to store data which does not fit into the
+ * Java heap.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class TypeArrayDoubleMappedByteBuffer implements TypeArrayReal {
+    private final static String ARRAY_INDICATOR = "[](double-mapped-byte-buffer)";
+    private final TypeDouble entryType;
+
+    public static TypeArrayDoubleMappedByteBuffer get() {
+        return ContextValue.get().makeUnique(new TypeArrayDoubleMappedByteBuffer(TypeDouble.get()));
+    }
+
+    public static boolean is(Type type) {
+        return type instanceof TypeArrayDoubleMappedByteBuffer;
+    }
+
+    TypeArrayDoubleMappedByteBuffer(TypeDouble entryType) {
+        assert entryType != null;
+        this.entryType = entryType;
+    }
+
+    @Override
+    public ValueArrayDoubleMappedByteBuffer newValue() {
+        return new ValueArrayDoubleMappedByteBuffer(this);
+    }
+
+    @Override
+    public TypeDouble getEntryType() {
+        return entryType;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof TypeArrayDoubleMappedByteBuffer)) {
+            return false;
+        }
+        TypeArrayDoubleMappedByteBuffer other = (TypeArrayDoubleMappedByteBuffer) obj;
+        return this.getEntryType().equals(other.getEntryType());
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        hash = getClass().hashCode() + (hash << 6) + (hash << 16) - hash;
+        hash = getEntryType().hashCode() + (hash << 6) + (hash << 16) - hash;
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(getEntryType());
+        builder.append(ARRAY_INDICATOR);
+        return builder.toString();
+    }
+
+    @Override
+    public TypeArrayGeneric getTypeArray() {
+        return new TypeArrayGeneric(this);
+    }
+}
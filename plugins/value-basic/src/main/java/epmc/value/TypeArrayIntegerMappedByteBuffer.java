@@ -20,17 +20,32 @@
 
 package epmc.value;
 
-final class TypeArrayIntegerMappedByteBuffer implements TypeArrayInteger {
+/**
+ * Type of integer arrays stored in memory-mapped temporary files.
+ * Arrays of this type can be used to store data which does not fit into the
+ * Java heap.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class TypeArrayIntegerMappedByteBuffer implements TypeArrayInteger {
     private final static String ARRAY_INDICATOR = "[](integer-mapped-byte-buffer)";
     private final TypeInteger entryType;
 
+    public static TypeArrayIntegerMappedByteBuffer get() {
+        return ContextValue.get().makeUnique(new TypeArrayIntegerMappedByteBuffer(TypeInteger.get()));
+    }
+
+    public static boolean is(Type type) {
+        return type instanceof TypeArrayIntegerMappedByteBuffer;
+    }
+
     TypeArrayIntegerMappedByteBuffer(TypeInteger entryType) {
         assert entryType != null;
         this.entryType = entryType;
     }
 
     @Override
-    public ValueArrayIntegerMappedByteBuffer newValue() {
+    public ValueArrayInteger newValue() {
         return new ValueArrayIntegerMappedByteBuffer(this);
     }
 
@@ -20,7 +20,8 @@
 
 package epmc.value;
 
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 
 public final class ValueArrayDoubleJava implements ValueArrayDouble, ValueContentDoubleArray, ValueBitStoreable {
     public static boolean is(Value value) {
@@ -110,7 +111,7 @@ public final class ValueArrayDoubleJava implements ValueArrayDouble, ValueConten
     }
 
     @Override
-    public void read(BitStream reader) {
+    public void read(BitStreamReader reader) {
         int size = reader.readInt();
         int newLength = content.length;
         while (size < newLength) {
@@ -123,7 +124,7 @@ public final class ValueArrayDoubleJava implements ValueArrayDouble, ValueConten
     }
 
     @Override
-    public void write(BitStream writer) {
+    public void write(BitStreamWriter writer) {
         writer.writeInt(size);
         for (int index = 0; index < size; index++) {
             writer.writeDouble(content[index]);
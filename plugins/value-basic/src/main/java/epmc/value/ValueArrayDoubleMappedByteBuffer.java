@@ -0,0 +1,130 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+package epmc.value;
+
+/**
+ * Array of doubles stored in a memory-mapped temporary file.
+ * Besides the generic access methods, the entries can be read and written
+ * as primitive doubles, such that numeric algorithms can work on the array
+ * without copying it to the Java heap.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class ValueArrayDoubleMappedByteBuffer implements ValueArrayDouble, ValueArrayMappedByteBuffer {
+    public static boolean is(Value value) {
+        return value instanceof ValueArrayDoubleMappedByteBuffer;
+    }
+
+    public static ValueArrayDoubleMappedByteBuffer as(Value value) {
+        if (is(value)) {
+            return (ValueArrayDoubleMappedByteBuffer) value;
+        } else {
+            return null;
+        }
+    }
+
+    private final static String TMP_PREFIX = "valueArrayDoubleMappedByteBuffer";
+    private final static String SPACE = " ";
+    private final MappedByteBufferSegments buffer = new MappedByteBufferSegments(TMP_PREFIX);
+    private final TypeArrayDoubleMappedByteBuffer type;
+    private int size;
+
+    ValueArrayDoubleMappedByteBuffer(TypeArrayDoubleMappedByteBuffer type) {
+        assert type != null;
+        this.type = type;
+        buffer.allocate(0);
+    }
+
+    public double getDouble(int index) {
+        assert index >= 0 : index;
+        assert index < size() : index + SPACE + size();
+        return buffer.getDouble(((long) index) * Double.BYTES);
+    }
+
+    public void setDouble(double value, int index) {
+        assert index >= 0 : index;
+        assert index < size() : index + SPACE + size();
+        buffer.putDouble(((long) index) * Double.BYTES, value);
+    }
+
+    @Override
+    public void set(Value value, int index) {
+        assert value != null;
+        setDouble(ValueNumber.as(value).getDouble(), index);
+    }
+
+    @Override
+    public void set(int entry, int index) {
+        setDouble(entry, index);
+    }
+
+    @Override
+    public void get(Value value, int index) {
+        assert value != null;
+        ValueDouble.as(value).set(getDouble(index));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int entryNr = 0; entryNr < size(); entryNr++) {
+            long entry = Double.doubleToRawLongBits(getDouble(entryNr));
+            hash = ((int) entry) + (hash << 6) + (hash << 16) - hash;
+            entry >>>= 32;
+            hash = ((int) entry) + (hash << 6) + (hash << 16) - hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public TypeArrayDoubleMappedByteBuffer getType() {
+        return type;
+    }
+
+    @Override
+    public void setSize(int size) {
+        assert size >= 0;
+        buffer.allocate(((long) size) * Double.BYTES);
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void resize(int size) {
+        assert size >= 0;
+        buffer.resize(((long) size) * Double.BYTES);
+        this.size = size;
+    }
+
+    @Override
+    public void close() {
+        buffer.close();
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return UtilValue.arrayToString(this);
+    }
+}
@@ -20,7 +20,8 @@
 
 package epmc.value;
 
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 
 final class ValueArrayIntegerJava implements ValueArrayInteger, ValueContentIntArray, ValueBitStoreable {
     private final static String SPACE = " ";
@@ -102,7 +103,7 @@ final class ValueArrayIntegerJava implements ValueArrayInteger, ValueContentIntA
     }
 
     @Override
-    public void read(BitStream reader) {
+    public void read(BitStreamReader reader) {
         int size = reader.readInt();
         int newLength = content.length;
         while (size < newLength) {
@@ -115,7 +116,7 @@ final class ValueArrayIntegerJava implements ValueArrayInteger, ValueContentIntA
     }
 
     @Override
-    public void write(BitStream writer) {
+    public void write(BitStreamWriter writer) {
         writer.writeInt(size);
         for (int index = 0; index < size; index++) {
             writer.writeInt(content[index]);
@@ -20,46 +20,28 @@
 
 package epmc.value;
 
-import java.io.IOException;
-import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
-import java.nio.channels.FileChannel.MapMode;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-
-final class ValueArrayIntegerMappedByteBuffer implements ValueArrayInteger {
+final class ValueArrayIntegerMappedByteBuffer implements ValueArrayInteger, ValueArrayMappedByteBuffer {
     private final static String TMP_PREFIX = "valueArrayIntegerMappedByteBuffer";
-    private final static String TMP_ENDING = "dat";
-    private FileChannel channel;
-    private MappedByteBuffer buffer;
+    private final MappedByteBufferSegments buffer = new MappedByteBufferSegments(TMP_PREFIX);
     private TypeArrayIntegerMappedByteBuffer type;
     private int size;
 
     ValueArrayIntegerMappedByteBuffer(TypeArrayIntegerMappedByteBuffer type) {
         assert type != null;
         this.type = type;
-        try {
-            Path tmpFile = Files.createTempFile("valueArrayIntegerMappedByteBuffer", "dat");
-            channel = FileChannel.open(tmpFile, StandardOpenOption.WRITE, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
-            buffer = channel.map(MapMode.READ_WRITE, 0, 0);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        buffer.allocate(0);
     }
 
     @Override
     public int getInt(int index) {
         assert index >= 0 : index;
         assert index < size() : index + " " + size();
-        int result = 0;
-        result = buffer.getInt(index * 4);
-        return result;
+        return buffer.getInt(((long) index) * Integer.BYTES);
     }
 
     @Override
     public void set(Value value, int index) {
-        buffer.putInt(index * 4, ValueInteger.as(value).getInt());
+        buffer.putInt(((long) index) * Integer.BYTES, ValueInteger.as(value).getInt());
     }
 
     @Override
@@ -76,14 +58,14 @@ final class ValueArrayIntegerMappedByteBuffer implements ValueArrayInteger {
     public void set(int value, int index) {
         assert index >= 0;
         assert index < size();
-        buffer.putInt(index * 4, value);
+        buffer.putInt(((long) index) * Integer.BYTES, value);
     }
 
     @Override
     public int hashCode() {
         int hash = 0;
         for (int i = 0; i < size(); i++) {
-            int entry = buffer.getInt(i * 4);
+            int entry = getInt(i);
             hash = entry + (hash << 6) + (hash << 16) - hash;
         }
         return hash;
@@ -92,14 +74,7 @@ final class ValueArrayIntegerMappedByteBuffer implements ValueArrayInteger {
     @Override
     public void setSize(int size) {
         assert size >= 0;
-        try {
-            Path tmpFile = Files.createTempFile(TMP_PREFIX, TMP_ENDING);
-            channel.close();
-            channel = FileChannel.open(tmpFile, StandardOpenOption.WRITE, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
-            buffer = channel.map(MapMode.READ_WRITE, 0, size * Integer.BYTES);
-        } catch (IOException e) {
-            assert false;
-        }
+        buffer.allocate(((long) size) * Integer.BYTES);
         this.size = size;
     }
 
@@ -108,6 +83,19 @@ final class ValueArrayIntegerMappedByteBuffer implements ValueArrayInteger {
         return size;
     }
 
+    @Override
+    public void resize(int size) {
+        assert size >= 0;
+        buffer.resize(((long) size) * Integer.BYTES);
+        this.size = size;
+    }
+
+    @Override
+    public void close() {
+        buffer.close();
+        size = 0;
+    }
+
     @Override
     public String toString() {
         return UtilValue.arrayToString(this);
@@ -0,0 +1,44 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+package epmc.value;
+
+/**
+ * Array stored in a memory-mapped temporary file.
+ * In contrast to {@link ValueArray#setSize(int)}, the array can be resized
+ * while keeping its content, without copying it.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public interface ValueArrayMappedByteBuffer extends ValueArray {
+    /**
+     * Change the size of the array, keeping its content.
+     * Content up to the minimum of old and new size is preserved. New
+     * entries are zero.
+     * 
+     * @param size new size of the array
+     */
+    void resize(int size);
+
+    /**
+     * Release the memory-mapped file of the array.
+     * The array must not be used afterwards.
+     */
+    void close();
+}
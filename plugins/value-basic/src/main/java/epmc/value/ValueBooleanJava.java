@@ -22,7 +22,8 @@ package epmc.value;
 
 import static epmc.error.UtilError.fail;
 
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 
 public final class ValueBooleanJava implements ValueBoolean {
     public static boolean is(Value value) {
@@ -114,14 +115,14 @@ public final class ValueBooleanJava implements ValueBoolean {
     }
 
     @Override
-    public void read(BitStream reader) {
+    public void read(BitStreamReader reader) {
         assert !isImmutable();
         assert reader != null;
         set(reader.read());
     }
 
     @Override
-    public void write(BitStream writer) {
+    public void write(BitStreamWriter writer) {
         assert writer != null;
         writer.write(getBoolean());
     }
@@ -1,7 +1,8 @@
 package epmc.value;
 
 import epmc.options.Options;
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 
 import static epmc.error.UtilError.fail;
 
@@ -135,12 +136,12 @@ public final class ValueDoubleJava implements ValueDouble {
     }
 
     @Override
-    public void read(BitStream reader) {
+    public void read(BitStreamReader reader) {
         value = reader.readDouble();
     }
 
     @Override
-    public void write(BitStream writer) {
+    public void write(BitStreamWriter writer) {
         writer.writeDouble(value);
     }
 }
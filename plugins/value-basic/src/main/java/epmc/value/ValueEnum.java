@@ -20,7 +20,8 @@
 
 package epmc.value;
 
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 
 public final class ValueEnum implements ValueEnumerable, ValueNumBitsKnown, ValueBitStoreable {
     public static boolean is(Value value) {
@@ -100,7 +101,7 @@ public final class ValueEnum implements ValueEnumerable, ValueNumBitsKnown, Valu
     }
 
     @Override
-    public void write(BitStream writer) {
+    public void write(BitStreamWriter writer) {
         assert writer != null;
         int value = this.value.ordinal();
         int marker = 1;
@@ -111,7 +112,7 @@ public final class ValueEnum implements ValueEnumerable, ValueNumBitsKnown, Valu
     }
 
     @Override
-    public void read(BitStream reader) {
+    public void read(BitStreamReader reader) {
         assert !isImmutable();
         assert reader != null;
         int value = 0;
@@ -22,7 +22,8 @@ package epmc.value;
 
 import static epmc.error.UtilError.fail;
 
-import epmc.util.BitStream;
+import epmc.util.BitStreamReader;
+import epmc.util.BitStreamWriter;
 
 public final class ValueIntegerJava implements ValueInteger, ValueEnumerable, ValueRange {
     public static boolean is(Value value) {
@@ -87,7 +88,7 @@ public final class ValueIntegerJava implements ValueInteger, ValueEnumerable, Va
     }
 
     @Override
-    public void read(BitStream reader) {
+    public void read(BitStreamReader reader) {
         assert reader != null;
         if (bothBounded) {
             int value = reader.readInt(getNumBits());
@@ -100,7 +101,7 @@ public final class ValueIntegerJava implements ValueInteger, ValueEnumerable, Va
     }
 
     @Override
-    public void write(BitStream writer) {
+    public void write(BitStreamWriter writer) {
         assert writer != null;
         if (bothBounded) {
             int value = this.value;
@@ -1,10 +1,12 @@
 package epmc.value.operatorevaluator;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.google.common.collect.Lists;
 
@@ -15,7 +17,12 @@ import epmc.value.OperatorEvaluatorFactory;
 import epmc.value.Type;
 
 public final class SimpleEvaluatorFactory implements OperatorEvaluatorFactory {
-    private final static Map<ContextValue,SimpleEvaluatorFactory> MAP = new HashMap<>();
+    /**
+     * Factories of the value contexts used. Weak keys are used so that value
+     * contexts, e.g. those of tasks of long-running servers, can be garbage
+     * collected once they are no longer used.
+     */
+    private final static Map<ContextValue,SimpleEvaluatorFactory> MAP = new WeakHashMap<>();
     
     public final static SimpleEvaluatorFactory get() {
         SimpleEvaluatorFactory result = MAP.get(ContextValue.get());
@@ -48,59 +55,159 @@ public final class SimpleEvaluatorFactory implements OperatorEvaluatorFactory {
             if (!this.operator.equals(other.operator)) {
                 return false;
             }
-            if (!Arrays.equals(types, types)) {
+            if (!Arrays.equals(types, other.types)) {
                 return false;
             }
             return true;
         }
     }
     
-    private final List<Class<? extends OperatorEvaluatorSimpleBuilder>> evaluators = new ArrayList<>();
+    /** Entry of the table of builders already found. */
+    private final static class CacheEntry {
+        /** Operand types, copied from the types of the first request. */
+        private final Type[] types;
+        /** Builder class providing the evaluator. */
+        private final Class<? extends OperatorEvaluatorSimpleBuilder> clazz;
+
+        CacheEntry(Type[] types, Class<? extends OperatorEvaluatorSimpleBuilder> clazz) {
+            this.types = types;
+            this.clazz = clazz;
+        }
+    }
+
+    /**
+     * Objects used by a single thread to look up builders.
+     * They allow looking up builders for operators of fixed arity without
+     * allocating objects and without locking.
+     */
+    private final static class Probe {
+        /** Key used to look up builders. */
+        private final CacheKey key = new CacheKey();
+        /** Operand types array for unary operators. */
+        private final Type[] types1 = new Type[1];
+        /** Operand types array for binary operators. */
+        private final Type[] types2 = new Type[2];
+    }
+
+    private final List<Class<? extends OperatorEvaluatorSimpleBuilder>> evaluators = new CopyOnWriteArrayList<>();
     private final List<Class<? extends OperatorEvaluatorSimpleBuilder>> evaluatorsReversed = Lists.reverse(evaluators);
-    private final CacheKey testEntry = new CacheKey();
-    private final Map<CacheKey,Class<? extends OperatorEvaluatorSimpleBuilder>> tryMap = new HashMap<>();
+    /** Lookup objects, for each thread separately. */
+    private final ThreadLocal<Probe> probes = ThreadLocal.withInitial(Probe::new);
+    /**
+     * Builders already found to provide an evaluator for an operator and
+     * operand types. Evaluators may contain auxiliary values used while
+     * applying them, so only the builder is stored and a new evaluator is
+     * built on each request. Requests no builder can handle are not stored,
+     * as builders added later might be able to handle them.
+     */
+    private final Map<CacheKey,CacheEntry> tryMap = new ConcurrentHashMap<>();
+    /** Number of evaluator requests. */
+    private final LongAdder numLookups = new LongAdder();
+    /** Number of evaluator requests for which all builders had to be tried. */
+    private final LongAdder numMisses = new LongAdder();
 
+    /**
+     * Add a builder for operator evaluators.
+     * Builders added later take precedence over builders added before. The
+     * builders already found for previous requests are thus forgotten.
+     * 
+     * @param clazz class of the builder to add
+     */
     public void add(Class<? extends OperatorEvaluatorSimpleBuilder> clazz) {
         assert clazz != null;
         evaluators.add(clazz);
+        tryMap.clear();
     }
-    
+
     @Override
     public OperatorEvaluator getEvaluator(Operator operator, Type... types) {
-        testEntry.operator = operator;
-        testEntry.types = types;
-        Class<? extends OperatorEvaluatorSimpleBuilder> tryClazz = tryMap.get(testEntry);
-        if (tryClazz != null) {
-            try {
-                OperatorEvaluatorSimpleBuilder builder = tryClazz.newInstance();
-                builder.setOperator(operator);
-                builder.setTypes(types);
-                OperatorEvaluator evaluator = builder.build();
-                if (evaluator != null) {
-                    return evaluator;
-                }
-            } catch (InstantiationException | IllegalAccessException e) {
-                throw new RuntimeException(e);
+        return lookup(probes.get(), operator, types);
+    }
+
+    @Override
+    public OperatorEvaluator getEvaluator(Operator operator, Type type) {
+        Probe probe = probes.get();
+        probe.types1[0] = type;
+        return lookup(probe, operator, probe.types1);
+    }
+
+    @Override
+    public OperatorEvaluator getEvaluator(Operator operator, Type type1, Type type2) {
+        Probe probe = probes.get();
+        probe.types2[0] = type1;
+        probe.types2[1] = type2;
+        return lookup(probe, operator, probe.types2);
+    }
+
+    /**
+     * Get the number of operator evaluators requested so far.
+     * 
+     * @return number of operator evaluators requested so far
+     */
+    public long getNumLookups() {
+        return numLookups.sum();
+    }
+
+    /**
+     * Get the number of evaluator requests not answered using the table of
+     * builders already found. For these requests, all builders had to be
+     * tried.
+     * 
+     * @return number of evaluator requests not answered using the table
+     */
+    public long getNumMisses() {
+        return numMisses.sum();
+    }
+
+    /**
+     * Obtain a new evaluator for the given operator and operand types.
+     * If a builder has already been found for the operator and types, only
+     * this builder is tried. Otherwise, all builders are tried, and the one
+     * providing the evaluator is stored. The types array is copied before
+     * any builder is used, and only the copy is passed to builders, so that
+     * the arrays of the probe can be reused by nested requests.
+     * 
+     * @param probe lookup objects of the current thread
+     * @param operator operator to obtain evaluator for
+     * @param types operand types to obtain evaluator for
+     * @return new evaluator, or {@code null} if none is available
+     */
+    private OperatorEvaluator lookup(Probe probe, Operator operator, Type[] types) {
+        numLookups.increment();
+        probe.key.operator = operator;
+        probe.key.types = types;
+        CacheEntry entry = tryMap.get(probe.key);
+        if (entry != null) {
+            OperatorEvaluator evaluator = build(entry.clazz, operator, entry.types);
+            if (evaluator != null) {
+                return evaluator;
             }
         }
+        numMisses.increment();
+        Type[] typesCopy = types.clone();
         for (Class<? extends OperatorEvaluatorSimpleBuilder> clazz : evaluatorsReversed) {
-            try {
-                OperatorEvaluatorSimpleBuilder builder = clazz.newInstance();
-                builder.setOperator(operator);
-                builder.setTypes(types);
-                OperatorEvaluator evaluator = builder.build();
-                if (evaluator != null) {
-                    CacheKey newEntry = new CacheKey();
-                    newEntry.operator = operator;
-                    newEntry.types = types;
-                    tryMap.put(newEntry, clazz);
-                    return evaluator;
-                }
-            } catch (InstantiationException | IllegalAccessException e) {
-                throw new RuntimeException(e);
+            OperatorEvaluator evaluator = build(clazz, operator, typesCopy);
+            if (evaluator != null) {
+                CacheKey newEntry = new CacheKey();
+                newEntry.operator = operator;
+                newEntry.types = typesCopy;
+                tryMap.put(newEntry, new CacheEntry(typesCopy, clazz));
+                return evaluator;
             }
         }
         return null;
     }
 
+    private static OperatorEvaluator build(Class<? extends OperatorEvaluatorSimpleBuilder> clazz,
+            Operator operator, Type[] types) {
+        try {
+            OperatorEvaluatorSimpleBuilder builder = clazz.newInstance();
+            builder.setOperator(operator);
+            builder.setTypes(types);
+            return builder.build();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 }
@@ -0,0 +1,225 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc;
+
+import static epmc.modelchecker.TestHelper.close;
+import static epmc.modelchecker.TestHelper.prepare;
+import static epmc.modelchecker.TestHelper.prepareOptions;
+import static epmc.modelchecker.TestHelper.processBeforeModelLoading;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import epmc.dd.ContextDD;
+import epmc.dd.DD;
+import epmc.dd.OptionsDD;
+import epmc.main.options.UtilOptionsEPMC;
+import epmc.modelchecker.TestHelper;
+import epmc.operator.OperatorDivide;
+import epmc.options.Options;
+import epmc.plugin.OptionsPlugin;
+import epmc.value.TypeDouble;
+import epmc.value.ValueDouble;
+import epmc.value.ValueNumber;
+
+/**
+ * Tests for the pure-Java MTBDD library.
+ * Terminal arithmetic, abstraction and repeated operations are compared to
+ * the results of the CUDD MTBDD library. The Java library is also run with a
+ * computed table of a single slot and a minimal node table, so that cache
+ * collisions, growth of the node table and garbage collection are exercised.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class JavaMTBDDTest {
+    private final static String PLUGIN_DIR = System.getProperty(TestHelper.USER_DIR) + "/../plugins/dd-java-mtbdd/target/classes/";
+    private final static String DD_JAVA_MTBDD_INIT_NODES = "dd-java-mtbdd-init-nodes";
+    private final static String DD_JAVA_MTBDD_CACHE_SLOTS = "dd-java-mtbdd-cache-slots";
+    private final static String JAVA_MTBDD = "java-mtbdd";
+    private final static String CUDD_MTBDD = "cudd-mtbdd";
+    private final static String DEFAULT_INIT_NODES = "65536";
+    private final static String DEFAULT_CACHE_SLOTS = "262144";
+    private final static String MINIMAL_INIT_NODES = "16";
+    private final static String MINIMAL_CACHE_SLOTS = "1";
+    /** Library, initial number of nodes, and computed table slots to use. */
+    private final static String[][] CONFIGURATIONS = {
+            {CUDD_MTBDD, DEFAULT_INIT_NODES, DEFAULT_CACHE_SLOTS},
+            {JAVA_MTBDD, DEFAULT_INIT_NODES, DEFAULT_CACHE_SLOTS},
+            {JAVA_MTBDD, MINIMAL_INIT_NODES, MINIMAL_CACHE_SLOTS}
+    };
+    private final static int NUM_VARIABLES = 10;
+    private final static double TOLERANCE = 1E-12;
+
+    @BeforeClass
+    public static void initialise() {
+        prepare();
+    }
+
+    private static Options prepareJavaMTBDDOptions() {
+        Options options = UtilOptionsEPMC.newOptions();
+        options.set(OptionsPlugin.PLUGIN, PLUGIN_DIR);
+        prepareOptions(options);
+        processBeforeModelLoading(options);
+        return options;
+    }
+
+    @Test
+    public void terminalArithmeticTest() {
+        Options options = prepareJavaMTBDDOptions();
+        double[] expected = {0.1 + 0.2, 0.1 - 0.2, 0.1 * 0.2, 0.1 / 0.2, 0.2, 0.1};
+        for (String[] configuration : CONFIGURATIONS) {
+            ContextDD contextDD = newContextDD(options, configuration);
+            DD a = newConstant(contextDD, 0.1);
+            DD b = newConstant(contextDD, 0.2);
+            DD[] results = {a.add(b), a.subtract(b), a.multiply(b),
+                    a.apply(b, OperatorDivide.DIVIDE), a.max(b), a.min(b)};
+            double[] values = new double[results.length];
+            for (int resultNr = 0; resultNr < results.length; resultNr++) {
+                assertTrue(results[resultNr].isLeaf());
+                values[resultNr] = getDouble(results[resultNr]);
+            }
+            assertArrayEquals(expected, values, 0.0);
+            contextDD.close();
+        }
+        close(options);
+    }
+
+    @Test
+    public void terminalUniquenessTest() {
+        Options options = prepareJavaMTBDDOptions();
+        for (String[] configuration : CONFIGURATIONS) {
+            ContextDD contextDD = newContextDD(options, configuration);
+            DD a = newConstant(contextDD, 0.1);
+            DD b = newConstant(contextDD, 0.2);
+            assertEquals(a, newConstant(contextDD, 0.1));
+            assertNotEquals(a, b);
+            assertEquals(newConstant(contextDD, 0.1 + 0.2), a.add(b));
+            if (configuration[0].equals(JAVA_MTBDD)) {
+                assertEquals(newConstant(contextDD, 0.0), newConstant(contextDD, -0.0));
+            }
+            contextDD.close();
+        }
+        close(options);
+    }
+
+    @Test
+    public void abstractionTest() {
+        Options options = prepareJavaMTBDDOptions();
+        double harmonic = 0.0;
+        for (int varNr = 0; varNr < NUM_VARIABLES; varNr++) {
+            harmonic += 1.0 / (varNr + 1);
+        }
+        double[] cudd = null;
+        for (String[] configuration : CONFIGURATIONS) {
+            ContextDD contextDD = newContextDD(options, configuration);
+            List<DD> variables = newVariables(contextDD);
+            DD cube = contextDD.listToCube(variables);
+            DD sum = newSum(contextDD, variables);
+            DD square = sum.multiply(sum);
+            double[] values = {
+                    getDouble(sum.abstractSum(cube)),
+                    getDouble(sum.abstractMax(cube)),
+                    getDouble(sum.abstractMin(cube)),
+                    getDouble(square.abstractSum(cube)),
+                    sum.countNodesInt(),
+                    square.countNodesInt()
+            };
+            assertEquals((1 << (NUM_VARIABLES - 1)) * harmonic, values[0], TOLERANCE);
+            assertEquals(harmonic, values[1], TOLERANCE);
+            assertEquals(0.0, values[2], TOLERANCE);
+            if (cudd == null) {
+                cudd = values;
+            } else {
+                assertArrayEquals(cudd, values, TOLERANCE);
+            }
+            contextDD.close();
+        }
+        close(options);
+    }
+
+    @Test
+    public void repeatedOperationTest() {
+        Options options = prepareJavaMTBDDOptions();
+        for (String[] configuration : CONFIGURATIONS) {
+            ContextDD contextDD = newContextDD(options, configuration);
+            List<DD> variables = newVariables(contextDD);
+            DD cube = contextDD.listToCube(variables);
+            DD sum = newSum(contextDD, variables);
+            DD square = sum.multiply(sum);
+            long numNodes = contextDD.getNumNodes();
+            assertEquals(square, sum.multiply(sum));
+            assertEquals(numNodes, contextDD.getNumNodes());
+            assertEquals(square.abstractSum(cube), square.abstractSum(cube));
+            contextDD.close();
+        }
+        close(options);
+    }
+
+    private static ContextDD newContextDD(Options options, String[] configuration) {
+        options.set(OptionsDD.DD_MULTI_ENGINE, configuration[0]);
+        options.set(DD_JAVA_MTBDD_INIT_NODES, configuration[1]);
+        options.set(DD_JAVA_MTBDD_CACHE_SLOTS, configuration[2]);
+        return new ContextDD();
+    }
+
+    private static List<DD> newVariables(ContextDD contextDD) {
+        List<DD> variables = new ArrayList<>();
+        for (int varNr = 0; varNr < NUM_VARIABLES; varNr++) {
+            variables.add(contextDD.newVariable());
+        }
+        return variables;
+    }
+
+    /**
+     * Construct the sum of x_i * 1/(i+1) over the variables x_i given.
+     * 
+     * @param contextDD DD context to use
+     * @param variables variables to construct sum of
+     * @return sum constructed
+     */
+    private static DD newSum(ContextDD contextDD, List<DD> variables) {
+        DD result = newConstant(contextDD, 0.0);
+        for (int varNr = 0; varNr < variables.size(); varNr++) {
+            DD summand = variables.get(varNr).ite(newConstant(contextDD, 1.0 / (varNr + 1)),
+                    newConstant(contextDD, 0.0));
+            result = result.addWith(summand);
+        }
+        return result;
+    }
+
+    private static DD newConstant(ContextDD contextDD, double value) {
+        ValueDouble constant = TypeDouble.get().newValue();
+        constant.set(value);
+        return contextDD.newConstant(constant);
+    }
+
+    private static double getDouble(DD dd) {
+        assert dd.isLeaf();
+        return ValueNumber.as(dd.value()).getDouble();
+    }
+}
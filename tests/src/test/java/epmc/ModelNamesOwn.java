@@ -49,11 +49,19 @@ public final class ModelNamesOwn {
     public static final String WRONG_ASSIGNMENT_INIT = PREFIX + "wrong-assignment-init.prism";
     public static final String CLUSTER_DTMC_3_SALOMON = PREFIX + "clusterDTMC3Salomon.prism";
     public static final String PETERSON = PREFIX + "petersonWP-nostorage-rid.prism";
+    /** Fair gambler's ruin on 0..N started in 1, winning with probability 1/N. */
+    public static final String GAMBLERS_RUIN = PREFIX + "gamblersRuin.prism";
     
     public final static String PAUL_GAINER_SMALL = PREFIX + "model-mirollo-strogatz-6-10-0.1-1-0-False.prism";
     public final static String PAUL_GAINER_MEDIUM = PREFIX + "model-mirollo-strogatz-7-10-0.1-1-0-False.prism";
     /** Model testing correct recognition of PCTL properties. */
     public final static String PCTL_RECOGNITION_TEST = PREFIX + "pctl-recognition-test.prism";
+    /** MDP chaining N nontrivial strongly connected components through trivial ones. */
+    public final static String LAYERED_COMPONENTS = PREFIX + "layeredComponents.prism";
+    /** DTMC leaving its initial state with probability 1/500 per step. */
+    public final static String SLOW_CONVERGENCE_DTMC = PREFIX + "slowConvergenceDTMC.prism";
+    /** MDP choosing between leaving its initial state slowly or at once. */
+    public final static String SLOW_CONVERGENCE_MDP = PREFIX + "slowConvergenceMDP.prism";
     
     /**
      * Private constructor to prevent instantiation of this class.
@@ -0,0 +1,78 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc;
+
+import static epmc.ModelNamesOwn.*;
+import static epmc.TestHelperValueIteration.*;
+import static epmc.modelchecker.TestHelper.close;
+import static epmc.modelchecker.TestHelper.prepare;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import epmc.options.Options;
+import epmc.value.Value;
+import epmc.value.ValueNumber;
+
+/**
+ * Tests for optimistic value iteration.
+ * The models used leave their initial state only with a small probability
+ * per step, so that plain value iteration stops far from the actual values.
+ * Optimistic value iteration must only stop once its upper bound has been
+ * verified, and thus be within the tolerance used.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class OptimisticValueIterationTest {
+    private final static String OPTIMISTIC_SOLVER = "graph-solver-iterative-unbounded-reachability-optimistic-java";
+    private final static String OPTIMISTIC = "optimistic";
+    private final static String TOLERANCE = "1.0E-3";
+    private final static double TOLERANCE_VALUE = 1E-3;
+
+    @BeforeClass
+    public static void initialise() {
+        prepare();
+    }
+
+    @Test
+    public void dtmcReachabilityTest() {
+        Options options = prepareValueIterationOptions();
+        check(options, SLOW_CONVERGENCE_DTMC, "P=? [ F s=1 ]", 0.5);
+        close(options);
+    }
+
+    @Test
+    public void mdpReachabilityTest() {
+        Options options = prepareValueIterationOptions();
+        check(options, SLOW_CONVERGENCE_MDP, "Pmax=? [ F s=1 ]", 0.5);
+        check(options, SLOW_CONVERGENCE_MDP, "Pmin=? [ F s=1 ]", 0.3);
+        close(options);
+    }
+
+    private static void check(Options options, String model,
+            String property, double expected) {
+        assertPlainStopsEarly(options, model, property, expected, TOLERANCE);
+        Value result = computeResult(options, model, property,
+                GAUSS_SEIDEL, OPTIMISTIC, TOLERANCE, OPTIMISTIC_SOLVER);
+        assertEquals(expected, ValueNumber.as(result).getDouble(), TOLERANCE_VALUE);
+    }
+}
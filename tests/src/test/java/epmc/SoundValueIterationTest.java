@@ -0,0 +1,108 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc;
+
+import static epmc.ModelNamesOwn.*;
+import static epmc.TestHelperValueIteration.*;
+import static epmc.modelchecker.TestHelper.close;
+import static epmc.modelchecker.TestHelper.prepare;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import epmc.options.Options;
+import epmc.value.Value;
+import epmc.value.ValueNumber;
+
+/**
+ * Tests for interval iteration and sound value iteration.
+ * The models used leave their initial state only with a small probability
+ * per step, so that plain value iteration stops far from the actual values.
+ * Results of the sound solvers must however be within the tolerance used.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class SoundValueIterationTest {
+    private final static String[] SOUND_SOLVERS = {
+            "graph-solver-iterative-unbounded-reachability-sound-java",
+            "graph-solver-iterative-unbounded-cumulative-sound-java"
+    };
+    private final static String INTERVAL = "interval";
+    private final static String SOUND = "sound";
+    private final static String TOLERANCE = "1.0E-3";
+    private final static double TOLERANCE_VALUE = 1E-3;
+    private final static String REACH = "P=? [ F s=1 ]";
+    private final static String REACH_MAX = "Pmax=? [ F s=1 ]";
+    private final static String REACH_MIN = "Pmin=? [ F s=1 ]";
+    private final static String STEPS = "R{\"steps\"}=? [ F s>0 ]";
+    private final static String STEPS_MAX = "R{\"steps\"}max=? [ F s>0 ]";
+    private final static String STEPS_MIN = "R{\"steps\"}min=? [ F s>0 ]";
+
+    @BeforeClass
+    public static void initialise() {
+        prepare();
+    }
+
+    @Test
+    public void dtmcReachabilityTest() {
+        Options options = prepareValueIterationOptions();
+        assertPlainStopsEarly(options, SLOW_CONVERGENCE_DTMC, REACH, 0.5, TOLERANCE);
+        checkBothMethods(options, SLOW_CONVERGENCE_DTMC, REACH, 0.5);
+        close(options);
+    }
+
+    @Test
+    public void dtmcRewardTest() {
+        Options options = prepareValueIterationOptions();
+        assertPlainStopsEarly(options, SLOW_CONVERGENCE_DTMC, STEPS, 500.0, TOLERANCE);
+        checkBothMethods(options, SLOW_CONVERGENCE_DTMC, STEPS, 500.0);
+        close(options);
+    }
+
+    @Test
+    public void mdpReachabilityTest() {
+        Options options = prepareValueIterationOptions();
+        assertPlainStopsEarly(options, SLOW_CONVERGENCE_MDP, REACH_MAX, 0.5, TOLERANCE);
+        checkBothMethods(options, SLOW_CONVERGENCE_MDP, REACH_MAX, 0.5);
+        assertPlainStopsEarly(options, SLOW_CONVERGENCE_MDP, REACH_MIN, 0.3, TOLERANCE);
+        checkBothMethods(options, SLOW_CONVERGENCE_MDP, REACH_MIN, 0.3);
+        close(options);
+    }
+
+    @Test
+    public void mdpRewardTest() {
+        Options options = prepareValueIterationOptions();
+        assertPlainStopsEarly(options, SLOW_CONVERGENCE_MDP, STEPS_MAX, 500.0, TOLERANCE);
+        checkBothMethods(options, SLOW_CONVERGENCE_MDP, STEPS_MAX, 500.0);
+        checkBothMethods(options, SLOW_CONVERGENCE_MDP, STEPS_MIN, 1.0);
+        close(options);
+    }
+
+    private static void checkBothMethods(Options options, String model,
+            String property, double expected) {
+        for (String soundMethod : new String[]{INTERVAL, SOUND}) {
+            Value result = computeResult(options, model, property,
+                    GAUSS_SEIDEL, soundMethod, TOLERANCE, SOUND_SOLVERS);
+            assertEquals(expected, ValueNumber.as(result).getDouble(), TOLERANCE_VALUE);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc;
+
+import static epmc.modelchecker.TestHelper.prepareOptions;
+import static org.junit.Assert.assertTrue;
+
+import epmc.modelchecker.EngineExplicit;
+import epmc.modelchecker.TestHelper;
+import epmc.modelchecker.options.OptionsModelChecker;
+import epmc.options.Options;
+import epmc.value.Value;
+import epmc.value.ValueNumber;
+
+/**
+ * Helper functions for tests of the iterative graph solvers.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class TestHelperValueIteration {
+    private final static String GRAPHSOLVER_SOLVER = "graphsolver-solver";
+    private final static String GRAPHSOLVER_ITERATIVE_METHOD = "graphsolver-iterative-method";
+    private final static String GRAPHSOLVER_ITERATIVE_SOUND_METHOD = "graphsolver-iterative-sound-method";
+    private final static String GRAPHSOLVER_ITERATIVE_TOLERANCE = "graphsolver-iterative-tolerance";
+    private final static String COMMA = ",";
+    /** Distance, relative to the tolerance, considered far from a value. */
+    private final static double FAR_FACTOR = 10.0;
+
+    /** Plain value iteration solvers for unbounded reachability and rewards. */
+    public final static String[] PLAIN_SOLVERS = {
+            "graph-solver-iterative-unbounded-reachability-java",
+            "graph-solver-iterative-unbounded-cumulative-java"
+    };
+    public final static String JACOBI = "jacobi";
+    public final static String GAUSS_SEIDEL = "gauss-seidel";
+    /** Sound method of solvers not providing guaranteed error bounds. */
+    public final static String NONE = "none";
+    /** Default tolerance of the iterative solvers. */
+    public final static String DEFAULT_TOLERANCE = "1.0E-10";
+
+    /**
+     * Prepare options for tests of the iterative graph solvers.
+     * The explicit-state engine is selected.
+     * 
+     * @return options prepared
+     */
+    public static Options prepareValueIterationOptions() {
+        Options options = prepareOptions();
+        options.set(OptionsModelChecker.ENGINE, EngineExplicit.class);
+        return options;
+    }
+
+    /**
+     * Compute the value of a property using the given graph solvers.
+     * 
+     * @param options options to use
+     * @param modelFile model to analyse
+     * @param property property to compute value of
+     * @param method iteration method, {@link #JACOBI} or {@link #GAUSS_SEIDEL}
+     * @param soundMethod sound iteration method
+     * @param tolerance tolerance for stopping the iteration
+     * @param solvers graph solvers to allow
+     * @return value of the property
+     */
+    public static Value computeResult(Options options, String modelFile,
+            String property, String method, String soundMethod,
+            String tolerance, String... solvers) {
+        assert options != null;
+        assert modelFile != null;
+        assert property != null;
+        assert method != null;
+        assert soundMethod != null;
+        assert tolerance != null;
+        assert solvers != null;
+        options.set(GRAPHSOLVER_SOLVER, String.join(COMMA, solvers));
+        options.set(GRAPHSOLVER_ITERATIVE_METHOD, method);
+        options.set(GRAPHSOLVER_ITERATIVE_SOUND_METHOD, soundMethod);
+        options.set(GRAPHSOLVER_ITERATIVE_TOLERANCE, tolerance);
+        return TestHelper.computeResult(options, modelFile, property);
+    }
+
+    /**
+     * Assert that plain value iteration stops far from the actual value.
+     * This way, it is ensured that a model is suitable to test solvers which
+     * guarantee their results to be within the tolerance of the actual value.
+     * 
+     * @param options options to use
+     * @param modelFile model to analyse
+     * @param property property to compute value of
+     * @param expected actual value of the property
+     * @param tolerance tolerance for stopping the iteration
+     */
+    public static void assertPlainStopsEarly(Options options, String modelFile,
+            String property, double expected, String tolerance) {
+        Value plain = computeResult(options, modelFile, property,
+                GAUSS_SEIDEL, NONE, tolerance, PLAIN_SOLVERS);
+        double distance = Math.abs(ValueNumber.as(plain).getDouble() - expected);
+        assertTrue(distance > FAR_FACTOR * Double.parseDouble(tolerance));
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private TestHelperValueIteration() {
+    }
+}
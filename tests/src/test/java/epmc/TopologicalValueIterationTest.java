@@ -0,0 +1,84 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc;
+
+import static epmc.ModelNamesOwn.*;
+import static epmc.TestHelperValueIteration.*;
+import static epmc.modelchecker.TestHelper.assertEquals;
+import static epmc.modelchecker.TestHelper.close;
+import static epmc.modelchecker.TestHelper.prepare;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import epmc.options.Options;
+import epmc.value.Value;
+
+/**
+ * Tests for topological value iteration.
+ * The model used consists of a chain of strongly connected components. The
+ * values of each component depend on the ones of all components further
+ * along the chain, so that results are only correct if the components are
+ * solved in reverse topological order. Each result is also compared to the
+ * one of the plain value iteration solvers.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class TopologicalValueIterationTest {
+    private final static String TOPOLOGICAL = "graph-solver-iterative-unbounded-reachability-topological-java";
+    private final static double TOLERANCE = 1E-9;
+    /** (2/3)^16 */
+    private final static String LAYERED_MAX = "65536/43046721";
+    /** (1/2)^16 */
+    private final static String LAYERED_MIN = "1/65536";
+
+    @BeforeClass
+    public static void initialise() {
+        prepare();
+    }
+
+    @Test
+    public void layeredComponentsMaxTest() {
+        Options options = prepareValueIterationOptions();
+        checkBothMethods(options, "Pmax=? [ F c=N ]", LAYERED_MAX);
+        close(options);
+    }
+
+    @Test
+    public void layeredComponentsMinTest() {
+        Options options = prepareValueIterationOptions();
+        checkBothMethods(options, "Pmin=? [ F c=N ]", LAYERED_MIN);
+        close(options);
+    }
+
+    private static void checkBothMethods(Options options, String property,
+            String expected) {
+        Value plain = computeResult(options, LAYERED_COMPONENTS, property,
+                GAUSS_SEIDEL, NONE, DEFAULT_TOLERANCE, PLAIN_SOLVERS);
+        assertEquals(expected, plain, TOLERANCE);
+        for (String method : new String[]{JACOBI, GAUSS_SEIDEL}) {
+            Value result = computeResult(options, LAYERED_COMPONENTS, property,
+                    method, NONE, DEFAULT_TOLERANCE, TOPOLOGICAL);
+            assertEquals(expected, result, TOLERANCE);
+            assertEquals(plain, result, TOLERANCE);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/****************************************************************************
+
+    ePMC - an extensible probabilistic model checker
+    Copyright (C) 2017
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+ *****************************************************************************/
+
+package epmc.graph;
+
+import static epmc.graph.TestHelperGraph.exploreModelGraph;
+import static epmc.modelchecker.TestHelper.assertEquals;
+import static epmc.modelchecker.TestHelper.close;
+import static epmc.modelchecker.TestHelper.computeResult;
+import static epmc.modelchecker.TestHelper.prepare;
+import static epmc.modelchecker.TestHelper.prepareOptions;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import epmc.ModelNamesOwn;
+import epmc.graph.explicit.GraphExplicit;
+import epmc.graph.explicit.GraphExplicitSparse;
+import epmc.graphsolver.GraphSolverExplicit;
+import epmc.graphsolver.OptionsGraphsolver;
+import epmc.graphsolver.objective.GraphSolverObjectiveExplicitUnboundedReachability;
+import epmc.modelchecker.EngineExplicit;
+import epmc.modelchecker.options.OptionsModelChecker;
+import epmc.options.Options;
+import epmc.util.BitSet;
+import epmc.util.UtilBitSet;
+import epmc.util.Util;
+import epmc.value.Value;
+import epmc.value.ValueArrayDoubleMappedByteBuffer;
+
+/**
+ * Tests that models stored in memory-mapped files are solved without
+ * copying their transition structure to the Java heap.
+ * 
+ * @author Ernst Moritz Hahn
+ */
+public final class MappedGraphSolverTest {
+    private final static String EXPLICIT_GRAPH_MAPPED = "explicit-graph-mapped";
+    private final static String ITERATIVE_SOLVER_PREFIX = "graph-solver-iterative-";
+    private final static String UNBOUNDED_REACHABILITY_JAVA = "graph-solver-iterative-unbounded-reachability-java";
+
+    @BeforeClass
+    public static void initialise() {
+        prepare();
+    }
+
+    @Test
+    public void onlyMappedSolverHandlesMappedGraphTest() {
+        Options options = prepareMappedOptions();
+        GraphExplicit graph = exploreModelGraph(options, ModelNamesOwn.GAMBLERS_RUIN);
+        assertTrue(GraphExplicitSparse.isMapped(graph));
+        BitSet target = UtilBitSet.newBitSetUnbounded();
+        target.set(graph.getNumNodes() - 1);
+        GraphSolverObjectiveExplicitUnboundedReachability objective = new GraphSolverObjectiveExplicitUnboundedReachability();
+        objective.setGraph(graph);
+        objective.setMin(false);
+        objective.setTarget(target);
+        Map<String,Class<GraphSolverExplicit>> solverClasses = options.get(OptionsGraphsolver.GRAPHSOLVER_SOLVER_CLASS);
+        for (Map.Entry<String,Class<GraphSolverExplicit>> entry : solverClasses.entrySet()) {
+            if (!entry.getKey().startsWith(ITERATIVE_SOLVER_PREFIX)) {
+                continue;
+            }
+            GraphSolverExplicit solver = Util.getInstance(entry.getValue());
+            solver.setGraphSolverObjective(objective);
+            assertTrue(entry.getKey(), !solver.canHandle()
+                    || entry.getKey().equals(UNBOUNDED_REACHABILITY_JAVA));
+        }
+        close(options);
+    }
+
+    @Test
+    public void iterationGraphStaysMappedTest() {
+        Options options = prepareMappedOptions();
+        GraphExplicit graph = exploreModelGraph(options, ModelNamesOwn.GAMBLERS_RUIN);
+        BitSet target = UtilBitSet.newBitSetUnbounded();
+        target.set(graph.getNumNodes() - 1);
+        GraphBuilderExplicit builder = new GraphBuilderExplicit();
+        builder.setInputGraph(graph);
+        builder.addDerivedGraphProperties(graph.getGraphProperties());
+        builder.addDerivedNodeProperties(graph.getNodeProperties());
+        builder.addDerivedEdgeProperties(graph.getEdgeProperties());
+        builder.addSink(target);
+        builder.setUniformise(false);
+        builder.setReorder();
+        builder.setMapped(GraphExplicitSparse.isMapped(graph));
+        builder.build();
+        GraphExplicitSparse iterGraph = (GraphExplicitSparse) builder.getOutputGraph();
+        assertTrue(iterGraph.isMapped());
+        assertNull(iterGraph.getBoundsJava());
+        assertNull(iterGraph.getTargetsJava());
+        Value weights = iterGraph.getEdgeProperty(CommonProperties.WEIGHT).getContent();
+        assertTrue(weights instanceof ValueArrayDoubleMappedByteBuffer);
+        iterGraph.close();
+        close(options);
+    }
+
+    @Test
+    public void mappedResultTest() {
+        Options options = prepareMappedOptions();
+        Value result = computeResult(options, ModelNamesOwn.GAMBLERS_RUIN, "P=? [ F s=N ]");
+        assertEquals("1/10", result, 1E-8);
+        close(options);
+    }
+
+    private static Options prepareMappedOptions() {
+        Options options = prepareOptions();
+        options.set(OptionsModelChecker.ENGINE, EngineExplicit.class);
+        options.set(EXPLICIT_GRAPH_MAPPED, true);
+        Map<String,Object> constants = new HashMap<>();
+        constants.put("N", "10");
+        options.set(OptionsModelChecker.CONST, constants);
+        return options;
+    }
+}